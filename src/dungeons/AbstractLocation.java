@@ -19,7 +19,10 @@ public abstract class AbstractLocation implements Location {
   protected int col;
   private List<Players> dungeonPlayer;
   private Map<Direction, Location> neighbors;
+  private int neighborMask;
   private int arrowsInLocation;
+  private SmellField smellField;
+  private int smellId;
   
   /**
    * Construct an abstract location.
@@ -46,7 +49,10 @@ public abstract class AbstractLocation implements Location {
     this.col = c;
     this.dungeonPlayer = new ArrayList<>();
     this.neighbors = new HashMap<>();
+    this.neighborMask = 0;
     this.arrowsInLocation = 0;
+    this.smellField = null;
+    this.smellId = id;
   }
 
   @Override
@@ -90,6 +96,12 @@ public abstract class AbstractLocation implements Location {
           + "added.");
     }
     this.neighbors.put(neighborDirection, neighbor);
+    this.neighborMask |= 1 << neighborDirection.ordinal();
+  }
+  
+  @Override
+  public int getNeighborMask() {
+    return this.neighborMask;
   }
   
   @Override
@@ -143,4 +155,85 @@ public abstract class AbstractLocation implements Location {
   public int getArrowsInLocation() {
     return this.arrowsInLocation;
   }
+
+  @Override
+  public SmellLevel getSmellLevel() {
+    if (this.smellField != null) {
+      return this.smellField.getLevel(this.smellId);
+    }
+    return this.walkForSmell();
+  }
+  
+  /**
+   * Link the location to the smell field of its dungeon.
+   * 
+   * @param field smell field of the dungeon
+   * @param id location id in the smell field
+   */
+  void setSmellField(SmellField field, int id) {
+    this.smellField = field;
+    this.smellId = id;
+  }
+  
+  /**
+   * Spread the smell of a monster added to the location, if the location is 
+   * part of a dungeon.
+   */
+  protected void addSmell() {
+    if (this.smellField != null) {
+      this.smellField.addMonster(this.smellId);
+    }
+  }
+  
+  /**
+   * Take back the smell of a monster removed from the location, if the 
+   * location is part of a dungeon.
+   */
+  protected void removeSmell() {
+    if (this.smellField != null) {
+      this.smellField.removeMonster(this.smellId);
+    }
+  }
+  
+  /**
+   * Get the smell of a location that is not part of a dungeon by walking 
+   * the neighbors up to two positions away.
+   * 
+   * @return smell level
+   */
+  private SmellLevel walkForSmell() {
+    if (this.getMonster() != null) {
+      return SmellLevel.MONSTER;
+    }
+    int levelOne = 0;
+    int levelTwo = 0;
+    List<Location> visited = new ArrayList<>();
+    visited.add(this);
+    // Check for level one neighbors i.e. neighbors one position away
+    for (Location firstNeighbor : this.neighbors.values()) {
+      if (visited.contains(firstNeighbor)) {
+        continue;
+      }
+      visited.add(firstNeighbor);
+      if (firstNeighbor.getMonster() != null) {
+        levelOne += 1;
+        continue;
+      }
+      // Check for level two neighbors i.e. neighbors two positions away
+      for (Location secondNeighbor : firstNeighbor.getNeighbors().values()) {
+        if (!visited.contains(secondNeighbor)) {
+          visited.add(secondNeighbor);
+          if (secondNeighbor.getMonster() != null) {
+            levelTwo += 1;
+          }
+        }
+      }
+    }
+    if (levelOne > 0 || levelTwo > 1) {
+      return SmellLevel.TERRIBLE;
+    } else if (levelTwo == 1) {
+      return SmellLevel.SLIGHT;
+    }
+    return SmellLevel.NONE;
+  }
 }
@@ -1,6 +1,8 @@
 package dungeons;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -17,8 +19,11 @@ public class AdventureGame implements Game {
   
   private RandomNumberGenerator random;
   private Dungeons dungeon;
+  private int numOfRows;
+  private int numOfCols;
   private int numOfPlayers;
   private Players currPlayer;
+  private int currIndex;
   private List<Players> players;
   private Players winner;
   private Location start;
@@ -27,7 +32,15 @@ public class AdventureGame implements Game {
   private Boolean hasGameStarted;
   private Boolean isGameOver;
   private Boolean didPlayerReachEnd;
-  private List<String> visitedLocations;
+  private List<BitSet> visitedCells;
+  private int[] playerCells;
+  private GameListener[] listeners;
+  private CompactDungeon topology;
+  private long stateHash;
+  private boolean isHashed;
+  
+  private static final GameListener[] NO_LISTENERS = new GameListener[0];
+  private static final Treasure[] TREASURES = Treasure.values();
   
   /**
    * Construct an adventure game for the view. 
@@ -41,6 +54,7 @@ public class AdventureGame implements Game {
     }
     
     this.random = rand;
+    this.listeners = NO_LISTENERS;
   }
   
   /**
@@ -88,8 +102,54 @@ public class AdventureGame implements Game {
     this.random = rand;
     this.dungeon = new MazeDungeon(rows, columns, interconnectivity, 
         wrapping, treasureSpread, difficulty, this.random);
+    this.numOfRows = rows;
+    this.numOfCols = columns;
+    this.numOfPlayers = numPlayers;
+    this.currPlayer = null;
+    this.currIndex = 0;
+    this.players = new ArrayList<>();
+    this.start = null;
+    this.end = null;
+    this.isPlayerHere = false;
+    this.hasGameStarted = false;
+    this.isGameOver = false;
+    this.didPlayerReachEnd = false;
+    this.visitedCells = new ArrayList<>();
+    this.playerCells = new int[numPlayers];
+    this.listeners = NO_LISTENERS;
+  }
+  
+  /**
+   * Construct a Adventure Game on an existing dungeon, e.g. a CompactDungeon
+   * for very large grids.
+   * 
+   * @param numPlayers Number of players playing the game
+   * @param dungeon dungeon to play in, start and end not assigned yet
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of players is not equal to 1 or 2 
+   *                                  or if the dungeon or the random number 
+   *                                  generator is a null object
+   */
+  public AdventureGame(int numPlayers, Dungeons dungeon, 
+      RandomNumberGenerator rand) throws IllegalArgumentException {
+    if (numPlayers != 1 && numPlayers != 2) {
+      throw new IllegalArgumentException("The number of players must either be 1 or 2.");
+    }
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
+    
+    this.random = rand;
+    this.dungeon = dungeon;
+    this.numOfRows = dungeon.getAllLocations().size();
+    this.numOfCols = dungeon.getAllLocations().get(0).size();
     this.numOfPlayers = numPlayers;
     this.currPlayer = null;
+    this.currIndex = 0;
     this.players = new ArrayList<>();
     this.start = null;
     this.end = null;
@@ -97,12 +157,61 @@ public class AdventureGame implements Game {
     this.hasGameStarted = false;
     this.isGameOver = false;
     this.didPlayerReachEnd = false;
-    this.visitedLocations = new ArrayList<>();
+    this.visitedCells = new ArrayList<>();
+    this.playerCells = new int[numPlayers];
+    this.listeners = NO_LISTENERS;
+  }
+
+  /**
+   * Construct a Adventure Game in the state of a snapshot. The game plays in 
+   * a new CompactDungeon sharing the maze of the snapshot.
+   * 
+   * @param snapshot state of the game
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the snapshot or the random number 
+   *                                  generator is a null object
+   */
+  AdventureGame(GameSnapshot snapshot, RandomNumberGenerator rand) 
+      throws IllegalArgumentException {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("Game snapshot cannot be null.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
+    
+    CompactDungeon copy = snapshot.newDungeon();
+    this.random = rand;
+    this.dungeon = copy;
+    this.numOfRows = copy.getAllLocations().size();
+    this.numOfCols = copy.getNumberOfColumns();
+    this.topology = snapshot.getTopology();
+    this.numOfPlayers = snapshot.getNumberOfPlayers();
+    this.players = snapshot.newPlayers(copy);
+    this.currIndex = snapshot.getTurn();
+    this.currPlayer = this.players.get(this.currIndex);
+    this.winner = snapshot.getWinner() < 0 ? null : this.players.get(snapshot.getWinner());
+    this.start = copy.getStart();
+    this.end = copy.getEnd();
+    this.isPlayerHere = true;
+    this.hasGameStarted = true;
+    this.isGameOver = snapshot.isGameOver();
+    this.didPlayerReachEnd = snapshot.didPlayerReachEnd();
+    this.visitedCells = snapshot.newVisitedCells();
+    this.playerCells = new int[this.players.size()];
+    for (int i = 0; i < this.players.size(); i++) {
+      this.playerCells[i] = this.players.get(i).getCurrentLocation().getLocationNum();
+    }
+    this.listeners = NO_LISTENERS;
+    this.stateHash = snapshot.getStateHash();
+    this.isHashed = true;
   }
 
   @Override
   public void setupPlayerOne(int id) {
     this.players.add(new Player(id));
+    this.currIndex = 0;
     this.currPlayer = this.players.get(0);
     this.isPlayerHere = true;
   }
@@ -170,7 +279,11 @@ public class AdventureGame implements Game {
     this.start = this.dungeon.getStart();
     this.end = this.dungeon.getEnd();
     this.start.addPlayer(currPlayer);
-    this.visitedLocations.add(this.start.getLocationId());
+    this.visitedCells.clear();
+    for (int i = 0; i < this.players.size(); i++) {
+      this.visitedCells.add(new BitSet());
+      this.markVisited(i + 1, this.start);
+    }
     if (this.numOfPlayers == 2) {
       this.start.addPlayer(this.players.get(1));
     }
@@ -190,16 +303,21 @@ public class AdventureGame implements Game {
   @Override
   public String pickUpTreasures(List<Treasure> desiredTreasure) {
     String earlier = this.currPlayer.getPlayerDescription();
+    Location here = this.currPlayer.getCurrentLocation();
+    long before = this.hashOf(this.currIndex) ^ this.hashOf(here);
     
     try {
       this.currPlayer.pickTreasures(desiredTreasure);
     } catch (IllegalStateException s) {
       return s.getMessage();
     }
+    this.stateHash ^= before ^ this.hashOf(this.currIndex) ^ this.hashOf(here);
         
     String after = this.currPlayer.getPlayerDescription();
     
     if (!earlier.equals(after)) {
+      this.publish(GameEventType.TREASURE_COLLECTED, this.currPlayer, 
+          this.currPlayer.getCurrentLocation(), this.currPlayer.getCurrentLocation());
       return "The " + this.currPlayer.getPlayerId() + " has collected the available " 
           + desiredTreasure + " from the cave.\n"
           + this.currPlayer.getPlayerDescription();
@@ -210,8 +328,13 @@ public class AdventureGame implements Game {
   
   @Override
   public void pickUpArrows() {
+    Location here = this.currPlayer.getCurrentLocation();
+    long before = this.hashOf(this.currIndex) ^ this.hashOf(here);
     try {
       this.currPlayer.pickupArrows();
+      this.stateHash ^= before ^ this.hashOf(this.currIndex) ^ this.hashOf(here);
+      this.publish(GameEventType.ARROWS_PICKED, this.currPlayer, 
+          this.currPlayer.getCurrentLocation(), this.currPlayer.getCurrentLocation());
     } catch (IllegalStateException s) {
       // do nothing
     }
@@ -233,53 +356,56 @@ public class AdventureGame implements Game {
     
     try {
       boolean success = false;
+      long before = this.hashOfArrows(this.currIndex);
       currPlayer.useArrow();
+      this.stateHash ^= before ^ this.hashOfArrows(this.currIndex);
       
-      Location curr = this.currPlayer.getCurrentLocation();
-      
-      int i = 0;   
+      Location here = this.currPlayer.getCurrentLocation();
+      this.publish(GameEventType.ARROW_SHOT, this.currPlayer, here, here);
+      List<List<Location>> locations = this.dungeon.getAllLocations();
+      int columns = locations.get(0).size();
+      ArrowFlightTable flights = this.dungeon.getArrowFlights();
+      int from = here.getLocationNum();
+      int curr = from;
+      Direction towards = this.aimArrow(here, direction);
       
-      while (i < distance) {     
-        if (curr.getLocationId().charAt(0) == 'C') {
-          // Arrow in currPlayer's position cave, don't add to arrow distance
-          if (curr == this.currPlayer.getCurrentLocation()) {
-            i += 0;
-          } else {
-            // Arrow in other cave, add to the distance
-            i += 1;
-            // Reached the end destination for arrow
-            if (i == distance) {
-              // If monster in destination, successful shot
-              if (curr.getMonster() != null) {
-                curr.getMonster().hit();
-                if (this.checkIfMonsterDead(curr.getMonster())) {
-                  curr.removeMonster(curr.getMonster());
-                }
-                success = true;
-              } 
-              break;
-            }
-          }
-          
-          // If neighbor exists in direction
-          if (curr.getNeighbors().containsKey(direction)) {
-            // move the arrow to new location
-            curr = curr.getNeighbors().get(direction);
-          } else {
-            // no neighbor in required direction, arrow hits the wall
-            success = false;
+      int i = 0;
+      int returns = 0;
+      // Jump from cave to cave, tunnels are passed in a single jump
+      while (towards != null) {
+        int next = flights.getTarget(curr, towards);
+        if (next < 0) {
+          // no neighbor in required direction, arrow hits the wall
+          break;
+        }
+        towards = flights.getArrival(curr, towards);
+        curr = next;
+        if (curr == from) {
+          // Arrow in currPlayer's position cave, don't add to arrow distance,
+          // unless it keeps circling back without reaching another cave
+          returns += 1;
+          if (returns > Direction.values().length) {
             break;
           }
-        } else { 
-          for (Direction dir : curr.getNeighbors().keySet()) {
-            // find the other direction
-            if (dir != this.oppositeDirection(direction)) {
-              direction = dir;
-              // move the arrow to new position
-              curr = curr.getNeighbors().get(direction);
-              break;
+          continue;
+        }
+        // Arrow in other cave, add to the distance
+        i += 1;
+        // Reached the end destination for arrow
+        if (i == distance) {
+          Location target = locations.get(curr / columns).get(curr % columns);
+          // If monster in destination, successful shot
+          if (target.getMonster() != null) {
+            long health = this.hashOf(target);
+            target.getMonster().hit();
+            if (this.checkIfMonsterDead(target.getMonster())) {
+              target.removeMonster(target.getMonster());
             }
+            this.stateHash ^= health ^ this.hashOf(target);
+            success = true;
+            this.publish(GameEventType.MONSTER_HIT, this.currPlayer, target, target);
           }
+          break;
         }
       }
       this.hasGameEnded();
@@ -313,9 +439,40 @@ public class AdventureGame implements Game {
       nextPlayer = this.currPlayer == playerOne ? playerTwo : playerOne;
       
       if (nextPlayer.isAlive()) {
+        if (this.isHashed) {
+          this.stateHash ^= ZobristKeys.turn(0) ^ ZobristKeys.turn(1);
+        }
+        this.currIndex = 1 - this.currIndex;
         this.currPlayer = nextPlayer;
+        this.publish(GameEventType.TURN_CHANGED, nextPlayer, 
+            nextPlayer.getCurrentLocation(), nextPlayer.getCurrentLocation());
+      }
+    }
+  }
+  
+  /**
+   * Get the direction an arrow leaves the player's location in. An arrow 
+   * shot along a tunnel from inside it follows the tunnel, and an arrow shot 
+   * into the wall of a tunnel goes nowhere.
+   * 
+   * @param here player location
+   * @param direction direction the arrow is shot in
+   * @return direction the arrow leaves in or null if it hits the wall
+   */
+  private Direction aimArrow(Location here, Direction direction) {
+    Map<Direction, Location> exits = here.getNeighbors();
+    if (exits.size() != 2 || exits.containsKey(direction)) {
+      return direction;
+    }
+    if (!exits.containsKey(this.oppositeDirection(direction))) {
+      return null;
+    }
+    for (Direction exit : exits.keySet()) {
+      if (exit != this.oppositeDirection(direction)) {
+        return exit;
       }
     }
+    return null;
   }
   
   /**
@@ -348,13 +505,23 @@ public class AdventureGame implements Game {
     Location currentLocation = this.currPlayer.getCurrentLocation();
     Map<Direction, Location> currentNeighbors = currentLocation.getNeighbors();
     if (currentNeighbors.keySet().contains(towards)) {
+      long before = this.hashOfPosition(this.currIndex);
       try {
         currentNeighbors.get(towards).addPlayer(currPlayer);
         currentLocation.removePlayer(this.currPlayer);
-        this.visitedLocations.add(currPlayer.getCurrentLocation().getLocationId());
+        this.markVisited(this.players.indexOf(this.currPlayer) + 1, 
+            this.currPlayer.getCurrentLocation());
+        this.publish(GameEventType.PLAYER_MOVED, this.currPlayer, 
+            this.currPlayer.getCurrentLocation(), currentLocation);
         moveResult = this.fightBetweenMonsterAndPlayer();
+        if (!this.currPlayer.isAlive()) {
+          this.publish(GameEventType.PLAYER_KILLED, this.currPlayer, 
+              this.currPlayer.getCurrentLocation(), this.currPlayer.getCurrentLocation());
+        }
       } catch (IllegalStateException s) {
         return s.getMessage();
+      } finally {
+        this.stateHash ^= before ^ this.hashOfPosition(this.currIndex);
       }
       this.hasGameEnded();
     } else {
@@ -428,6 +595,7 @@ public class AdventureGame implements Game {
    * Check if the game has ended for single player and two player games.
    */
   private void hasGameEnded() {
+    boolean wasGameOver = this.isGameOver;
     // Single player game
     if (this.numOfPlayers == 1) {
       if (!this.currPlayer.isAlive()) {
@@ -453,6 +621,10 @@ public class AdventureGame implements Game {
         this.winner = this.currPlayer;
       }
     }   
+    if (this.isGameOver && !wasGameOver) {
+      this.publish(GameEventType.GAME_OVER, this.winner, 
+          this.currPlayer.getCurrentLocation(), this.currPlayer.getCurrentLocation());
+    }
   }
 
   @Override
@@ -508,7 +680,39 @@ public class AdventureGame implements Game {
 
   @Override
   public List<String> getVisitedLocations() {
-    return this.visitedLocations;
+    BitSet union = new BitSet();
+    for (BitSet cells : this.visitedCells) {
+      union.or(cells);
+    }
+    List<List<Location>> locations = this.dungeon.getAllLocations();
+    int columns = locations.get(0).size();
+    List<String> visited = new ArrayList<>(union.cardinality());
+    for (int i = union.nextSetBit(0); i >= 0; i = union.nextSetBit(i + 1)) {
+      visited.add(locations.get(i / columns).get(i % columns).getLocationId());
+    }
+    return visited;
+  }
+
+  @Override
+  public boolean isVisited(int row, int col) throws IllegalArgumentException {
+    int cell = this.getCellNumber(row, col);
+    for (BitSet cells : this.visitedCells) {
+      if (cells.get(cell)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public BitSet getVisitedCells(int player) throws IllegalArgumentException {
+    if (player < 1 || player > this.players.size()) {
+      throw new IllegalArgumentException("Player " + player + " is not playing.");
+    }
+    if (player > this.visitedCells.size()) {
+      return new BitSet();
+    }
+    return (BitSet) this.visitedCells.get(player - 1).clone();
   }
 
   @Override
@@ -520,4 +724,231 @@ public class AdventureGame implements Game {
   public String getPlayerTwoLocation() throws IllegalStateException {
     return this.players.get(1).getCurrentLocation().getLocationId();
   }
+
+  @Override
+  public int getNeighborMask(int row, int col) throws IllegalArgumentException {
+    return this.dungeon.getNeighborMask(this.getCellNumber(row, col));
+  }
+
+  @Override
+  public int getTreasureCount(int row, int col, Treasure treasure) 
+      throws IllegalArgumentException {
+    return this.dungeon.getTreasure(this.getCellNumber(row, col), treasure);
+  }
+
+  @Override
+  public int getArrowCount(int row, int col) throws IllegalArgumentException {
+    return this.dungeon.getArrows(this.getCellNumber(row, col));
+  }
+
+  @Override
+  public boolean hasMonster(int row, int col) throws IllegalArgumentException {
+    return this.dungeon.getMonster(this.getCellNumber(row, col)) != null;
+  }
+
+  @Override
+  public SmellLevel getSmellLevel(int row, int col) throws IllegalArgumentException {
+    return this.dungeon.getSmellField().getLevel(this.getCellNumber(row, col));
+  }
+
+  @Override
+  public int getPlayerRow(int player) throws IllegalArgumentException {
+    return this.getPlayerCell(player) / this.numOfCols;
+  }
+
+  @Override
+  public int getPlayerColumn(int player) throws IllegalArgumentException {
+    return this.getPlayerCell(player) % this.numOfCols;
+  }
+  
+  @Override
+  public GameSnapshot snapshot() throws IllegalStateException {
+    if (this.dungeon == null || !this.hasGameStarted) {
+      throw new IllegalStateException("The game must be started before "
+          + "taking a snapshot.");
+    }
+    if (this.topology == null) {
+      this.topology = CompactDungeon.topologyOf(this.dungeon);
+    }
+    return new GameSnapshot(this.topology, this.dungeon, this.numOfPlayers, 
+        this.players, this.players.indexOf(this.currPlayer), 
+        this.players.indexOf(this.winner), this.isGameOver, this.didPlayerReachEnd, 
+        this.visitedCells);
+  }
+
+  @Override
+  public long getStateHash() throws IllegalStateException {
+    if (!this.isHashed) {
+      // Hashed from scratch once, then kept up to date turn by turn
+      this.stateHash = this.snapshot().getStateHash();
+      this.isHashed = true;
+    }
+    return this.stateHash;
+  }
+
+  @Override
+  public Game copy() throws IllegalStateException {
+    return new AdventureGame(this.snapshot(), this.random);
+  }
+  
+  @Override
+  public void addGameListener(GameListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Game listener cannot be null.");
+    }
+    GameListener[] updated = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+    updated[this.listeners.length] = listener;
+    this.listeners = updated;
+  }
+
+  @Override
+  public void removeGameListener(GameListener listener) {
+    for (int i = 0; i < this.listeners.length; i++) {
+      if (this.listeners[i] == listener) {
+        GameListener[] updated = new GameListener[this.listeners.length - 1];
+        System.arraycopy(this.listeners, 0, updated, 0, i);
+        System.arraycopy(this.listeners, i + 1, updated, i, updated.length - i);
+        this.listeners = updated;
+        return;
+      }
+    }
+  }
+  
+  /**
+   * Notify the listeners of a change. Nothing is created when there are no 
+   * listeners, so an unobserved game pays only for the check.
+   * 
+   * @param type kind of change
+   * @param player player the change concerns, or null
+   * @param at location of the change
+   * @param from location a move started from, or the location of the change
+   */
+  private void publish(GameEventType type, Players player, Location at, Location from) {
+    GameListener[] current = this.listeners;
+    if (current.length == 0) {
+      return;
+    }
+    int[] position = at.getPosition();
+    int[] fromPosition = from.getPosition();
+    GameEvent event = new GameEvent(type, this.players.indexOf(player) + 1, 
+        position[0], position[1], fromPosition[0], fromPosition[1]);
+    for (GameListener listener : current) {
+      listener.gameChanged(event);
+    }
+  }
+  
+  /**
+   * Get the exclusive or of the Zobrist keys of a player: its location, 
+   * arrows, treasures and health. A turn xors out the keys of the players 
+   * and locations it changes before the change and xors them in after it.
+   * 
+   * @param index index of the player, 0 or 1
+   * @return keys of the player, 0 until the game is hashed
+   */
+  private long hashOf(int index) {
+    if (!this.isHashed) {
+      return 0;
+    }
+    Players player = this.players.get(index);
+    long hash = this.hashOfPosition(index) ^ this.hashOfArrows(index);
+    for (Treasure treasure : TREASURES) {
+      hash ^= ZobristKeys.playerTreasure(index, treasure, player.getTreasureCount(treasure));
+    }
+    return hash;
+  }
+  
+  /**
+   * Get the Zobrist keys of the location and health of a player, the only 
+   * keys a move changes.
+   * 
+   * @param index index of the player, 0 or 1
+   * @return keys of the position, 0 until the game is hashed
+   */
+  private long hashOfPosition(int index) {
+    if (!this.isHashed) {
+      return 0;
+    }
+    Players player = this.players.get(index);
+    return ZobristKeys.playerLocation(index, player.getCurrentLocation().getLocationNum())
+        ^ ZobristKeys.playerDead(index, player.isAlive());
+  }
+  
+  /**
+   * Get the Zobrist key of the arrows in hand of a player.
+   * 
+   * @param index index of the player, 0 or 1
+   * @return key of the arrows, 0 until the game is hashed
+   */
+  private long hashOfArrows(int index) {
+    if (!this.isHashed) {
+      return 0;
+    }
+    return ZobristKeys.playerArrows(index, this.players.get(index).getArrowsInHand());
+  }
+  
+  /**
+   * Get the exclusive or of the Zobrist keys of a location: its arrows, 
+   * treasures and monster health.
+   * 
+   * @param location location of the dungeon
+   * @return keys of the location, 0 until the game is hashed
+   */
+  private long hashOf(Location location) {
+    if (!this.isHashed) {
+      return 0;
+    }
+    int id = location.getLocationNum();
+    long hash = ZobristKeys.arrows(id, location.getArrowsInLocation());
+    for (Treasure treasure : TREASURES) {
+      hash ^= ZobristKeys.treasure(id, treasure, location.getTreasureCount(treasure));
+    }
+    Monsters monster = location.getMonster();
+    if (monster != null) {
+      hash ^= ZobristKeys.monster(id, monster.getHealth());
+    }
+    return hash;
+  }
+  
+  /**
+   * Mark a location as visited by a player.
+   * 
+   * @param player player number, 1 or 2
+   * @param location location visited
+   */
+  private void markVisited(int player, Location location) {
+    int[] position = location.getPosition();
+    int cell = this.getCellNumber(position[0], position[1]);
+    this.playerCells[player - 1] = cell;
+    this.visitedCells.get(player - 1).set(cell);
+  }
+  
+  /**
+   * Get the number of a position of the dungeon, counted row by row.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @return cell number
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  private int getCellNumber(int row, int col) throws IllegalArgumentException {
+    if (row < 0 || row >= this.numOfRows || col < 0 || col >= this.numOfCols) {
+      throw new IllegalArgumentException("Location (" + row + ", " + col 
+          + ") is outside the dungeon.");
+    }
+    return row * this.numOfCols + col;
+  }
+  
+  /**
+   * Get the cell number of the current location of a player.
+   * 
+   * @param player player number, 1 or 2
+   * @return cell number
+   * @throws IllegalArgumentException if there is no such player
+   */
+  private int getPlayerCell(int player) throws IllegalArgumentException {
+    if (player < 1 || player > this.players.size()) {
+      throw new IllegalArgumentException("Player " + player + " is not playing.");
+    }
+    return this.playerCells[player - 1];
+  }
 }
@@ -14,26 +14,57 @@ import java.util.Scanner;
  */
 public class AdventureGameConsoleController implements AdventureGameController {
   
+  private static final long AUTO_MILLIS_PER_MOVE = 500;
+  
   private Game game;
   private final Readable in;
   private final Appendable out;
+  private final MonteCarloBot autoPlayer;
+  private final RandomNumberGenerator random;
   
   /**
-   * Constructor for the controller.
+   * Constructor for the controller. The auto command searches each turn for 
+   * half a second on all processors.
    * 
    * @param rd  the source to read from
    * @param ap the target to print to
    * @param model a non-null adventure game model
    */
   public AdventureGameConsoleController(Readable rd, Appendable ap, Game model) {
+    this(rd, ap, model, new MonteCarloBot(AUTO_MILLIS_PER_MOVE, 
+        Runtime.getRuntime().availableProcessors()), new RandomNumberGeneratorDev());
+  }
+  
+  /**
+   * Constructor for the controller with the bot playing the auto command.
+   * 
+   * @param rd  the source to read from
+   * @param ap the target to print to
+   * @param model a non-null adventure game model
+   * @param bot bot that plays a turn when the player asks for it
+   * @param rand Random Number Generator object seeding the bot
+   * @throws IllegalArgumentException if the model, the bot or the random 
+   *                                  number generator is a null object
+   */
+  public AdventureGameConsoleController(Readable rd, Appendable ap, Game model, 
+      MonteCarloBot bot, RandomNumberGenerator rand) throws IllegalArgumentException {
     if (model == null) {
       throw new IllegalArgumentException("The game must be setup before starting to play "
           + "game.");
     }
+    if (bot == null) {
+      throw new IllegalArgumentException("Bot cannot be null.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
     
     this.game = model;
     this.in = rd;
     this.out = ap;
+    this.autoPlayer = bot;
+    this.random = rand;
   }
 
   @Override
@@ -66,7 +97,8 @@ public class AdventureGameConsoleController implements AdventureGameController {
         out.append("\n" + this.game.getAvailableMoves());
         out.append("\n\n---\n\n");
         
-        out.append("What would you like to do? Press:\nM: Move\n"
+        out.append("What would you like to do? Press U to let the computer play "
+            + "the turn, or:\nM: Move\n"
             + "T: Collect treasures\nA: Pickup arrows\nS: Shoot arrow"
             + "\nQ: Quit game");
         
@@ -86,6 +118,8 @@ public class AdventureGameConsoleController implements AdventureGameController {
           if (!this.shoot(scan)) {
             quitGame = true;
           }
+        } else if ("U".equalsIgnoreCase(next) || "AUTO".equalsIgnoreCase(next)) {
+          this.autoPlay();
         } else if ("Q".equalsIgnoreCase(next)) {
           quitGame = true;
         } else {
@@ -301,6 +335,16 @@ public class AdventureGameConsoleController implements AdventureGameController {
     }
   }
 
+  private void autoPlay() {
+    SearchReport report = this.autoPlayer.playMove(this.game, this.random);
+    try {
+      out.append("\nThe computer plays: " + report + "\n");
+      out.append(report.getOutcome());
+    } catch (IOException ioe) {
+      throw new IllegalStateException("Append failed while printing auto play output.", ioe);
+    }
+  }
+
   @Override
   public void handleCellClick(Direction dir) {
     // do nothing    
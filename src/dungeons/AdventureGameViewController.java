@@ -26,6 +26,9 @@ public class AdventureGameViewController implements AdventureGameController,
   private List<Integer> viewScan;
   private String[] config;
   
+  // Dungeons larger than the old 12 x 12 limit are kept in a CompactDungeon
+  private static final int LARGE_DUNGEON = 144;
+  
   /**
    * A constructor to create a controller linked to the view to manage I/O from 
    * the user through a GUI.
@@ -87,7 +90,14 @@ public class AdventureGameViewController implements AdventureGameController,
             break;
           }
         }
-        this.model.startGame();
+        try {
+          this.model.startGame();
+        } catch (IllegalStateException s) {
+          this.view.clearGame();
+          this.view.displayHomePage();
+          this.view.addListeners(this, this);
+          break;
+        }
         this.view.addControllerListener(this);
         this.view.displayMazeGame();
         this.view.displayGameStatus("Welcome to the Dungeon!!");
@@ -133,8 +143,13 @@ public class AdventureGameViewController implements AdventureGameController,
     int difficulty = Integer.parseInt(args[6]);
     
     // Initializing an adventure game with requested game features.
-    this.model = new AdventureGame(numOfPlayers, row, col, interconnectivity, wrapped, 
-          treasure, difficulty, random);
+    if (row * col > LARGE_DUNGEON) {
+      this.model = new AdventureGame(numOfPlayers, new CompactDungeon(row, col, 
+          interconnectivity, wrapped, treasure, difficulty, random), random);
+    } else {
+      this.model = new AdventureGame(numOfPlayers, row, col, interconnectivity, wrapped, 
+            treasure, difficulty, random);
+    }
     
     return numOfPlayers;
   }
@@ -193,8 +208,6 @@ public class AdventureGameViewController implements AdventureGameController,
     try {
       displayStatus(this.model.move(dir));
       viewScan.clear();
-      view.repaintView();
-      view.displayGameTurn();
       return "Success";
     } catch (IllegalArgumentException e) {
       displayStatus("You hit a wall, cannot move there!");
@@ -212,8 +225,6 @@ public class AdventureGameViewController implements AdventureGameController,
       try {
         displayStatus(this.model.shootArrow(dir, shootDis));
         viewScan.clear();
-        view.repaintView();
-        view.displayGameTurn();
       } catch (IllegalArgumentException e) {
         displayStatus(e.getMessage());
       } catch (IllegalStateException s) {
@@ -242,8 +253,6 @@ public class AdventureGameViewController implements AdventureGameController,
         default:
       }
       viewScan.clear();
-      view.repaintView();
-      view.displayGameTurn();
     }  
   }
   
@@ -251,8 +260,6 @@ public class AdventureGameViewController implements AdventureGameController,
     this.model.pickUpArrows();
     displayStatus(this.model.getPlayerStatus().split("\n")[1]);
     viewScan.clear();
-    view.repaintView();
-    view.displayGameTurn();
   }
   
   private void displayStatus(String status) {
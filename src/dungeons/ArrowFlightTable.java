@@ -0,0 +1,164 @@
+package dungeons;
+
+import java.util.Arrays;
+
+/**
+ * A jump table of arrow flights through a dungeon. For every location and 
+ * direction it holds the next cave an arrow reaches when it leaves the 
+ * location that way, and the direction the arrow travels as it enters that 
+ * cave. Arrows curve through tunnels, so whole chains of tunnels are one 
+ * entry and a shot only visits the caves on its way.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class ArrowFlightTable {
+  
+  /**
+   * Connected neighbors of the locations of a dungeon.
+   */
+  interface Neighbors {
+    
+    /**
+     * Get the connected neighbor of the location in the direction.
+     * 
+     * @param location location id
+     * @param towards direction of the neighbor
+     * @return neighbor location id or -1 if not connected
+     */
+    int get(int location, Direction towards);
+  }
+  
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final int UNRESOLVED = -2;
+  private static final int IN_FLIGHT = -3;
+  
+  private final int[] targets;
+  private final byte[] arrivals;
+  
+  /**
+   * Build the table from the neighbors of every location. A flight that 
+   * hits a wall, or that circles through tunnels only, has no target.
+   * 
+   * @param numOfLocations number of locations in the dungeon
+   * @param neighbors connected neighbors of the locations
+   * @throws IllegalArgumentException if the number of locations is negative 
+   *                                  or too large or if the neighbors are null
+   */
+  ArrowFlightTable(int numOfLocations, Neighbors neighbors) 
+      throws IllegalArgumentException {
+    if (numOfLocations < 0 || numOfLocations > Integer.MAX_VALUE / DIRECTIONS.length) {
+      throw new IllegalArgumentException("Number of locations must range from 0 to " 
+          + Integer.MAX_VALUE / DIRECTIONS.length + ".");
+    }
+    if (neighbors == null) {
+      throw new IllegalArgumentException("Neighbors cannot be null.");
+    }
+    this.targets = new int[numOfLocations * DIRECTIONS.length];
+    this.arrivals = new byte[this.targets.length];
+    Arrays.fill(this.targets, UNRESOLVED);
+    int[] path = new int[16];
+    for (int key = 0; key < this.targets.length; key++) {
+      if (this.targets[key] == UNRESOLVED) {
+        path = this.resolve(key, neighbors, path);
+      }
+    }
+  }
+  
+  /**
+   * Follow the flight of an entry through the tunnels until it reaches a 
+   * cave, a wall, an entry already known or an entry on the same flight, 
+   * then fill in every entry on the way with the result.
+   * 
+   * @param first entry to resolve
+   * @param neighbors connected neighbors of the locations
+   * @param path buffer for the entries on the way
+   * @return buffer, grown if needed
+   */
+  private int[] resolve(int first, Neighbors neighbors, int[] path) {
+    int length = 0;
+    int target = -1;
+    int arrival = 0;
+    int key = first;
+    while (true) {
+      if (this.targets[key] >= -1) {
+        target = this.targets[key];
+        arrival = this.arrivals[key];
+        break;
+      }
+      if (this.targets[key] == IN_FLIGHT) {
+        // Circling through tunnels, the arrow never reaches a cave
+        break;
+      }
+      this.targets[key] = IN_FLIGHT;
+      if (length == path.length) {
+        path = Arrays.copyOf(path, 2 * length);
+      }
+      path[length++] = key;
+      Direction towards = DIRECTIONS[key % DIRECTIONS.length];
+      int next = neighbors.get(key / DIRECTIONS.length, towards);
+      if (next < 0) {
+        break;
+      }
+      Direction exit = tunnelExit(next, towards, neighbors);
+      if (exit == null) {
+        target = next;
+        arrival = towards.ordinal();
+        break;
+      }
+      key = next * DIRECTIONS.length + exit.ordinal();
+    }
+    for (int i = 0; i < length; i++) {
+      this.targets[path[i]] = target;
+      this.arrivals[path[i]] = (byte) arrival;
+    }
+    return path;
+  }
+  
+  /**
+   * Get the way out of a tunnel for an arrow coming in.
+   * 
+   * @param location location id
+   * @param towards direction the arrow travels in
+   * @param neighbors connected neighbors of the locations
+   * @return exit direction or null if the location is a cave
+   */
+  private static Direction tunnelExit(int location, Direction towards, Neighbors neighbors) {
+    Direction entrance = CompactDungeon.opposite(towards);
+    Direction exit = null;
+    int entrances = 0;
+    for (Direction dir : DIRECTIONS) {
+      if (neighbors.get(location, dir) >= 0) {
+        entrances += 1;
+        if (dir != entrance) {
+          exit = dir;
+        }
+      }
+    }
+    return entrances == 2 ? exit : null;
+  }
+  
+  /**
+   * Get the next cave an arrow reaches when it leaves the location in the 
+   * direction.
+   * 
+   * @param location location id
+   * @param towards direction the arrow leaves in
+   * @return cave location id or -1 if the arrow hits a wall first
+   */
+  public int getTarget(int location, Direction towards) {
+    return this.targets[location * DIRECTIONS.length + towards.ordinal()];
+  }
+  
+  /**
+   * Get the direction an arrow travels in when it enters the next cave.
+   * 
+   * @param location location id
+   * @param towards direction the arrow leaves in
+   * @return direction of arrival or null if the arrow hits a wall first
+   */
+  public Direction getArrival(int location, Direction towards) {
+    int key = location * DIRECTIONS.length + towards.ordinal();
+    return this.targets[key] < 0 ? null : DIRECTIONS[this.arrivals[key]];
+  }
+}
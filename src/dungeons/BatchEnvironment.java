@@ -0,0 +1,548 @@
+package dungeons;
+
+/**
+ * A batch of single player adventure games stepped in lockstep for training
+ * agents. Every step takes one action per game as an int and writes the
+ * observation of every game, its reward and whether it is done into
+ * preallocated primitive arrays, so stepping creates no objects at all.
+ *
+ * <p>The games follow the rules of AdventureGame: a move goes to the next
+ * location, a player entering the cave of a healthy Otyugh is eaten and one
+ * entering the cave of a hurt Otyugh escapes half of the time, arrows fly
+ * through tunnels and count caves only, two hits kill an Otyugh, and the
+ * game ends when the player dies or reaches the end cave. Picking up
+ * collects all treasures and arrows in the location. A game is also ended
+ * after a number of steps, so a wandering agent cannot stall the batch.
+ *
+ * <p>Dungeons are not built while stepping. A pool of layouts is built up
+ * front with CompactDungeon, and a finished game is reset right away by
+ * copying the treasures, arrows and monsters of a random layout of the pool
+ * into its own arrays. The observation written for a finished game is the
+ * first observation of its next game; its reward, done flag and alive flag
+ * still describe the game that finished.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class BatchEnvironment {
+
+  /**
+   * Actions 0 to 3 move towards the direction with that ordinal.
+   */
+  public static final int MOVE = 0;
+  /**
+   * Actions 4 to 7 shoot an arrow one cave away towards the direction with
+   * ordinal action - 4.
+   */
+  public static final int SHOOT_NEAR = 4;
+  /**
+   * Actions 8 to 11 shoot an arrow two caves away towards the direction with
+   * ordinal action - 8.
+   */
+  public static final int SHOOT_FAR = 8;
+  /**
+   * Action 12 picks up the treasures and arrows in the location.
+   */
+  public static final int PICK_UP = 12;
+  /**
+   * Number of actions.
+   */
+  public static final int NUM_ACTIONS = 13;
+
+  /**
+   * Reward for reaching the end cave alive.
+   */
+  public static final float WIN_REWARD = 10;
+  /**
+   * Reward for being eaten.
+   */
+  public static final float DEATH_REWARD = -10;
+  /**
+   * Reward for every treasure picked up.
+   */
+  public static final float TREASURE_REWARD = 1;
+  /**
+   * Reward for killing an Otyugh.
+   */
+  public static final float KILL_REWARD = 2;
+  /**
+   * Reward added to every step.
+   */
+  public static final float STEP_REWARD = -0.01f;
+  /**
+   * Reward added for an action that cannot be played.
+   */
+  public static final float INVALID_REWARD = -0.1f;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final int START_ARROWS = 3;
+  private static final int MONSTER_HEALTH = 2;
+  // Locations looked at by a smell walk: the location, 4 neighbors and 12 more
+  private static final int SMELL_WALK = 17;
+
+  private final int numOfGames;
+  private final int numOfLocations;
+  private final int stepLimit;
+  private final RandomNumberGenerator random;
+
+  // Layouts, immutable once built
+  private final int[][] neighbors;
+  private final byte[][] masks;
+  private final byte[][] layoutMonsters;
+  private final int[][] layoutTreasure;
+  private final int[][] layoutArrows;
+  private final ArrowFlightTable[] flights;
+  private final int[] starts;
+  private final int[] ends;
+
+  // State of every game, the location arrays hold numOfLocations per game
+  private final int[] layout;
+  private final int[] position;
+  private final int[] arrowsInHand;
+  private final int[] collected;
+  private final int[] steps;
+  private final byte[] monsters;
+  private final int[] treasure;
+  private final int[] arrows;
+  private final int[] walk;
+
+  // Outputs of every step
+  private final byte[] neighborMasks;
+  private final byte[] smells;
+  private final int[] arrowsObserved;
+  private final int[] treasureObserved;
+  private final boolean[] alive;
+  private final boolean[] done;
+  private final float[] rewards;
+
+  /**
+   * Construct a batch environment and reset all its games.
+   *
+   * @param games number of games stepped together
+   * @param layouts number of dungeon layouts games are reset from
+   * @param rows number of rows of the dungeons
+   * @param columns number of columns of the dungeons
+   * @param interconn interconnectivity in the dungeons
+   * @param wrapping should the dungeons be wrapped
+   * @param treasureSpread amount of caves the treasure must be present in
+   * @param difficulty number of monsters
+   * @param limit number of steps after which a game is ended
+   * @param seed seed of the random number generator
+   * @throws IllegalArgumentException if the number of games, layouts or
+   *                                  steps is less than 1 or if the dungeons
+   *                                  cannot be built
+   */
+  public BatchEnvironment(int games, int layouts, int rows, int columns, int interconn,
+      boolean wrapping, double treasureSpread, int difficulty, int limit, long seed)
+      throws IllegalArgumentException {
+    if (games < 1 || layouts < 1) {
+      throw new IllegalArgumentException("Number of games and layouts must be "
+          + "greater than 0.");
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("Step limit must be greater than 0.");
+    }
+    SplittableRandomNumberGenerator root = new SplittableRandomNumberGenerator(seed);
+    this.numOfGames = games;
+    this.numOfLocations = rows * columns;
+    this.stepLimit = limit;
+
+    this.neighbors = new int[layouts][];
+    this.masks = new byte[layouts][];
+    this.layoutMonsters = new byte[layouts][];
+    this.layoutTreasure = new int[layouts][];
+    this.layoutArrows = new int[layouts][];
+    this.flights = new ArrowFlightTable[layouts];
+    this.starts = new int[layouts];
+    this.ends = new int[layouts];
+    for (int l = 0; l < layouts; l++) {
+      this.buildLayout(l, new CompactDungeon(rows, columns, interconn, wrapping,
+          treasureSpread, difficulty, root.split()));
+    }
+    this.random = root.split();
+
+    this.layout = new int[games];
+    this.position = new int[games];
+    this.arrowsInHand = new int[games];
+    this.collected = new int[games];
+    this.steps = new int[games];
+    this.monsters = new byte[games * this.numOfLocations];
+    this.treasure = new int[games * this.numOfLocations];
+    this.arrows = new int[games * this.numOfLocations];
+    this.walk = new int[SMELL_WALK];
+
+    this.neighborMasks = new byte[games];
+    this.smells = new byte[games];
+    this.arrowsObserved = new int[games];
+    this.treasureObserved = new int[games];
+    this.alive = new boolean[games];
+    this.done = new boolean[games];
+    this.rewards = new float[games];
+    this.reset();
+  }
+
+  /**
+   * Copy what the games need from a dungeon into a layout.
+   *
+   * @param l layout number
+   * @param dungeon dungeon with its start and end to be assigned
+   */
+  private void buildLayout(int l, CompactDungeon dungeon) {
+    dungeon.assignStartAndEnd();
+    int[] next = new int[this.numOfLocations * DIRECTIONS.length];
+    byte[] mask = new byte[this.numOfLocations];
+    byte[] health = new byte[this.numOfLocations];
+    int[] gold = new int[this.numOfLocations];
+    int[] quiver = new int[this.numOfLocations];
+    for (int id = 0; id < this.numOfLocations; id++) {
+      for (Direction dir : DIRECTIONS) {
+        next[id * DIRECTIONS.length + dir.ordinal()] = dungeon.getNeighbor(id, dir);
+      }
+      mask[id] = (byte) dungeon.getNeighborMask(id);
+      health[id] = dungeon.getMonster(id) == null ? 0 : (byte) MONSTER_HEALTH;
+      for (Treasure kind : Treasure.values()) {
+        gold[id] += dungeon.getTreasure(id, kind);
+      }
+      quiver[id] = dungeon.getArrows(id);
+    }
+    this.neighbors[l] = next;
+    this.masks[l] = mask;
+    this.layoutMonsters[l] = health;
+    this.layoutTreasure[l] = gold;
+    this.layoutArrows[l] = quiver;
+    this.flights[l] = dungeon.getArrowFlights();
+    this.starts[l] = dungeon.getStart().getLocationNum();
+    this.ends[l] = dungeon.getEnd().getLocationNum();
+  }
+
+  /**
+   * Start a new game in every slot and write the first observations.
+   */
+  public void reset() {
+    for (int k = 0; k < this.numOfGames; k++) {
+      this.resetGame(k);
+      this.observe(k);
+      this.alive[k] = true;
+      this.done[k] = false;
+      this.rewards[k] = 0;
+    }
+  }
+
+  /**
+   * Play one action in every game. Invalid actions, like moving into a wall
+   * or shooting without arrows, cost INVALID_REWARD and change nothing.
+   *
+   * @param actions action of every game, from 0 to NUM_ACTIONS - 1
+   * @throws IllegalArgumentException if there is not one valid action per
+   *                                  game
+   */
+  public void step(int[] actions) throws IllegalArgumentException {
+    if (actions == null || actions.length != this.numOfGames) {
+      throw new IllegalArgumentException("There must be one action per game.");
+    }
+    for (int k = 0; k < this.numOfGames; k++) {
+      if (actions[k] < 0 || actions[k] >= NUM_ACTIONS) {
+        throw new IllegalArgumentException("Action " + actions[k] + " of game " + k
+            + " is not valid.");
+      }
+    }
+    for (int k = 0; k < this.numOfGames; k++) {
+      float reward = STEP_REWARD;
+      boolean over = false;
+      int action = actions[k];
+      if (action == PICK_UP) {
+        reward += this.pickUp(k);
+      } else if (action >= SHOOT_NEAR) {
+        int distance = action >= SHOOT_FAR ? 2 : 1;
+        reward += this.shoot(k, DIRECTIONS[action - (distance == 2 ? SHOOT_FAR : SHOOT_NEAR)],
+            distance);
+      } else {
+        int next = this.neighbors[this.layout[k]][this.position[k] * DIRECTIONS.length + action];
+        if (next < 0) {
+          reward += INVALID_REWARD;
+        } else {
+          this.position[k] = next;
+          int health = this.monsters[k * this.numOfLocations + next];
+          boolean eaten = health == MONSTER_HEALTH
+              || (health > 0 && this.random.getRandomNumber(0, 2) != 0);
+          if (eaten) {
+            this.alive[k] = false;
+            reward += DEATH_REWARD;
+            over = true;
+          } else if (next == this.ends[this.layout[k]]) {
+            reward += WIN_REWARD;
+            over = true;
+          }
+        }
+      }
+      this.steps[k] += 1;
+      this.rewards[k] = reward;
+      this.done[k] = over || this.steps[k] >= this.stepLimit;
+      if (this.done[k]) {
+        this.resetGame(k);
+      } else {
+        this.alive[k] = true;
+      }
+      this.observe(k);
+    }
+  }
+
+  /**
+   * Pick up everything in the location of a player.
+   *
+   * @param k game number
+   * @return reward
+   */
+  private float pickUp(int k) {
+    int here = k * this.numOfLocations + this.position[k];
+    if (this.treasure[here] == 0 && this.arrows[here] == 0) {
+      return INVALID_REWARD;
+    }
+    float reward = this.treasure[here] * TREASURE_REWARD;
+    this.collected[k] += this.treasure[here];
+    this.arrowsInHand[k] += this.arrows[here];
+    this.treasure[here] = 0;
+    this.arrows[here] = 0;
+    return reward;
+  }
+
+  /**
+   * Shoot an arrow the way AdventureGame does: it jumps from cave to cave
+   * through tunnels and only caves other than the player's own count towards
+   * the distance.
+   *
+   * @param k game number
+   * @param direction direction the arrow is shot in
+   * @param distance number of caves the arrow flies
+   * @return reward
+   */
+  private float shoot(int k, Direction direction, int distance) {
+    if (this.arrowsInHand[k] == 0) {
+      return INVALID_REWARD;
+    }
+    this.arrowsInHand[k] -= 1;
+    int l = this.layout[k];
+    int from = this.position[k];
+    Direction towards = this.aim(this.masks[l][from], direction);
+    ArrowFlightTable table = this.flights[l];
+    int curr = from;
+    int travelled = 0;
+    int returns = 0;
+    while (towards != null) {
+      int next = table.getTarget(curr, towards);
+      if (next < 0) {
+        break;
+      }
+      towards = table.getArrival(curr, towards);
+      curr = next;
+      if (curr == from) {
+        returns += 1;
+        if (returns > DIRECTIONS.length) {
+          break;
+        }
+        continue;
+      }
+      travelled += 1;
+      if (travelled == distance) {
+        int target = k * this.numOfLocations + curr;
+        if (this.monsters[target] > 0) {
+          this.monsters[target] -= 1;
+          return this.monsters[target] == 0 ? KILL_REWARD : 0;
+        }
+        break;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Get the direction an arrow leaves a location in, following a tunnel when
+   * shot along it from inside.
+   *
+   * @param mask neighbor mask of the location
+   * @param direction direction the arrow is shot in
+   * @return direction the arrow leaves in or null if it hits the wall
+   */
+  private Direction aim(int mask, Direction direction) {
+    if (Integer.bitCount(mask) != 2 || (mask & (1 << direction.ordinal())) != 0) {
+      return direction;
+    }
+    int opposite = 1 << CompactDungeon.opposite(direction).ordinal();
+    if ((mask & opposite) == 0) {
+      return null;
+    }
+    return DIRECTIONS[Integer.numberOfTrailingZeros(mask & ~opposite)];
+  }
+
+  /**
+   * Start a new game in a slot from a random layout.
+   *
+   * @param k game number
+   */
+  private void resetGame(int k) {
+    int l = this.random.getRandomNumber(0, this.starts.length);
+    int first = k * this.numOfLocations;
+    this.layout[k] = l;
+    this.position[k] = this.starts[l];
+    this.arrowsInHand[k] = START_ARROWS;
+    this.collected[k] = 0;
+    this.steps[k] = 0;
+    System.arraycopy(this.layoutMonsters[l], 0, this.monsters, first, this.numOfLocations);
+    System.arraycopy(this.layoutTreasure[l], 0, this.treasure, first, this.numOfLocations);
+    System.arraycopy(this.layoutArrows[l], 0, this.arrows, first, this.numOfLocations);
+  }
+
+  /**
+   * Write the observation of a game.
+   *
+   * @param k game number
+   */
+  private void observe(int k) {
+    this.neighborMasks[k] = this.masks[this.layout[k]][this.position[k]];
+    this.smells[k] = (byte) this.smellOf(k).ordinal();
+    this.arrowsObserved[k] = this.arrowsInHand[k];
+    this.treasureObserved[k] = this.collected[k];
+  }
+
+  /**
+   * Get the smell at the location of a player, walking the neighbors up to
+   * two positions away the same way a Location does.
+   *
+   * @param k game number
+   * @return smell level
+   */
+  private SmellLevel smellOf(int k) {
+    int first = k * this.numOfLocations;
+    int[] next = this.neighbors[this.layout[k]];
+    int here = this.position[k];
+    if (this.monsters[first + here] > 0) {
+      return SmellLevel.MONSTER;
+    }
+    int levelOne = 0;
+    int levelTwo = 0;
+    int seen = 0;
+    this.walk[seen++] = here;
+    for (int d = 0; d < DIRECTIONS.length; d++) {
+      int one = next[here * DIRECTIONS.length + d];
+      if (one < 0 || this.isWalked(one, seen)) {
+        continue;
+      }
+      this.walk[seen++] = one;
+      if (this.monsters[first + one] > 0) {
+        levelOne += 1;
+        continue;
+      }
+      for (int e = 0; e < DIRECTIONS.length; e++) {
+        int two = next[one * DIRECTIONS.length + e];
+        if (two >= 0 && !this.isWalked(two, seen)) {
+          this.walk[seen++] = two;
+          if (this.monsters[first + two] > 0) {
+            levelTwo += 1;
+          }
+        }
+      }
+    }
+    if (levelOne > 0 || levelTwo > 1) {
+      return SmellLevel.TERRIBLE;
+    } else if (levelTwo == 1) {
+      return SmellLevel.SLIGHT;
+    }
+    return SmellLevel.NONE;
+  }
+
+  /**
+   * Check if the smell walk has already seen a location.
+   *
+   * @param id location id
+   * @param seen number of locations seen
+   * @return true if seen
+   */
+  private boolean isWalked(int id, int seen) {
+    for (int i = 0; i < seen; i++) {
+      if (this.walk[i] == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the number of games in the batch.
+   *
+   * @return number of games
+   */
+  public int getNumberOfGames() {
+    return this.numOfGames;
+  }
+
+  /**
+   * Get the neighbor masks of the players' locations, with bit d set for a
+   * neighbor in the direction of ordinal d. The array is overwritten by
+   * every step and must not be changed.
+   *
+   * @return neighbor mask of every game
+   */
+  public byte[] getNeighborMasks() {
+    return this.neighborMasks;
+  }
+
+  /**
+   * Get the smells at the players' locations as SmellLevel ordinals. The
+   * array is overwritten by every step and must not be changed.
+   *
+   * @return smell level of every game
+   */
+  public byte[] getSmells() {
+    return this.smells;
+  }
+
+  /**
+   * Get the arrows in the players' hands. The array is overwritten by every
+   * step and must not be changed.
+   *
+   * @return arrows of every game
+   */
+  public int[] getArrows() {
+    return this.arrowsObserved;
+  }
+
+  /**
+   * Get the treasures the players have collected. The array is overwritten
+   * by every step and must not be changed.
+   *
+   * @return treasure count of every game
+   */
+  public int[] getTreasure() {
+    return this.treasureObserved;
+  }
+
+  /**
+   * Get whether the players were alive at the end of the last step. The
+   * array is overwritten by every step and must not be changed.
+   *
+   * @return alive flag of every game
+   */
+  public boolean[] getAlive() {
+    return this.alive;
+  }
+
+  /**
+   * Get whether the games ended in the last step and were reset. The array
+   * is overwritten by every step and must not be changed.
+   *
+   * @return done flag of every game
+   */
+  public boolean[] getDone() {
+    return this.done;
+  }
+
+  /**
+   * Get the rewards of the last step. The array is overwritten by every step
+   * and must not be changed.
+   *
+   * @return reward of every game
+   */
+  public float[] getRewards() {
+    return this.rewards;
+  }
+}
@@ -0,0 +1,76 @@
+package dungeons;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A benchmark of the BatchEnvironment stepping a batch of games with random
+ * actions, reporting the game steps per second and the bytes allocated per
+ * step, which should be 0.
+ *
+ * <p>Usage: java dungeons.BatchEnvironmentBenchmark [games] [steps] [size]
+ */
+public class BatchEnvironmentBenchmark {
+
+  /**
+   * Main function running the benchmark.
+   *
+   * @param args optional number of games, number of batch steps and dungeon
+   *             size
+   */
+  public static void main(String[] args) {
+    int games = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+    int steps = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+    int size = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    BatchEnvironment env = new BatchEnvironment(games, 64, size, size, 5, true, 30, 3,
+        500, 1);
+    int[] actions = new int[games];
+    long state = 42;
+
+    // Warm up before measuring
+    for (int s = 0; s < steps / 10; s++) {
+      for (int k = 0; k < games; k++) {
+        state = state * 6364136223846793005L + 1442695040888963407L;
+        actions[k] = (int) ((state >>> 33) % BatchEnvironment.NUM_ACTIONS);
+      }
+      env.step(actions);
+    }
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long allocatedBefore = allocatedBytes(threads);
+    long episodes = 0;
+    long begin = System.nanoTime();
+    for (int s = 0; s < steps; s++) {
+      for (int k = 0; k < games; k++) {
+        state = state * 6364136223846793005L + 1442695040888963407L;
+        actions[k] = (int) ((state >>> 33) % BatchEnvironment.NUM_ACTIONS);
+      }
+      env.step(actions);
+      for (boolean ended : env.getDone()) {
+        episodes += ended ? 1 : 0;
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    long allocated = allocatedBytes(threads) - allocatedBefore;
+
+    long total = (long) games * steps;
+    System.out.println(games + " games on a " + size + " x " + size + " dungeon, "
+        + steps + " batch steps, " + episodes + " games finished.");
+    System.out.printf("%.2f million game steps/s, %.3f bytes allocated per game step%n",
+        total * 1e3 / elapsed, allocated < 0 ? Double.NaN : (double) allocated / total);
+  }
+
+  /**
+   * Get the bytes allocated by this thread so far, if the JVM tells.
+   *
+   * @param threads thread management bean
+   * @return allocated bytes or -1 if unknown
+   */
+  private static long allocatedBytes(ThreadMXBean threads) {
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(
+          Thread.currentThread().getId());
+    }
+    return -1;
+  }
+}
@@ -75,6 +75,12 @@ public class Cave extends AbstractLocation {
     return this.treasureInCave + " are present in the cave!!";
   }
 
+  @Override
+  public int getTreasureCount(Treasure treasure) {
+    Integer count = this.treasureInCave.get(treasure);
+    return count == null ? 0 : count;
+  }
+
   @Override
   public int getLocationNum() {
     return Integer.parseInt(this.getLocationId().substring(5));
@@ -104,6 +110,7 @@ public class Cave extends AbstractLocation {
     }
     this.monsterInCave = oty;
     oty.setMonsterResidingStatus();
+    this.addSmell();
   }
 
   @Override
@@ -116,6 +123,9 @@ public class Cave extends AbstractLocation {
     if (this.monsterInCave != oty) {
       throw new IllegalArgumentException("This monster is not present in cave.");
     }
+    if (this.monsterInCave != null) {
+      this.removeSmell();
+    }
     this.monsterInCave = null;
   }
 }
@@ -0,0 +1,228 @@
+package dungeons;
+
+import java.util.Arrays;
+
+/**
+ * An index of the pairs of caves that can be used as the start and end of a
+ * dungeon, i.e. the ordered pairs of caves where every path between them has
+ * at least the required number of locations. For every cave a breadth-first
+ * search bounded by that length counts the caves that are too close, so the
+ * index is built in time linear in the number of caves for a fixed length.
+ * Pairs can then be checked, counted and picked by rank without retrying.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class CavePairIndex {
+
+  private final CompressedAdjacency adjacency;
+  private final int[] caveLocations;
+  private final int[] caveOfLocation;
+  private final int minLength;
+  private final long[] pairsBefore;
+  private final int[] searchQueue;
+  private final int[] searchDistance;
+  private final int[] searchVisit;
+  private int searchRound;
+
+  /**
+   * Construct the index of valid start and end cave pairs.
+   *
+   * @param adjacency connections in the dungeon
+   * @param caveLocations location id of each cave
+   * @param minLength minimum number of locations, both ends included, on
+   *                  every path between the start and the end cave
+   * @throws IllegalArgumentException if the adjacency or caves are null or if the minimum
+   *                                  length is less than 2
+   */
+  public CavePairIndex(CompressedAdjacency adjacency, int[] caveLocations,
+      int minLength) throws IllegalArgumentException {
+    if (adjacency == null || caveLocations == null) {
+      throw new IllegalArgumentException("Dungeon connections and caves cannot be null.");
+    }
+    if (minLength < 2) {
+      throw new IllegalArgumentException("Minimum path length must be at least 2, "
+          + "the start and end caves must be different.");
+    }
+    int numOfLocations = adjacency.getNumberOfLocations();
+    this.adjacency = adjacency;
+    this.caveLocations = caveLocations.clone();
+    this.caveOfLocation = new int[numOfLocations];
+    Arrays.fill(this.caveOfLocation, -1);
+    for (int i = 0; i < this.caveLocations.length; i++) {
+      this.caveOfLocation[this.caveLocations[i]] = i;
+    }
+    this.minLength = minLength;
+    this.searchQueue = new int[numOfLocations];
+    this.searchDistance = new int[numOfLocations];
+    this.searchVisit = new int[numOfLocations];
+
+    this.pairsBefore = new long[this.caveLocations.length + 1];
+    for (int i = 0; i < this.caveLocations.length; i++) {
+      int nearCaves = this.searchNearby(this.caveLocations[i], -1);
+      this.pairsBefore[i + 1] = this.pairsBefore[i] + this.caveLocations.length - nearCaves;
+    }
+  }
+
+  /**
+   * Get the number of valid ordered pairs of start and end caves.
+   *
+   * @return number of valid pairs
+   */
+  public long getNumberOfPairs() {
+    return this.pairsBefore[this.caveLocations.length];
+  }
+
+  /**
+   * Get the minimum number of locations on every path of a valid pair.
+   *
+   * @return minimum path length
+   */
+  public int getMinLength() {
+    return this.minLength;
+  }
+
+  /**
+   * Check if every path between the two caves has at least the minimum
+   * number of locations.
+   *
+   * @param startCave index of the start cave
+   * @param endCave index of the end cave
+   * @return true if the caves are a valid start and end pair
+   */
+  public boolean isValidPair(int startCave, int endCave) {
+    int endLocation = this.caveLocations[endCave];
+    this.searchNearby(this.caveLocations[startCave], endLocation);
+    return this.searchVisit[endLocation] != this.searchRound;
+  }
+
+  /**
+   * Pick an ordered pair of different caves, every pair equally likely.
+   * Floyd's algorithm picks a uniform set of two caves but not in a random
+   * order, the last cave is never picked first, so the two are swapped half
+   * of the time.
+   *
+   * @param random random number generator
+   * @param numOfCaves number of caves, at least 2
+   * @return index of the start cave and of the end cave
+   */
+  static int[] pickRandomPair(RandomNumberGenerator random, int numOfCaves) {
+    int[] pair = random.getUniqueRandomNumbers(2, 0, numOfCaves);
+    if (random.getRandomNumber(0, 2) == 1) {
+      int swap = pair[0];
+      pair[0] = pair[1];
+      pair[1] = swap;
+    }
+    return pair;
+  }
+
+  /**
+   * Pick a random rank from 0 up to the bound, which may not fit an int.
+   *
+   * @param random random number generator
+   * @param bound upper bound of the range, excluded
+   * @return random rank
+   */
+  static long pickRandomRank(RandomNumberGenerator random, long bound) {
+    if (bound <= Integer.MAX_VALUE) {
+      return random.getRandomNumber(0, (int) bound);
+    }
+    long rank;
+    do {
+      long high = random.getRandomNumber(0, (int) (bound >>> 30) + 1);
+      rank = (high << 30) | random.getRandomNumber(0, 1 << 30);
+    } while (rank >= bound);
+    return rank;
+  }
+
+  /**
+   * Get the valid pair at the given rank. Pairs are ranked by start cave
+   * and then by end cave, so drawing a uniform rank draws a uniform pair.
+   *
+   * @param rank rank of the pair, from 0 to the number of pairs - 1
+   * @return index of the start cave and of the end cave
+   * @throws IndexOutOfBoundsException if the rank is not a valid rank
+   */
+  public int[] getPair(long rank) throws IndexOutOfBoundsException {
+    if (rank < 0 || rank >= this.getNumberOfPairs()) {
+      throw new IndexOutOfBoundsException("Pair rank: " + rank + ", Pairs: "
+          + this.getNumberOfPairs());
+    }
+    // Last start cave with fewer pairs before it than the rank
+    int low = 0;
+    int high = this.caveLocations.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (this.pairsBefore[mid] <= rank) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    int startCave = low;
+    int endCave = (int) (rank - this.pairsBefore[startCave]);
+
+    // Skip over the caves that are too close, in increasing order
+    int nearCaves = this.searchNearby(this.caveLocations[startCave], -1);
+    int[] tooClose = new int[nearCaves];
+    int count = 0;
+    for (int i = 0; count < nearCaves; i++) {
+      int cave = this.caveOfLocation[this.searchQueue[i]];
+      if (cave >= 0) {
+        tooClose[count++] = cave;
+      }
+    }
+    Arrays.sort(tooClose);
+    for (int cave : tooClose) {
+      if (cave <= endCave) {
+        endCave += 1;
+      } else {
+        break;
+      }
+    }
+    return new int[] {startCave, endCave};
+  }
+
+  /**
+   * Visit every location with fewer than the minimum number of locations
+   * on the shortest path from the source, both ends included. The visited
+   * locations are left at the front of the search queue and marked with the
+   * current search round. The search stops early once the target is found.
+   *
+   * @param source location id to search from
+   * @param target location id to stop at, or -1 to search the whole range
+   * @return number of caves visited
+   */
+  private int searchNearby(int source, int target) {
+    this.searchRound += 1;
+    int head = 0;
+    int tail = 0;
+    int caves = 0;
+    this.searchQueue[tail++] = source;
+    this.searchVisit[source] = this.searchRound;
+    this.searchDistance[source] = 1;
+    while (head < tail) {
+      int curr = this.searchQueue[head++];
+      if (this.caveOfLocation[curr] >= 0) {
+        caves += 1;
+      }
+      if (curr == target) {
+        break;
+      }
+      // Neighbors are already far enough, no need to search further
+      if (this.searchDistance[curr] + 1 >= this.minLength) {
+        continue;
+      }
+      int last = this.adjacency.getOffset(curr + 1);
+      for (int k = this.adjacency.getOffset(curr); k < last; k++) {
+        int neighbor = this.adjacency.getNeighborAt(k);
+        if (this.searchVisit[neighbor] != this.searchRound) {
+          this.searchVisit[neighbor] = this.searchRound;
+          this.searchDistance[neighbor] = this.searchDistance[curr] + 1;
+          this.searchQueue[tail++] = neighbor;
+        }
+      }
+    }
+    return caves;
+  }
+}
@@ -0,0 +1,1073 @@
+package dungeons;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A CompactDungeon is an implementation of the Dungeon for very large grids.
+ * Instead of one object per cave or tunnel, the topology and the contents of
+ * every location are stored in primitive arrays: one byte holds the four
+ * neighbor bits and the cave bit, along with the arrow count, three treasure
+ * counts and a monster slot. Location objects are lightweight views that are
+ * created on demand and compare equal when they show the same location.
+ *
+ * <p>The maze is built the same way as in MazeDungeon, a random spanning
+ * tree (Kruskal's algorithm over a shuffled edge list) plus the requested
+ * interconnectivity, but it uses its own random draws, so the same seed
+ * does not produce the same maze as a MazeDungeon.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class CompactDungeon implements Dungeons {
+
+  private static final int CAVE_BIT = 1 << 4;
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final Treasure[] TREASURES = Treasure.values();
+  private static final int MAX_PAIR_ATTEMPTS = 32;
+
+  private final int numOfRows;
+  private final int numOfCols;
+  private final int interconnectivity;
+  private final boolean isWrapped;
+  private final double requiredTreasureSpread;
+  private final int minPathLength;
+  private final RandomNumberGenerator random;
+  private final byte[] cells;
+  private final int[] arrows;
+  private final byte[] treasures;
+  private final int[] monsterSlot;
+  private final List<Monsters> monstersInDungeon;
+  private final Map<Monsters, Integer> monsterIndex;
+  private final List<Players> visitors;
+  private final List<Integer> visitorLocations;
+  private int[] caveIds;
+  private int[] tunnelIds;
+  private int start;
+  private int end;
+  private CompressedAdjacency adjacencyIndex;
+  private SmellField smellField;
+  private ArrowFlightTable arrowFlights;
+  private long layoutKey;
+  private int[] searchQueue;
+  private int[] searchDepth;
+  private int[] searchSet;
+
+  /**
+   * Construct a CompactDungeon for the Adventure Game.
+   *
+   * @param r 2D grid position row number
+   * @param c 2D grid position column number
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param treasureSpread amount of caves the treasure must be present in
+   * @param difficulty number of monsters
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of rows or columns is less
+   *                                  than 0 or too large or if the
+   *                                  interconnectivity is less than 0 or if
+   *                                  the treasure spread is less than 0 or
+   *                                  more than 100 or if the random number
+   *                                  generator is a null object
+   */
+  public CompactDungeon(int r, int c, int interconn,
+      boolean wrapping, double treasureSpread, int difficulty,
+      RandomNumberGenerator rand)
+      throws IllegalArgumentException {
+    this(r, c, interconn, wrapping, treasureSpread, difficulty,
+        MazeDungeon.DEFAULT_MIN_PATH_LENGTH, rand);
+  }
+
+  /**
+   * Construct a CompactDungeon for the Adventure Game with a custom minimum
+   * path length between the start and end caves.
+   *
+   * @param r 2D grid position row number
+   * @param c 2D grid position column number
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param treasureSpread amount of caves the treasure must be present in
+   * @param difficulty number of monsters
+   * @param minLength minimum number of locations, both ends included, on
+   *                  every path between the start and end caves
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of rows or columns is less
+   *                                  than 0 or too large or if the
+   *                                  interconnectivity is less than 0 or if
+   *                                  the treasure spread is less than 0 or
+   *                                  more than 100 or if the minimum path
+   *                                  length is less than 2 or if the random
+   *                                  number generator is a null object
+   */
+  public CompactDungeon(int r, int c, int interconn,
+      boolean wrapping, double treasureSpread, int difficulty, int minLength,
+      RandomNumberGenerator rand)
+      throws IllegalArgumentException {
+    this(r, c, interconn, wrapping, treasureSpread, difficulty, minLength, rand, null);
+  }
+
+  /**
+   * Construct a CompactDungeon whose maze is streamed row by row from a
+   * generator instead of being built with Kruskal's algorithm. The size,
+   * interconnectivity and wrapping are taken from the generator.
+   *
+   * @param generator maze generator
+   * @param treasureSpread amount of caves the treasure must be present in
+   * @param difficulty number of monsters
+   * @param minLength minimum number of locations, both ends included, on
+   *                  every path between the start and end caves
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the generator is null or its dungeon
+   *                                  is too large or if the treasure spread
+   *                                  is less than 0 or more than 100 or if
+   *                                  the minimum path length is less than 2
+   *                                  or if the random number generator is a
+   *                                  null object
+   */
+  public CompactDungeon(DungeonGenerator generator, double treasureSpread,
+      int difficulty, int minLength, RandomNumberGenerator rand)
+      throws IllegalArgumentException {
+    this(rowsOf(generator), generator.getNumberOfColumns(),
+        generator.getInterconnectivity(), generator.isWrapped(), treasureSpread,
+        difficulty, minLength, rand, generator);
+  }
+
+  /**
+   * Construct a CompactDungeon, building the maze with the generator if one
+   * is given.
+   */
+  private CompactDungeon(int r, int c, int interconn,
+      boolean wrapping, double treasureSpread, int difficulty, int minLength,
+      RandomNumberGenerator rand, DungeonGenerator generator)
+      throws IllegalArgumentException {
+    if (r < 1 || c < 1) {
+      throw new IllegalArgumentException("The number of rows and "
+          + "columns must be greater than 0. Illegal Arguments.");
+    }
+    if ((long) r * c > Integer.MAX_VALUE / 2) {
+      throw new IllegalArgumentException("The dungeon is too large, at most "
+          + (Integer.MAX_VALUE / 2) + " locations are allowed.");
+    }
+    if (interconn < 0) {
+      throw new IllegalArgumentException("Interconnectivity "
+          + "must be atleast 1.");
+    }
+    if (treasureSpread < 0 || treasureSpread > 100) {
+      throw new IllegalArgumentException("Treasure spread must "
+          + "be a percentage value ranging from 0 to 100.");
+    }
+    if (difficulty < 1) {
+      throw new IllegalArgumentException("At least one Otyugh must be "
+          + "present to make the game adventurous.");
+    }
+    if (minLength < 2) {
+      throw new IllegalArgumentException("Minimum path length must be at least 2, "
+          + "the start and end caves must be different.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
+
+    this.numOfRows = r;
+    this.numOfCols = c;
+    this.interconnectivity = interconn;
+    this.isWrapped = wrapping;
+    this.requiredTreasureSpread = treasureSpread;
+    this.minPathLength = minLength;
+    this.random = rand;
+    int numOfLocations = r * c;
+    this.cells = new byte[numOfLocations];
+    this.arrows = new int[numOfLocations];
+    this.treasures = new byte[numOfLocations * TREASURES.length];
+    this.monsterSlot = new int[numOfLocations];
+    this.monstersInDungeon = new ArrayList<>();
+    this.monsterIndex = new IdentityHashMap<>();
+    this.visitors = new ArrayList<>();
+    this.visitorLocations = new ArrayList<>();
+    this.start = -1;
+    this.end = -1;
+    this.adjacencyIndex = null;
+    this.smellField = null;
+    this.arrowFlights = null;
+
+    if (generator == null) {
+      this.createDungeon();
+    } else {
+      generator.generate((row, rowCells) ->
+          System.arraycopy(rowCells, 0, this.cells, (int) row * c, c));
+    }
+    this.classifyLocations();
+    this.distributeTreasures();
+    this.distributeArrows();
+    for (int i = 0; i < difficulty; i++) {
+      this.monstersInDungeon.add(new Otyugh(i + 1));
+      this.monsterIndex.put(this.monstersInDungeon.get(i), i);
+    }
+  }
+
+  /**
+   * Construct an empty dungeon sharing the maze of another CompactDungeon.
+   * The grid, the caves and tunnels, the start and end caves and the
+   * adjacency and arrow flight tables never change once the start and end
+   * are assigned, so they are shared. The arrows, treasures, monsters and
+   * players start empty and belong to the new dungeon alone.
+   *
+   * @param topology dungeon to share the maze of
+   * @throws IllegalArgumentException if the dungeon is null or its start
+   *                                  and end are not assigned yet
+   */
+  CompactDungeon(CompactDungeon topology) throws IllegalArgumentException {
+    if (topology == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    if (topology.start < 0) {
+      throw new IllegalArgumentException("The start and end caves must be "
+          + "assigned before the maze is shared.");
+    }
+    this.numOfRows = topology.numOfRows;
+    this.numOfCols = topology.numOfCols;
+    this.interconnectivity = topology.interconnectivity;
+    this.isWrapped = topology.isWrapped;
+    this.requiredTreasureSpread = topology.requiredTreasureSpread;
+    this.minPathLength = topology.minPathLength;
+    this.random = topology.random;
+    this.cells = topology.cells;
+    this.arrows = new int[topology.cells.length];
+    this.treasures = new byte[topology.cells.length * TREASURES.length];
+    this.monsterSlot = new int[topology.cells.length];
+    this.monstersInDungeon = new ArrayList<>();
+    this.monsterIndex = new IdentityHashMap<>();
+    this.visitors = new ArrayList<>(2);
+    this.visitorLocations = new ArrayList<>(2);
+    this.caveIds = topology.caveIds;
+    this.tunnelIds = topology.tunnelIds;
+    this.start = topology.start;
+    this.end = topology.end;
+    this.adjacencyIndex = topology.getCompressedAdjacency();
+    this.smellField = null;
+    this.arrowFlights = topology.getArrowFlights();
+    this.layoutKey = topology.layoutKey;
+  }
+
+  /**
+   * Construct an empty dungeon with the given maze and start and end caves.
+   *
+   * @param r number of rows
+   * @param c number of columns
+   * @param wrapping true if the borders may wrap
+   * @param layout neighbor bits of every location, row by row
+   * @param startId start location id
+   * @param endId end location id
+   */
+  private CompactDungeon(int r, int c, boolean wrapping, byte[] layout,
+      int startId, int endId) {
+    this.numOfRows = r;
+    this.numOfCols = c;
+    this.interconnectivity = 0;
+    this.isWrapped = wrapping;
+    this.requiredTreasureSpread = 0;
+    this.minPathLength = MazeDungeon.DEFAULT_MIN_PATH_LENGTH;
+    this.random = null;
+    this.cells = layout;
+    this.arrows = new int[layout.length];
+    this.treasures = new byte[layout.length * TREASURES.length];
+    this.monsterSlot = new int[layout.length];
+    this.monstersInDungeon = new ArrayList<>();
+    this.monsterIndex = new IdentityHashMap<>();
+    this.visitors = new ArrayList<>();
+    this.visitorLocations = new ArrayList<>();
+    this.classifyLocations();
+    this.start = startId;
+    this.end = endId;
+    this.adjacencyIndex = null;
+    this.smellField = null;
+    this.arrowFlights = null;
+  }
+
+  /**
+   * Get a CompactDungeon with the maze of a dungeon whose start and end are
+   * assigned. A CompactDungeon is its own maze, any other dungeon is
+   * converted into an empty CompactDungeon with the same locations, numbered
+   * row by row.
+   *
+   * @param dungeon dungeon to get the maze of
+   * @return dungeon with the same maze
+   * @throws IllegalArgumentException if the dungeon is null or its start
+   *                                  and end are not assigned yet
+   */
+  static CompactDungeon topologyOf(Dungeons dungeon) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    if (dungeon.getStart() == null) {
+      throw new IllegalArgumentException("The start and end caves must be "
+          + "assigned before the maze is shared.");
+    }
+    if (dungeon instanceof CompactDungeon) {
+      return (CompactDungeon) dungeon;
+    }
+    List<List<Location>> locations = dungeon.getAllLocations();
+    int r = locations.size();
+    int c = locations.get(0).size();
+    byte[] layout = new byte[r * c];
+    boolean wrapping = false;
+    for (int row = 0; row < r; row++) {
+      List<Location> locationRow = locations.get(row);
+      for (int col = 0; col < c; col++) {
+        int mask = locationRow.get(col).getNeighborMask();
+        layout[row * c + col] = (byte) mask;
+        // An entrance across a border can only come from wrapping
+        wrapping |= (row == 0 && (mask & (1 << Direction.NORTH.ordinal())) != 0)
+            || (row == r - 1 && (mask & (1 << Direction.SOUTH.ordinal())) != 0)
+            || (col == 0 && (mask & (1 << Direction.WEST.ordinal())) != 0)
+            || (col == c - 1 && (mask & (1 << Direction.EAST.ordinal())) != 0);
+      }
+    }
+    int[] startAt = dungeon.getStart().getPosition();
+    int[] endAt = dungeon.getEnd().getPosition();
+    return new CompactDungeon(r, c, wrapping, layout,
+        startAt[0] * c + startAt[1], endAt[0] * c + endAt[1]);
+  }
+
+  /**
+   * Get the number of rows of the generator's dungeon.
+   *
+   * @param generator row streaming maze generator
+   * @return number of rows
+   * @throws IllegalArgumentException if the generator is null or has too
+   *                                  many rows
+   */
+  private static int rowsOf(DungeonGenerator generator)
+      throws IllegalArgumentException {
+    if (generator == null) {
+      throw new IllegalArgumentException("Dungeon generator cannot be null.");
+    }
+    if (generator.getNumberOfRows() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The dungeon is too large, at most "
+          + (Integer.MAX_VALUE / 2) + " locations are allowed.");
+    }
+    return (int) generator.getNumberOfRows();
+  }
+
+  /**
+   * Create the maze: a random spanning tree of the grid plus the
+   * interconnectivity edges.
+   */
+  private void createDungeon() {
+    int[] edges = this.shuffledEdges();
+    DisjointSet components = new DisjointSet(this.cells.length);
+    int leftOver = 0;
+    for (int edge : edges) {
+      int from = edge >>> 1;
+      Direction towards = (edge & 1) == 0 ? Direction.EAST : Direction.SOUTH;
+      int to = this.getGridNeighbor(from, towards);
+      if (components.union(from, to)) {
+        this.connect(from, towards, to);
+      } else {
+        // Keep the leftover edges in their shuffled order
+        edges[leftOver++] = edge;
+      }
+    }
+    // The leftovers are shuffled, so the first ones are a random choice
+    int extra = Math.min(leftOver, this.interconnectivity);
+    for (int i = 0; i < extra; i++) {
+      int from = edges[i] >>> 1;
+      Direction towards = (edges[i] & 1) == 0 ? Direction.EAST : Direction.SOUTH;
+      this.connect(from, towards, this.getGridNeighbor(from, towards));
+    }
+  }
+
+  /**
+   * Mark the locations with 1, 3 or 4 entrances as caves and index the
+   * caves and tunnels.
+   */
+  private void classifyLocations() {
+    int numOfCaves = 0;
+    for (int id = 0; id < this.cells.length; id++) {
+      if (Integer.bitCount(this.cells[id] & 0xF) != 2) {
+        this.cells[id] |= CAVE_BIT;
+        numOfCaves += 1;
+      } else {
+        this.cells[id] &= ~CAVE_BIT;
+      }
+    }
+    this.caveIds = new int[numOfCaves];
+    this.tunnelIds = new int[this.cells.length - numOfCaves];
+    int caves = 0;
+    int tunnels = 0;
+    for (int id = 0; id < this.cells.length; id++) {
+      if (this.isCave(id)) {
+        this.caveIds[caves++] = id;
+      } else {
+        this.tunnelIds[tunnels++] = id;
+      }
+    }
+  }
+
+  /**
+   * Get the possible edges of the grid in a random order. An edge is stored
+   * as twice the location id, plus one if it leads south instead of east.
+   *
+   * @return shuffled edges
+   */
+  private int[] shuffledEdges() {
+    int count = 0;
+    for (int id = 0; id < this.cells.length; id++) {
+      if (this.getGridNeighbor(id, Direction.EAST) >= 0) {
+        count += 1;
+      }
+      if (this.getGridNeighbor(id, Direction.SOUTH) >= 0) {
+        count += 1;
+      }
+    }
+    int[] edges = new int[count];
+    count = 0;
+    for (int id = 0; id < this.cells.length; id++) {
+      if (this.getGridNeighbor(id, Direction.EAST) >= 0) {
+        edges[count++] = id << 1;
+      }
+      if (this.getGridNeighbor(id, Direction.SOUTH) >= 0) {
+        edges[count++] = (id << 1) | 1;
+      }
+    }
+    this.random.shuffle(edges, edges.length);
+    return edges;
+  }
+
+  /**
+   * Connect two locations in both directions.
+   *
+   * @param from location id
+   * @param towards direction of the other location
+   * @param to other location id
+   */
+  private void connect(int from, Direction towards, int to) {
+    this.cells[from] |= 1 << towards.ordinal();
+    this.cells[to] |= 1 << opposite(towards).ordinal();
+  }
+
+  /**
+   * Distribute treasures to the required percentage of caves.
+   */
+  private void distributeTreasures() {
+    int numberOfCavesWithTreasure = (int) Math.round(
+        (this.requiredTreasureSpread / 100) * this.caveIds.length);
+    int[] selectedCaves = this.random.getUniqueRandomNumbers(numberOfCavesWithTreasure,
+        0, this.caveIds.length);
+    int[] counts = new int[selectedCaves.length * TREASURES.length];
+    this.random.nextInts(counts, 1, 4);
+    for (int i = 0; i < selectedCaves.length; i++) {
+      int id = this.caveIds[selectedCaves[i]];
+      for (Treasure treasure : TREASURES) {
+        this.setTreasure(id, treasure, counts[i * TREASURES.length + treasure.ordinal()]);
+      }
+    }
+  }
+
+  /**
+   * Assign arrows to random locations in the dungeon.
+   */
+  private void distributeArrows() {
+    int numberOfLocationsWithArrows = (int) Math.round(
+        (this.requiredTreasureSpread / 100) * this.cells.length);
+    int[] locations = new int[numberOfLocationsWithArrows];
+    int[] counts = new int[numberOfLocationsWithArrows];
+    this.random.nextInts(locations, 0, this.cells.length);
+    this.random.nextInts(counts, 1, 4);
+    for (int i = 0; i < numberOfLocationsWithArrows; i++) {
+      this.arrows[locations[i]] += counts[i];
+    }
+  }
+
+  @Override
+  public void assignStartAndEnd() throws IllegalStateException {
+    if (this.start >= 0) {
+      throw new IllegalStateException("The start and end caves are already assigned.");
+    }
+    if (this.caveIds.length < 2) {
+      throw new IllegalStateException("No two caves are at least "
+          + this.minPathLength + " locations apart, cannot assign start and end.");
+    }
+    int startCave = -1;
+    int endCave = -1;
+    // Try random pairs first, valid pairs are usually common
+    for (int i = 0; i < MAX_PAIR_ATTEMPTS && startCave < 0; i++) {
+      int[] choices = CavePairIndex.pickRandomPair(this.random, this.caveIds.length);
+      if (this.isValidPair(this.caveIds[choices[0]], this.caveIds[choices[1]])) {
+        startCave = choices[0];
+        endCave = choices[1];
+      }
+    }
+    // Valid pairs are rare, pick one straight from an index of all of them
+    if (startCave < 0) {
+      CavePairIndex pairs = new CavePairIndex(this.getCompressedAdjacency(),
+          this.caveIds, this.minPathLength);
+      if (pairs.getNumberOfPairs() == 0) {
+        throw new IllegalStateException("No two caves are at least "
+            + this.minPathLength + " locations apart, cannot assign start and end.");
+      }
+      int[] choices = pairs.getPair(
+          CavePairIndex.pickRandomRank(this.random, pairs.getNumberOfPairs()));
+      startCave = choices[0];
+      endCave = choices[1];
+    }
+    this.start = this.caveIds[startCave];
+    this.end = this.caveIds[endCave];
+    this.addMonsters(startCave, endCave);
+  }
+
+  /**
+   * Add the first monster to the end cave and the others to randomly
+   * selected caves. Monsters cannot reside in the start cave.
+   *
+   * @param startCave index of the start cave
+   * @param endCave index of the end cave
+   * @throws IllegalStateException if there are not enough caves for the
+   *                               monsters
+   */
+  private void addMonsters(int startCave, int endCave) throws IllegalStateException {
+    int others = this.monstersInDungeon.size() - 1;
+    if (others > this.caveIds.length - 2) {
+      throw new IllegalStateException("Not enough caves for "
+          + this.monstersInDungeon.size() + " monsters.");
+    }
+    this.getEnd().addMonster(this.monstersInDungeon.get(0));
+    int[] picked = this.random.getUniqueRandomNumbers(others, 0, this.caveIds.length - 2);
+    int low = Math.min(startCave, endCave);
+    int high = Math.max(startCave, endCave);
+    int monster = 1;
+    for (int i : picked) {
+      // Skip over the start and end caves
+      int cave = i < low ? i : (i + 1 < high ? i + 1 : i + 2);
+      new CompactLocation(this, this.caveIds[cave])
+          .addMonster(this.monstersInDungeon.get(monster++));
+    }
+  }
+
+  /**
+   * Check if every path between the two locations has at least the minimum
+   * number of locations. Runs a breadth-first search from the start that
+   * stops once the paths are long enough, tracking visits in a small hash
+   * set so the search does not touch memory for the whole dungeon.
+   *
+   * @param startId start location id
+   * @param endId end location id
+   * @return true if the locations are a valid start and end pair
+   */
+  private boolean isValidPair(int startId, int endId) {
+    if (startId == endId) {
+      return false;
+    }
+    if (this.searchQueue == null) {
+      this.searchQueue = new int[64];
+      this.searchDepth = new int[64];
+      this.searchSet = new int[128];
+    }
+    Arrays.fill(this.searchSet, -1);
+    int head = 0;
+    int tail = 0;
+    this.searchQueue[tail] = startId;
+    this.searchDepth[tail++] = 1;
+    this.addToSearchSet(startId);
+    while (head < tail) {
+      int curr = this.searchQueue[head];
+      int depth = this.searchDepth[head++];
+      if (depth + 1 >= this.minPathLength) {
+        continue;
+      }
+      for (Direction dir : DIRECTIONS) {
+        int neighbor = this.getNeighbor(curr, dir);
+        if (neighbor == endId) {
+          return false;
+        }
+        if (neighbor >= 0 && this.addToSearchSet(neighbor)) {
+          if (tail == this.searchQueue.length) {
+            this.searchQueue = Arrays.copyOf(this.searchQueue, tail * 2);
+            this.searchDepth = Arrays.copyOf(this.searchDepth, tail * 2);
+          }
+          this.searchQueue[tail] = neighbor;
+          this.searchDepth[tail++] = depth + 1;
+          if (tail * 2 > this.searchSet.length) {
+            this.searchSet = new int[this.searchSet.length * 2];
+            Arrays.fill(this.searchSet, -1);
+            for (int i = 0; i < tail; i++) {
+              this.addToSearchSet(this.searchQueue[i]);
+            }
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Add a location id to the open addressing search set.
+   *
+   * @param id location id
+   * @return true if the id was not in the set yet
+   */
+  private boolean addToSearchSet(int id) {
+    int mask = this.searchSet.length - 1;
+    int slot = (id * 0x9E3779B9) >>> 7 & mask;
+    while (this.searchSet[slot] >= 0) {
+      if (this.searchSet[slot] == id) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    this.searchSet[slot] = id;
+    return true;
+  }
+
+  @Override
+  public Location getStart() {
+    return this.start < 0 ? null : new CompactLocation(this, this.start);
+  }
+
+  @Override
+  public Location getEnd() {
+    return this.end < 0 ? null : new CompactLocation(this, this.end);
+  }
+
+  @Override
+  public List<List<Location>> getAllLocations() {
+    return new AbstractList<List<Location>>() {
+      @Override
+      public List<Location> get(int row) {
+        if (row < 0 || row >= numOfRows) {
+          throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + numOfRows);
+        }
+        return locationsOf(row * numOfCols, numOfCols, null);
+      }
+
+      @Override
+      public int size() {
+        return numOfRows;
+      }
+    };
+  }
+
+  @Override
+  public List<List<List<Location>>> getAllAdjacency() {
+    return new AbstractList<List<List<Location>>>() {
+      @Override
+      public List<List<Location>> get(int row) {
+        if (row < 0 || row >= numOfRows) {
+          throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + numOfRows);
+        }
+        return new AbstractList<List<Location>>() {
+          @Override
+          public List<Location> get(int col) {
+            if (col < 0 || col >= numOfCols) {
+              throw new IndexOutOfBoundsException("Column: " + col);
+            }
+            int id = row * numOfCols + col;
+            List<Location> neighbors = new ArrayList<>(4);
+            for (Direction dir : DIRECTIONS) {
+              int neighbor = getNeighbor(id, dir);
+              if (neighbor >= 0) {
+                neighbors.add(new CompactLocation(CompactDungeon.this, neighbor));
+              }
+            }
+            return Collections.unmodifiableList(neighbors);
+          }
+
+          @Override
+          public int size() {
+            return numOfCols;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return numOfRows;
+      }
+    };
+  }
+
+  @Override
+  public CompressedAdjacency getCompressedAdjacency() {
+    if (this.adjacencyIndex == null) {
+      int[] offsets = new int[this.cells.length + 1];
+      for (int id = 0; id < this.cells.length; id++) {
+        offsets[id + 1] = offsets[id] + Integer.bitCount(this.cells[id] & 0xF);
+      }
+      int[] neighbors = new int[offsets[this.cells.length]];
+      int k = 0;
+      for (int id = 0; id < this.cells.length; id++) {
+        for (Direction dir : DIRECTIONS) {
+          int neighbor = this.getNeighbor(id, dir);
+          if (neighbor >= 0) {
+            neighbors[k++] = neighbor;
+          }
+        }
+      }
+      this.adjacencyIndex = new CompressedAdjacency(offsets, neighbors);
+    }
+    return this.adjacencyIndex;
+  }
+
+  @Override
+  public SmellField getSmellField() {
+    if (this.smellField == null) {
+      SmellField field = new SmellField(this.getCompressedAdjacency(),
+          SmellField.DEFAULT_RADIUS);
+      for (int id = 0; id < this.monsterSlot.length; id++) {
+        if (this.monsterSlot[id] != 0) {
+          field.addMonster(id);
+        }
+      }
+      this.smellField = field;
+    }
+    return this.smellField;
+  }
+
+  @Override
+  public ArrowFlightTable getArrowFlights() {
+    if (this.arrowFlights == null) {
+      this.arrowFlights = new ArrowFlightTable(this.cells.length, this::getNeighbor);
+    }
+    return this.arrowFlights;
+  }
+
+  /**
+   * Get the Zobrist key of the maze, the start and the end cave. They never
+   * change once the start and end are assigned, so the key is built once and
+   * shared by the dungeons sharing the maze.
+   *
+   * @return key of the maze
+   */
+  long getLayoutKey() {
+    if (this.layoutKey == 0) {
+      long key = ZobristKeys.startAndEnd(this.start, this.end);
+      for (int id = 0; id < this.cells.length; id++) {
+        key ^= ZobristKeys.layout(id, this.cells[id]);
+      }
+      this.layoutKey = key;
+    }
+    return this.layoutKey;
+  }
+
+  @Override
+  public List<Location> getCaves() {
+    return this.locationsOf(0, this.caveIds.length, this.caveIds);
+  }
+
+  @Override
+  public List<Location> getTunnels() {
+    return this.locationsOf(0, this.tunnelIds.length, this.tunnelIds);
+  }
+
+  /**
+   * Get a read-only list view of locations that creates the location views
+   * on demand.
+   *
+   * @param first first location id, or first index into the ids
+   * @param size number of locations
+   * @param ids location ids to show, or null for consecutive location ids
+   * @return list of locations
+   */
+  private List<Location> locationsOf(int first, int size, int[] ids) {
+    return new AbstractList<Location>() {
+      @Override
+      public Location get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int id = ids == null ? first + index : ids[first + index];
+        return new CompactLocation(CompactDungeon.this, id);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public String printDungeonLayout() {
+    StringBuilder layout = new StringBuilder();
+    for (int i = 0; i < this.numOfRows; i++) {
+      for (int j = 0; j < this.numOfCols; j++) {
+        layout.append(i * this.numOfCols + j).append(", ");
+      }
+      layout.append("\n");
+    }
+    return layout.toString();
+  }
+
+  /**
+   * Get the number of columns in the dungeon grid.
+   *
+   * @return number of columns
+   */
+  int getNumberOfColumns() {
+    return this.numOfCols;
+  }
+
+  /**
+   * Check if the location is a cave.
+   *
+   * @param id location id
+   * @return true if cave, false if tunnel
+   */
+  boolean isCave(int id) {
+    return (this.cells[id] & CAVE_BIT) != 0;
+  }
+
+  @Override
+  public int getNeighborMask(int id) {
+    return this.cells[id] & 0xF;
+  }
+
+  /**
+   * Get the connected neighbor of the location in the direction.
+   *
+   * @param id location id
+   * @param towards direction of the neighbor
+   * @return neighbor location id or -1 if not connected
+   */
+  int getNeighbor(int id, Direction towards) {
+    if ((this.cells[id] & (1 << towards.ordinal())) == 0) {
+      return -1;
+    }
+    return this.getGridNeighbor(id, towards);
+  }
+
+  /**
+   * Get the number of connected neighbors of the location.
+   *
+   * @param id location id
+   * @return number of neighbors
+   */
+  int getNumberOfNeighbors(int id) {
+    return Integer.bitCount(this.cells[id] & 0xF);
+  }
+
+  /**
+   * Get the grid location next to the location in the direction, whether
+   * connected or not. Borders only wrap in a wrapped dungeon wider than 2.
+   *
+   * @param id location id
+   * @param towards direction of the neighbor
+   * @return grid neighbor location id or -1 if there is none
+   */
+  int getGridNeighbor(int id, Direction towards) {
+    int row = id / this.numOfCols;
+    int col = id - row * this.numOfCols;
+    switch (towards) {
+      case NORTH:
+        if (row > 0) {
+          return id - this.numOfCols;
+        }
+        return this.isWrapped && this.numOfRows > 2 ? id + (this.numOfRows - 1) * this.numOfCols
+            : -1;
+      case SOUTH:
+        if (row < this.numOfRows - 1) {
+          return id + this.numOfCols;
+        }
+        return this.isWrapped && this.numOfRows > 2 ? col : -1;
+      case EAST:
+        if (col < this.numOfCols - 1) {
+          return id + 1;
+        }
+        return this.isWrapped && this.numOfCols > 2 ? id - col : -1;
+      default:
+        if (col > 0) {
+          return id - 1;
+        }
+        return this.isWrapped && this.numOfCols > 2 ? id + this.numOfCols - 1 : -1;
+    }
+  }
+
+  /**
+   * Mark the location as connected to its grid neighbor in the direction.
+   *
+   * @param id location id
+   * @param towards direction of the neighbor
+   */
+  void addConnection(int id, Direction towards) {
+    this.cells[id] |= 1 << towards.ordinal();
+  }
+
+  @Override
+  public int getArrows(int id) {
+    return this.arrows[id];
+  }
+
+  /**
+   * Add arrows to the location.
+   *
+   * @param id location id
+   * @param count number of arrows
+   */
+  void addArrows(int id, int count) {
+    this.arrows[id] += count;
+  }
+
+  /**
+   * Collect all arrows in the location.
+   *
+   * @param id location id
+   * @return number of arrows collected
+   */
+  int collectArrows(int id) {
+    int collected = this.arrows[id];
+    this.arrows[id] = 0;
+    return collected;
+  }
+
+  /**
+   * Get a copy of the arrows in every location.
+   *
+   * @return arrows by location id
+   */
+  int[] copyArrows() {
+    return this.arrows.clone();
+  }
+
+  /**
+   * Get a copy of the treasure counts in every location.
+   *
+   * @return treasure counts by location id and treasure ordinal
+   */
+  byte[] copyTreasures() {
+    return this.treasures.clone();
+  }
+
+  /**
+   * Replace the arrows and treasure counts of every location.
+   *
+   * @param arrowCounts arrows by location id
+   * @param treasureCounts treasure counts by location id and treasure ordinal
+   */
+  void restoreContents(int[] arrowCounts, byte[] treasureCounts) {
+    System.arraycopy(arrowCounts, 0, this.arrows, 0, this.arrows.length);
+    System.arraycopy(treasureCounts, 0, this.treasures, 0, this.treasures.length);
+  }
+
+  @Override
+  public int getTreasure(int id, Treasure treasure) {
+    return this.treasures[id * TREASURES.length + treasure.ordinal()];
+  }
+
+  /**
+   * Set the count of a treasure in the location.
+   *
+   * @param id location id
+   * @param treasure treasure type
+   * @param count treasure count
+   * @throws IllegalArgumentException if the count is negative or above 127
+   */
+  void setTreasure(int id, Treasure treasure, int count) throws IllegalArgumentException {
+    if (count < 0 || count > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Treasure count must range from 0 to "
+          + Byte.MAX_VALUE + ".");
+    }
+    this.treasures[id * TREASURES.length + treasure.ordinal()] = (byte) count;
+  }
+
+  @Override
+  public Monsters getMonster(int id) {
+    int slot = this.monsterSlot[id];
+    return slot == 0 ? null : this.monstersInDungeon.get(slot - 1);
+  }
+
+  /**
+   * Put a monster in the location, or clear the location.
+   *
+   * @param id location id
+   * @param oty monster or null to clear
+   */
+  void setMonster(int id, Monsters oty) {
+    if (this.smellField != null && this.monsterSlot[id] != 0) {
+      this.smellField.removeMonster(id);
+    }
+    if (oty == null) {
+      this.monsterSlot[id] = 0;
+      return;
+    }
+    Integer index = this.monsterIndex.get(oty);
+    if (index == null) {
+      this.monstersInDungeon.add(oty);
+      index = this.monstersInDungeon.size() - 1;
+      this.monsterIndex.put(oty, index);
+    }
+    this.monsterSlot[id] = index + 1;
+    if (this.smellField != null) {
+      this.smellField.addMonster(id);
+    }
+  }
+
+  /**
+   * Record a player in the location.
+   *
+   * @param p player
+   * @param id location id
+   */
+  void addVisitor(Players p, int id) {
+    this.visitors.add(p);
+    this.visitorLocations.add(id);
+  }
+
+  /**
+   * Remove a player from the location.
+   *
+   * @param p player
+   * @param id location id
+   * @return true if the player was in the location
+   */
+  boolean removeVisitor(Players p, int id) {
+    for (int i = 0; i < this.visitors.size(); i++) {
+      if (this.visitors.get(i).equals(p) && this.visitorLocations.get(i) == id) {
+        this.visitors.remove(i);
+        this.visitorLocations.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the players in the location.
+   *
+   * @param id location id
+   * @return list of players
+   */
+  List<Players> getVisitors(int id) {
+    List<Players> present = new ArrayList<>();
+    for (int i = 0; i < this.visitors.size(); i++) {
+      if (this.visitorLocations.get(i) == id) {
+        present.add(this.visitors.get(i));
+      }
+    }
+    return present;
+  }
+
+  /**
+   * Get the direction opposite to the given one.
+   *
+   * @param towards direction
+   * @return opposite direction
+   */
+  static Direction opposite(Direction towards) {
+    switch (towards) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+}
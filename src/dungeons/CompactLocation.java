@@ -0,0 +1,279 @@
+package dungeons;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A CompactLocation is a lightweight view of one location of a
+ * CompactDungeon. It holds no state of its own, every call reads or
+ * writes the primitive arrays of the dungeon, so views are created on
+ * demand and two views of the same location are equal. A location with
+ * 1, 3 or 4 entrances behaves like a cave, otherwise like a tunnel.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class CompactLocation implements Location {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final Treasure[] TREASURES = Treasure.values();
+
+  private final CompactDungeon dungeon;
+  private final int id;
+
+  /**
+   * Construct a view of a location of the dungeon.
+   *
+   * @param dungeon dungeon the location belongs to
+   * @param id location identifier
+   */
+  CompactLocation(CompactDungeon dungeon, int id) {
+    this.dungeon = dungeon;
+    this.id = id;
+  }
+
+  @Override
+  public String getLocationId() {
+    return (this.dungeon.isCave(this.id) ? "Cave " : "Tunnel ") + this.id;
+  }
+
+  @Override
+  public int getLocationNum() {
+    return this.id;
+  }
+
+  @Override
+  public String getLocationDetails() {
+    StringBuilder details = new StringBuilder();
+    for (Direction dir : DIRECTIONS) {
+      int neighbor = this.dungeon.getNeighbor(this.id, dir);
+      if (neighbor >= 0) {
+        details.append(dir.name()).append(": ")
+            .append(new CompactLocation(this.dungeon, neighbor).getLocationId())
+            .append("\n");
+      }
+    }
+    return details.toString().trim();
+  }
+
+  @Override
+  public int getNeighborMask() {
+    return this.dungeon.getNeighborMask(this.id);
+  }
+
+  @Override
+  public int[] getPosition() {
+    int cols = this.dungeon.getNumberOfColumns();
+    int[] position = {this.id / cols, this.id % cols};
+    return position;
+  }
+
+  @Override
+  public void addNeighbor(Direction neighborDirection, Location neighbor)
+      throws IllegalArgumentException, IllegalStateException {
+    if (this.dungeon.getNumberOfNeighbors(this.id) == 4) {
+      throw new IllegalStateException("No more neighbors can be "
+          + "added to the location. A location can have 4 neighbors at "
+          + "maximum.");
+    }
+    if (this.equals(neighbor)) {
+      throw new IllegalArgumentException("Location cannot be own's "
+          + "neighbor.");
+    }
+    if (this.dungeon.getNeighbor(this.id, neighborDirection) >= 0) {
+      throw new IllegalArgumentException("Other neighbor already "
+          + "present in given direction.");
+    }
+    if (this.getNeighbors().containsValue(neighbor)) {
+      throw new IllegalArgumentException("Neighbor already "
+          + "added.");
+    }
+    if (!(neighbor instanceof CompactLocation)
+        || ((CompactLocation) neighbor).dungeon != this.dungeon
+        || this.dungeon.getGridNeighbor(this.id, neighborDirection)
+            != ((CompactLocation) neighbor).id) {
+      throw new IllegalArgumentException("Neighbor must be the location next to "
+          + "this one in the given direction.");
+    }
+    this.dungeon.addConnection(this.id, neighborDirection);
+  }
+
+  @Override
+  public Map<Direction, Location> getNeighbors() {
+    Map<Direction, Location> neighbors = new EnumMap<>(Direction.class);
+    for (Direction dir : DIRECTIONS) {
+      int neighbor = this.dungeon.getNeighbor(this.id, dir);
+      if (neighbor >= 0) {
+        neighbors.put(dir, new CompactLocation(this.dungeon, neighbor));
+      }
+    }
+    return neighbors;
+  }
+
+  @Override
+  public void distributeTreasures(Map<Treasure, Integer> allotedTreasure)
+      throws IllegalStateException {
+    if (!this.dungeon.isCave(this.id)) {
+      throw new IllegalStateException("Treasures cannot be assigned "
+          + "to a tunnel.");
+    }
+    for (Treasure treasure : TREASURES) {
+      Integer count = allotedTreasure.get(treasure);
+      this.dungeon.setTreasure(this.id, treasure, count == null ? 0 : count);
+    }
+  }
+
+  @Override
+  public Map<Treasure, Integer> collectTreasures(List<Treasure> desiredTreasure)
+      throws IllegalArgumentException {
+    if (!this.dungeon.isCave(this.id)) {
+      throw new IllegalArgumentException("No treasures in the tunnel.");
+    }
+    if (!this.hasTreasure()) {
+      throw new IllegalArgumentException("No treasures present in cave.");
+    }
+    Map<Treasure, Integer> collection = new EnumMap<>(Treasure.class);
+    for (Treasure treasure : desiredTreasure) {
+      collection.put(treasure, this.dungeon.getTreasure(this.id, treasure));
+      this.dungeon.setTreasure(this.id, treasure, 0);
+    }
+    return collection;
+  }
+
+  @Override
+  public String getPresentTreasures() {
+    if (!this.dungeon.isCave(this.id)) {
+      return "The tunnel does not have any treasure to collect!";
+    }
+    if (!this.hasTreasure()) {
+      return "The cave does not have any treasures!";
+    }
+    Map<Treasure, Integer> present = new EnumMap<>(Treasure.class);
+    for (Treasure treasure : TREASURES) {
+      present.put(treasure, this.dungeon.getTreasure(this.id, treasure));
+    }
+    return present + " are present in the cave!!";
+  }
+
+  /**
+   * Check if any treasure is left in the location.
+   *
+   * @return true if some treasure is present
+   */
+  private boolean hasTreasure() {
+    for (Treasure treasure : TREASURES) {
+      if (this.dungeon.getTreasure(this.id, treasure) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void addPlayer(Players p) throws IllegalArgumentException {
+    if (p == null) {
+      throw new IllegalArgumentException("Player cannot be null.");
+    }
+    this.dungeon.addVisitor(p, this.id);
+    p.setCurrentLocation(this);
+  }
+
+  @Override
+  public void removePlayer(Players p) throws IllegalStateException, IllegalArgumentException {
+    if (this.dungeon.getVisitors(this.id).size() == 0) {
+      throw new IllegalStateException("No player is present in the location.");
+    }
+    if (p == null) {
+      throw new IllegalArgumentException("Player cannot be null.");
+    }
+    if (!this.dungeon.removeVisitor(p, this.id)) {
+      throw new IllegalArgumentException(p.getPlayerId() + " not present in the location.");
+    }
+  }
+
+  @Override
+  public List<Players> getPlayersPresent() {
+    return this.dungeon.getVisitors(this.id);
+  }
+
+  @Override
+  public void addArrows(int arrowsAssigned) {
+    this.dungeon.addArrows(this.id, arrowsAssigned);
+  }
+
+  @Override
+  public int getArrowsInLocation() {
+    return this.dungeon.getArrows(this.id);
+  }
+
+  @Override
+  public int collectArrows() {
+    return this.dungeon.collectArrows(this.id);
+  }
+
+  @Override
+  public void addMonster(Monsters oty) throws IllegalArgumentException, IllegalStateException {
+    if (!this.dungeon.isCave(this.id)) {
+      throw new IllegalStateException("Monsters cannot live in "
+          + "a tunnel.");
+    }
+    if (oty == null) {
+      throw new IllegalArgumentException("Monster must be of valid type.");
+    }
+    if (this.dungeon.getMonster(this.id) != null) {
+      throw new IllegalArgumentException("Cave pre-occupied by a monster, no more "
+          + "monsters can be added.");
+    }
+    if (oty.getMonsterResidingStatus()) {
+      throw new IllegalArgumentException("Monster cannot be moved from one "
+          + "location to another.");
+    }
+    this.dungeon.setMonster(this.id, oty);
+    oty.setMonsterResidingStatus();
+  }
+
+  @Override
+  public Monsters getMonster() {
+    return this.dungeon.getMonster(this.id);
+  }
+
+  @Override
+  public void removeMonster(Monsters oty) throws IllegalArgumentException {
+    if (!this.dungeon.isCave(this.id)) {
+      throw new IllegalArgumentException("Monsters are not living in "
+          + "the tunnel.");
+    }
+    if (this.dungeon.getMonster(this.id) != oty) {
+      throw new IllegalArgumentException("This monster is not present in cave.");
+    }
+    this.dungeon.setMonster(this.id, null);
+  }
+
+  @Override
+  public int getTreasureCount(Treasure treasure) {
+    return this.dungeon.getTreasure(this.id, treasure);
+  }
+
+  @Override
+  public SmellLevel getSmellLevel() {
+    return this.dungeon.getSmellField().getLevel(this.id);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompactLocation)) {
+      return false;
+    }
+    CompactLocation other = (CompactLocation) o;
+    return this.dungeon == other.dungeon && this.id == other.id;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.id;
+  }
+}
@@ -0,0 +1,99 @@
+package dungeons;
+
+/**
+ * An immutable, compressed-sparse-row view of the connections in a dungeon.
+ * The neighbors of location id are stored in a single array from
+ * getOffset(id) up to getOffset(id + 1), so walking the dungeon reads
+ * primitive arrays only and creates no objects.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class CompressedAdjacency {
+
+  private final int[] offsets;
+  private final int[] neighbors;
+
+  /**
+   * Construct the adjacency from offsets and neighbor ids. The arrays are
+   * copied, later changes to them are not seen.
+   *
+   * @param offsets offset of the neighbors of each location, with one extra
+   *                entry at the end holding the number of neighbor ids
+   * @param neighbors neighbor location ids
+   * @throws IllegalArgumentException if an array is null or if the offsets
+   *                                  do not match the neighbor ids
+   */
+  public CompressedAdjacency(int[] offsets, int[] neighbors)
+      throws IllegalArgumentException {
+    if (offsets == null || neighbors == null || offsets.length == 0) {
+      throw new IllegalArgumentException("Offsets and neighbors cannot be empty.");
+    }
+    if (offsets[0] != 0 || offsets[offsets.length - 1] != neighbors.length) {
+      throw new IllegalArgumentException("Offsets do not match the neighbors.");
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] < offsets[i - 1]) {
+        throw new IllegalArgumentException("Offsets must not decrease.");
+      }
+    }
+    this.offsets = offsets.clone();
+    this.neighbors = neighbors.clone();
+  }
+
+  /**
+   * Get the number of locations in the dungeon.
+   *
+   * @return number of locations
+   */
+  public int getNumberOfLocations() {
+    return this.offsets.length - 1;
+  }
+
+  /**
+   * Get the number of entrances of the location.
+   *
+   * @param location location id
+   * @return number of neighbors
+   */
+  public int getDegree(int location) {
+    return this.offsets[location + 1] - this.offsets[location];
+  }
+
+  /**
+   * Get the offset of the first neighbor of the location. The offset of
+   * the location after the last one is the total number of neighbor ids.
+   *
+   * @param location location id, up to the number of locations
+   * @return offset into the neighbor ids
+   */
+  public int getOffset(int location) {
+    return this.offsets[location];
+  }
+
+  /**
+   * Get the neighbor id stored at the offset.
+   *
+   * @param offset offset into the neighbor ids
+   * @return neighbor location id
+   */
+  public int getNeighborAt(int offset) {
+    return this.neighbors[offset];
+  }
+
+  /**
+   * Get the k-th neighbor of the location.
+   *
+   * @param location location id
+   * @param k neighbor number, from 0 to the degree - 1
+   * @return neighbor location id
+   * @throws IndexOutOfBoundsException if the location has no k-th neighbor
+   */
+  public int getNeighbor(int location, int k) throws IndexOutOfBoundsException {
+    if (k < 0 || k >= this.getDegree(location)) {
+      throw new IndexOutOfBoundsException("Neighbor: " + k + ", Degree: "
+          + this.getDegree(location));
+    }
+    return this.neighbors[this.offsets[location] + k];
+  }
+}
@@ -0,0 +1,106 @@
+package dungeons;
+
+/**
+ * A disjoint-set (union-find) over the location numbers of a dungeon. It is
+ * used while building the maze to tell whether two locations are already
+ * connected. The sets are kept in primitive arrays, finding a set compresses
+ * the path to its root and merging attaches the shorter tree under the taller
+ * one, so each operation runs in nearly constant time.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class DisjointSet {
+
+  private final int[] parent;
+  private final byte[] rank;
+  private int numOfSets;
+
+  /**
+   * Construct a disjoint-set where every element is in a set of its own.
+   *
+   * @param size number of elements
+   * @throws IllegalArgumentException if the size is negative
+   */
+  public DisjointSet(int size) throws IllegalArgumentException {
+    if (size < 0) {
+      throw new IllegalArgumentException("Number of elements cannot be negative.");
+    }
+    this.parent = new int[size];
+    this.rank = new byte[size];
+    for (int i = 0; i < size; i++) {
+      this.parent[i] = i;
+    }
+    this.numOfSets = size;
+  }
+
+  /**
+   * Find the representative element of the set holding the element.
+   *
+   * @param element element to look up
+   * @return representative element of the set
+   * @throws IllegalArgumentException if the element is not present
+   */
+  public int find(int element) throws IllegalArgumentException {
+    if (element < 0 || element >= this.parent.length) {
+      throw new IllegalArgumentException("Element not present in the set.");
+    }
+    int root = element;
+    while (this.parent[root] != root) {
+      root = this.parent[root];
+    }
+    // Compress the path to point directly at the root
+    while (this.parent[element] != root) {
+      int next = this.parent[element];
+      this.parent[element] = root;
+      element = next;
+    }
+    return root;
+  }
+
+  /**
+   * Merge the sets holding the two elements.
+   *
+   * @param first first element
+   * @param second second element
+   * @return true if the sets were merged, false if they were already the same set
+   * @throws IllegalArgumentException if either element is not present
+   */
+  public boolean union(int first, int second) throws IllegalArgumentException {
+    int firstRoot = this.find(first);
+    int secondRoot = this.find(second);
+    if (firstRoot == secondRoot) {
+      return false;
+    }
+    if (this.rank[firstRoot] < this.rank[secondRoot]) {
+      this.parent[firstRoot] = secondRoot;
+    } else if (this.rank[firstRoot] > this.rank[secondRoot]) {
+      this.parent[secondRoot] = firstRoot;
+    } else {
+      this.parent[secondRoot] = firstRoot;
+      this.rank[firstRoot] += 1;
+    }
+    this.numOfSets -= 1;
+    return true;
+  }
+
+  /**
+   * Check if the two elements are in the same set.
+   *
+   * @param first first element
+   * @param second second element
+   * @return true if both elements are in the same set
+   */
+  public boolean isConnected(int first, int second) {
+    return this.find(first) == this.find(second);
+  }
+
+  /**
+   * Get the number of disjoint sets left.
+   *
+   * @return number of sets
+   */
+  public int getNumberOfSets() {
+    return this.numOfSets;
+  }
+}
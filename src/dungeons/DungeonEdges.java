@@ -0,0 +1,218 @@
+package dungeons;
+
+/**
+ * A compact store of the possible connections (edges) between locations of a
+ * dungeon grid. Every edge is kept as two location numbers in parallel
+ * primitive arrays along with a single byte holding the direction of the
+ * second location as seen from the first, so an edge costs nine bytes and no
+ * objects are created per edge.
+ *
+ * <p>Edges are laid out ordered by the hash of their endpoints, the order the
+ * earlier set based store iterated them in. A fixed list of draws, as given
+ * to the RandomNumberGeneratorTest, still selects the same edges and builds
+ * the same maze as before. Seeded generators draw differently since the
+ * start and end caves are sampled uniformly, so their dungeons do not keep
+ * their earlier layouts.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class DungeonEdges {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int[] from;
+  private final int[] to;
+  private final byte[] direction;
+  private final int size;
+
+  /**
+   * Construct an edge store from the given arrays, sharing them.
+   *
+   * @param from first location of each edge
+   * @param to second location of each edge
+   * @param direction ordinal of the direction of the second location as
+   *                  seen from the first
+   * @param size number of edges
+   */
+  private DungeonEdges(int[] from, int[] to, byte[] direction, int size) {
+    this.from = from;
+    this.to = to;
+    this.direction = direction;
+    this.size = size;
+  }
+
+  /**
+   * Build all possible edges of a grid in one pass. Every location is
+   * connected to its east and south neighbors. The wrapped grid also
+   * connects the border locations to the opposite border.
+   *
+   * @param rows number of rows in the grid
+   * @param cols number of columns in the grid
+   * @param isWrapped should the border locations be connected
+   * @return edges of the grid
+   * @throws IllegalArgumentException if the number of rows or columns is less
+   *                                  than 1
+   */
+  public static DungeonEdges ofGrid(int rows, int cols, boolean isWrapped)
+      throws IllegalArgumentException {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException("The number of rows and "
+          + "columns must be greater than 0. Illegal Arguments.");
+    }
+    // A wrap edge is only new if it does not loop back or repeat an edge
+    boolean wrapRows = isWrapped && cols > 2;
+    boolean wrapCols = isWrapped && rows > 2;
+    int maxEdges = rows * (cols - 1) + (rows - 1) * cols
+        + (wrapRows ? rows : 0) + (wrapCols ? cols : 0);
+    int[] from = new int[maxEdges];
+    int[] to = new int[maxEdges];
+    byte[] direction = new byte[maxEdges];
+    byte east = (byte) Direction.EAST.ordinal();
+    byte south = (byte) Direction.SOUTH.ordinal();
+
+    int count = 0;
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        int curr = i * cols + j;
+        if (i < rows - 1) {
+          from[count] = curr;
+          to[count] = curr + cols;
+          direction[count++] = south;
+        }
+        if (j < cols - 1) {
+          from[count] = curr;
+          to[count] = curr + 1;
+          direction[count++] = east;
+        }
+      }
+    }
+    if (wrapRows) {
+      for (int i = 0; i < rows; i++) {
+        from[count] = i * cols + cols - 1;
+        to[count] = i * cols;
+        direction[count++] = east;
+      }
+    }
+    if (wrapCols) {
+      for (int j = 0; j < cols; j++) {
+        from[count] = (rows - 1) * cols + j;
+        to[count] = j;
+        direction[count++] = south;
+      }
+    }
+
+    DungeonEdges insertionOrder = new DungeonEdges(from, to, direction, count);
+    int[] order = insertionOrder.orderByHash(identity(count), count);
+    int[] sortedFrom = new int[count];
+    int[] sortedTo = new int[count];
+    byte[] sortedDirection = new byte[count];
+    for (int i = 0; i < count; i++) {
+      sortedFrom[i] = from[order[i]];
+      sortedTo[i] = to[order[i]];
+      sortedDirection[i] = direction[order[i]];
+    }
+    return new DungeonEdges(sortedFrom, sortedTo, sortedDirection, count);
+  }
+
+  /**
+   * Get the number of edges.
+   *
+   * @return number of edges
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Get the first location number of the edge.
+   *
+   * @param edge edge index
+   * @return location number
+   */
+  public int getFrom(int edge) {
+    return this.from[edge];
+  }
+
+  /**
+   * Get the second location number of the edge.
+   *
+   * @param edge edge index
+   * @return location number
+   */
+  public int getTo(int edge) {
+    return this.to[edge];
+  }
+
+  /**
+   * Get the direction in which the other end of the edge lies, as seen from
+   * the given end. Wrapped edges keep the direction of the border they cross.
+   *
+   * @param edge edge index
+   * @param location location number of one end of the edge
+   * @return direction of the other end
+   */
+  public Direction getDirectionFrom(int edge, int location) {
+    Direction forward = DIRECTIONS[this.direction[edge]];
+    if (this.from[edge] == location) {
+      return forward;
+    }
+    return forward == Direction.EAST ? Direction.WEST : Direction.NORTH;
+  }
+
+  /**
+   * Reorder a batch of edges in the order a hash set of those edges would
+   * iterate them, i.e. by the hash bucket of the endpoint sum and then by
+   * the order they were given in. Runs a single counting sort.
+   *
+   * @param edges edge indexes
+   * @param count number of edge indexes to use from the array
+   * @return a new array with the reordered edge indexes
+   */
+  public int[] orderByHash(int[] edges, int count) {
+    int capacity = DEFAULT_CAPACITY;
+    while (count > capacity * 3 / 4) {
+      capacity <<= 1;
+    }
+    int mask = capacity - 1;
+    int[] bucketStart = new int[capacity + 1];
+    for (int i = 0; i < count; i++) {
+      bucketStart[this.bucket(edges[i], mask) + 1] += 1;
+    }
+    for (int b = 0; b < capacity; b++) {
+      bucketStart[b + 1] += bucketStart[b];
+    }
+    int[] ordered = new int[count];
+    for (int i = 0; i < count; i++) {
+      ordered[bucketStart[this.bucket(edges[i], mask)]++] = edges[i];
+    }
+    return ordered;
+  }
+
+  /**
+   * Get the hash bucket of an edge for the given table mask.
+   *
+   * @param edge edge index
+   * @param mask table size - 1
+   * @return bucket index
+   */
+  private int bucket(int edge, int mask) {
+    int hash = this.from[edge] + this.to[edge];
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  /**
+   * Get an array of the numbers 0 to count - 1.
+   *
+   * @param count length of the array
+   * @return array of numbers
+   */
+  private static int[] identity(int count) {
+    int[] numbers = new int[count];
+    for (int i = 0; i < count; i++) {
+      numbers[i] = i;
+    }
+    return numbers;
+  }
+}
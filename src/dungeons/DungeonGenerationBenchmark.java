@@ -0,0 +1,67 @@
+package dungeons;
+
+/**
+ * A benchmark of the parallel speedup of the TiledDungeonGenerator. It builds
+ * the maze cells of a large dungeon on 1, 4, 8 and 16 threads a few times per
+ * thread count, and reports the best time and the speedup over 1 thread.
+ *
+ * <p>For reference it also reports the time to build a whole MazeDungeon of
+ * the same size. That time includes the location objects, treasures, smell
+ * field and adjacency index as well as the maze, so it is not compared with
+ * the cells of the tiled generator.
+ *
+ * <p>Usage: java dungeons.DungeonGenerationBenchmark [size] [tile size] [runs]
+ */
+public class DungeonGenerationBenchmark {
+
+  private static final int[] THREADS = {1, 4, 8, 16};
+
+  /**
+   * Main function running the benchmark.
+   *
+   * @param args optional dungeon size, tile size and number of runs
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int tile = args.length > 1 ? Integer.parseInt(args[1])
+        : TiledDungeonGenerator.DEFAULT_TILE_SIZE;
+    int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+    int interconnectivity = 10;
+    RandomNumberGenerator random = new RandomNumberGeneratorDev();
+
+    System.out.println("Dungeon of " + size + " x " + size + " locations, tiles of "
+        + tile + " x " + tile + ", " + Runtime.getRuntime().availableProcessors()
+        + " processors available.");
+
+    long maze = Long.MAX_VALUE;
+    for (int i = 0; i < runs; i++) {
+      random.setSeed(i);
+      long begin = System.nanoTime();
+      new MazeDungeon(size, size, interconnectivity, true, 0, 1, random);
+      maze = Math.min(maze, System.nanoTime() - begin);
+    }
+    System.out.printf("Whole MazeDungeon:     %8.1f ms, for reference%n", maze / 1e6);
+
+    // Warm up so the first thread count is not measured cold
+    for (int i = 0; i < runs; i++) {
+      new TiledDungeonGenerator(size, size, interconnectivity, true, tile, 1, random)
+          .generateCells();
+    }
+    long single = 0;
+    for (int threads : THREADS) {
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < runs; i++) {
+        random.setSeed(i);
+        long begin = System.nanoTime();
+        new TiledDungeonGenerator(size, size, interconnectivity, true, tile, threads, random)
+            .generateCells();
+        best = Math.min(best, System.nanoTime() - begin);
+      }
+      if (threads == 1) {
+        single = best;
+      }
+      System.out.printf("Tiled on %2d threads:   %8.1f ms, speedup %.2fx%n", threads,
+          best / 1e6, (double) single / best);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package dungeons;
+
+/**
+ * A maze generator that hands out the finished dungeon row by row, one byte
+ * per location in the CompactDungeon layout: bit d is set if the location
+ * is connected in the direction with ordinal d, and bit 4 is set if the
+ * location is a cave, i.e. it has 1, 3 or 4 entrances. The connections
+ * form a random spanning tree of the grid plus interconnectivity extra
+ * connections, and a wrapped dungeon also connects the borders of a
+ * dimension larger than 2.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public interface DungeonGenerator {
+
+  /**
+   * A sink receiving the rows of the dungeon in order.
+   */
+  interface RowSink {
+
+    /**
+     * Receive a finished row. The array may be reused for the next row, so
+     * it must be copied if it is kept.
+     *
+     * @param row row number, from 0
+     * @param cells one byte per location of the row
+     */
+    void acceptRow(long row, byte[] cells);
+  }
+
+  /**
+   * Get the number of rows.
+   *
+   * @return number of rows
+   */
+  long getNumberOfRows();
+
+  /**
+   * Get the number of columns.
+   *
+   * @return number of columns
+   */
+  int getNumberOfColumns();
+
+  /**
+   * Get the interconnectivity of the dungeon.
+   *
+   * @return interconnectivity
+   */
+  int getInterconnectivity();
+
+  /**
+   * Check if the dungeon is wrapped.
+   *
+   * @return true if wrapped
+   */
+  boolean isWrapped();
+
+  /**
+   * Generate a new dungeon and hand its rows to the sink, from the first row
+   * to the last one.
+   *
+   * @param sink sink receiving the rows
+   * @throws IllegalArgumentException if the sink is null
+   */
+  void generate(RowSink sink) throws IllegalArgumentException;
+}
@@ -14,9 +14,12 @@ public interface Dungeons {
   
   /**
    * Assign a start and end cave to the maze. The positions are randomly 
-   * assigned and have a minimum distance of 5 between the caves.
+   * assigned and every path between the caves has a minimum length, 
+   * 5 locations by default.
+   * 
+   * @throws IllegalStateException if no two caves are far enough apart
    */
-  void assignStartAndEnd();
+  void assignStartAndEnd() throws IllegalStateException;
   
   /**
    * Get the start cave of the maze. Player is moved to this cave 
@@ -44,11 +47,54 @@ public interface Dungeons {
   
   /**
    * A 2-D matrix of lists of neighbors for each coordinate location. 
+   * The matrix is built once and cannot be modified.
    * 
    * @return list of neighbors for each location in the dungeon
    */
   List<List<List<Location>>> getAllAdjacency();
   
+  /**
+   * Get the neighbors of every location as location numbers in compressed 
+   * sparse rows, for walking the dungeon without creating objects.
+   * 
+   * @return compressed adjacency of the dungeon
+   */
+  CompressedAdjacency getCompressedAdjacency();
+  
+  /**
+   * Get the directions of the connected neighbors of a location as a bit 
+   * mask, with bit d set for a neighbor in the direction of ordinal d.
+   * 
+   * @param id location number
+   * @return neighbor bit mask
+   */
+  int getNeighborMask(int id);
+  
+  /**
+   * Get the count of a treasure in a location.
+   * 
+   * @param id location number
+   * @param treasure treasure type
+   * @return treasure count
+   */
+  int getTreasure(int id, Treasure treasure);
+  
+  /**
+   * Get the arrows in a location.
+   * 
+   * @param id location number
+   * @return number of arrows
+   */
+  int getArrows(int id);
+  
+  /**
+   * Get the monster in a location.
+   * 
+   * @param id location number
+   * @return monster or null if none
+   */
+  Monsters getMonster(int id);
+  
   /**
    * Get all caves in the dungeon.
    * 
@@ -69,4 +115,21 @@ public interface Dungeons {
    * @return 2-D matrix of location id's.
    */
   String printDungeonLayout();
+  
+  /**
+   * Get the smell field of the monsters in the dungeon. The field is kept 
+   * up to date as monsters are added and removed, and its radius can be 
+   * changed.
+   * 
+   * @return smell field of the dungeon
+   */
+  SmellField getSmellField();
+  
+  /**
+   * Get the jump table of arrow flights through the dungeon. The table is 
+   * built once, on first use.
+   * 
+   * @return arrow flights of the dungeon
+   */
+  ArrowFlightTable getArrowFlights();
 }
@@ -0,0 +1,263 @@
+package dungeons;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A maze generator that builds the dungeon one row at a time with Eller's
+ * algorithm. Only the current row is kept in memory, so the working memory
+ * grows with the number of columns and not with the number of rows, and
+ * dungeons far taller than the heap can be streamed to a file or any other
+ * sink.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class EllerDungeonGenerator implements DungeonGenerator {
+
+  private static final int NORTH = 1 << Direction.NORTH.ordinal();
+  private static final int SOUTH = 1 << Direction.SOUTH.ordinal();
+  private static final int EAST = 1 << Direction.EAST.ordinal();
+  private static final int WEST = 1 << Direction.WEST.ordinal();
+  private static final int CAVE = 1 << 4;
+
+  private final long numOfRows;
+  private final int numOfCols;
+  private final int interconnectivity;
+  private final boolean isWrapped;
+  private final RandomNumberGenerator random;
+  private long candidatesLeft;
+  private long extraNeeded;
+
+  /**
+   * Construct a row streaming generator.
+   *
+   * @param r number of rows
+   * @param c number of columns
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of rows or columns is less
+   *                                  than 1 or if the interconnectivity is
+   *                                  less than 0 or if the random number
+   *                                  generator is a null object
+   */
+  public EllerDungeonGenerator(long r, int c, int interconn, boolean wrapping,
+      RandomNumberGenerator rand) throws IllegalArgumentException {
+    if (r < 1 || c < 1) {
+      throw new IllegalArgumentException("The number of rows and "
+          + "columns must be greater than 0. Illegal Arguments.");
+    }
+    if (interconn < 0) {
+      throw new IllegalArgumentException("Interconnectivity "
+          + "must be atleast 1.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
+    this.numOfRows = r;
+    this.numOfCols = c;
+    this.interconnectivity = interconn;
+    this.isWrapped = wrapping;
+    this.random = rand;
+  }
+
+  @Override
+  public long getNumberOfRows() {
+    return this.numOfRows;
+  }
+
+  @Override
+  public int getNumberOfColumns() {
+    return this.numOfCols;
+  }
+
+  @Override
+  public int getInterconnectivity() {
+    return this.interconnectivity;
+  }
+
+  @Override
+  public boolean isWrapped() {
+    return this.isWrapped;
+  }
+
+  /**
+   * Generate a new dungeon and write the rows to the stream, the columns of
+   * each row one byte each.
+   *
+   * @param out stream to write to
+   * @throws IOException if writing to the stream fails
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    try {
+      this.generate((row, cells) -> {
+        try {
+          out.write(cells);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each row keeps the sets of locations that are already connected.
+   * Neighbors in different sets are randomly joined, every set carries on
+   * to the next row through at least one random south connection and the
+   * last row joins all remaining sets. Every other grid connection is an
+   * extra one, and exactly as many of those as the interconnectivity
+   * allows are picked with selection sampling, as their number is known
+   * beforehand.
+   */
+  @Override
+  public void generate(RowSink sink) throws IllegalArgumentException {
+    if (sink == null) {
+      throw new IllegalArgumentException("Row sink cannot be null.");
+    }
+    int cols = this.numOfCols;
+    // A wrap connection is only new if it does not loop back or repeat one
+    boolean wrapRows = this.isWrapped && cols > 2;
+    boolean wrapCols = this.isWrapped && this.numOfRows > 2;
+    long possible = this.numOfRows * (cols - 1) + (this.numOfRows - 1) * cols
+        + (wrapRows ? this.numOfRows : 0) + (wrapCols ? cols : 0);
+    this.candidatesLeft = possible - (this.numOfRows * cols - 1);
+    this.extraNeeded = Math.min(this.interconnectivity, this.candidatesLeft);
+
+    byte[] cells = new byte[cols];
+    boolean[] wrapNorth = new boolean[cols];
+    boolean[] northOpen = new boolean[cols];
+    boolean[] carried = new boolean[cols];
+    int[] previousSet = new int[cols];
+    int[] firstOfSet = new int[cols];
+    int[] setSize = new int[cols];
+    int[] chosen = new int[cols];
+    boolean[] hasSouth = new boolean[cols];
+
+    // The first row must know its north connections before it is handed out
+    if (wrapCols) {
+      for (int c = 0; c < cols; c++) {
+        wrapNorth[c] = this.pickExtra();
+      }
+    }
+
+    for (long r = 0; r < this.numOfRows; r++) {
+      boolean lastRow = r == this.numOfRows - 1;
+      Arrays.fill(cells, (byte) 0);
+      Arrays.fill(firstOfSet, -1);
+      DisjointSet sets = new DisjointSet(cols);
+      for (int c = 0; c < cols; c++) {
+        if (r == 0 ? wrapNorth[c] : northOpen[c]) {
+          cells[c] |= NORTH;
+        }
+        // Locations reached from the same set above stay in the same set
+        if (r > 0 && carried[c]) {
+          if (firstOfSet[previousSet[c]] < 0) {
+            firstOfSet[previousSet[c]] = c;
+          } else {
+            sets.union(firstOfSet[previousSet[c]], c);
+          }
+        }
+      }
+
+      int horizontal = wrapRows ? cols : cols - 1;
+      for (int c = 0; c < horizontal; c++) {
+        int next = c + 1 == cols ? 0 : c + 1;
+        boolean carve;
+        if (sets.isConnected(c, next)) {
+          carve = this.pickExtra();
+        } else if (lastRow || this.random.getRandomNumber(0, 2) == 0) {
+          sets.union(c, next);
+          carve = true;
+        } else {
+          carve = this.pickExtra();
+        }
+        if (carve) {
+          cells[c] |= EAST;
+          cells[next] |= WEST;
+        }
+      }
+
+      if (!lastRow) {
+        Arrays.fill(setSize, 0);
+        Arrays.fill(hasSouth, false);
+        for (int c = 0; c < cols; c++) {
+          int root = sets.find(c);
+          carried[c] = this.random.getRandomNumber(0, 2) == 0;
+          hasSouth[root] |= carried[c];
+          // Keep a uniformly random member of the set as a fallback
+          setSize[root] += 1;
+          if (this.random.getRandomNumber(0, setSize[root]) == 0) {
+            chosen[root] = c;
+          }
+        }
+        for (int c = 0; c < cols; c++) {
+          if (setSize[c] > 0 && !hasSouth[c]) {
+            carried[chosen[c]] = true;
+          }
+        }
+        for (int c = 0; c < cols; c++) {
+          previousSet[c] = sets.find(c);
+          northOpen[c] = carried[c] || this.pickExtra();
+          if (northOpen[c]) {
+            cells[c] |= SOUTH;
+          }
+        }
+      } else if (wrapCols) {
+        for (int c = 0; c < cols; c++) {
+          if (wrapNorth[c]) {
+            cells[c] |= SOUTH;
+          }
+        }
+      }
+
+      for (int c = 0; c < cols; c++) {
+        if (Integer.bitCount(cells[c]) != 2) {
+          cells[c] |= CAVE;
+        }
+      }
+      sink.acceptRow(r, cells);
+    }
+  }
+
+  /**
+   * Decide whether an extra connection is carved, such that every set of
+   * interconnectivity extra connections is equally likely.
+   *
+   * @return true if the connection is carved
+   */
+  private boolean pickExtra() {
+    boolean pick = this.extraNeeded > 0
+        && this.randomBelow(this.candidatesLeft) < this.extraNeeded;
+    this.candidatesLeft -= 1;
+    if (pick) {
+      this.extraNeeded -= 1;
+    }
+    return pick;
+  }
+
+  /**
+   * Get a random number from 0 up to the bound, which may not fit an int.
+   *
+   * @param bound upper bound of the range, excluded
+   * @return random number
+   */
+  private long randomBelow(long bound) {
+    if (bound <= Integer.MAX_VALUE) {
+      return this.random.getRandomNumber(0, (int) bound);
+    }
+    long rank;
+    do {
+      long high = this.random.getRandomNumber(0, (int) (bound >>> 30) + 1);
+      rank = (high << 30) | this.random.getRandomNumber(0, 1 << 30);
+    } while (rank >= bound);
+    return rank;
+  }
+}
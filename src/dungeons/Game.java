@@ -77,4 +77,25 @@ public interface Game extends ReadonlyGameModel {
    */
   String move(Direction towards) throws IllegalStateException, 
       IllegalArgumentException;
+  
+  /**
+   * Take a snapshot of the state of the game. The snapshot shares the maze 
+   * with the game and copies the rest, so it is not changed by later moves 
+   * and can be turned into any number of independent games, e.g. for trying 
+   * out moves ahead.
+   * 
+   * @return snapshot of the game
+   * @throws IllegalStateException if the game has not started yet
+   */
+  GameSnapshot snapshot() throws IllegalStateException;
+  
+  /**
+   * Copy the game. The copy starts in the state of the game and is changed 
+   * independently of it, but draws from the same random number generator; 
+   * use a snapshot to give copies their own generators.
+   * 
+   * @return copy of the game
+   * @throws IllegalStateException if the game has not started yet
+   */
+  Game copy() throws IllegalStateException;
 }
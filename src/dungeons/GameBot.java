@@ -0,0 +1,23 @@
+package dungeons;
+
+/**
+ * A policy playing an adventure game without a human, one turn at a time. 
+ * A bot is shared by all the games a SimulationEngine runs in parallel, so 
+ * it must not keep state of its own between calls; everything it needs is 
+ * read from the game, and all its randomness comes from the generator it is 
+ * given.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public interface GameBot {
+  
+  /**
+   * Play the turn of the player whose turn it is, e.g. move or shoot an 
+   * arrow. Picking up treasures or arrows on the way does not end a turn.
+   * 
+   * @param game started game that is not over
+   * @param random random number generator of the game
+   */
+  void playTurn(Game game, RandomNumberGenerator random);
+}
@@ -0,0 +1,111 @@
+package dungeons;
+
+/**
+ * A change to an adventure game, with the player it concerns and the 
+ * location it happened at. A move also carries the location the player 
+ * came from, for other events it is the same as the location.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class GameEvent {
+  
+  private final GameEventType type;
+  private final int player;
+  private final int row;
+  private final int col;
+  private final int fromRow;
+  private final int fromCol;
+  
+  /**
+   * Construct a game event.
+   * 
+   * @param type kind of change
+   * @param player player number, 1 or 2, or 0 if no player is concerned
+   * @param row row number of the location
+   * @param col column number of the location
+   * @param fromRow row number of the location a move started from
+   * @param fromCol column number of the location a move started from
+   * @throws IllegalArgumentException if the type is null or the player 
+   *                                  number is not 0, 1 or 2
+   */
+  public GameEvent(GameEventType type, int player, int row, int col, 
+      int fromRow, int fromCol) throws IllegalArgumentException {
+    if (type == null) {
+      throw new IllegalArgumentException("Event type cannot be null.");
+    }
+    if (player < 0 || player > 2) {
+      throw new IllegalArgumentException("Player number must be 0, 1 or 2.");
+    }
+    this.type = type;
+    this.player = player;
+    this.row = row;
+    this.col = col;
+    this.fromRow = fromRow;
+    this.fromCol = fromCol;
+  }
+  
+  /**
+   * Get the kind of change.
+   * 
+   * @return event type
+   */
+  public GameEventType getType() {
+    return this.type;
+  }
+  
+  /**
+   * Get the player the change concerns, the winner for the end of the game.
+   * 
+   * @return player number, 1 or 2, or 0 if no player is concerned
+   */
+  public int getPlayer() {
+    return this.player;
+  }
+  
+  /**
+   * Get the row number of the location of the change.
+   * 
+   * @return row number
+   */
+  public int getRow() {
+    return this.row;
+  }
+  
+  /**
+   * Get the column number of the location of the change.
+   * 
+   * @return column number
+   */
+  public int getColumn() {
+    return this.col;
+  }
+  
+  /**
+   * Get the row number of the location a move started from.
+   * 
+   * @return row number
+   */
+  public int getFromRow() {
+    return this.fromRow;
+  }
+  
+  /**
+   * Get the column number of the location a move started from.
+   * 
+   * @return column number
+   */
+  public int getFromColumn() {
+    return this.fromCol;
+  }
+  
+  @Override
+  public String toString() {
+    if (this.row == this.fromRow && this.col == this.fromCol) {
+      return this.type + " player " + this.player + " at (" + this.row + ", " 
+          + this.col + ")";
+    }
+    return this.type + " player " + this.player + " from (" + this.fromRow + ", " 
+        + this.fromCol + ") to (" + this.row + ", " + this.col + ")";
+  }
+}
@@ -0,0 +1,15 @@
+package dungeons;
+
+/**
+ * The kinds of change an adventure game reports to its listeners:
+ * a player moved, a player was killed, an arrow was shot, a monster was hit 
+ * by an arrow, treasures were collected, arrows were picked up, the turn 
+ * passed to the other player, and the game ended.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public enum GameEventType {
+  PLAYER_MOVED, PLAYER_KILLED, ARROW_SHOT, MONSTER_HIT, TREASURE_COLLECTED, 
+  ARROWS_PICKED, TURN_CHANGED, GAME_OVER;
+}
@@ -0,0 +1,20 @@
+package dungeons;
+
+/**
+ * A listener notified by an adventure game after each change to the game, 
+ * so that views and other front-ends can update only what changed instead 
+ * of reading the whole model again.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public interface GameListener {
+  
+  /**
+   * Handle a change to the game. The game has already been updated when 
+   * this is called.
+   * 
+   * @param event change to the game
+   */
+  void gameChanged(GameEvent event);
+}
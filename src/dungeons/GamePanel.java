@@ -1,21 +1,14 @@
 package dungeons;
 
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.GridBagConstraints;
-import java.awt.GridBagLayout;
 import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import javax.imageio.ImageIO;
-import javax.swing.ImageIcon;
-import javax.swing.JLabel;
+import java.util.Arrays;
 import javax.swing.JPanel;
 
 /**
@@ -24,7 +17,7 @@ import javax.swing.JPanel;
  * @author Ashwini Shaktivel Kumar
  *
  */
-public class GamePanel extends JPanel {
+public class GamePanel extends JPanel implements GameListener {
   
   private AdventureGameController control;
   private ReadonlyGameModel model;
@@ -32,6 +25,13 @@ public class GamePanel extends JPanel {
   private int dungeonCols;
   private int currRow;
   private int currCol;
+  private final SpriteAtlas atlas;
+  private Rectangle window;
+  private int[] windowKeys;
+  
+  private static final int CELL_SIZE = SpriteAtlas.DEFAULT_CELL_SIZE;
+  private static final int DARK = -1;
+  private static final int UNPAINTED = -2;
   
   /**
    * Constructing the entire game view including dungeon view.
@@ -52,212 +52,224 @@ public class GamePanel extends JPanel {
     this.dungeonCols = this.model.getDungeon().get(0).size();
     this.currRow = 0;
     this.currCol = 0;
+    this.atlas = SpriteAtlas.getAtlas(CELL_SIZE);
+    this.window = new Rectangle();
+    this.windowKeys = new int[0];
+    this.setBackground(Color.WHITE);
+    this.setPreferredSize(new Dimension(this.dungeonCols * CELL_SIZE, 
+        this.dungeonRows * CELL_SIZE));
     this.setupGamePanel();
     this.setVisible(true);
   }
   
   /**
-   * Set up the game dungeon view panel.
+   * Set up the game dungeon view panel. Only the cells in the visible part 
+   * of the panel are checked against the model, and only the ones that look 
+   * different are repainted. The panel scrolls to keep the player whose turn 
+   * it is in view.
    */
   public void setupGamePanel() {
-    this.removeAll();
-    this.setBackground(Color.WHITE);
-    this.setLayout(new GridBagLayout());
-    GridBagConstraints grid = new GridBagConstraints();
-    BufferedImage img;
-    try {
-      BufferedImage arrowInCave = ImageIO.read(getClass().getResource("/images/arrow.png"));
-      arrowInCave = this.bufferedImageProcessing(arrowInCave, 30, 10);
-      BufferedImage monsterInCave = ImageIO.read(getClass().getResource("/images/wumpus.png"));
-      monsterInCave = this.bufferedImageProcessing(monsterInCave, 30, 30);
-      BufferedImage playerOneIcon = ImageIO.read(getClass().getResource("/images/player1.png"));
-      playerOneIcon = this.bufferedImageProcessing(playerOneIcon, 12, 24);
-      BufferedImage playerTwoIcon = ImageIO.read(getClass().getResource("/images/player2.png"));
-      playerTwoIcon = this.bufferedImageProcessing(playerTwoIcon, 24, 24);
-      BufferedImage mildSmell = ImageIO.read(getClass()
-          .getResource("/images/slime-pit-nearby.png"));
-      BufferedImage strongSmell = ImageIO.read(getClass().getResource("/images/wumpus-nearby.png"));
-      BufferedImage dark = ImageIO.read(getClass().getResource("/images/dark.png"));
-      
-      for (int i = 0; i < this.dungeonRows; i++) {
-        for (int j = 0; j < this.dungeonCols; j++) {
-          grid.gridx = j;
-          grid.gridy = i;
-          int spacing = 8;
-          Location currLocation = this.model.getDungeon().get(i).get(j);
-          if (this.model.getVisitedLocations().contains(currLocation.getLocationId())) {
-            String fileName = "";
-            if (currLocation.getLocationId().charAt(0) == 'C') {
-              fileName = this.displayCave(currLocation);
-            } else {
-              fileName = this.displayTunnel(currLocation);
-            }
-            img = ImageIO.read(getClass().getResource("/images/" + fileName + ".png"));
-            img = this.bufferedImageProcessing(img, 70, 70);
-            
-            List<String> treasureList = this.displayTreasureInCave(img, currLocation);
-            
-            for (String l : treasureList) {
-              BufferedImage treasureImg = ImageIO.read(getClass()
-                  .getResource("/images/" + l + ".png"));
-              treasureImg = this.bufferedImageProcessing(treasureImg, 15, 15);
-              img = this.overlay(img, treasureImg, spacing, 20);
-              spacing = spacing + 15;
-            }
-                       
-            if (currLocation.getArrowsInLocation() > 0) {
-              img = this.overlay(img, arrowInCave, 15, 40);
-            }
-            
-            if (currLocation.getMonster() != null) {
-              img = this.overlay(img, monsterInCave, 40, 35);
-            }
-            
-            if (this.model.getPlayerOneLocation().equals(currLocation.getLocationId())) {
-              if (this.model.getTurn() == this.model.getPlayerOne()) {
-                this.currRow = i;
-                this.currCol = j;
-              }
-              img = this.overlay(img, playerOneIcon, 20, 20);
-              if (this.model.getPlayerOne().getCurrentLocationDetails().contains("terrible")) {
-                img = this.overlay(img, strongSmell, 0, 0);
-              } else if (this.model.getPlayerOne().getCurrentLocationDetails()
-                  .contains("slightly smelly")) {
-                img = this.overlay(img, mildSmell, 0, 0);
-              }
-            }
-            
-            if (this.model.getPlayerTwo() != null) {
-              if (this.model.getPlayerTwoLocation().equals(currLocation.getLocationId())) {
-                if (this.model.getTurn().getPlayerId()
-                    .equals(this.model.getPlayerTwo().getPlayerId())) {
-                  this.currRow = i;
-                  this.currCol = j;
-                }
-                img = this.overlay(img, playerTwoIcon, 35, 20);
-                if (this.model.getPlayerTwo().getCurrentLocationDetails().contains("terrible")) {
-                  img = this.overlay(img, strongSmell, 0, 0);
-                } else if (this.model.getPlayerTwo().getCurrentLocationDetails()
-                    .contains("slightly smelly")) {
-                  img = this.overlay(img, mildSmell, 0, 0);
-                }
-              }
-            }
-            JLabel pic = new JLabel(new ImageIcon(img));
-            this.add(pic, grid);
-          } else {
-            dark = bufferedImageProcessing(dark, 70, 70);
-            JLabel hidden = new JLabel(new ImageIcon(dark));
-            this.add(hidden, grid);
-          }
-        }
+    this.followPlayer();
+    this.syncWindow();
+    for (int i = this.window.y; i < this.window.y + this.window.height; i++) {
+      for (int j = this.window.x; j < this.window.x + this.window.width; j++) {
+        this.updateCell(i, j, this.getCellKey(i, j));
       }
-    } catch (IOException ioe) {
-      ioe.printStackTrace();
     }
   }
   
-  private BufferedImage bufferedImageProcessing(BufferedImage img, int width, int height) {
-    Image tmp = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-    BufferedImage dimg = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-    Graphics2D g2d = dimg.createGraphics();
-    g2d.drawImage(tmp, 0, 0, null);
-    g2d.dispose();
-    return dimg;
+  /**
+   * Apply a change of the model to the cells it touched: the location of 
+   * the event, the location a move started from, and the cells of the 
+   * players, whose smell may change when a monster is hit.
+   * 
+   * @param event change to the game
+   */
+  @Override
+  public void gameChanged(GameEvent event) {
+    this.followPlayer();
+    this.syncWindow();
+    this.refreshCell(event.getRow(), event.getColumn());
+    this.refreshCell(event.getFromRow(), event.getFromColumn());
+    for (int player = 1; player <= this.model.getNumberOfPlayers(); player++) {
+      this.refreshCell(this.model.getPlayerRow(player), this.model.getPlayerColumn(player));
+    }
   }
   
-  private BufferedImage overlay(BufferedImage cell, BufferedImage element, int horiSpacing, 
-      int vertiSpacing) {
-    BufferedImage updated = new BufferedImage(cell.getWidth(), cell.getHeight(), 
-        BufferedImage.TYPE_INT_ARGB);
-    Graphics g = updated.createGraphics();
-    g.drawImage(cell, 0, 0, null);
-    g.drawImage(element, horiSpacing, vertiSpacing, null);
-    return updated;
+  /**
+   * Note the cell of the player whose turn it is and scroll to keep it in 
+   * view.
+   */
+  private void followPlayer() {
+    int player = this.model.getTurn() == this.model.getPlayerOne() ? 1 : 2;
+    this.currRow = this.model.getPlayerRow(player);
+    this.currCol = this.model.getPlayerColumn(player);
+    Rectangle playerCell = new Rectangle(this.getOriginX() + this.currCol * CELL_SIZE, 
+        this.getOriginY() + this.currRow * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+    if (!this.getVisibleRect().contains(playerCell)) {
+      this.scrollRectToVisible(playerCell);
+    }
   }
   
-  private String displayCave(Location curr) {
-    String[] locDetails = curr.getLocationDetails().split("\n");
-    
-    List<String> allNeighborDirections = new ArrayList<>();
-    
-    for (int j = 0; j < locDetails.length; j++) {
-      allNeighborDirections.add(locDetails[j].substring(0, 1));
+  /**
+   * Check a single cell against the model and repaint it if it is visible 
+   * and looks different, e.g. when the model reports a change in that 
+   * location.
+   * 
+   * @param row row number of the cell
+   * @param col column number of the cell
+   */
+  public void refreshCell(int row, int col) {
+    if (this.window.contains(col, row)) {
+      this.updateCell(row, col, this.getCellKey(row, col));
     }
-       
-    switch (allNeighborDirections.size()) {
-      case 1:
-        if (allNeighborDirections.contains("N")) {
-          return "N";
-        } else if (allNeighborDirections.contains("E")) {
-          return "E";
-        } else if (allNeighborDirections.contains("W")) {
-          return "W";
-        } else {
-          return "S";
-        }
-      case 3:
-        if (allNeighborDirections.contains("N") && allNeighborDirections.contains("E") 
-            && allNeighborDirections.contains("W")) {
-          return "ENW";
-        } else if (allNeighborDirections.contains("N") && allNeighborDirections.contains("W") 
-            && allNeighborDirections.contains("S")) {
-          return "NWS";
-        } else if (allNeighborDirections.contains("W") && allNeighborDirections.contains("S") 
-            && allNeighborDirections.contains("E")) {
-          return "WSE";
-        } else {
-          return "SEN";
-        }
-      case 4:
-        return "NEWS";
-      default:
+  }
+  
+  /**
+   * Remember what a visible cell shows and schedule a repaint of its 
+   * rectangle only, if it changed.
+   * 
+   * @param row row number of the cell
+   * @param col column number of the cell
+   * @param cell sprite atlas key of the cell, or DARK
+   */
+  private void updateCell(int row, int col, int cell) {
+    int index = (row - this.window.y) * this.window.width + col - this.window.x;
+    if (this.windowKeys[index] != cell) {
+      this.windowKeys[index] = cell;
+      this.repaint(this.getOriginX() + col * CELL_SIZE, this.getOriginY() + row * CELL_SIZE, 
+          CELL_SIZE, CELL_SIZE);
     }
-    
-    return "";
   }
   
-  private String displayTunnel(Location curr) {
-    String[] locDetails = curr.getLocationDetails().split("\n");
-
-    List<String> allNeighborDirections = new ArrayList<>();
-    
-    for (int j = 0; j < locDetails.length; j++) {
-      allNeighborDirections.add(locDetails[j].substring(0, 1));
+  /**
+   * Move the window of remembered cells to the cells in the visible part of 
+   * the panel. The window only grows with the viewport, never with the 
+   * dungeon, and forgets its cells when the panel scrolls.
+   */
+  private void syncWindow() {
+    Rectangle cells = this.getCellsIn(this.getVisibleRect());
+    if (!cells.equals(this.window)) {
+      this.window = cells;
+      if (this.windowKeys.length < cells.width * cells.height) {
+        this.windowKeys = new int[cells.width * cells.height];
+      }
+      Arrays.fill(this.windowKeys, UNPAINTED);
     }
-    
-    if (allNeighborDirections.contains("E") && allNeighborDirections.contains("W")) {
-      return "EW";
-    } else if (allNeighborDirections.contains("E") && allNeighborDirections.contains("N")) {
-      return "NE";
-    } else if (allNeighborDirections.contains("S") && allNeighborDirections.contains("N")) {
-      return "NS";
-    } else if (allNeighborDirections.contains("W") && allNeighborDirections.contains("N")) {
-      return "NW";
-    } else if (allNeighborDirections.contains("E") && allNeighborDirections.contains("S")) {
-      return "SE";
-    } else {
-      return "SW";
+  }
+  
+  /**
+   * Get the cells touched by an area of the panel.
+   * 
+   * @param area area in panel coordinates
+   * @return first column and row, and number of columns and rows
+   */
+  private Rectangle getCellsIn(Rectangle area) {
+    int firstRow = Math.max(0, Math.floorDiv(area.y - this.getOriginY(), CELL_SIZE));
+    int lastRow = Math.min(this.dungeonRows - 1, 
+        Math.floorDiv(area.y + area.height - 1 - this.getOriginY(), CELL_SIZE));
+    int firstCol = Math.max(0, Math.floorDiv(area.x - this.getOriginX(), CELL_SIZE));
+    int lastCol = Math.min(this.dungeonCols - 1, 
+        Math.floorDiv(area.x + area.width - 1 - this.getOriginX(), CELL_SIZE));
+    if (area.isEmpty() || lastRow < firstRow || lastCol < firstCol) {
+      return new Rectangle();
     }
+    return new Rectangle(firstCol, firstRow, lastCol - firstCol + 1, lastRow - firstRow + 1);
   }
   
-  private List<String> displayTreasureInCave(BufferedImage img, Location curr) throws IOException {
-    List<String> treasureList = new ArrayList<>();
-    String treasureInCave = curr.getPresentTreasures();
+  /**
+   * Get the sprite atlas key of a cell.
+   * 
+   * @param i row number of the cell
+   * @param j column number of the cell
+   * @return sprite atlas key, or DARK if the cell is not visited yet
+   */
+  private int getCellKey(int i, int j) {
+    if (!this.model.isVisited(i, j)) {
+      return DARK;
+    }
+    int cell = this.model.getNeighborMask(i, j);
+    if (this.model.getTreasureCount(i, j, Treasure.DIAMONDS) > 0) {
+      cell |= SpriteAtlas.DIAMONDS;
+    }
+    if (this.model.getTreasureCount(i, j, Treasure.RUBIES) > 0) {
+      cell |= SpriteAtlas.RUBIES;
+    }
+    if (this.model.getTreasureCount(i, j, Treasure.SAPPHIRE) > 0) {
+      cell |= SpriteAtlas.SAPPHIRE;
+    }
+    if (this.model.getArrowCount(i, j) > 0) {
+      cell |= SpriteAtlas.ARROWS;
+    }
+    if (this.model.hasMonster(i, j)) {
+      cell |= SpriteAtlas.MONSTER;
+    }
+    if (this.model.getPlayerRow(1) == i && this.model.getPlayerColumn(1) == j) {
+      cell |= SpriteAtlas.PLAYER_ONE;
+    }
+    if (this.model.getNumberOfPlayers() == 2 
+        && this.model.getPlayerRow(2) == i && this.model.getPlayerColumn(2) == j) {
+      cell |= SpriteAtlas.PLAYER_TWO;
+    }
     
-    if (!treasureInCave.contains("does not have any treasure")) {
-      treasureInCave = treasureInCave.substring(0, treasureInCave.length() - 26);
-      if (treasureInCave.contains("DIAMOND")) {
-        treasureList.add("diamonds");
-      }
-      if (treasureInCave.contains("RUBIES")) {
-        treasureList.add("ruby");
+    if ((cell & (SpriteAtlas.PLAYER_ONE | SpriteAtlas.PLAYER_TWO)) != 0) {
+      SmellLevel smell = this.model.getSmellLevel(i, j);
+      if (smell == SmellLevel.TERRIBLE) {
+        cell |= SpriteAtlas.TERRIBLE_SMELL;
+      } else if (smell == SmellLevel.SLIGHT) {
+        cell |= SpriteAtlas.SLIGHT_SMELL;
       }
-      if (treasureInCave.contains("SAPPHIRE")) {
-        treasureList.add("sapphire");
+    }
+    return cell;
+  }
+  
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = this.getVisibleRect();
+    }
+    this.syncWindow();
+    Rectangle cells = this.getCellsIn(clip);
+    int originX = this.getOriginX();
+    int originY = this.getOriginY();
+    // Only the cells inside the clip, usually the dirty ones or the strip 
+    // uncovered by scrolling
+    for (int i = cells.y; i < cells.y + cells.height; i++) {
+      for (int j = cells.x; j < cells.x + cells.width; j++) {
+        int cell;
+        if (this.window.contains(j, i)) {
+          int index = (i - this.window.y) * this.window.width + j - this.window.x;
+          if (this.windowKeys[index] == UNPAINTED) {
+            this.windowKeys[index] = this.getCellKey(i, j);
+          }
+          cell = this.windowKeys[index];
+        } else {
+          cell = this.getCellKey(i, j);
+        }
+        Image img = cell == DARK ? this.atlas.getDarkCell() : this.atlas.getCell(cell);
+        g.drawImage(img, originX + j * CELL_SIZE, originY + i * CELL_SIZE, null);
       }
     }
-    return treasureList;
+  }
+  
+  /**
+   * Get the left edge of the dungeon, centered when the panel is wider.
+   * 
+   * @return x coordinate of the first column
+   */
+  private int getOriginX() {
+    return Math.max(0, (this.getWidth() - this.dungeonCols * CELL_SIZE) / 2);
+  }
+  
+  /**
+   * Get the top edge of the dungeon, centered when the panel is taller.
+   * 
+   * @return y coordinate of the first row
+   */
+  private int getOriginY() {
+    return Math.max(0, (this.getHeight() - this.dungeonRows * CELL_SIZE) / 2);
   }
   
   /**
@@ -268,9 +280,7 @@ public class GamePanel extends JPanel {
     MouseListener ml = new MouseAdapter() {
       @Override
       public void mouseClicked(MouseEvent e) {
-        int row = e.getY();
-        int col = e.getX();
-        Direction dir = getMoveDirection(row, col);
+        Direction dir = getMoveDirection(e.getX(), e.getY());
         if (dir != null) {
           control.handleCellClick(dir);
         }
@@ -279,39 +289,26 @@ public class GamePanel extends JPanel {
     this.addMouseListener(ml);
   }
   
-  private Direction getMoveDirection(int row, int col) {
-    int panelWidth = 695;
-    int panelHeight = 419;
-    if (this.model.getNumberOfPlayers() == 2) {
-      panelWidth = 600;
-      panelHeight = 419;
-    }     
-    int dungeonWidth = dungeonRows * 70;
-    int dungeonHeight = dungeonCols * 70;
-    
-    int yaxisCoordDiff = panelWidth < dungeonWidth ? 0 : (panelWidth - dungeonWidth) / 2;
-    int xaxisCoordDiff = panelHeight < dungeonHeight ? 0 : (panelHeight - dungeonHeight) / 2;
-    
-    if (row < ((currRow * 70) + xaxisCoordDiff) 
-        && row >= (((currRow - 1) * 70) + xaxisCoordDiff) 
-        && col < (((currCol + 1) * 70) + yaxisCoordDiff) 
-        && col >= ((currCol * 70) + yaxisCoordDiff)) {
+  /**
+   * Get the direction of a click next to the current player. The click is 
+   * in panel coordinates, which already include the scroll offset of the 
+   * viewport.
+   * 
+   * @param x x coordinate of the click
+   * @param y y coordinate of the click
+   * @return direction to move in, or null if the click is not on a neighbor
+   */
+  private Direction getMoveDirection(int x, int y) {
+    int row = Math.floorDiv(y - this.getOriginY(), CELL_SIZE);
+    int col = Math.floorDiv(x - this.getOriginX(), CELL_SIZE);
+    if (col == this.currCol && row == this.currRow - 1) {
       return Direction.NORTH;
-    } else if (row >= (currRow * 70 + xaxisCoordDiff) 
-        && row <= ((currRow + 1) * 70 + xaxisCoordDiff) 
-        && col > ((currCol + 1) * 70 + yaxisCoordDiff) 
-        && col <= (currCol + 2) * 70 + yaxisCoordDiff) {
+    } else if (col == this.currCol && row == this.currRow + 1) {
+      return Direction.SOUTH;
+    } else if (row == this.currRow && col == this.currCol + 1) {
       return Direction.EAST;
-    } else if (row >= (currRow * 70 + xaxisCoordDiff) 
-        && row <= ((currRow + 1) * 70 + xaxisCoordDiff) 
-        && col < (currCol * 70 + yaxisCoordDiff) 
-        && col >= (currCol - 1) * 70 + yaxisCoordDiff) {
+    } else if (row == this.currRow && col == this.currCol - 1) {
       return Direction.WEST;
-    } else if (row > ((currRow + 1) * 70 + xaxisCoordDiff) 
-        && row <= ((currRow + 2) * 70 + xaxisCoordDiff) 
-        && col < ((currCol + 1) * 70 + yaxisCoordDiff) 
-        && col >= ((currCol * 70) + yaxisCoordDiff)) {
-      return Direction.SOUTH;
     }
     return null;
   }
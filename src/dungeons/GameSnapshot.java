@@ -0,0 +1,305 @@
+package dungeons;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A snapshot of the state of a running game, for search based players that
+ * try out many moves ahead. The maze never changes once a game starts, so
+ * the snapshot only points to it as a CompactDungeon and keeps the rest of
+ * the state in flat arrays: the arrows and treasures of every location, the
+ * health of the living monsters, and the location, arrows, treasures and
+ * visited cells of every player.
+ *
+ * <p>A snapshot is not changed by the game it was taken from and can be
+ * turned into any number of independent games, also from several threads at
+ * once. Every such game plays in a new CompactDungeon that shares the maze
+ * with the snapshot, so a copy costs a few array copies and no random draws.
+ *
+ * <p>The snapshot also holds the Zobrist hash of the state, the same hash a
+ * game keeps up to date as it is played. Two snapshots of equal states have
+ * equal hashes, so snapshots can be told apart or deduplicated by the hash
+ * alone.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class GameSnapshot {
+
+  private static final Treasure[] TREASURES = Treasure.values();
+
+  private final CompactDungeon topology;
+  private final int[] arrows;
+  private final byte[] treasures;
+  private final int[] monsterCells;
+  private final int[] monsterIds;
+  private final int[] monsterHealth;
+  private final int smellRadius;
+  private final int numOfPlayers;
+  private final int[] playerIds;
+  private final int[] playerCells;
+  private final int[] playerArrows;
+  private final int[] playerTreasures;
+  private final boolean[] playerAlive;
+  private final long[][] visitedCells;
+  private final int turn;
+  private final int winner;
+  private final boolean isGameOver;
+  private final boolean didPlayerReachEnd;
+  private final long stateHash;
+
+  /**
+   * Take a snapshot of a running game.
+   *
+   * @param topology maze of the dungeon, with the same location numbers
+   * @param dungeon dungeon the game is played in
+   * @param numPlayers number of players of the game
+   * @param players players of the game
+   * @param turn index of the player whose turn it is
+   * @param winner index of the winner or -1 if there is none
+   * @param gameOver true if the game is over
+   * @param reachedEnd true if a player reached the end cave
+   * @param visited cells visited by each player
+   */
+  GameSnapshot(CompactDungeon topology, Dungeons dungeon, int numPlayers,
+      List<Players> players, int turn, int winner, boolean gameOver,
+      boolean reachedEnd, List<BitSet> visited) {
+    List<List<Location>> locations = dungeon.getAllLocations();
+    int columns = locations.get(0).size();
+    int numOfLocations = locations.size() * columns;
+    List<Integer> monsters = new ArrayList<>();
+
+    this.topology = topology;
+    // Build the shared tables now, games may be created from many threads
+    topology.getCompressedAdjacency();
+    topology.getArrowFlights();
+    if (dungeon instanceof CompactDungeon) {
+      CompactDungeon compact = (CompactDungeon) dungeon;
+      this.arrows = compact.copyArrows();
+      this.treasures = compact.copyTreasures();
+      for (int id = 0; id < numOfLocations; id++) {
+        if (compact.getMonster(id) != null) {
+          monsters.add(id);
+        }
+      }
+    } else {
+      this.arrows = new int[numOfLocations];
+      this.treasures = new byte[numOfLocations * TREASURES.length];
+      for (int id = 0; id < numOfLocations; id++) {
+        Location location = locations.get(id / columns).get(id % columns);
+        this.arrows[id] = location.getArrowsInLocation();
+        for (Treasure treasure : TREASURES) {
+          this.treasures[id * TREASURES.length + treasure.ordinal()] =
+              (byte) location.getTreasureCount(treasure);
+        }
+        if (location.getMonster() != null) {
+          monsters.add(id);
+        }
+      }
+    }
+    this.monsterCells = new int[monsters.size()];
+    this.monsterIds = new int[monsters.size()];
+    this.monsterHealth = new int[monsters.size()];
+    for (int i = 0; i < monsters.size(); i++) {
+      int id = monsters.get(i);
+      Monsters monster = locations.get(id / columns).get(id % columns).getMonster();
+      this.monsterCells[i] = id;
+      this.monsterIds[i] = Integer.parseInt(monster.getMonsterId().substring(7));
+      this.monsterHealth[i] = monster.getHealth();
+    }
+    this.smellRadius = dungeon.getSmellField().getRadius();
+
+    this.numOfPlayers = numPlayers;
+    this.playerIds = new int[players.size()];
+    this.playerCells = new int[players.size()];
+    this.playerArrows = new int[players.size()];
+    this.playerTreasures = new int[players.size() * TREASURES.length];
+    this.playerAlive = new boolean[players.size()];
+    this.visitedCells = new long[players.size()][];
+    for (int i = 0; i < players.size(); i++) {
+      Players player = players.get(i);
+      int[] position = player.getCurrentLocation().getPosition();
+      this.playerIds[i] = Integer.parseInt(player.getPlayerId().substring(7));
+      this.playerCells[i] = position[0] * columns + position[1];
+      this.playerArrows[i] = player.getArrowsInHand();
+      for (Treasure treasure : TREASURES) {
+        Integer count = player.getTreasuresInBag().get(treasure);
+        this.playerTreasures[i * TREASURES.length + treasure.ordinal()] =
+            count == null ? 0 : count;
+      }
+      this.playerAlive[i] = player.isAlive();
+      this.visitedCells[i] = visited.get(i).toLongArray();
+    }
+    this.turn = turn;
+    this.winner = winner;
+    this.isGameOver = gameOver;
+    this.didPlayerReachEnd = reachedEnd;
+    this.stateHash = this.hashState();
+  }
+
+  /**
+   * Build the Zobrist hash of the state from the keys of every feature.
+   *
+   * @return hash of the state
+   */
+  private long hashState() {
+    long hash = this.topology.getLayoutKey();
+    for (int id = 0; id < this.arrows.length; id++) {
+      hash ^= ZobristKeys.arrows(id, this.arrows[id]);
+      for (Treasure treasure : TREASURES) {
+        hash ^= ZobristKeys.treasure(id, treasure,
+            this.treasures[id * TREASURES.length + treasure.ordinal()]);
+      }
+    }
+    for (int i = 0; i < this.monsterCells.length; i++) {
+      hash ^= ZobristKeys.monster(this.monsterCells[i], this.monsterHealth[i]);
+    }
+    for (int i = 0; i < this.playerIds.length; i++) {
+      hash ^= ZobristKeys.playerLocation(i, this.playerCells[i])
+          ^ ZobristKeys.playerArrows(i, this.playerArrows[i])
+          ^ ZobristKeys.playerDead(i, this.playerAlive[i]);
+      for (Treasure treasure : TREASURES) {
+        hash ^= ZobristKeys.playerTreasure(i, treasure,
+            this.playerTreasures[i * TREASURES.length + treasure.ordinal()]);
+      }
+    }
+    return hash ^ ZobristKeys.turn(this.turn);
+  }
+
+  /**
+   * Get the Zobrist hash of the state: the maze, the arrows, treasures and
+   * monster health of every location, and the location, arrows, treasures
+   * and health of every player along with whose turn it is. The cells the
+   * players visited are not part of the state.
+   *
+   * @return hash of the state
+   */
+  public long getStateHash() {
+    return this.stateHash;
+  }
+
+  /**
+   * Create a new game in the state of the snapshot. The game is independent
+   * of the snapshot and of every other game created from it, and has no
+   * listeners.
+   *
+   * @param rand Random Number Generator object for the new game
+   * @return new game
+   * @throws IllegalArgumentException if the random number generator is a
+   *                                  null object
+   */
+  public Game toGame(RandomNumberGenerator rand) throws IllegalArgumentException {
+    return new AdventureGame(this, rand);
+  }
+
+  /**
+   * Get the maze shared by the games created from the snapshot.
+   *
+   * @return maze of the dungeon
+   */
+  CompactDungeon getTopology() {
+    return this.topology;
+  }
+
+  /**
+   * Create a dungeon with the maze, arrows, treasures and monsters of the
+   * snapshot.
+   *
+   * @return new dungeon
+   */
+  CompactDungeon newDungeon() {
+    CompactDungeon dungeon = new CompactDungeon(this.topology);
+    dungeon.restoreContents(this.arrows, this.treasures);
+    for (int i = 0; i < this.monsterCells.length; i++) {
+      Monsters monster = new Otyugh(this.monsterIds[i]);
+      while (monster.getHealth() > this.monsterHealth[i]) {
+        monster.hit();
+      }
+      monster.setMonsterResidingStatus();
+      dungeon.setMonster(this.monsterCells[i], monster);
+    }
+    if (this.smellRadius != SmellField.DEFAULT_RADIUS) {
+      dungeon.getSmellField().setRadius(this.smellRadius);
+    }
+    return dungeon;
+  }
+
+  /**
+   * Create the players of the snapshot in a dungeon created from it.
+   *
+   * @param dungeon dungeon to place the players in
+   * @return new players
+   */
+  List<Players> newPlayers(CompactDungeon dungeon) {
+    List<Players> players = new ArrayList<>(this.playerIds.length);
+    for (int i = 0; i < this.playerIds.length; i++) {
+      int[] counts = new int[TREASURES.length];
+      System.arraycopy(this.playerTreasures, i * TREASURES.length, counts, 0, counts.length);
+      Players player = new Player(this.playerIds[i],
+          new CompactLocation(dungeon, this.playerCells[i]), this.playerArrows[i],
+          counts, this.playerAlive[i]);
+      dungeon.addVisitor(player, this.playerCells[i]);
+      players.add(player);
+    }
+    return players;
+  }
+
+  /**
+   * Create the visited cells of each player.
+   *
+   * @return new visited cells
+   */
+  List<BitSet> newVisitedCells() {
+    List<BitSet> visited = new ArrayList<>(this.visitedCells.length);
+    for (long[] cells : this.visitedCells) {
+      visited.add(BitSet.valueOf(cells));
+    }
+    return visited;
+  }
+
+  /**
+   * Get the number of players of the game.
+   *
+   * @return number of players
+   */
+  int getNumberOfPlayers() {
+    return this.numOfPlayers;
+  }
+
+  /**
+   * Get the index of the player whose turn it is.
+   *
+   * @return player index
+   */
+  int getTurn() {
+    return this.turn;
+  }
+
+  /**
+   * Get the index of the winner.
+   *
+   * @return player index or -1 if there is no winner
+   */
+  int getWinner() {
+    return this.winner;
+  }
+
+  /**
+   * Check if the game is over.
+   *
+   * @return true if the game is over
+   */
+  boolean isGameOver() {
+    return this.isGameOver;
+  }
+
+  /**
+   * Check if a player reached the end cave.
+   *
+   * @return true if the end was reached
+   */
+  boolean didPlayerReachEnd() {
+    return this.didPlayerReachEnd;
+  }
+}
@@ -4,7 +4,6 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.Insets;
 import java.util.Map;
 import javax.swing.ImageIcon;
@@ -19,7 +18,7 @@ import javax.swing.JPanel;
  * @author Ashwini Shaktivel Kumar
  *
  */
-public class GameStatusPanel extends JPanel {
+public class GameStatusPanel extends JPanel implements GameListener {
   
   ReadonlyGameModel model;
   JLabel title;
@@ -48,6 +47,26 @@ public class GameStatusPanel extends JPanel {
     super.paintComponent(g);
   }
   
+  /**
+   * Rebuild the status when a player's arrows, treasures or life changed. 
+   * Moves and turns do not change the status.
+   * 
+   * @param event change to the game
+   */
+  @Override
+  public void gameChanged(GameEvent event) {
+    switch (event.getType()) {
+      case PLAYER_MOVED:
+      case TURN_CHANGED:
+        break;
+      default:
+        this.setupStatusPanel();
+        this.revalidate();
+        this.repaint();
+        break;
+    }
+  }
+  
   /**
    * Setting up the game status panel.
    */
@@ -57,6 +76,7 @@ public class GameStatusPanel extends JPanel {
     this.setBackground(Color.gray);
     this.setLayout(new GridBagLayout());
     GridBagConstraints grid = new GridBagConstraints();
+    SpriteAtlas atlas = SpriteAtlas.getAtlas(SpriteAtlas.DEFAULT_CELL_SIZE);
     grid.fill = GridBagConstraints.HORIZONTAL;
     
     grid.insets = new Insets(0, 0, 0, 0);
@@ -70,9 +90,8 @@ public class GameStatusPanel extends JPanel {
     grid.gridy = 1;
     grid.insets = new Insets(5, 0, 5, 0);
     JLabel playerIcon = new JLabel();
-    Image player = new ImageIcon(getClass().getResource("/images/player1.png")).getImage()
-        .getScaledInstance(15, 30, Image.SCALE_DEFAULT);
-    playerIcon.setIcon(new ImageIcon(player));
+    ImageIcon player = atlas.getIcon("player1", 15, 30);
+    playerIcon.setIcon(player);
     this.add(playerIcon, grid);
     
     grid.gridx = 1;
@@ -86,9 +105,8 @@ public class GameStatusPanel extends JPanel {
     grid.gridy = 2;
     grid.insets = new Insets(5, 0, 5, 0);
     JLabel arrowsIcon = new JLabel();
-    Image arrows = new ImageIcon(getClass().getResource("/images/arrows-icon.png")).getImage()
-        .getScaledInstance(30, 30, Image.SCALE_DEFAULT);
-    arrowsIcon.setIcon(new ImageIcon(arrows));
+    ImageIcon arrows = atlas.getIcon("arrows-icon", 30, 30);
+    arrowsIcon.setIcon(arrows);
     this.add(arrowsIcon, grid);
     
     grid.gridx = 1;
@@ -102,9 +120,8 @@ public class GameStatusPanel extends JPanel {
     grid.gridy = 3;
     grid.insets = new Insets(5, 0, 5, 0);
     JLabel diamondsIcon = new JLabel();
-    Image diamonds = new ImageIcon(getClass().getResource("/images/diamonds.png")).getImage()
-        .getScaledInstance(30, 30, Image.SCALE_DEFAULT);
-    diamondsIcon.setIcon(new ImageIcon(diamonds));
+    ImageIcon diamonds = atlas.getIcon("diamonds", 30, 30);
+    diamondsIcon.setIcon(diamonds);
     this.add(diamondsIcon, grid);
     
     grid.gridx = 1;
@@ -120,9 +137,8 @@ public class GameStatusPanel extends JPanel {
     grid.gridy = 4;
     grid.insets = new Insets(5, 0, 5, 0);
     JLabel rubiesIcon = new JLabel();
-    Image rubies = new ImageIcon(getClass().getResource("/images/ruby.png")).getImage()
-        .getScaledInstance(30, 30, Image.SCALE_DEFAULT);
-    rubiesIcon.setIcon(new ImageIcon(rubies));
+    ImageIcon rubies = atlas.getIcon("ruby", 30, 30);
+    rubiesIcon.setIcon(rubies);
     this.add(rubiesIcon, grid);
     
     grid.gridx = 1;
@@ -136,9 +152,8 @@ public class GameStatusPanel extends JPanel {
     grid.gridy = 5;
     grid.insets = new Insets(5, 0, 5, 0);
     JLabel sapphireIcon = new JLabel();
-    Image sapphire = new ImageIcon(getClass().getResource("/images/sapphire.png")).getImage()
-        .getScaledInstance(30, 30, Image.SCALE_DEFAULT);
-    sapphireIcon.setIcon(new ImageIcon(sapphire));
+    ImageIcon sapphire = atlas.getIcon("sapphire", 30, 30);
+    sapphireIcon.setIcon(sapphire);
     this.add(sapphireIcon, grid);
     
     grid.gridx = 1;
@@ -153,8 +168,7 @@ public class GameStatusPanel extends JPanel {
       grid.gridy = 1;
       grid.insets = new Insets(5, 10, 5, 0);
       playerIcon = new JLabel();
-      playerIcon.setIcon(new ImageIcon(new ImageIcon(getClass().getResource("/images/player2.png"))
-          .getImage().getScaledInstance(30, 30, Image.SCALE_DEFAULT)));
+      playerIcon.setIcon(atlas.getIcon("player2", 30, 30));
       this.add(playerIcon, grid);
       
       grid.gridx = 3;
@@ -168,7 +182,7 @@ public class GameStatusPanel extends JPanel {
       grid.gridy = 2;
       grid.insets = new Insets(5, 10, 5, 0);
       playerIcon = new JLabel();
-      playerIcon.setIcon(new ImageIcon(arrows));
+      playerIcon.setIcon(arrows);
       this.add(playerIcon, grid);
       
       grid.gridx = 3;
@@ -182,7 +196,7 @@ public class GameStatusPanel extends JPanel {
       grid.gridy = 3;
       grid.insets = new Insets(5, 10, 5, 0);
       diamondsIcon = new JLabel();
-      diamondsIcon.setIcon(new ImageIcon(diamonds));
+      diamondsIcon.setIcon(diamonds);
       this.add(diamondsIcon, grid);
       
       grid.gridx = 3;
@@ -198,7 +212,7 @@ public class GameStatusPanel extends JPanel {
       grid.gridy = 4;
       grid.insets = new Insets(5, 10, 5, 0);
       rubiesIcon = new JLabel();
-      rubiesIcon.setIcon(new ImageIcon(rubies));
+      rubiesIcon.setIcon(rubies);
       this.add(rubiesIcon, grid);
       
       grid.gridx = 3;
@@ -212,7 +226,7 @@ public class GameStatusPanel extends JPanel {
       grid.gridy = 5;
       grid.insets = new Insets(5, 10, 5, 0);
       sapphireIcon = new JLabel();
-      sapphireIcon.setIcon(new ImageIcon(sapphire));
+      sapphireIcon.setIcon(sapphire);
       this.add(sapphireIcon, grid);
       
       grid.gridx = 3;
@@ -15,6 +15,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
 
 /**
  * An implementation of the GameView interface. This class defines the structure of the 
@@ -45,6 +46,10 @@ public class GameViewImpl extends JFrame implements GameView {
   private JSpinner interconnectivity;
   private JComboBox wrapping;
   private JButton startGame;
+  private GameListener turnListener;
+  private ReadonlyGameModel listenedModel;
+  
+  private static final int MAX_DIMENSION = 1000;
     
   /**
    * Constructs the view implementation. 
@@ -59,6 +64,14 @@ public class GameViewImpl extends JFrame implements GameView {
       throw new IllegalArgumentException("The model cannot be null.");
     }
     this.model = modelForView;
+    this.turnListener = event -> {
+      if (event.getType() == GameEventType.TURN_CHANGED) {
+        this.displayGameTurn();
+      } else if (event.getType() == GameEventType.GAME_OVER) {
+        // After the controller has shown the outcome of the last action
+        SwingUtilities.invokeLater(this::displayGameResult);
+      }
+    };
     this.setDefaultCloseOperation(EXIT_ON_CLOSE);
     this.setResizable(false);
     this.commonFont = new Font("Arial", Font.BOLD, 21);
@@ -111,8 +124,8 @@ public class GameViewImpl extends JFrame implements GameView {
     this.numPlayers.setForeground(Color.WHITE);
     homePanel.add(numPlayers);
     
-    rows = new JSpinner(new SpinnerNumberModel(5, 4, 12, 1));
-    rows.setBounds(450, 150, 50, 40);
+    rows = new JSpinner(new SpinnerNumberModel(5, 4, MAX_DIMENSION, 1));
+    rows.setBounds(450, 150, 80, 40);
     this.rows.setFont(this.commonFont);
     
     // Number of columns
@@ -122,8 +135,8 @@ public class GameViewImpl extends JFrame implements GameView {
     this.numPlayers.setForeground(Color.WHITE);
     homePanel.add(numPlayers);
     
-    cols = new JSpinner(new SpinnerNumberModel(5, 4, 12, 1));
-    cols.setBounds(450, 200, 50, 40);
+    cols = new JSpinner(new SpinnerNumberModel(5, 4, MAX_DIMENSION, 1));
+    cols.setBounds(450, 200, 80, 40);
     this.cols.setFont(this.commonFont);
     
     // Interconnectivity
@@ -237,6 +250,7 @@ public class GameViewImpl extends JFrame implements GameView {
 
   @Override
   public void displayMazeGame() {
+    this.stopListening();
     this.getContentPane().removeAll();
     this.setFocusable(true);
     this.requestFocusInWindow();
@@ -247,10 +261,16 @@ public class GameViewImpl extends JFrame implements GameView {
     this.statusPanel = new GameStatusPanel(this.model);
     this.gamePanel = new GamePanel(this.control, this.model);
     this.gamePanel.addListener();
+    this.model.addGameListener(this.gamePanel);
+    this.model.addGameListener(this.statusPanel);
+    this.model.addGameListener(this.turnListener);
+    this.listenedModel = this.model;
     JScrollPane scrollBar = new JScrollPane(this.gamePanel, 
         JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_ALWAYS);
     scrollBar.getViewport().setMinimumSize(new Dimension(50, 200));
     scrollBar.getViewport().setPreferredSize(new Dimension(400, 100));
+    scrollBar.getVerticalScrollBar().setUnitIncrement(SpriteAtlas.DEFAULT_CELL_SIZE / 2);
+    scrollBar.getHorizontalScrollBar().setUnitIncrement(SpriteAtlas.DEFAULT_CELL_SIZE / 2);
     this.add(scrollBar);
     this.add(this.statusPanel, BorderLayout.EAST);
     this.setVisible(true);
@@ -302,16 +322,37 @@ public class GameViewImpl extends JFrame implements GameView {
     gamePanel.setupGamePanel();
     statusPanel.setupStatusPanel();
     if (this.model.isGameOver()) {
-      this.displayGameStatus(this.model.getGameResult());
-      JOptionPane.showMessageDialog(this, "What a great game! You may now start a new game, "
-          + "restart the same game, or quit from the Menubar.");
-      this.displayGameStatus("Let's play again, start a new game from menu.");
+      this.displayGameResult();
     }
     this.setVisible(true);    
   }
+  
+  /**
+   * Display the result of the game once it is over.
+   */
+  private void displayGameResult() {
+    this.displayGameStatus(this.model.getGameResult());
+    JOptionPane.showMessageDialog(this, "What a great game! You may now start a new game, "
+        + "restart the same game, or quit from the Menubar.");
+    this.displayGameStatus("Let's play again, start a new game from menu.");
+    this.setVisible(true);
+  }
+  
+  /**
+   * Stop the panels of the previous game from listening to its model.
+   */
+  private void stopListening() {
+    if (this.listenedModel != null) {
+      this.listenedModel.removeGameListener(this.gamePanel);
+      this.listenedModel.removeGameListener(this.statusPanel);
+      this.listenedModel.removeGameListener(this.turnListener);
+      this.listenedModel = null;
+    }
+  }
 
   @Override
   public void clearGame() {
+    this.stopListening();
     this.getContentPane().removeAll();
     this.removeKeyListener(this.getKeyListeners()[0]);
   }
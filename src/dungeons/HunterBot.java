@@ -0,0 +1,41 @@
+package dungeons;
+
+import java.util.Map;
+
+/**
+ * A bot that hunts the Otyughs by their smell. When it smells a monster and 
+ * has arrows it shoots through a random entrance, one cave away for a 
+ * terrible smell and two caves away for a slight one. Otherwise it moves, 
+ * preferring entrances to locations it has not visited yet.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class HunterBot extends RandomWalkBot {
+  
+  @Override
+  public void playTurn(Game game, RandomNumberGenerator random) {
+    Location here = game.getTurn().getCurrentLocation();
+    this.collect(game, here);
+    SmellLevel smell = here.getSmellLevel();
+    if (game.getTurn().getArrowsInHand() > 0 
+        && (smell == SmellLevel.TERRIBLE || smell == SmellLevel.SLIGHT)) {
+      int distance = smell == SmellLevel.TERRIBLE ? 1 : 2;
+      game.shootArrow(this.pickDirection(here.getNeighborMask(), random), distance);
+      return;
+    }
+    game.move(this.chooseDirection(game, here, random));
+  }
+  
+  @Override
+  protected Direction chooseDirection(Game game, Location here, RandomNumberGenerator random) {
+    int unvisited = 0;
+    for (Map.Entry<Direction, Location> neighbor : here.getNeighbors().entrySet()) {
+      int[] position = neighbor.getValue().getPosition();
+      if (!game.isVisited(position[0], position[1])) {
+        unvisited |= 1 << neighbor.getKey().ordinal();
+      }
+    }
+    return this.pickDirection(unvisited != 0 ? unvisited : here.getNeighborMask(), random);
+  }
+}
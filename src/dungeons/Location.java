@@ -171,4 +171,29 @@ public interface Location {
    * @throws IllegalArgumentException if that monster is not present
    */
   void removeMonster(Monsters oty) throws IllegalArgumentException;
+  
+  /**
+   * Get the smell of the monsters at the location. A monster one position 
+   * away or several monsters further away smell terrible, a single monster 
+   * further away smells slightly.
+   * 
+   * @return smell level
+   */
+  SmellLevel getSmellLevel();
+  
+  /**
+   * Get the directions of the connected neighbors as a bit mask, with bit 
+   * d set when there is a neighbor in the direction of ordinal d.
+   * 
+   * @return neighbor bit mask
+   */
+  int getNeighborMask();
+  
+  /**
+   * Get the count of a treasure in the location.
+   * 
+   * @param treasure treasure type
+   * @return number of treasures, 0 for a tunnel
+   */
+  int getTreasureCount(Treasure treasure);
 }
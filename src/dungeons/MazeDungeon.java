@@ -2,11 +2,10 @@ package dungeons;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * A MazeDungeon is an implementation of the Dungeon with caves and tunnels. 
@@ -30,10 +29,18 @@ public class MazeDungeon implements Dungeons {
   private boolean areArrowsAssigned;
   private List<List<Integer>> dungeonLayout;
   private List<List<List<Location>>> adjacency;
-  private List<Set<Integer>> dungeonConnections;
-  private List<Set<Integer>> finalDungeonPaths;
+  private CompressedAdjacency adjacencyIndex;
+  private SmellField smellField;
+  private ArrowFlightTable arrowFlights;
+  private DungeonEdges dungeonConnections;
+  private int[] finalDungeonPaths;
+  private int[] connectionStart;
+  private int[] connectionsOfLocation;
+  private int[] neighborsOfLocation;
+  private int minPathLength;
+  private CavePairIndex startEndPairs;
   private List<List<Location>> allLocations;
-  private List<List<Location>> allPaths;
+  private Location[] locationTable;
   private List<Location> allCaves;
   private List<Location> allTunnels;
   private List<Monsters> monstersInDungeon;
@@ -42,6 +49,18 @@ public class MazeDungeon implements Dungeons {
   private int noOfMonsters;
   private RandomNumberGenerator random;
   
+  /**
+   * Default minimum number of locations, including both ends, on every path 
+   * between the start and the end cave.
+   */
+  public static final int DEFAULT_MIN_PATH_LENGTH = 5;
+  
+  /**
+   * Number of random start and end pairs tried before picking one straight 
+   * from the index of valid pairs.
+   */
+  private static final int MAX_PAIR_ATTEMPTS = 32;
+  
   /**
    * Construct a MazeDungeon for the Adventure Game.
    * 
@@ -62,6 +81,35 @@ public class MazeDungeon implements Dungeons {
       boolean wrapping, double treasureSpread, int difficulty,
       RandomNumberGenerator rand) 
       throws IllegalArgumentException {
+    this(r, c, interconn, wrapping, treasureSpread, difficulty, 
+        DEFAULT_MIN_PATH_LENGTH, rand);
+  }
+  
+  /**
+   * Construct a MazeDungeon for the Adventure Game with a custom minimum 
+   * path length between the start and end caves.
+   * 
+   * @param r 2D grid position row number
+   * @param c 2D grid position column number
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param treasureSpread amount of caves the treasure must be present in
+   * @param difficulty number of monsters
+   * @param minLength minimum number of locations, both ends included, on 
+   *                  every path between the start and end caves
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of rows or columns is less 
+   *                                  than 0 or if the interconnectivity 
+   *                                  is less than 0 or if the treasure spread 
+   *                                  is less than 0 or more than 0 or if the 
+   *                                  minimum path length is less than 2 or 
+   *                                  if the random number generator is a 
+   *                                  null object
+   */
+  public MazeDungeon(int r, int c, int interconn, 
+      boolean wrapping, double treasureSpread, int difficulty, int minLength, 
+      RandomNumberGenerator rand) 
+      throws IllegalArgumentException {
     if (r < 1 || c < 1) {
       throw new IllegalArgumentException("The number of rows and "
           + "columns must be greater than 0. Illegal Arguments.");
@@ -78,6 +126,10 @@ public class MazeDungeon implements Dungeons {
       throw new IllegalArgumentException("At least one Otyugh must be "
           + "present to make the game adventurous.");
     }
+    if (minLength < 2) {
+      throw new IllegalArgumentException("Minimum path length must be at least 2, "
+          + "the start and end caves must be different.");
+    }
     if (rand == null) {
       throw new IllegalArgumentException("Random Number Generator "
           + "must be of type RandomNumberGenerator.");
@@ -89,14 +141,16 @@ public class MazeDungeon implements Dungeons {
     this.isWrapped = wrapping;
     this.requiredTreasureSpread = treasureSpread;
     this.noOfMonsters = difficulty;
+    this.minPathLength = minLength;
+    this.startEndPairs = null;
     this.monstersInDungeon = new ArrayList<>();
     this.areTreasuresAssigned = false;
     this.areArrowsAssigned = false;
     this.dungeonLayout = new ArrayList<>();
-    this.adjacency = new ArrayList<>();
-    this.dungeonConnections = new ArrayList<>();
+    this.adjacency = null;
+    this.arrowFlights = null;
+    this.dungeonConnections = null;
     this.allLocations = new ArrayList<>();
-    this.allPaths = new ArrayList<>();
     this.allCaves = new ArrayList<>();
     this.allTunnels = new ArrayList<>();
     this.start = null;
@@ -122,6 +176,10 @@ public class MazeDungeon implements Dungeons {
     }
     this.generatePossibleConnections();
     this.finalDungeonPaths = this.selectPossibleConnections();
+    this.indexConnections();
+    this.adjacencyIndex = new CompressedAdjacency(this.connectionStart, 
+        this.neighborsOfLocation);
+    this.smellField = new SmellField(this.adjacencyIndex, SmellField.DEFAULT_RADIUS);
     this.assignCavesAndTunnels();
     this.assignNeighbors();
     this.distributeTreasures();
@@ -140,182 +198,93 @@ public class MazeDungeon implements Dungeons {
    * will have border vertices connected to the opposite border. 
    */
   private void generatePossibleConnections() {
-    Set<Set<Integer>> allPathsSet = new HashSet<>();
-    
-    // Assign paths for border and non-border elements
-    for (int i = 0; i <= this.numOfRows - 1; i++) {
-      for (int j = 0; j <= this.numOfCols - 1; j++) {
-        // non-corner coordinates
-        if (!(i == this.numOfRows - 1 && j == this.numOfCols - 1)) {
-          // if border rows, connect self and right neighbor
-          // if border columns, connect self and bottom neighbor
-          // if non-border coordinates, connect self with right and bottom neighbors
-          if (i == this.numOfRows - 1) {
-            // i, j + 1
-            allPathsSet.add(new HashSet<>(Arrays.asList(
-                this.dungeonLayout.get(i).get(j), 
-                this.dungeonLayout.get(i).get(j + 1))));
-          } else if (j == this.numOfCols - 1) {
-            // i + 1, j
-            allPathsSet.add(new HashSet<>(Arrays.asList(
-                this.dungeonLayout.get(i).get(j), 
-                this.dungeonLayout.get(i + 1).get(j))));
-          } else {
-            // i + 1, j
-            allPathsSet.add(new HashSet<>(Arrays.asList(
-                this.dungeonLayout.get(i).get(j), 
-                this.dungeonLayout.get(i + 1).get(j))));
-                      
-            // i, j + 1
-            allPathsSet.add(new HashSet<>(Arrays.asList(
-                this.dungeonLayout.get(i).get(j), 
-                this.dungeonLayout.get(i).get(j + 1))));
-          }
-        }
-      }
-    }
-    
-    // Applying wrapped paths
-    // Add more connections to border and corner coordinates
-    if (this.isWrapped) {
-      for (int i = 0; i < this.numOfRows; i++) {
-        allPathsSet.add(new HashSet<>(Arrays.asList(
-            this.dungeonLayout.get(i).get(this.numOfCols - 1), 
-            this.dungeonLayout.get(i).get(0))));
-      }
-      for (int i = 0; i < this.numOfCols; i++) {
-        allPathsSet.add(new HashSet<>(Arrays.asList(
-            this.dungeonLayout.get(this.numOfRows - 1).get(i), 
-            this.dungeonLayout.get(0).get(i))));
-      }
-    }
-    
-    // Add to all connections
-    this.dungeonConnections = new ArrayList<>(allPathsSet);
+    this.dungeonConnections = DungeonEdges.ofGrid(this.numOfRows, this.numOfCols, 
+        this.isWrapped);
   }
     
   /**
    * Randomly select possible connections (edges) from the graph, and 
    * create a maze. Follows KRUSKAL's ALGORITHM. If the new connection 
-   * is not present in the set, it is added to the confirmed set, else it is 
-   * added to the leftOver set to be used while applying interconnectivity.
+   * joins two separate components it is added to the confirmed set, else it 
+   * is added to the leftOver set to be used while applying interconnectivity.
+   * The components are tracked in a disjoint-set and the connections are 
+   * drawn in the order of a random shuffle.
+   * 
+   * @return indexes of the selected connections
    */
-  private List<Set<Integer>> selectPossibleConnections() {
-    Set<Set<Integer>> leftOverConnectionSet = new HashSet<>();
-    Set<Set<Integer>> confirmedConnectionSet = new HashSet<>();
+  private int[] selectPossibleConnections() {
+    int numOfConnections = this.dungeonConnections.size();
+    int[] leftOverPaths = new int[numOfConnections];
+    int[] confirmedPaths = new int[numOfConnections];
+    int leftOverCount = 0;
+    int confirmedCount = 0;
     
-    List<Set<Integer>> allVertexSetList = this.createVertexSets();
+    DisjointSet components = new DisjointSet(this.numOfRows * this.numOfCols);
+    int[] randomPaths = new int[numOfConnections];
+    for (int i = 0; i < numOfConnections; i++) {
+      randomPaths[i] = i;
+    }
+    random.shuffle(randomPaths, numOfConnections);
     
-    while (this.dungeonConnections.size() > 0) {
-      // Randomly select a connection
-      int randomPathNum = random.getRandomNumber(0, this.dungeonConnections.size());
-      
-      Set<Integer> randomPath = this.dungeonConnections.get(randomPathNum); 
-      
-      // Set 1 with the first vertex of the connection 
-      Set<Integer> toSet = this.findSet(allVertexSetList, 
-          (Integer) randomPath.toArray()[0]);
-      // Set 2 with the second vertex of the connection 
-      Set<Integer> fromSet = this.findSet(allVertexSetList, 
-          (Integer) randomPath.toArray()[1]);
-      
-      // Check if same set
-      if (toSet.equals(fromSet)) {
-        leftOverConnectionSet.add(randomPath);
+    for (int randomPath : randomPaths) {
+      // Merge the sets of both vertices, unless already the same set
+      if (components.union(this.dungeonConnections.getFrom(randomPath), 
+          this.dungeonConnections.getTo(randomPath))) {
+        confirmedPaths[confirmedCount++] = randomPath;
       } else {
-        confirmedConnectionSet.add(randomPath);
-        // Merge the sets
-        Set<Integer> mergedSet = new HashSet<>();
-        mergedSet.addAll(fromSet);
-        allVertexSetList.remove(fromSet);
-        mergedSet.addAll(toSet);
-        allVertexSetList.remove(toSet);
-        allVertexSetList.add(mergedSet);
+        leftOverPaths[leftOverCount++] = randomPath;
       }
-      // remove the selected connection from all connection set
-      this.dungeonConnections.remove(randomPath);
     }
     
-    List<Set<Integer>> leftOverPaths = new ArrayList<>(leftOverConnectionSet);
-    List<Set<Integer>> confirmedPaths = new ArrayList<>(confirmedConnectionSet);
-    return this.applyInterconnectivity(confirmedPaths, leftOverPaths);
+    return this.applyInterconnectivity(
+        this.dungeonConnections.orderByHash(confirmedPaths, confirmedCount), 
+        this.dungeonConnections.orderByHash(leftOverPaths, leftOverCount));
   }
   
   /**
-   * Create sets of individual vertices. 
+   * Apply interconnectivity by adding connections from the leftover batch 
+   * to the connected set.
    * 
-   * @return List of vertices sets
+   * @param confirmed connected set
+   * @param leftOverPaths leftover connections set
+   * @return updated connected set
    */
-  private List<Set<Integer>> createVertexSets() {
-    List<Set<Integer>> allVertexSetList = new ArrayList<>();
-    for (int i = 0; i < this.numOfRows; i++) {
-      for (int j = 0; j < this.numOfCols; j++) {
-        Set<Integer> individualSet = new HashSet<>();
-        individualSet.add(this.dungeonLayout.get(i).get(j));
-        allVertexSetList.add(individualSet);
-      }
-    }
-    return allVertexSetList;
+  private int[] applyInterconnectivity(int[] confirmed, int[] leftOverPaths) {
+    int interconn = Math.min(leftOverPaths.length, this.interconnectivity);
+    int[] connected = Arrays.copyOf(confirmed, confirmed.length + interconn);
+    // Randomly select the connections, no need to check sets here
+    random.shuffle(leftOverPaths, interconn);
+    System.arraycopy(leftOverPaths, 0, connected, confirmed.length, interconn);
+    return connected;
   }
   
   /**
-   * Find the set with the required location.
-   *  
-   * @param vertexSets all vertex sets
-   * @param locationId required location id
-   * @return the set with the location
-   * @throws IllegalArgumentException if the location is not 
-   *                                  present in the dungeon
+   * Index the final connections by location. The connections of location 
+   * id are stored from connectionStart[id] up to connectionStart[id + 1], 
+   * in the same order as in the final connections, along with the id of 
+   * the neighbor at the other end.
    */
-  private Set<Integer> findSet(List<Set<Integer>> vertexSets, 
-      Integer locationId) throws IllegalArgumentException {
-    for (Set<Integer> each : vertexSets) {
-      if (each.contains(locationId)) {
-        return each;
-      }
+  private void indexConnections() {
+    int numOfLocations = this.numOfRows * this.numOfCols;
+    this.connectionStart = new int[numOfLocations + 1];
+    for (int path : this.finalDungeonPaths) {
+      this.connectionStart[this.dungeonConnections.getFrom(path) + 1] += 1;
+      this.connectionStart[this.dungeonConnections.getTo(path) + 1] += 1;
     }
-    throw new IllegalArgumentException("Location Id not present "
-        + "in dungeon.");
-  }
-  
-  /**
-   * Find the connections with the location. 
-   * 
-   * @param curr required location id
-   * @return List of set with the required location
-   */
-  private List<Set<Integer>> findConnectionsWithLocation(int curr) {
-    List<Set<Integer>> pathsWithLocation = new ArrayList<>();
-    for (Set<Integer> set : finalDungeonPaths) {
-      if (set.contains(curr)) {
-        pathsWithLocation.add(set);
-      }
+    for (int i = 0; i < numOfLocations; i++) {
+      this.connectionStart[i + 1] += this.connectionStart[i];
     }
-    return pathsWithLocation;
-  }
-  
-  /**
-   * Apply interconnectivity by adding connections from the leftover batch 
-   * to the connected set.
-   * 
-   * @param confirmed connected set
-   * @param leftOverPaths leftover connections set
-   * @return list of updated connected sets
-   */
-  private List<Set<Integer>> applyInterconnectivity(List<Set<Integer>> confirmed, 
-      List<Set<Integer>> leftOverPaths) {
-    int interconn = Math.min(leftOverPaths.size(), this.interconnectivity);
-    while (interconn > 0) {
-      int randomPathNum = random.getRandomNumber(0, leftOverPaths.size());
-      
-      Set<Integer> randomPath = leftOverPaths.get(randomPathNum);
-      
-      // No need to check sets here
-      confirmed.add(randomPath);
-      leftOverPaths.remove(randomPath);
-      interconn -= 1;
+    this.connectionsOfLocation = new int[this.connectionStart[numOfLocations]];
+    this.neighborsOfLocation = new int[this.connectionStart[numOfLocations]];
+    int[] next = Arrays.copyOf(this.connectionStart, numOfLocations);
+    for (int path : this.finalDungeonPaths) {
+      int from = this.dungeonConnections.getFrom(path);
+      int to = this.dungeonConnections.getTo(path);
+      this.neighborsOfLocation[next[from]] = to;
+      this.connectionsOfLocation[next[from]++] = path;
+      this.neighborsOfLocation[next[to]] = from;
+      this.connectionsOfLocation[next[to]++] = path;
     }
-    return confirmed;
   }
   
   /**
@@ -323,20 +292,23 @@ public class MazeDungeon implements Dungeons {
    * entrances.
    */
   private void assignCavesAndTunnels() {
+    this.locationTable = new Location[this.numOfRows * this.numOfCols];
     for (int i = 0; i < this.numOfRows; i++) {
       List<Location> dungeonRow = new ArrayList<>();
       for (int j = 0; j < this.numOfCols; j++) {
         int curr = this.dungeonLayout.get(i).get(j);
-        List<Set<Integer>> currInPaths = this.findConnectionsWithLocation(curr);
-        if (currInPaths.size() != 2) {
-          Location cave = new Cave(curr, i, j);
-          this.allCaves.add(cave);
-          dungeonRow.add(cave);
+        int entrances = this.connectionStart[curr + 1] - this.connectionStart[curr];
+        AbstractLocation self;
+        if (entrances != 2) {
+          self = new Cave(curr, i, j);
+          this.allCaves.add(self);
         } else {
-          Location tunnel = new Tunnel(curr, i, j);
-          this.allTunnels.add(tunnel);
-          dungeonRow.add(tunnel);
+          self = new Tunnel(curr, i, j);
+          this.allTunnels.add(self);
         }
+        self.setSmellField(this.smellField, curr);
+        dungeonRow.add(self);
+        this.locationTable[curr] = self;
       }
       this.allLocations.add(dungeonRow);
     }
@@ -346,88 +318,14 @@ public class MazeDungeon implements Dungeons {
    * Assign neighbors to each location object by referring to the location id.
    */
   private void assignNeighbors() {
-    for (int i = 0; i < this.numOfRows; i++) {
-      for (int j = 0; j < this.numOfCols; j++) {
-        int curr = this.dungeonLayout.get(i).get(j);
-        List<Set<Integer>> currInPaths = this.findConnectionsWithLocation(curr);
-        Location self;
-        self = this.getLocationObject(curr);
-        for (Set<Integer> path : currInPaths) {
-          Set<Integer> copy = new HashSet<>(path);
-          copy.remove(curr);
-          Integer neighborId = (Integer) copy.toArray()[0];
-          Location neighbor = this.getLocationObject(neighborId);
-          int selfRow = self.getPosition()[0];
-          int selfCol = self.getPosition()[1];
-          int neighRow = neighbor.getPosition()[0];
-          int neighCol = neighbor.getPosition()[1];
-          Direction neighborDirection = this.getDirectionOfNeighbor(
-              selfRow, selfCol, neighRow, neighCol);
-          self.addNeighbor(neighborDirection, neighbor);
-        }
-      }
-    }
-  }
-  
-  /**
-   * Get the location object for given location id.
-   * 
-   * @param curr location id
-   * @return location object
-   */
-  private Location getLocationObject(int curr) {
-    for (List<Location> row : this.allLocations) {
-      for (Location each : row) {
-        if (each.getLocationNum() == curr) {
-          return each;
-        }
-      }
-    }
-    return null;
-  }
-  
-  /**
-   * Get the direction of neighbor to current location.
-   * 
-   * @param selfRow current location row
-   * @param selfCol current location column
-   * @param neighborRow neighbor location row
-   * @param neighborCol neighbor location column
-   * @return direction of neighbor
-   */
-  private Direction getDirectionOfNeighbor(int selfRow, int selfCol, 
-      int neighborRow, int neighborCol) {
-    if (neighborCol == selfCol) {
-      if (neighborRow == selfRow - 1) {
-        return Direction.NORTH;
-      } else if (neighborRow == selfRow + 1) {
-        return Direction.SOUTH;
-      }
-    } 
-    if (neighborRow == selfRow) {
-      if (neighborCol == selfCol - 1) {
-        return Direction.WEST;
-      } else if (neighborCol == selfCol + 1) {
-        return Direction.EAST;
+    for (int curr = 0; curr < this.locationTable.length; curr++) {
+      Location self = this.locationTable[curr];
+      for (int k = this.connectionStart[curr]; k < this.connectionStart[curr + 1]; k++) {
+        int path = this.connectionsOfLocation[k];
+        self.addNeighbor(this.dungeonConnections.getDirectionFrom(path, curr), 
+            this.locationTable[this.neighborsOfLocation[k]]);
       }
     }
-    if (this.isWrapped) {
-      if (neighborRow == selfRow) {
-        if (selfCol == 0 && neighborCol == this.numOfCols - 1) {
-          return Direction.WEST;
-        } else if (selfCol == this.numOfCols - 1 && neighborCol == 0) {
-          return Direction.EAST;
-        }
-      }
-      if (neighborCol == selfCol) {
-        if (selfRow == 0 && neighborRow == this.numOfRows - 1) {
-          return Direction.NORTH;
-        } else if (selfRow == this.numOfRows - 1 && neighborRow == 0) {
-          return Direction.SOUTH;
-        }
-      }
-    }
-    return null;
   }
   
   /**
@@ -438,12 +336,14 @@ public class MazeDungeon implements Dungeons {
       int numberOfCavesWithTreasure = (int) Math.round(
           (this.requiredTreasureSpread / 100) * this.allCaves.size());
        
-      List<Integer> selectedCaves = random.getUniqueRandomNumbersList(
+      int[] selectedCaves = random.getUniqueRandomNumbers(
           numberOfCavesWithTreasure, 0, this.allCaves.size());
+      int[] counts = new int[selectedCaves.length * 3];
+      random.nextInts(counts, 0, 3);
       
-      for (int i = 0; i < selectedCaves.size(); i++) {
-        Location current = this.allCaves.get(selectedCaves.get(i));
-        current.distributeTreasures(this.getRandomTreasure());
+      for (int i = 0; i < selectedCaves.length; i++) {
+        Location current = this.allCaves.get(selectedCaves[i]);
+        current.distributeTreasures(this.getRandomTreasure(counts, 3 * i));
       }
     }
     this.areTreasuresAssigned = true;
@@ -452,16 +352,15 @@ public class MazeDungeon implements Dungeons {
   /**
    * Get a random treasure to assigned.
    * 
+   * @param counts random numbers from 0 to 2
+   * @param first index of the first of the three numbers to use
    * @return Map of treasures and their count
    */
-  private Map<Treasure, Integer> getRandomTreasure() {
+  private Map<Treasure, Integer> getRandomTreasure(int[] counts, int first) {
     Map<Treasure, Integer> treasures = new HashMap<>();
-    int count = random.getRandomNumber(0, 3) + 1;
-    treasures.put(Treasure.DIAMONDS, count);
-    count = random.getRandomNumber(0, 3) + 1;
-    treasures.put(Treasure.RUBIES, count);
-    count = random.getRandomNumber(0, 3) + 1;
-    treasures.put(Treasure.SAPPHIRE, count);
+    treasures.put(Treasure.DIAMONDS, counts[first] + 1);
+    treasures.put(Treasure.RUBIES, counts[first + 1] + 1);
+    treasures.put(Treasure.SAPPHIRE, counts[first + 2] + 1);
     
     return treasures;
   }
@@ -475,80 +374,39 @@ public class MazeDungeon implements Dungeons {
           (this.requiredTreasureSpread / 100) 
           * (this.allLocations.size() * this.allLocations.get(0).size()));
       
+      int[] rows = new int[numberOfLocationsWithArrows];
+      int[] cols = new int[numberOfLocationsWithArrows];
+      int[] counts = new int[numberOfLocationsWithArrows];
+      random.nextInts(rows, 0, this.numOfRows);
+      random.nextInts(cols, 0, this.numOfCols);
+      random.nextInts(counts, 0, 3);
       for (int i = 0; i < numberOfLocationsWithArrows; i++) {
-        int row = random.getRandomNumber(0, this.allLocations.size());
-        int col = random.getRandomNumber(0, this.allLocations.get(row).size());
-        Location current = this.allLocations.get(row).get(col);
-        int randomArrowCount = random.getRandomNumber(0, 3) + 1;
-        current.addArrows(randomArrowCount);
+        Location current = this.allLocations.get(rows[i]).get(cols[i]);
+        current.addArrows(counts[i] + 1);
       }
       this.areArrowsAssigned = true;
     }
   }
   
   /**
-   * Assign neighbors to the adjacency 2-D matrix.
+   * Build the 2-D matrix of neighbor lists from the compressed adjacency. 
+   * The lists cannot be modified.
    */
-  private void getAdjacency() {
+  private void buildAdjacency() {
+    List<List<List<Location>>> adjacencyRows = new ArrayList<>();
     for (int i = 0; i < this.numOfRows; i++) {
       List<List<Location>> adjacencyRow = new ArrayList<>();
       for (int j = 0; j < this.numOfCols; j++) {
         int curr = this.dungeonLayout.get(i).get(j);
-        Location self = this.getLocationObject(curr);
-        List<Location> neighbors = new ArrayList<>(self.getNeighbors().values());
-        adjacencyRow.add(neighbors);
-      }
-      this.adjacency.add(adjacencyRow);
-    }
-  }
-  
-  /**
-   * Get all possible paths from point A to point B. Implemented a DFS algorithm.
-   * 
-   * @param start start location
-   * @param end end location
-   */
-  private void getAllPossiblePaths(
-      Location startLoc, Location endLoc) {
-    this.getAdjacency();
-    Boolean[] visited = new Boolean[(this.numOfRows * this.numOfCols) + 1];
-    Arrays.fill(visited, Boolean.FALSE);
-    List<Location> availablePath = new ArrayList<>();
-    availablePath.add(startLoc);
-    this.getAllPossiblePathsRecur(startLoc, endLoc, visited, availablePath);
-  }
-  
-  /**
-   * Recursively find paths between start and end location using the DFS 
-   * algorithm.
-   * 
-   * @param start start location
-   * @param end end location
-   * @param visited boolean array of not visits
-   * @param availablePath identified paths between start and end
-   */
-  private void getAllPossiblePathsRecur(Location startLoc, Location endLoc, 
-      Boolean[] visited, List<Location> availablePath) {
-    if (startLoc.equals(endLoc)) {
-      List<Location> path = new ArrayList<>(availablePath);
-      this.allPaths.add(path);
-    } else {
-      visited[startLoc.getLocationNum()] = true;
-      
-      int startRow = startLoc.getPosition()[0];
-      int startCol = startLoc.getPosition()[1];
-      
-      for (Location neighbor : this.adjacency.get(startRow).get(startCol)) {
-        
-        // if not visited
-        if (!visited[neighbor.getLocationNum()]) {
-          availablePath.add(neighbor);
-          this.getAllPossiblePathsRecur(neighbor, endLoc, visited, availablePath);
-          availablePath.remove(neighbor);
+        Location[] neighbors = new Location[this.adjacencyIndex.getDegree(curr)];
+        for (int k = 0; k < neighbors.length; k++) {
+          neighbors[k] = this.locationTable[this.adjacencyIndex.getNeighbor(curr, k)];
         }
+        adjacencyRow.add(Collections.unmodifiableList(Arrays.asList(neighbors)));
       }
-      visited[startLoc.getLocationNum()] = false;
+      adjacencyRows.add(Collections.unmodifiableList(adjacencyRow));
     }
+    this.adjacency = Collections.unmodifiableList(adjacencyRows);
   }
   
   @Override
@@ -562,27 +420,39 @@ public class MazeDungeon implements Dungeons {
   }
   
   @Override
-  public void assignStartAndEnd() {
-    while (true) {
-      List<Integer> choices = random.getUniqueRandomNumbersList(2, 0, this.allCaves.size());
-      
-      Location startCave = this.allCaves.get(choices.get(0));
-      Location endCave = this.allCaves.get(choices.get(1));
-           
-      this.allPaths.clear();
-      this.getAllPossiblePaths(startCave, endCave);
-      boolean flag = true;
-      for (List<Location> path : this.allPaths) {
-        if (path.size() < 5) {
-          flag = false;
-        }
+  public void assignStartAndEnd() throws IllegalStateException {
+    if (this.startEndPairs == null) {
+      int[] caveLocations = new int[this.allCaves.size()];
+      for (int i = 0; i < caveLocations.length; i++) {
+        caveLocations[i] = this.allCaves.get(i).getLocationNum();
       }
-      if (flag) {
-        this.start = startCave;
-        this.end = endCave;
-        break;
+      this.startEndPairs = new CavePairIndex(this.adjacencyIndex, caveLocations, 
+          this.minPathLength);
+    }
+    if (this.startEndPairs.getNumberOfPairs() == 0) {
+      throw new IllegalStateException("No two caves are at least " 
+          + this.minPathLength + " locations apart, cannot assign start and end.");
+    }
+    
+    Location startCave = null;
+    Location endCave = null;
+    // Try random pairs first, valid pairs are usually common
+    for (int i = 0; i < MAX_PAIR_ATTEMPTS && startCave == null; i++) {
+      int[] choices = CavePairIndex.pickRandomPair(random, this.allCaves.size());
+      if (this.startEndPairs.isValidPair(choices[0], choices[1])) {
+        startCave = this.allCaves.get(choices[0]);
+        endCave = this.allCaves.get(choices[1]);
       }
     }
+    // Valid pairs are rare, pick one straight from the index
+    if (startCave == null) {
+      int[] choices = this.startEndPairs.getPair(
+          CavePairIndex.pickRandomRank(random, this.startEndPairs.getNumberOfPairs()));
+      startCave = this.allCaves.get(choices[0]);
+      endCave = this.allCaves.get(choices[1]);
+    }
+    this.start = startCave;
+    this.end = endCave;
     this.addMonsters();
   }
   
@@ -592,18 +462,20 @@ public class MazeDungeon implements Dungeons {
    */
   private void addMonsters() {
     this.addDefaultMonster();
-    List<Location> availableCavesForMonsters = new ArrayList<>();
-    availableCavesForMonsters = this.allCaves;
+    List<Location> availableCavesForMonsters = new ArrayList<>(this.allCaves);
     // Remove end cave
     availableCavesForMonsters.remove(this.end);
     // Remove start cave
     availableCavesForMonsters.remove(this.start);
     // Available caves
     if (this.monstersInDungeon.size() > 1) {
+      int[] caves = new int[availableCavesForMonsters.size()];
+      for (int i = 0; i < caves.length; i++) {
+        caves[i] = i;
+      }
+      this.random.shuffle(caves, this.monstersInDungeon.size() - 1);
       for (int i = 1; i < this.monstersInDungeon.size(); i++) {
-        int cave = this.random.getRandomNumber(0, availableCavesForMonsters.size() - 1);
-        availableCavesForMonsters.get(cave).addMonster(this.monstersInDungeon.get(i));
-        availableCavesForMonsters.remove(cave);
+        availableCavesForMonsters.get(caves[i - 1]).addMonster(this.monstersInDungeon.get(i));
       }
     }
   }
@@ -629,6 +501,26 @@ public class MazeDungeon implements Dungeons {
     return this.allLocations;
   }
 
+  @Override
+  public int getNeighborMask(int id) {
+    return this.locationTable[id].getNeighborMask();
+  }
+  
+  @Override
+  public int getTreasure(int id, Treasure treasure) {
+    return this.locationTable[id].getTreasureCount(treasure);
+  }
+  
+  @Override
+  public int getArrows(int id) {
+    return this.locationTable[id].getArrowsInLocation();
+  }
+  
+  @Override
+  public Monsters getMonster(int id) {
+    return this.locationTable[id].getMonster();
+  }
+
   @Override
   public List<Location> getCaves() {
     return this.allCaves;
@@ -653,7 +545,38 @@ public class MazeDungeon implements Dungeons {
 
   @Override
   public List<List<List<Location>>> getAllAdjacency() {
-    this.getAdjacency();
+    if (this.adjacency == null) {
+      this.buildAdjacency();
+    }
     return this.adjacency;
   }
+  
+  @Override
+  public CompressedAdjacency getCompressedAdjacency() {
+    return this.adjacencyIndex;
+  }
+  
+  @Override
+  public SmellField getSmellField() {
+    return this.smellField;
+  }
+  
+  @Override
+  public ArrowFlightTable getArrowFlights() {
+    if (this.arrowFlights == null) {
+      // Neighbor of each location by direction, from the final connections
+      int[] neighborTowards = new int[this.locationTable.length * 4];
+      Arrays.fill(neighborTowards, -1);
+      for (int curr = 0; curr < this.locationTable.length; curr++) {
+        for (int k = this.connectionStart[curr]; k < this.connectionStart[curr + 1]; k++) {
+          Direction towards = this.dungeonConnections.getDirectionFrom(
+              this.connectionsOfLocation[k], curr);
+          neighborTowards[curr * 4 + towards.ordinal()] = this.neighborsOfLocation[k];
+        }
+      }
+      this.arrowFlights = new ArrowFlightTable(this.locationTable.length, 
+          (id, towards) -> neighborTowards[id * 4 + towards.ordinal()]);
+    }
+    return this.arrowFlights;
+  }
 }
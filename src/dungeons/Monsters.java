@@ -42,4 +42,12 @@ public interface Monsters {
    * @return status of the monster
    */
   String getStatus();
+  
+  /**
+   * Get the health left to the monster. A monster is dead once it has no 
+   * health left.
+   * 
+   * @return health of the monster
+   */
+  int getHealth();
 }
@@ -0,0 +1,119 @@
+package dungeons;
+
+/**
+ * A benchmark of the MonteCarloBot for sizing the hardware of computer
+ * opponents. It first reports the playouts per second of one search on 1,
+ * 2, 4, ... threads up to the number of processors. Then it plays a batch
+ * of games with the bot, with the bot without its transposition table and
+ * with the hunter bot, and reports the win and death rates of each along
+ * with the average playouts, expected reward, visit share and margin of the
+ * turns the search picked.
+ *
+ * <p>Usage: java dungeons.MonteCarloBenchmark [size] [games] [millis per move]
+ */
+public class MonteCarloBenchmark {
+
+  private static final int MONSTERS = 3;
+  private static final int TURN_LIMIT = 300;
+
+  /**
+   * Main function running the benchmark.
+   *
+   * @param args optional dungeon size, number of games and time budget of a
+   *             move in milliseconds
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int games = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    long millis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+    int processors = Runtime.getRuntime().availableProcessors();
+
+    System.out.println("Searching a " + size + " x " + size + " dungeon with " + MONSTERS
+        + " monsters, " + processors + " processors available.");
+    Game position = newGame(size, new SplittableRandomNumberGenerator(1));
+    double single = 0;
+    for (int threads = 1; threads <= processors; threads *= 2) {
+      MonteCarloBot bot = new MonteCarloBot(500, threads);
+      // Warm up so the first thread count is not measured cold
+      bot.search(position, new SplittableRandomNumberGenerator(2));
+      SearchReport report = bot.search(position, new SplittableRandomNumberGenerator(3));
+      if (threads == 1) {
+        single = report.getPlayoutsPerSecond();
+      }
+      System.out.printf("%2d threads: %,.0f playouts/s, speedup %.2fx%n", threads,
+          report.getPlayoutsPerSecond(), report.getPlayoutsPerSecond() / single);
+    }
+
+    System.out.println(games + " games, " + millis + " ms per move on " + processors
+        + " threads:");
+    play("MonteCarloBot", new MonteCarloBot(millis, processors), size, games);
+    play("No table", new MonteCarloBot(millis, Integer.MAX_VALUE, processors,
+        MonteCarloBot.DEFAULT_ROLLOUT_TURNS, null), size, games);
+    play("HunterBot", new HunterBot(), size, games);
+  }
+
+  /**
+   * Create a started single player game.
+   *
+   * @param size number of rows and columns
+   * @param random random number generator of the game
+   * @return started game
+   */
+  private static Game newGame(int size, RandomNumberGenerator random) {
+    Game game = new AdventureGame(1, size, size, 5, true, 30, MONSTERS, random);
+    game.setupPlayerOne(1);
+    game.startGame();
+    return game;
+  }
+
+  /**
+   * Play a batch of games with a bot and print the results.
+   *
+   * @param name name of the bot
+   * @param bot bot to play with
+   * @param size number of rows and columns
+   * @param games number of games
+   */
+  private static void play(String name, GameBot bot, int size, int games) {
+    int wins = 0;
+    int deaths = 0;
+    long turns = 0;
+    long playouts = 0;
+    long searchNanos = 0;
+    double value = 0;
+    double share = 0;
+    double margin = 0;
+    int searches = 0;
+    for (int g = 0; g < games; g++) {
+      SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(100 + g);
+      Game game = newGame(size, random);
+      for (int turn = 0; turn < TURN_LIMIT && !game.isGameOver(); turn++) {
+        if (bot instanceof MonteCarloBot) {
+          SearchReport report = ((MonteCarloBot) bot).playMove(game, random);
+          playouts += report.getPlayouts();
+          searchNanos += report.getElapsedNanos();
+          value += report.getValue();
+          share += report.getVisitShare();
+          margin += report.getMargin();
+          searches += 1;
+        } else {
+          bot.playTurn(game, random);
+        }
+        turns += 1;
+      }
+      if (game.getWinner() != null) {
+        wins += 1;
+      } else if (game.isGameOver()) {
+        deaths += 1;
+      }
+    }
+    System.out.printf("%-13s won %5.1f%%, died %5.1f%%, %.1f turns per game%n", name,
+        100.0 * wins / games, 100.0 * deaths / games, (double) turns / games);
+    if (searches > 0) {
+      System.out.printf("%-13s %,.0f playouts per move, %,.0f playouts/s, value %.2f, "
+          + "visit share %.0f%%, margin %.2f%n", "", (double) playouts / searches,
+          playouts / (searchNanos / 1e9), value / searches, 100 * share / searches,
+          margin / searches);
+    }
+  }
+}
@@ -0,0 +1,628 @@
+package dungeons;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bot that picks every turn with a Monte Carlo tree search. Each playout
+ * creates a copy of the game from a snapshot, walks down the search tree
+ * picking turns by their upper confidence bound, adds one new turn to the
+ * tree and lets the hunter bot play a few more turns. The reward of the
+ * playout, 1 for a win, 0 for a death and in between the progress of the
+ * player in exploring, looting and killing monsters, is added to every turn
+ * on the way.
+ *
+ * <p>Several threads search the same tree at once. The statistics of a
+ * node are atomic counters and new nodes are added with a compare and set,
+ * so there are no locks. A thread walking through a node counts a few
+ * virtual losses on it until its playout ends, which steers the other
+ * threads to other turns meanwhile. The search stops when the time budget
+ * of the move or the maximum number of playouts is used up, and plays the
+ * turn that most playouts went through.
+ *
+ * <p>Different orders of turns often lead to the same state, such as
+ * stepping out of a cave and back in before or after a shot. The rewards of
+ * the rollouts are kept in a transposition table keyed by the Zobrist hash
+ * of the state they started from, and once a state has been rolled out a
+ * few times every other leaf reaching it reuses their mean reward instead
+ * of rolling out again. The hash of a game leaves out the visited cells,
+ * but the hunter bot heads for unvisited cells and the reward counts the
+ * cells explored, so the keys of the cells each player has visited are
+ * mixed in too: leaves share a mean only if they reached the same state
+ * having visited the same cells. The rewards count the progress since the
+ * root, so the keys are salted with the search and never match across
+ * moves.
+ *
+ * <p>The copies of the game are exact, so the search knows what the model
+ * knows: it plays with full knowledge of the dungeon. Picking up treasures
+ * and arrows does not end a turn, so the bot always picks up first.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class MonteCarloBot implements GameBot {
+
+  /**
+   * Default number of turns the hunter bot plays at the end of a playout.
+   */
+  public static final int DEFAULT_ROLLOUT_TURNS = 20;
+
+  /**
+   * Default number of entries of the transposition table of a bot.
+   */
+  public static final int DEFAULT_TABLE_SIZE = 1 << 16;
+
+  // Picking up is free, so a turn is one of the moves or shots
+  private static final int NUM_ACTIONS = BatchEnvironment.PICK_UP;
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final int VIRTUAL_LOSS = 3;
+  private static final double EXPLORATION = 1.0;
+  private static final double SCALE = 1 << 20;
+  private static final HunterBot ROLLOUT_BOT = new HunterBot();
+  private static final int SHARED_ROLLOUTS = 4;
+  private static final int MEAN_BITS = 24;
+  private static final long MEAN_MASK = (1L << MEAN_BITS) - 1;
+
+  private final long budgetNanos;
+  private final int maxPlayouts;
+  private final int threads;
+  private final int rolloutTurns;
+  private final ForkJoinPool pool;
+  private final TranspositionTable table;
+  private final AtomicLong searches;
+
+  /**
+   * Construct a bot that searches each move for a given time on a number of
+   * threads.
+   *
+   * @param millisPerMove time budget of a move in milliseconds
+   * @param threads number of threads searching
+   * @throws IllegalArgumentException if the time budget or the number of
+   *                                  threads is less than 1
+   */
+  public MonteCarloBot(long millisPerMove, int threads) throws IllegalArgumentException {
+    this(millisPerMove, Integer.MAX_VALUE, threads, DEFAULT_ROLLOUT_TURNS);
+  }
+
+  /**
+   * Construct a bot.
+   *
+   * @param millisPerMove time budget of a move in milliseconds
+   * @param playouts maximum number of playouts of a move
+   * @param threads number of threads searching
+   * @param rollout turns the hunter bot plays at the end of a playout
+   * @throws IllegalArgumentException if the time budget, the number of
+   *                                  playouts or the number of threads is
+   *                                  less than 1 or if the rollout is
+   *                                  negative
+   */
+  public MonteCarloBot(long millisPerMove, int playouts, int threads, int rollout)
+      throws IllegalArgumentException {
+    this(millisPerMove, playouts, threads, rollout, new TranspositionTable(DEFAULT_TABLE_SIZE));
+  }
+
+  /**
+   * Construct a bot sharing rollouts through a given transposition table.
+   * Bots may share a table, the searches of each bot use their own keys.
+   *
+   * @param millisPerMove time budget of a move in milliseconds
+   * @param playouts maximum number of playouts of a move
+   * @param threads number of threads searching
+   * @param rollout turns the hunter bot plays at the end of a playout
+   * @param table table of rollout rewards, or null to roll out every leaf
+   * @throws IllegalArgumentException if the time budget, the number of
+   *                                  playouts or the number of threads is
+   *                                  less than 1 or if the rollout is
+   *                                  negative
+   */
+  public MonteCarloBot(long millisPerMove, int playouts, int threads, int rollout,
+      TranspositionTable table) throws IllegalArgumentException {
+    if (millisPerMove < 1 || playouts < 1) {
+      throw new IllegalArgumentException("Time budget and number of playouts "
+          + "must be greater than 0.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be greater than 0.");
+    }
+    if (rollout < 0) {
+      throw new IllegalArgumentException("Rollout turns cannot be negative.");
+    }
+    this.budgetNanos = millisPerMove * 1_000_000L;
+    this.maxPlayouts = playouts;
+    this.threads = threads;
+    this.rolloutTurns = rollout;
+    // The workers of the pool are daemon threads, the pool needs no shutdown
+    this.pool = threads == 1 ? null : new ForkJoinPool(threads);
+    this.table = table;
+    this.searches = new AtomicLong();
+  }
+
+  @Override
+  public void playTurn(Game game, RandomNumberGenerator random) {
+    this.playMove(game, random);
+  }
+
+  /**
+   * Pick up what is in the location of the player whose turn it is, then
+   * search for the best turn and play it.
+   *
+   * @param game started game that is not over
+   * @param random random number generator seeding the search
+   * @return report of the search, with the answer of the game to the turn
+   * @throws IllegalArgumentException if the game or the random number
+   *                                  generator is a null object
+   * @throws IllegalStateException if the game is over
+   */
+  public SearchReport playMove(Game game, RandomNumberGenerator random)
+      throws IllegalArgumentException, IllegalStateException {
+    if (game == null) {
+      throw new IllegalArgumentException("Game cannot be null.");
+    }
+    if (!game.isGameOver()) {
+      ROLLOUT_BOT.collect(game, game.getTurn().getCurrentLocation());
+    }
+    SearchReport report = this.search(game, random);
+    report.setOutcome(apply(game, toAction(report)));
+    return report;
+  }
+
+  /**
+   * Search for the best turn of the player whose turn it is. The game is not
+   * changed.
+   *
+   * @param game started game that is not over
+   * @param random random number generator seeding the search
+   * @return report of the search
+   * @throws IllegalArgumentException if the game or the random number
+   *                                  generator is a null object
+   * @throws IllegalStateException if the game is over
+   */
+  public SearchReport search(Game game, RandomNumberGenerator random)
+      throws IllegalArgumentException, IllegalStateException {
+    if (game == null) {
+      throw new IllegalArgumentException("Game cannot be null.");
+    }
+    if (random == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
+    if (game.isGameOver()) {
+      throw new IllegalStateException("The game has ended, there is no turn to play.");
+    }
+
+    long begin = System.nanoTime();
+    long deadline = begin + this.budgetNanos;
+    GameSnapshot snapshot = game.snapshot();
+    int[] monsters = monstersOf(game);
+    int[] baseline = progressOf(game, monsters);
+    Node root = new Node(-1);
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger finished = new AtomicInteger();
+    AtomicInteger nodes = new AtomicInteger(1);
+    long salt = SplittableRandomNumberGenerator.mix64(
+        System.identityHashCode(this) ^ (this.searches.incrementAndGet() << 32));
+    SplittableRandomNumberGenerator seeds = new SplittableRandomNumberGenerator(
+        ((long) random.getRandomNumber(0, Integer.MAX_VALUE) << 31)
+        ^ random.getRandomNumber(0, Integer.MAX_VALUE));
+
+    List<Callable<Void>> workers = new ArrayList<>(this.threads);
+    for (int t = 0; t < this.threads; t++) {
+      // Streams are split here, the generator is not thread-safe
+      RandomNumberGenerator stream = seeds.split();
+      workers.add(() -> {
+        while (started.getAndIncrement() < this.maxPlayouts) {
+          this.playout(snapshot, root, baseline, monsters, salt, stream, nodes);
+          finished.incrementAndGet();
+          if (System.nanoTime() >= deadline) {
+            break;
+          }
+        }
+        return null;
+      });
+    }
+    if (this.pool == null) {
+      try {
+        workers.get(0).call();
+      } catch (Exception e) {
+        throw new IllegalStateException("The search failed.", e);
+      }
+    } else {
+      for (Future<Void> worker : this.pool.invokeAll(workers)) {
+        try {
+          worker.get();
+        } catch (InterruptedException | ExecutionException e) {
+          throw new IllegalStateException("The search failed.", e);
+        }
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+
+    int best = -1;
+    int runnerUp = -1;
+    for (int action = 0; action < NUM_ACTIONS; action++) {
+      Node child = root.children.get(action);
+      if (child == null) {
+        continue;
+      }
+      if (best < 0 || child.visits.get() > root.children.get(best).visits.get()) {
+        runnerUp = best;
+        best = action;
+      } else if (runnerUp < 0
+          || child.visits.get() > root.children.get(runnerUp).visits.get()) {
+        runnerUp = action;
+      }
+    }
+    Node chosen = root.children.get(best);
+    return new SearchReport(DIRECTIONS[best % DIRECTIONS.length], distanceOf(best),
+        finished.get(), this.threads, nodes.get(), Integer.bitCount(legalActions(game)),
+        chosen.getMean(), (double) chosen.visits.get() / Math.max(1, root.visits.get()),
+        runnerUp < 0 ? 0 : root.children.get(runnerUp).getMean(), elapsed);
+  }
+
+  /**
+   * Run one playout: select down the tree in a copy of the game, expand one
+   * new turn, roll out with the hunter bot and add the rewards on the way
+   * back.
+   *
+   * @param snapshot state at the root
+   * @param root root of the tree
+   * @param baseline progress of the game at the root
+   * @param monsters row and column of the monsters at the root
+   * @param salt key of the search in the transposition table
+   * @param random random number generator of the thread
+   * @param nodes counter of nodes in the tree
+   */
+  private void playout(GameSnapshot snapshot, Node root, int[] baseline, int[] monsters,
+      long salt, RandomNumberGenerator random, AtomicInteger nodes) {
+    Game game = snapshot.toGame(random);
+    List<Node> path = new ArrayList<>();
+    Node node = root;
+    boolean expanded = false;
+    while (!game.isGameOver() && !expanded) {
+      ROLLOUT_BOT.collect(game, game.getTurn().getCurrentLocation());
+      int legal = legalActions(game);
+      int untried = 0;
+      for (int bits = legal; bits != 0; bits &= bits - 1) {
+        int action = Integer.numberOfTrailingZeros(bits);
+        if (node.children.get(action) == null) {
+          untried |= 1 << action;
+        }
+      }
+      int action;
+      if (untried != 0) {
+        action = pickAction(untried, random);
+        expanded = true;
+      } else {
+        action = select(node, legal);
+      }
+      Node child = node.getChild(action, playerOf(game), nodes);
+      child.visits.addAndGet(VIRTUAL_LOSS);
+      path.add(child);
+      apply(game, action);
+      node = child;
+    }
+    double[] rewards = null;
+    long key = 0;
+    long shared = 0;
+    if (this.table != null && !game.isGameOver()) {
+      key = game.getStateHash() ^ hashOfVisited(game) ^ salt;
+      shared = this.table.get(key, 0);
+      if (shared >>> 2 * MEAN_BITS >= SHARED_ROLLOUTS) {
+        rewards = new double[] {(double) (shared >>> MEAN_BITS & MEAN_MASK) / MEAN_MASK,
+            (double) (shared & MEAN_MASK) / MEAN_MASK};
+      }
+    }
+    if (rewards == null) {
+      for (int turn = 0; turn < this.rolloutTurns && !game.isGameOver(); turn++) {
+        ROLLOUT_BOT.playTurn(game, random);
+      }
+      rewards = rewardsOf(game, baseline, monsters);
+      if (key != 0) {
+        this.table.put(key, addRollout(shared, rewards));
+      }
+    }
+    root.visits.incrementAndGet();
+    for (Node visited : path) {
+      // Take the virtual losses back and count the real playout
+      visited.value.addAndGet(Math.round(rewards[visited.player] * SCALE));
+      visited.visits.addAndGet(1 - VIRTUAL_LOSS);
+    }
+  }
+
+  /**
+   * Select the tried turn with the highest upper confidence bound.
+   *
+   * @param node node to select from
+   * @param legal bit mask of the legal turns, all of them tried
+   * @return selected turn
+   */
+  private static int select(Node node, int legal) {
+    double logVisits = Math.log(Math.max(1, node.visits.get()));
+    int best = -1;
+    double bestBound = Double.NEGATIVE_INFINITY;
+    for (int bits = legal; bits != 0; bits &= bits - 1) {
+      int action = Integer.numberOfTrailingZeros(bits);
+      Node child = node.children.get(action);
+      int visits = child.visits.get();
+      if (visits == 0) {
+        // Added by another thread that has not walked through it yet
+        return action;
+      }
+      double bound = child.value.get() / SCALE / visits
+          + EXPLORATION * Math.sqrt(logVisits / visits);
+      if (bound > bestBound) {
+        bestBound = bound;
+        best = action;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Pick one of the turns of a bit mask uniformly.
+   *
+   * @param mask turns to pick from
+   * @param random random number generator
+   * @return picked turn
+   */
+  private static int pickAction(int mask, RandomNumberGenerator random) {
+    int skip = random.getRandomNumber(0, Integer.bitCount(mask));
+    for (int i = 0; i < skip; i++) {
+      mask &= mask - 1;
+    }
+    return Integer.numberOfTrailingZeros(mask);
+  }
+
+  /**
+   * Get the turns of the player whose turn it is: a move through every
+   * entrance and, with arrows in hand, a shot of distance 1 and 2 through
+   * every entrance.
+   *
+   * @param game game being played
+   * @return bit mask with the bit of each legal turn set
+   */
+  private static int legalActions(Game game) {
+    Players player = game.getTurn();
+    int entrances = player.getCurrentLocation().getNeighborMask();
+    int legal = entrances << BatchEnvironment.MOVE;
+    if (player.getArrowsInHand() > 0) {
+      legal |= entrances << BatchEnvironment.SHOOT_NEAR
+          | entrances << BatchEnvironment.SHOOT_FAR;
+    }
+    return legal;
+  }
+
+  /**
+   * Play a turn in the game.
+   *
+   * @param game game being played
+   * @param action turn to play
+   * @return answer of the game
+   */
+  private static String apply(Game game, int action) {
+    Direction towards = DIRECTIONS[action % DIRECTIONS.length];
+    if (action < BatchEnvironment.SHOOT_NEAR) {
+      return game.move(towards);
+    }
+    return game.shootArrow(towards, distanceOf(action));
+  }
+
+  /**
+   * Get the turn a report picked.
+   *
+   * @param report report of a search
+   * @return turn
+   */
+  private static int toAction(SearchReport report) {
+    int first = report.getDistance() == 0 ? BatchEnvironment.MOVE
+        : report.getDistance() == 1 ? BatchEnvironment.SHOOT_NEAR : BatchEnvironment.SHOOT_FAR;
+    return first + report.getDirection().ordinal();
+  }
+
+  /**
+   * Get the distance of the arrow of a turn.
+   *
+   * @param action turn
+   * @return distance of the shot, or 0 for a move
+   */
+  private static int distanceOf(int action) {
+    if (action < BatchEnvironment.SHOOT_NEAR) {
+      return 0;
+    }
+    return action < BatchEnvironment.SHOOT_FAR ? 1 : 2;
+  }
+
+  /**
+   * Get the index of the player whose turn it is.
+   *
+   * @param game game being played
+   * @return 0 for player one, 1 for player two
+   */
+  private static int playerOf(Game game) {
+    return game.getTurn() == game.getPlayerOne() ? 0 : 1;
+  }
+
+  /**
+   * Get the positions of the monsters in the dungeon.
+   *
+   * @param game game being played
+   * @return row and column of every monster
+   */
+  private static int[] monstersOf(Game game) {
+    List<List<Location>> locations = game.getDungeon();
+    List<Integer> found = new ArrayList<>();
+    for (int row = 0; row < locations.size(); row++) {
+      for (int col = 0; col < locations.get(row).size(); col++) {
+        if (game.hasMonster(row, col)) {
+          found.add(row);
+          found.add(col);
+        }
+      }
+    }
+    int[] monsters = new int[found.size()];
+    for (int i = 0; i < monsters.length; i++) {
+      monsters[i] = found.get(i);
+    }
+    return monsters;
+  }
+
+  /**
+   * Get the exclusive or of the Zobrist keys of the cells visited by every
+   * player.
+   *
+   * @param game game being played
+   * @return keys of the visited cells
+   */
+  private static long hashOfVisited(Game game) {
+    long hash = 0;
+    for (int p = 0; p < game.getNumberOfPlayers(); p++) {
+      BitSet cells = game.getVisitedCells(p + 1);
+      for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+        hash ^= ZobristKeys.visited(p, cell);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Get the progress of the game: the cells visited and the treasures
+   * collected by every player, and how many of the given monsters are alive.
+   *
+   * @param game game being played
+   * @param monsters row and column of the monsters at the root
+   * @return visited cells and treasures of player one, then of player two,
+   *         then the monsters alive
+   */
+  private static int[] progressOf(Game game, int[] monsters) {
+    int[] progress = new int[5];
+    for (int p = 0; p < game.getNumberOfPlayers(); p++) {
+      Players player = p == 0 ? game.getPlayerOne() : game.getPlayerTwo();
+      progress[2 * p] = game.getVisitedCells(p + 1).cardinality();
+      for (int count : player.getTreasuresInBag().values()) {
+        progress[2 * p + 1] += count;
+      }
+    }
+    for (int i = 0; i < monsters.length; i += 2) {
+      if (game.hasMonster(monsters[i], monsters[i + 1])) {
+        progress[4] += 1;
+      }
+    }
+    return progress;
+  }
+
+  /**
+   * Get the reward of every player at the end of a playout: 1 for a win, 0
+   * for a death or a game won by the other player, and otherwise a reward
+   * growing with the new cells explored, the treasures collected and the
+   * monsters killed since the root, and with the arrows left.
+   *
+   * @param game game at the end of the playout
+   * @param baseline progress of the game at the root
+   * @param monsters row and column of the monsters at the root
+   * @return reward of player one and of player two
+   */
+  private static double[] rewardsOf(Game game, int[] baseline, int[] monsters) {
+    double[] rewards = new double[2];
+    int[] progress = progressOf(game, monsters);
+    for (int p = 0; p < game.getNumberOfPlayers(); p++) {
+      Players player = p == 0 ? game.getPlayerOne() : game.getPlayerTwo();
+      if (game.getWinner() == player) {
+        rewards[p] = 1;
+      } else if (!player.isAlive() || game.isGameOver()) {
+        rewards[p] = 0;
+      } else {
+        double explored = progress[2 * p] - baseline[2 * p];
+        double loot = progress[2 * p + 1] - baseline[2 * p + 1];
+        double kills = baseline[4] - progress[4];
+        rewards[p] = 0.2 + 0.3 * explored / (explored + 4) + 0.1 * loot / (loot + 3)
+            + 0.2 * kills / (kills + 1) + 0.1 * Math.min(player.getArrowsInHand(), 3) / 3;
+      }
+    }
+    return rewards;
+  }
+
+  /**
+   * Add the rewards of a rollout to an entry of the transposition table. An
+   * entry holds the number of rollouts from the state in its top 16 bits and
+   * the mean reward of each player in 24 bits each below.
+   *
+   * @param entry entry of the state, 0 if it is not in the table
+   * @param rewards reward of player one and of player two
+   * @return new entry
+   */
+  private static long addRollout(long entry, double[] rewards) {
+    long count = entry >>> 2 * MEAN_BITS;
+    long updated = Math.min(count + 1, 0xFFFF) << 2 * MEAN_BITS;
+    for (int p = 0; p < rewards.length; p++) {
+      int shift = (1 - p) * MEAN_BITS;
+      double mean = (double) (entry >>> shift & MEAN_MASK) / MEAN_MASK;
+      mean = (mean * count + rewards[p]) / (count + 1);
+      updated |= Math.round(mean * MEAN_MASK) << shift;
+    }
+    return updated;
+  }
+
+  /**
+   * A node of the search tree: a turn and the statistics of the playouts
+   * that went through it. The statistics are atomic and children are added
+   * with a compare and set, so threads share nodes without locks.
+   */
+  private static final class Node {
+
+    private final int player;
+    private final AtomicReferenceArray<Node> children;
+    private final AtomicInteger visits;
+    private final AtomicLong value;
+
+    /**
+     * Construct a node.
+     *
+     * @param player index of the player who played the turn, -1 for the root
+     */
+    Node(int player) {
+      this.player = player;
+      this.children = new AtomicReferenceArray<>(NUM_ACTIONS);
+      this.visits = new AtomicInteger();
+      this.value = new AtomicLong();
+    }
+
+    /**
+     * Get the child of a turn, adding it if it is not in the tree yet.
+     *
+     * @param action turn
+     * @param mover index of the player playing the turn
+     * @param nodes counter of nodes in the tree
+     * @return child node
+     */
+    Node getChild(int action, int mover, AtomicInteger nodes) {
+      Node child = this.children.get(action);
+      if (child == null) {
+        Node added = new Node(mover);
+        if (this.children.compareAndSet(action, null, added)) {
+          nodes.incrementAndGet();
+          return added;
+        }
+        child = this.children.get(action);
+      }
+      return child;
+    }
+
+    /**
+     * Get the mean reward of the playouts through the node.
+     *
+     * @return mean reward
+     */
+    double getMean() {
+      int count = this.visits.get();
+      return count == 0 ? 0 : this.value.get() / SCALE / count;
+    }
+  }
+}
@@ -59,6 +59,11 @@ public class Otyugh implements Monsters {
     return this.otyughId + " is dead!!";
   }
 
+  @Override
+  public int getHealth() {
+    return this.health;
+  }
+
   @Override
   public void setMonsterResidingStatus() {
     this.monsterInCave = true;
@@ -1,6 +1,5 @@
 package dungeons;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -38,7 +37,27 @@ public class Player implements Players {
     this.arrowsInHand = 3;
     this.alive = true;
   }
-  
+
+  /**
+   * Construct a player in a given state, used for copies of a game.
+   *
+   * @param id player identifying number
+   * @param location current location of the player
+   * @param arrows number of arrows in hand
+   * @param treasureCounts collected count of each treasure, by ordinal
+   * @param isAlive true if the player is alive
+   */
+  Player(int id, Location location, int arrows, int[] treasureCounts, boolean isAlive) {
+    this.playerId = "Player " + id;
+    this.treasuresCollected = new HashMap<>();
+    for (Treasure treasure : Treasure.values()) {
+      this.treasuresCollected.put(treasure, treasureCounts[treasure.ordinal()]);
+    }
+    this.currentLocation = location;
+    this.arrowsInHand = arrows;
+    this.alive = isAlive;
+  }
+
   private void setupTreasures() {
     this.treasuresCollected.put(Treasure.DIAMONDS, 0);
     this.treasuresCollected.put(Treasure.RUBIES, 0);
@@ -160,58 +179,18 @@ public class Player implements Players {
   /**
    * Get the pungent smell level due to monsters from the current location.
    * 
-   * @param currentPosition player location
    * @return pungent smell level
    */
   private String checkForSmell() {
-    String smell;
-    List<Monsters> levelOne = new ArrayList<>();
-    List<Monsters> levelTwo = new ArrayList<>();
-    
-    List<Location> visited = new ArrayList<>();
-    if (this.currentLocation.getMonster() == null) {
-      visited.add(this.currentLocation);
-      // Check for level one neighbors i.e. neighbors one position away
-      for (Location firstNeighbor : this.currentLocation.getNeighbors().values()) {
-        if (visited.contains(firstNeighbor)) {
-          continue;
-        } else {
-          visited.add(firstNeighbor);
-          if (firstNeighbor.getMonster() == null) {
-            // Check for level two neighbors i.e. neighbors two position away
-            for (Location secondNeighbor : firstNeighbor.getNeighbors().values()) {
-              if (visited.contains(secondNeighbor)) {
-                continue;
-              } else {
-                visited.add(secondNeighbor);
-                if (secondNeighbor.getMonster() == null) {
-                  continue;
-                } else {
-                  levelTwo.add(secondNeighbor.getMonster());
-                }
-              }
-            }
-          } else {
-            levelOne.add(firstNeighbor.getMonster());
-          }
-        }
-      }
-      smell = this.estimateSmell(levelOne, levelTwo);
-    } else {
-      smell = "\nArrghhh..Monster in cave!!!";
-    }
-    return smell;
-  }
-  
-  private String estimateSmell(List<Monsters> close, List<Monsters> next) {
-    if (close.size() > 0) {
-      return "\nThere's something smelling terrible nearby..";
-    } else if (next.size() == 1) {
-      return "\nIt's slightly smelly here..";
-    } else if (next.size() > 1) {
-      return "\nThere's something smelling terrible nearby..";
-    } else {
-      return "";
+    switch (this.currentLocation.getSmellLevel()) {
+      case MONSTER:
+        return "\nArrghhh..Monster in cave!!!";
+      case TERRIBLE:
+        return "\nThere's something smelling terrible nearby..";
+      case SLIGHT:
+        return "\nIt's slightly smelly here..";
+      default:
+        return "";
     }
   }
 
@@ -219,4 +198,10 @@ public class Player implements Players {
   public Map<Treasure, Integer> getTreasuresInBag() {
     return this.treasuresCollected;
   }
+
+  @Override
+  public int getTreasureCount(Treasure treasure) {
+    Integer count = this.treasuresCollected.get(treasure);
+    return count == null ? 0 : count;
+  }
 }
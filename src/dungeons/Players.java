@@ -70,6 +70,14 @@ public interface Players {
    */
   Map<Treasure, Integer> getTreasuresInBag();
   
+  /**
+   * Get the number of a treasure with the player.
+   * 
+   * @param treasure treasure type
+   * @return treasure count
+   */
+  int getTreasureCount(Treasure treasure);
+  
   /**
    * Get the number of crooked arrows with the player.
    * 
@@ -44,6 +44,43 @@ public interface RandomNumberGenerator {
    */
   List<Integer> getRepeatedRandomNumbersList(int length, int lowerBound, int upperBound);
   
+  /**
+   * Generate random non-repeating integers within the given range with 
+   * Floyd's algorithm. Every selection is equally likely and only one 
+   * random number is drawn per integer, however close the length is to 
+   * the size of the range. The order of the integers is not random.
+   * 
+   * @param length number of integers
+   * @param lowerBound Lower bound of the integers range
+   * @param upperBound Upper bound of the integers range, excluded
+   * @return array of random numbers
+   * @throws IllegalArgumentException if the length is negative or larger 
+   *                                  than the range
+   */
+  int[] getUniqueRandomNumbers(int length, int lowerBound, int upperBound) 
+      throws IllegalArgumentException;
+  
+  /**
+   * Shuffle the front of the array with a partial Fisher-Yates shuffle. 
+   * Afterwards the first length integers are a random selection of the 
+   * array in a random order, and only length random numbers are drawn.
+   * 
+   * @param numbers integers to shuffle in place
+   * @param length number of integers to shuffle to the front
+   * @throws IllegalArgumentException if the length is negative or larger 
+   *                                  than the array
+   */
+  void shuffle(int[] numbers, int length) throws IllegalArgumentException;
+  
+  /**
+   * Fill the array with random repeating integers within the given range.
+   * 
+   * @param numbers array to fill
+   * @param lowerBound Lower bound of the integers range
+   * @param upperBound Upper bound of the integers range, excluded
+   */
+  void nextInts(int[] numbers, int lowerBound, int upperBound);
+  
   /**
    * Set a seed value for the random number generator.
    * 
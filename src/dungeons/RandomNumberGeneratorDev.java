@@ -1,8 +1,11 @@
 package dungeons;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * Class represents a random number generator for the model. It 
@@ -55,6 +58,54 @@ public class RandomNumberGeneratorDev extends Random implements RandomNumberGene
     return numbers;
   }
   
+  @Override
+  public int[] getUniqueRandomNumbers(int length, int lowerBound, int upperBound) 
+      throws IllegalArgumentException {
+    int range = upperBound - lowerBound;
+    if (length < 0 || length > range) {
+      throw new IllegalArgumentException("Cannot pick " + length 
+          + " unique numbers from a range of " + range + ".");
+    }
+    int[] numbers = new int[length];
+    // A bit per number is cheaper unless the range is much larger
+    BitSet pickedBits = range <= 8L * length ? new BitSet(range) : null;
+    Set<Integer> pickedSet = pickedBits == null ? new HashSet<>(2 * length) : null;
+    int count = 0;
+    for (int j = range - length; j < range; j++) {
+      int t = rand.nextInt(j + 1);
+      boolean seen = pickedBits != null ? pickedBits.get(t) : pickedSet.contains(t);
+      int pick = seen ? j : t;
+      if (pickedBits != null) {
+        pickedBits.set(pick);
+      } else {
+        pickedSet.add(pick);
+      }
+      numbers[count++] = pick + lowerBound;
+    }
+    return numbers;
+  }
+
+  @Override
+  public void shuffle(int[] numbers, int length) throws IllegalArgumentException {
+    if (length < 0 || length > numbers.length) {
+      throw new IllegalArgumentException("Cannot shuffle " + length 
+          + " numbers out of " + numbers.length + ".");
+    }
+    for (int i = 0; i < length; i++) {
+      int j = i + rand.nextInt(numbers.length - i);
+      int swap = numbers[i];
+      numbers[i] = numbers[j];
+      numbers[j] = swap;
+    }
+  }
+
+  @Override
+  public void nextInts(int[] numbers, int lowerBound, int upperBound) {
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = rand.nextInt(upperBound - lowerBound) + lowerBound;
+    }
+  }
+  
   @Override
   public void setSeed(int seed) {
     this.rand.setSeed(seed);
@@ -1,6 +1,7 @@
 package dungeons;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -66,6 +67,39 @@ public class RandomNumberGeneratorTest extends Random
     return predefinedNumbers;
   }
 
+  @Override
+  public int[] getUniqueRandomNumbers(int length, int lowerBound, int upperBound) 
+      throws IllegalArgumentException {
+    int[] numbers = new int[length];
+    for (int i = 0; i < length; i++) {
+      numbers[i] = this.randomNumbersList == null ? lowerBound + i 
+          : this.randomNumbersList.get(i);
+    }
+    return numbers;
+  }
+
+  @Override
+  public void shuffle(int[] numbers, int length) throws IllegalArgumentException {
+    if (length < 0 || length > numbers.length) {
+      throw new IllegalArgumentException("Cannot shuffle " + length 
+          + " numbers out of " + numbers.length + ".");
+    }
+    // Every draw returns the pre-defined random number, kept within the 
+    // numbers not shuffled yet
+    for (int i = 0; i < length; i++) {
+      int j = i + Math.min(Math.max(this.randomNumber, 0), numbers.length - i - 1);
+      int swap = numbers[i];
+      numbers[i] = numbers[j];
+      numbers[j] = swap;
+    }
+  }
+
+  @Override
+  public void nextInts(int[] numbers, int lowerBound, int upperBound) {
+    // The pre-defined random number, kept within the bounds
+    Arrays.fill(numbers, Math.min(Math.max(this.randomNumber, lowerBound), upperBound - 1));
+  }
+
   @Override
   public void setSeed(int seed) {
     // do nothing
@@ -0,0 +1,142 @@
+package dungeons;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A tape of random draws recorded from a game. Every draw is stored as its
+ * offset from the lower bound of the requested range, encoded as an
+ * unsigned variable length integer of 7 bits per byte, so the usual small
+ * draws take a single byte. The tape is written by a
+ * RecordingRandomNumberGenerator and read back by a
+ * ReplayRandomNumberGenerator, and can be saved to and loaded from a
+ * stream.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class RandomTape {
+
+  private byte[] bytes;
+  private int size;
+  private int position;
+
+  /**
+   * Construct an empty tape for recording.
+   */
+  public RandomTape() {
+    this.bytes = new byte[64];
+    this.size = 0;
+    this.position = 0;
+  }
+
+  /**
+   * Construct a tape from recorded bytes, positioned at the first draw. The
+   * bytes are copied.
+   *
+   * @param recorded recorded bytes
+   * @throws IllegalArgumentException if the bytes are null
+   */
+  public RandomTape(byte[] recorded) throws IllegalArgumentException {
+    if (recorded == null) {
+      throw new IllegalArgumentException("Recorded bytes cannot be null.");
+    }
+    this.bytes = recorded.clone();
+    this.size = recorded.length;
+    this.position = 0;
+  }
+
+  /**
+   * Read a whole tape from a stream.
+   *
+   * @param in stream to read from
+   * @return tape positioned at the first draw
+   * @throws IOException if reading from the stream fails
+   */
+  public static RandomTape readFrom(InputStream in) throws IOException {
+    ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+      recorded.write(buffer, 0, read);
+    }
+    return new RandomTape(recorded.toByteArray());
+  }
+
+  /**
+   * Write the recorded bytes to a stream.
+   *
+   * @param out stream to write to
+   * @throws IOException if writing to the stream fails
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(this.bytes, 0, this.size);
+  }
+
+  /**
+   * Get a copy of the recorded bytes.
+   *
+   * @return recorded bytes
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(this.bytes, this.size);
+  }
+
+  /**
+   * Get the number of recorded bytes.
+   *
+   * @return number of bytes
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Check if there are draws left to read.
+   *
+   * @return true if the tape is not at its end
+   */
+  public boolean hasRemaining() {
+    return this.position < this.size;
+  }
+
+  /**
+   * Append a number to the tape, read as an unsigned integer.
+   *
+   * @param value number to append
+   */
+  void write(int value) {
+    if (this.size + 5 > this.bytes.length) {
+      this.bytes = Arrays.copyOf(this.bytes, this.bytes.length * 2);
+    }
+    while ((value & ~0x7F) != 0) {
+      this.bytes[this.size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    this.bytes[this.size++] = (byte) value;
+  }
+
+  /**
+   * Read the next number from the tape.
+   *
+   * @return number read, as an unsigned integer
+   * @throws IllegalStateException if the tape has ended or is corrupted
+   */
+  int read() throws IllegalStateException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      if (this.position >= this.size) {
+        throw new IllegalStateException("The random tape has ended, the session "
+            + "drew more numbers than were recorded.");
+      }
+      byte b = this.bytes[this.position++];
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("The random tape is corrupted.");
+  }
+}
@@ -0,0 +1,74 @@
+package dungeons;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bot that walks the dungeon at random, the way the drivers play: it 
+ * collects any treasures and arrows it finds and then moves through a 
+ * random entrance of its location.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class RandomWalkBot implements GameBot {
+  
+  private static final List<Treasure> ALL_TREASURES = Arrays.asList(Treasure.values());
+  
+  @Override
+  public void playTurn(Game game, RandomNumberGenerator random) {
+    Location here = game.getTurn().getCurrentLocation();
+    this.collect(game, here);
+    game.move(this.chooseDirection(game, here, random));
+  }
+  
+  /**
+   * Pick up the treasures and arrows in a location, if there are any.
+   * 
+   * @param game game being played
+   * @param here location of the player
+   */
+  protected void collect(Game game, Location here) {
+    for (Treasure treasure : ALL_TREASURES) {
+      if (here.getTreasureCount(treasure) > 0) {
+        game.pickUpTreasures(ALL_TREASURES);
+        break;
+      }
+    }
+    if (here.getArrowsInLocation() > 0) {
+      game.pickUpArrows();
+    }
+  }
+  
+  /**
+   * Choose the direction to move or shoot in.
+   * 
+   * @param game game being played
+   * @param here location of the player
+   * @param random random number generator of the game
+   * @return direction of an entrance of the location
+   */
+  protected Direction chooseDirection(Game game, Location here, RandomNumberGenerator random) {
+    return this.pickDirection(here.getNeighborMask(), random);
+  }
+  
+  /**
+   * Pick one of the directions of a bit mask uniformly.
+   * 
+   * @param mask directions to pick from, with bit d set for ordinal d
+   * @param random random number generator of the game
+   * @return picked direction
+   * @throws IllegalArgumentException if the mask is empty
+   */
+  protected final Direction pickDirection(int mask, RandomNumberGenerator random) 
+      throws IllegalArgumentException {
+    if (mask == 0) {
+      throw new IllegalArgumentException("There is no direction to pick from.");
+    }
+    int skip = random.getRandomNumber(0, Integer.bitCount(mask));
+    for (int i = 0; i < skip; i++) {
+      mask &= mask - 1;
+    }
+    return Direction.values()[Integer.numberOfTrailingZeros(mask)];
+  }
+}
@@ -1,5 +1,6 @@
 package dungeons;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -132,9 +133,130 @@ public interface ReadonlyGameModel {
   List<List<Location>> getDungeon();
   
   /**
-   * Get the visited locations in the dungeon.
+   * Get the locations in the dungeon visited by any player, each listed once 
+   * in order of location number.
    * 
    * @return visited location list with location ID
    */
   List<String> getVisitedLocations();
+  
+  /**
+   * Check if any player has visited a location.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @return true if the location is visited
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  boolean isVisited(int row, int col) throws IllegalArgumentException;
+  
+  /**
+   * Get the locations visited by a player as a bit set, with bit 
+   * row * columns + col set for every visited location. The bit set is a 
+   * copy.
+   * 
+   * @param player player number, 1 or 2
+   * @return visited locations
+   * @throws IllegalArgumentException if there is no such player
+   */
+  BitSet getVisitedCells(int player) throws IllegalArgumentException;
+  
+  /**
+   * Get the directions of the connected neighbors of a location as a bit 
+   * mask, with bit d set for a neighbor in the direction of ordinal d. A 
+   * location with exactly 2 bits set is a tunnel.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @return neighbor bit mask
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  int getNeighborMask(int row, int col) throws IllegalArgumentException;
+  
+  /**
+   * Get the count of a treasure in a location.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @param treasure treasure type
+   * @return number of treasures
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  int getTreasureCount(int row, int col, Treasure treasure) throws IllegalArgumentException;
+  
+  /**
+   * Get the number of arrows in a location.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @return number of arrows
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  int getArrowCount(int row, int col) throws IllegalArgumentException;
+  
+  /**
+   * Check if a monster is in a location.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @return true if a monster is present
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  boolean hasMonster(int row, int col) throws IllegalArgumentException;
+  
+  /**
+   * Get the smell of the monsters at a location.
+   * 
+   * @param row row number of the location
+   * @param col column number of the location
+   * @return smell level
+   * @throws IllegalArgumentException if the location is outside the dungeon
+   */
+  SmellLevel getSmellLevel(int row, int col) throws IllegalArgumentException;
+  
+  /**
+   * Get the row number of a player's location.
+   * 
+   * @param player player number, 1 or 2
+   * @return row number
+   * @throws IllegalArgumentException if there is no such player
+   */
+  int getPlayerRow(int player) throws IllegalArgumentException;
+  
+  /**
+   * Get the column number of a player's location.
+   * 
+   * @param player player number, 1 or 2
+   * @return column number
+   * @throws IllegalArgumentException if there is no such player
+   */
+  int getPlayerColumn(int player) throws IllegalArgumentException;
+  
+  /**
+   * Get the 64 bit Zobrist hash of the state of the game: the arrows, 
+   * treasures and monster health of every location, and the location, 
+   * arrows, treasures and health of every player along with whose turn it 
+   * is. Equal states have equal hashes, and different states have equal 
+   * hashes only by a very rare chance. The hash is built once, then kept up 
+   * to date in constant time by every turn.
+   * 
+   * @return hash of the state
+   * @throws IllegalStateException if the game has not started
+   */
+  long getStateHash() throws IllegalStateException;
+  
+  /**
+   * Register a listener to be notified of every change to the game.
+   * 
+   * @param listener listener to add
+   * @throws IllegalArgumentException if the listener is null
+   */
+  void addGameListener(GameListener listener) throws IllegalArgumentException;
+  
+  /**
+   * Stop notifying a listener. Listeners that are not registered are ignored.
+   * 
+   * @param listener listener to remove
+   */
+  void removeGameListener(GameListener listener);
 }
@@ -0,0 +1,145 @@
+package dungeons;
+
+import java.util.List;
+
+/**
+ * Class represents a random number generator that records every number it
+ * hands out. The numbers are drawn from another generator and written to a
+ * RandomTape, so that a ReplayRandomNumberGenerator can later play the
+ * same session back without drawing anything. Numbers are recorded as
+ * offsets from the lower bound, and shuffles as the swaps they made, which
+ * keeps most entries on the tape to a single byte.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class RecordingRandomNumberGenerator implements RandomNumberGenerator {
+
+  private final RandomNumberGenerator random;
+  private final RandomTape tape;
+
+  /**
+   * Construct a recording generator with a new tape.
+   *
+   * @param random generator to draw the numbers from
+   * @throws IllegalArgumentException if the generator is null
+   */
+  public RecordingRandomNumberGenerator(RandomNumberGenerator random)
+      throws IllegalArgumentException {
+    this(random, new RandomTape());
+  }
+
+  /**
+   * Construct a recording generator that appends to the given tape.
+   *
+   * @param random generator to draw the numbers from
+   * @param tape tape to record to
+   * @throws IllegalArgumentException if the generator or the tape is null
+   */
+  public RecordingRandomNumberGenerator(RandomNumberGenerator random, RandomTape tape)
+      throws IllegalArgumentException {
+    if (random == null || tape == null) {
+      throw new IllegalArgumentException("Random number generator and tape "
+          + "cannot be null.");
+    }
+    this.random = random;
+    this.tape = tape;
+  }
+
+  /**
+   * Get the tape the numbers are recorded to.
+   *
+   * @return recorded tape
+   */
+  public RandomTape getTape() {
+    return this.tape;
+  }
+
+  @Override
+  public int getRandomNumber(int lowerBound, int upperBound) {
+    int number = this.random.getRandomNumber(lowerBound, upperBound);
+    this.tape.write(number - lowerBound);
+    return number;
+  }
+
+  @Override
+  public List<Integer> getUniqueRandomNumbersList(int length, int lowerBound, int upperBound) {
+    List<Integer> numbers = this.random.getUniqueRandomNumbersList(length, lowerBound,
+        upperBound);
+    this.record(numbers, lowerBound);
+    return numbers;
+  }
+
+  @Override
+  public List<Integer> getRepeatedRandomNumbersList(int length, int lowerBound, int upperBound) {
+    List<Integer> numbers = this.random.getRepeatedRandomNumbersList(length, lowerBound,
+        upperBound);
+    this.record(numbers, lowerBound);
+    return numbers;
+  }
+
+  @Override
+  public int[] getUniqueRandomNumbers(int length, int lowerBound, int upperBound)
+      throws IllegalArgumentException {
+    int[] numbers = this.random.getUniqueRandomNumbers(length, lowerBound, upperBound);
+    for (int number : numbers) {
+      this.tape.write(number - lowerBound);
+    }
+    return numbers;
+  }
+
+  @Override
+  public void shuffle(int[] numbers, int length) throws IllegalArgumentException {
+    // Shuffle the positions instead of the numbers, so the swaps can be found
+    int[] order = new int[numbers.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    this.random.shuffle(order, length);
+
+    // Redo the shuffle as Fisher-Yates swaps and record how far each went
+    int[] original = numbers.clone();
+    int[] current = new int[numbers.length];
+    int[] position = new int[numbers.length];
+    for (int i = 0; i < current.length; i++) {
+      current[i] = i;
+      position[i] = i;
+    }
+    for (int i = 0; i < length; i++) {
+      int j = position[order[i]];
+      this.tape.write(j - i);
+      current[j] = current[i];
+      current[i] = order[i];
+      position[current[j]] = j;
+      position[current[i]] = i;
+    }
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = original[current[i]];
+    }
+  }
+
+  @Override
+  public void nextInts(int[] numbers, int lowerBound, int upperBound) {
+    this.random.nextInts(numbers, lowerBound, upperBound);
+    for (int number : numbers) {
+      this.tape.write(number - lowerBound);
+    }
+  }
+
+  @Override
+  public void setSeed(int seed) {
+    this.random.setSeed(seed);
+  }
+
+  /**
+   * Record a list of numbers.
+   *
+   * @param numbers numbers to record
+   * @param lowerBound lower bound of the numbers range
+   */
+  private void record(List<Integer> numbers, int lowerBound) {
+    for (int number : numbers) {
+      this.tape.write(number - lowerBound);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package dungeons;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JViewport;
+
+/**
+ * A benchmark of the latency from a player move to the finished frame in the
+ * GamePanel on a large dungeon, seen through a viewport the size of the game
+ * window. Every step moves the player through an open entrance, lets the
+ * panel apply the change events of the move and paints the cells it marked
+ * as dirty into an offscreen image, the same work Swing does after a key
+ * press. Scrolling is measured by moving the viewport one cell at a time
+ * across the dungeon and painting the uncovered strip. The worst and the
+ * average frames are reported against a frame of 60 Hz.
+ *
+ * <p>Usage: java -Djava.awt.headless=true dungeons.RenderingBenchmark [size] [steps]
+ */
+public class RenderingBenchmark {
+
+  private static final double FRAME_MS = 1000.0 / 60;
+  private static final int VIEWPORT_WIDTH = 560;
+  private static final int VIEWPORT_HEIGHT = 420;
+
+  /**
+   * Main function running the benchmark.
+   *
+   * @param args optional dungeon size and number of steps
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+    int steps = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    RandomNumberGenerator random = new RandomNumberGeneratorDev();
+    random.setSeed(3);
+
+    AdventureGame game = new AdventureGame(1,
+        new CompactDungeon(size, size, 10, true, 20, 1, random), random);
+    game.setupPlayerOne(1);
+    game.startGame();
+
+    AdventureGameController control = new AdventureGameController() {
+      @Override
+      public void playGame() {
+        // not needed for the benchmark
+      }
+
+      @Override
+      public void handleCellClick(Direction dir) {
+        // not needed for the benchmark
+      }
+    };
+    List<Rectangle> dirty = new ArrayList<>();
+    GamePanel panel = new GamePanel(control, game) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public void repaint(long tm, int x, int y, int width, int height) {
+        dirty.add(new Rectangle(x, y, width, height));
+      }
+    };
+    JViewport viewport = new JViewport();
+    viewport.setView(panel);
+    viewport.setSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+    panel.setSize(panel.getPreferredSize());
+    panel.setupGamePanel();
+    game.addGameListener(panel);
+    BufferedImage frame = new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT,
+        BufferedImage.TYPE_INT_ARGB);
+    dirty.clear();
+
+    long begin;
+    long worst = 0;
+    long total = 0;
+    int done = 0;
+    for (; done < steps && !game.isGameOver(); done++) {
+      Location here = game.getPlayerOne().getCurrentLocation();
+      int mask = here.getNeighborMask();
+      Direction towards = null;
+      for (int bit = random.getRandomNumber(0, 4), i = 0; i < 4 && towards == null; i++) {
+        int ordinal = (bit + i) % 4;
+        if ((mask & (1 << ordinal)) != 0) {
+          towards = Direction.values()[ordinal];
+        }
+      }
+      begin = System.nanoTime();
+      game.move(towards);
+      for (Rectangle clip : dirty) {
+        paintArea(panel, frame, clip);
+      }
+      long step = System.nanoTime() - begin;
+      dirty.clear();
+      worst = Math.max(worst, step);
+      total += step;
+    }
+
+    System.out.println("Dungeon of " + size + " x " + size + " locations, "
+        + done + " moves.");
+    System.out.printf("Average move frame:   %8.2f ms%n", total / 1e6 / Math.max(1, done));
+    System.out.printf("Worst move frame:     %8.2f ms (frame budget %.2f ms)%n",
+        worst / 1e6, FRAME_MS);
+
+    int cell = SpriteAtlas.DEFAULT_CELL_SIZE;
+    int scrolls = Math.max(0, Math.min(panel.getWidth() - VIEWPORT_WIDTH,
+        panel.getHeight() - VIEWPORT_HEIGHT) / cell);
+    viewport.setViewPosition(new Point(0, 0));
+    worst = 0;
+    total = 0;
+    for (int i = 1; i <= scrolls; i++) {
+      begin = System.nanoTime();
+      viewport.setViewPosition(new Point(i * cell, i * cell));
+      Rectangle visible = panel.getVisibleRect();
+      // The blit moves the rest, only the uncovered strips are painted
+      paintArea(panel, frame, new Rectangle(visible.x, visible.y + visible.height - cell,
+          visible.width, cell));
+      paintArea(panel, frame, new Rectangle(visible.x + visible.width - cell, visible.y,
+          cell, visible.height));
+      long step = System.nanoTime() - begin;
+      worst = Math.max(worst, step);
+      total += step;
+    }
+    System.out.printf("Average scroll frame: %8.2f ms over %d scrolls%n",
+        total / 1e6 / Math.max(1, scrolls), scrolls);
+    System.out.printf("Worst scroll frame:   %8.2f ms%n", worst / 1e6);
+  }
+
+  /**
+   * Paint an area of the panel into the frame the way Swing paints a clip.
+   *
+   * @param panel panel to paint
+   * @param frame image the viewport shows
+   * @param clip area in panel coordinates
+   */
+  private static void paintArea(GamePanel panel, BufferedImage frame, Rectangle clip) {
+    Rectangle visible = panel.getVisibleRect();
+    Graphics2D g = frame.createGraphics();
+    g.translate(-visible.x, -visible.y);
+    g.setClip(clip);
+    panel.paint(g);
+    g.dispose();
+  }
+}
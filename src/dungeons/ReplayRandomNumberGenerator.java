@@ -0,0 +1,98 @@
+package dungeons;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class represents a random number generator that plays back a session
+ * recorded by a RecordingRandomNumberGenerator. Nothing is drawn, every
+ * number is read from the tape, so a recorded game can be run again as
+ * fast as the model allows. The session must ask for numbers in the same
+ * order and with the same bounds as when it was recorded.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class ReplayRandomNumberGenerator implements RandomNumberGenerator {
+
+  private final RandomTape tape;
+
+  /**
+   * Construct a replaying generator.
+   *
+   * @param tape recorded tape, read from its current position
+   * @throws IllegalArgumentException if the tape is null
+   */
+  public ReplayRandomNumberGenerator(RandomTape tape) throws IllegalArgumentException {
+    if (tape == null) {
+      throw new IllegalArgumentException("Tape cannot be null.");
+    }
+    this.tape = tape;
+  }
+
+  @Override
+  public int getRandomNumber(int lowerBound, int upperBound) {
+    return this.tape.read() + lowerBound;
+  }
+
+  @Override
+  public List<Integer> getUniqueRandomNumbersList(int length, int lowerBound, int upperBound) {
+    return this.getRepeatedRandomNumbersList(length, lowerBound, upperBound);
+  }
+
+  @Override
+  public List<Integer> getRepeatedRandomNumbersList(int length, int lowerBound, int upperBound) {
+    List<Integer> numbers = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      numbers.add(this.tape.read() + lowerBound);
+    }
+    return numbers;
+  }
+
+  @Override
+  public int[] getUniqueRandomNumbers(int length, int lowerBound, int upperBound)
+      throws IllegalArgumentException {
+    if (length < 0) {
+      throw new IllegalArgumentException("Cannot pick " + length
+          + " unique numbers from a range of " + (upperBound - lowerBound) + ".");
+    }
+    int[] numbers = new int[length];
+    this.nextInts(numbers, lowerBound, upperBound);
+    return numbers;
+  }
+
+  @Override
+  public void shuffle(int[] numbers, int length) throws IllegalArgumentException {
+    if (length < 0 || length > numbers.length) {
+      throw new IllegalArgumentException("Cannot shuffle " + length
+          + " numbers out of " + numbers.length + ".");
+    }
+    for (int i = 0; i < length; i++) {
+      int j = i + this.tape.read();
+      if (j < i || j >= numbers.length) {
+        throw new IllegalStateException("The random tape does not match this "
+            + "session.");
+      }
+      int swap = numbers[i];
+      numbers[i] = numbers[j];
+      numbers[j] = swap;
+    }
+  }
+
+  @Override
+  public void nextInts(int[] numbers, int lowerBound, int upperBound) {
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = this.tape.read() + lowerBound;
+    }
+  }
+
+  /**
+   * The seed has no effect, the numbers come from the tape.
+   *
+   * @param seed Seed value
+   */
+  @Override
+  public void setSeed(int seed) {
+    // Nothing is drawn, so there is nothing to seed
+  }
+}
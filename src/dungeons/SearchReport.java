@@ -0,0 +1,191 @@
+package dungeons;
+
+/**
+ * The outcome of one search of the MonteCarloBot: the turn it picked, how
+ * many playouts it took to pick it and how fast they ran, and how sure the
+ * search is of the pick, as the expected reward of the turn and the share of
+ * the playouts that went through it.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class SearchReport {
+
+  private final Direction direction;
+  private final int distance;
+  private final int playouts;
+  private final int threads;
+  private final int treeSize;
+  private final int choices;
+  private final double value;
+  private final double visitShare;
+  private final double runnerUpValue;
+  private final long elapsedNanos;
+  private String outcome;
+
+  /**
+   * Construct a report.
+   *
+   * @param direction direction of the picked turn
+   * @param distance distance of the arrow shot, or 0 for a move
+   * @param playouts number of playouts of the search
+   * @param threads number of threads that searched
+   * @param treeSize number of nodes in the search tree
+   * @param choices number of turns the player could pick from
+   * @param value expected reward of the picked turn, from 0 to 1
+   * @param visitShare share of the playouts through the picked turn
+   * @param runnerUpValue expected reward of the next most visited turn
+   * @param elapsedNanos wall clock time of the search
+   */
+  SearchReport(Direction direction, int distance, int playouts, int threads, int treeSize,
+      int choices, double value, double visitShare, double runnerUpValue, long elapsedNanos) {
+    this.direction = direction;
+    this.distance = distance;
+    this.playouts = playouts;
+    this.threads = threads;
+    this.treeSize = treeSize;
+    this.choices = choices;
+    this.value = value;
+    this.visitShare = visitShare;
+    this.runnerUpValue = runnerUpValue;
+    this.elapsedNanos = elapsedNanos;
+    this.outcome = "";
+  }
+
+  /**
+   * Get the direction of the picked turn.
+   *
+   * @return direction to move or shoot in
+   */
+  public Direction getDirection() {
+    return this.direction;
+  }
+
+  /**
+   * Get the distance of the picked arrow shot.
+   *
+   * @return distance of the shot, or 0 if the turn is a move
+   */
+  public int getDistance() {
+    return this.distance;
+  }
+
+  /**
+   * Check if the picked turn is an arrow shot.
+   *
+   * @return true for a shot, false for a move
+   */
+  public boolean isShot() {
+    return this.distance > 0;
+  }
+
+  /**
+   * Get the number of playouts of the search.
+   *
+   * @return number of playouts
+   */
+  public int getPlayouts() {
+    return this.playouts;
+  }
+
+  /**
+   * Get the number of threads that searched.
+   *
+   * @return number of threads
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Get the number of nodes in the search tree.
+   *
+   * @return number of nodes
+   */
+  public int getTreeSize() {
+    return this.treeSize;
+  }
+
+  /**
+   * Get the number of turns the player could pick from.
+   *
+   * @return number of choices
+   */
+  public int getChoices() {
+    return this.choices;
+  }
+
+  /**
+   * Get the expected reward of the picked turn: 1 for a win, 0 for a death
+   * and the progress of the player in between.
+   *
+   * @return expected reward from 0 to 1
+   */
+  public double getValue() {
+    return this.value;
+  }
+
+  /**
+   * Get the share of the playouts that went through the picked turn. A share
+   * close to 1 means the search settled on the turn early.
+   *
+   * @return share from 0 to 1
+   */
+  public double getVisitShare() {
+    return this.visitShare;
+  }
+
+  /**
+   * Get the margin of the picked turn over the next most visited turn.
+   *
+   * @return difference of the expected rewards, 0 if there was no other choice
+   */
+  public double getMargin() {
+    return this.choices < 2 ? 0 : this.value - this.runnerUpValue;
+  }
+
+  /**
+   * Get the wall clock time of the search.
+   *
+   * @return time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Get the number of playouts per second of the search.
+   *
+   * @return playouts per second
+   */
+  public double getPlayoutsPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.playouts / (this.elapsedNanos / 1e9);
+  }
+
+  /**
+   * Get what the game answered to the picked turn, once it is played.
+   *
+   * @return answer of the game, empty if the turn was not played
+   */
+  public String getOutcome() {
+    return this.outcome;
+  }
+
+  /**
+   * Record what the game answered to the picked turn.
+   *
+   * @param answer answer of the game
+   */
+  void setOutcome(String answer) {
+    this.outcome = answer == null ? "" : answer;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s after %d playouts in %.1f ms on %d threads "
+        + "(%.0f playouts/s, %d nodes): value %.2f, %.0f%% of playouts, margin %.2f",
+        this.isShot() ? "Shoot " + this.distance : "Move", this.direction, this.playouts,
+        this.elapsedNanos / 1e6, this.threads, this.getPlayoutsPerSecond(), this.treeSize,
+        this.value, this.visitShare * 100, this.getMargin());
+  }
+}
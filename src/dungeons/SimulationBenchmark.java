@@ -0,0 +1,45 @@
+package dungeons;
+
+/**
+ * A benchmark of the SimulationEngine playing a batch of games with the 
+ * random walk bot and the hunter bot on 1, 2, 4, ... threads up to the 
+ * number of processors, reporting the games per second, the speedup over a 
+ * single thread and the win and death rates of each bot.
+ *
+ * <p>Usage: java dungeons.SimulationBenchmark [size] [games] [monsters]
+ */
+public class SimulationBenchmark {
+
+  /**
+   * Main function running the benchmark.
+   *
+   * @param args optional dungeon size, number of games and number of monsters
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    int games = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    int monsters = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+    int processors = Runtime.getRuntime().availableProcessors();
+
+    System.out.println(games + " games on a " + size + " x " + size + " dungeon with "
+        + monsters + " monsters, " + processors + " processors available.");
+
+    GameBot[] bots = {new RandomWalkBot(), new HunterBot()};
+    for (GameBot bot : bots) {
+      double single = 0;
+      for (int threads = 1; threads <= processors; threads *= 2) {
+        SimulationEngine engine = new SimulationEngine(1, size, size, 5, true, 30, monsters,
+            size * size * 10, threads);
+        // Warm up so the first thread count is not measured cold
+        engine.run(Math.min(games, 200), bot, 1);
+        SimulationReport report = engine.run(games, bot, 7);
+        if (threads == 1) {
+          single = report.getGamesPerSecond();
+        }
+        System.out.printf("%-13s on %2d threads: %s, speedup %.2fx%n",
+            bot.getClass().getSimpleName(), threads, report,
+            report.getGamesPerSecond() / single);
+      }
+    }
+  }
+}
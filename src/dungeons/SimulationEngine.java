@@ -0,0 +1,226 @@
+package dungeons;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A headless engine playing many complete adventure games with a bot, in 
+ * parallel on a fork/join pool, to check how a dungeon configuration plays 
+ * before it is shipped. Nothing is printed while the games run; the 
+ * outcome of every game is kept in primitive arrays and summed up in a 
+ * SimulationReport.
+ *
+ * <p>Every game draws from its own SplittableRandomNumberGenerator, split 
+ * off a root generator in game order before any game starts, so a batch 
+ * for a given seed has the same outcome whatever the number of threads.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class SimulationEngine {
+  
+  private static final int GAMES_PER_TASK = 4;
+  private static final byte UNFINISHED = 0;
+  private static final byte WON = 1;
+  private static final byte DIED = 2;
+  
+  private final int numOfPlayers;
+  private final int numOfRows;
+  private final int numOfCols;
+  private final int interconnectivity;
+  private final boolean isWrapped;
+  private final double treasureSpread;
+  private final int difficulty;
+  private final int turnLimit;
+  private final int parallelism;
+  
+  /**
+   * Construct a simulation engine for a dungeon configuration.
+   * 
+   * @param numPlayers number of players in every game, 1 or 2
+   * @param rows number of rows of the dungeon
+   * @param columns number of columns of the dungeon
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param treasure amount of caves the treasure must be present in
+   * @param monsters number of monsters
+   * @param turns number of turns after which a game is given up
+   * @param threads number of threads playing games
+   * @throws IllegalArgumentException if the number of players is not 1 or 2 
+   *                                  or the number of rows or columns is less 
+   *                                  than 1 or the interconnectivity is less 
+   *                                  than 0 or the treasure spread is not a 
+   *                                  percentage or the number of turns or 
+   *                                  threads is less than 1
+   */
+  public SimulationEngine(int numPlayers, int rows, int columns, int interconn, 
+      boolean wrapping, double treasure, int monsters, int turns, int threads) 
+      throws IllegalArgumentException {
+    if (numPlayers != 1 && numPlayers != 2) {
+      throw new IllegalArgumentException("The number of players must either be 1 or 2.");
+    }
+    if (rows < 1 || columns < 1) {
+      throw new IllegalArgumentException("The number of rows and "
+          + "columns must be greater than 0. Illegal Arguments.");
+    }
+    if (interconn < 0) {
+      throw new IllegalArgumentException("Interconnectivity "
+          + "must be atleast 1.");
+    }
+    if (treasure < 0 || treasure > 100) {
+      throw new IllegalArgumentException("Treasure spread must "
+          + "be a percentage value ranging from 0 to 100.");
+    }
+    if (turns < 1 || threads < 1) {
+      throw new IllegalArgumentException("Turn limit and number of threads "
+          + "must be greater than 0.");
+    }
+    this.numOfPlayers = numPlayers;
+    this.numOfRows = rows;
+    this.numOfCols = columns;
+    this.interconnectivity = interconn;
+    this.isWrapped = wrapping;
+    this.treasureSpread = treasure;
+    this.difficulty = monsters;
+    this.turnLimit = turns;
+    this.parallelism = threads;
+  }
+  
+  /**
+   * Play a batch of games with a bot.
+   * 
+   * @param games number of games
+   * @param bot bot playing every turn of every game
+   * @param seed seed of the root random number generator
+   * @return outcome of the batch
+   * @throws IllegalArgumentException if the number of games is less than 0 
+   *                                  or the bot is null
+   */
+  public SimulationReport run(int games, GameBot bot, long seed) 
+      throws IllegalArgumentException {
+    if (games < 0) {
+      throw new IllegalArgumentException("Number of games cannot be negative.");
+    }
+    if (bot == null) {
+      throw new IllegalArgumentException("Bot cannot be null.");
+    }
+    
+    // Streams are split up front so games do not depend on the thread count
+    SplittableRandomNumberGenerator root = new SplittableRandomNumberGenerator(seed);
+    SplittableRandomNumberGenerator[] streams = new SplittableRandomNumberGenerator[games];
+    for (int i = 0; i < games; i++) {
+      streams[i] = root.split();
+    }
+    byte[] outcomes = new byte[games];
+    int[] turns = new int[games];
+    
+    long begin = System.nanoTime();
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      pool.invoke(new GameTask(bot, streams, outcomes, turns, 0, games));
+    } finally {
+      pool.shutdown();
+    }
+    long elapsed = System.nanoTime() - begin;
+    
+    int wins = 0;
+    int deaths = 0;
+    long totalTurns = 0;
+    int minTurns = games == 0 ? 0 : Integer.MAX_VALUE;
+    int maxTurns = 0;
+    for (int i = 0; i < games; i++) {
+      if (outcomes[i] == WON) {
+        wins += 1;
+      } else if (outcomes[i] == DIED) {
+        deaths += 1;
+      }
+      totalTurns += turns[i];
+      minTurns = Math.min(minTurns, turns[i]);
+      maxTurns = Math.max(maxTurns, turns[i]);
+    }
+    return new SimulationReport(games, wins, deaths, games - wins - deaths, totalTurns, 
+        minTurns, maxTurns, elapsed);
+  }
+  
+  /**
+   * Play a single game to its end or to the turn limit.
+   * 
+   * @param bot bot playing every turn
+   * @param random random number generator of the game
+   * @param turns number of turns of each game, filled in
+   * @param index game number
+   * @return outcome of the game
+   */
+  private byte playGame(GameBot bot, RandomNumberGenerator random, int[] turns, int index) {
+    Game game = new AdventureGame(this.numOfPlayers, this.numOfRows, this.numOfCols, 
+        this.interconnectivity, this.isWrapped, this.treasureSpread, this.difficulty, random);
+    game.setupPlayerOne(1);
+    if (this.numOfPlayers == 2) {
+      game.setupPlayerTwo(2);
+    }
+    game.startGame();
+    int turn = 0;
+    while (!game.isGameOver() && turn < this.turnLimit) {
+      bot.playTurn(game, random);
+      turn += 1;
+    }
+    turns[index] = turn;
+    if (!game.isGameOver()) {
+      return UNFINISHED;
+    }
+    return game.getWinner() != null ? WON : DIED;
+  }
+  
+  /**
+   * A fork/join task playing a range of games, splitting it in halves until 
+   * only a few games are left.
+   */
+  private class GameTask extends RecursiveAction {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final GameBot bot;
+    private final SplittableRandomNumberGenerator[] streams;
+    private final byte[] outcomes;
+    private final int[] turns;
+    private final int first;
+    private final int last;
+    
+    /**
+     * Construct a task playing the games from first up to last.
+     * 
+     * @param bot bot playing every turn
+     * @param streams random number generator of each game
+     * @param outcomes outcome of each game, filled in
+     * @param turns number of turns of each game, filled in
+     * @param first first game number
+     * @param last game number after the last one
+     */
+    GameTask(GameBot bot, SplittableRandomNumberGenerator[] streams, byte[] outcomes, 
+        int[] turns, int first, int last) {
+      this.bot = bot;
+      this.streams = streams;
+      this.outcomes = outcomes;
+      this.turns = turns;
+      this.first = first;
+      this.last = last;
+    }
+    
+    @Override
+    protected void compute() {
+      if (this.last - this.first <= GAMES_PER_TASK) {
+        for (int i = this.first; i < this.last; i++) {
+          this.outcomes[i] = playGame(this.bot, this.streams[i], this.turns, i);
+          // The stream is not needed any more
+          this.streams[i] = null;
+        }
+        return;
+      }
+      int middle = (this.first + this.last) >>> 1;
+      invokeAll(new GameTask(this.bot, this.streams, this.outcomes, this.turns, 
+          this.first, middle), 
+          new GameTask(this.bot, this.streams, this.outcomes, this.turns, 
+          middle, this.last));
+    }
+  }
+}
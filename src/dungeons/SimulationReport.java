@@ -0,0 +1,164 @@
+package dungeons;
+
+/**
+ * The outcome of a batch of simulated games: how many games were won, lost 
+ * to the Otyughs or left unfinished at the turn limit, how many turns they 
+ * took and how fast they were played.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class SimulationReport {
+  
+  private final int games;
+  private final int wins;
+  private final int deaths;
+  private final int unfinished;
+  private final long totalTurns;
+  private final int minTurns;
+  private final int maxTurns;
+  private final long elapsedNanos;
+  
+  /**
+   * Construct a report.
+   * 
+   * @param games number of games played
+   * @param wins number of games won
+   * @param deaths number of games lost
+   * @param unfinished number of games stopped at the turn limit
+   * @param totalTurns turns played in all games
+   * @param minTurns turns of the shortest game
+   * @param maxTurns turns of the longest game
+   * @param elapsedNanos wall clock time of the batch
+   */
+  SimulationReport(int games, int wins, int deaths, int unfinished, long totalTurns, 
+      int minTurns, int maxTurns, long elapsedNanos) {
+    this.games = games;
+    this.wins = wins;
+    this.deaths = deaths;
+    this.unfinished = unfinished;
+    this.totalTurns = totalTurns;
+    this.minTurns = minTurns;
+    this.maxTurns = maxTurns;
+    this.elapsedNanos = elapsedNanos;
+  }
+  
+  /**
+   * Get the number of games played.
+   * 
+   * @return number of games
+   */
+  public int getGames() {
+    return this.games;
+  }
+  
+  /**
+   * Get the number of games with a winner.
+   * 
+   * @return number of wins
+   */
+  public int getWins() {
+    return this.wins;
+  }
+  
+  /**
+   * Get the number of games that ended without a winner, i.e. the players 
+   * were eaten.
+   * 
+   * @return number of deaths
+   */
+  public int getDeaths() {
+    return this.deaths;
+  }
+  
+  /**
+   * Get the number of games still going at the turn limit.
+   * 
+   * @return number of unfinished games
+   */
+  public int getUnfinished() {
+    return this.unfinished;
+  }
+  
+  /**
+   * Get the number of turns played in all games.
+   * 
+   * @return total turns
+   */
+  public long getTotalTurns() {
+    return this.totalTurns;
+  }
+  
+  /**
+   * Get the number of turns of the shortest game.
+   * 
+   * @return minimum turns
+   */
+  public int getMinTurns() {
+    return this.minTurns;
+  }
+  
+  /**
+   * Get the number of turns of the longest game.
+   * 
+   * @return maximum turns
+   */
+  public int getMaxTurns() {
+    return this.maxTurns;
+  }
+  
+  /**
+   * Get the wall clock time of the batch in nanoseconds.
+   * 
+   * @return elapsed time
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+  
+  /**
+   * Get the share of games won.
+   * 
+   * @return win rate from 0 to 1
+   */
+  public double getWinRate() {
+    return this.games == 0 ? 0 : (double) this.wins / this.games;
+  }
+  
+  /**
+   * Get the share of games lost.
+   * 
+   * @return death rate from 0 to 1
+   */
+  public double getDeathRate() {
+    return this.games == 0 ? 0 : (double) this.deaths / this.games;
+  }
+  
+  /**
+   * Get the average number of turns of a game.
+   * 
+   * @return average turns
+   */
+  public double getAverageTurns() {
+    return this.games == 0 ? 0 : (double) this.totalTurns / this.games;
+  }
+  
+  /**
+   * Get the number of games played per second of wall clock time.
+   * 
+   * @return games per second
+   */
+  public double getGamesPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.games * 1e9 / this.elapsedNanos;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("%d games in %.1f ms, %.1f games/s: won %.1f%%, died %.1f%%, "
+        + "unfinished %.1f%%, turns %.1f on average (%d to %d)", this.games, 
+        this.elapsedNanos / 1e6, this.getGamesPerSecond(), this.getWinRate() * 100, 
+        this.getDeathRate() * 100, 
+        this.games == 0 ? 0 : 100.0 * this.unfinished / this.games, 
+        this.getAverageTurns(), this.minTurns, this.maxTurns);
+  }
+}
@@ -0,0 +1,217 @@
+package dungeons;
+
+import java.util.Arrays;
+
+/**
+ * The smell of the monsters at every location of a dungeon. For each 
+ * location the field counts the monsters in it, the monsters one position 
+ * away and the monsters two or more positions away up to the smell radius. 
+ * The counts are updated when a monster is added or removed, by walking 
+ * the compressed adjacency around that monster only, so reading the smell 
+ * of a location is a single array lookup.
+ * 
+ * <p>The three counts of a location are packed in one int: the lowest bit 
+ * for the monster in it, three bits for the at most 4 monsters next door 
+ * and the rest for the monsters further away.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class SmellField {
+  
+  /**
+   * Default number of positions the smell of a monster travels.
+   */
+  public static final int DEFAULT_RADIUS = 2;
+  
+  /**
+   * Largest smell radius supported.
+   */
+  public static final int MAX_RADIUS = 16;
+  
+  private static final int HERE = 1;
+  private static final int NEAR = 1 << 1;
+  private static final int FAR = 1 << 4;
+  
+  private final CompressedAdjacency adjacency;
+  private final int[] counts;
+  private int radius;
+  private int[] queue;
+  
+  /**
+   * Construct a smell field without monsters.
+   * 
+   * @param adjacency connections in the dungeon
+   * @param radius number of positions the smell travels
+   * @throws IllegalArgumentException if the adjacency is null or if the 
+   *                                  radius is not between 1 and MAX_RADIUS
+   */
+  public SmellField(CompressedAdjacency adjacency, int radius) 
+      throws IllegalArgumentException {
+    if (adjacency == null) {
+      throw new IllegalArgumentException("Adjacency cannot be null.");
+    }
+    checkRadius(radius);
+    this.adjacency = adjacency;
+    this.counts = new int[adjacency.getNumberOfLocations()];
+    this.radius = radius;
+    this.queue = new int[64];
+  }
+  
+  private static void checkRadius(int radius) throws IllegalArgumentException {
+    if (radius < 1 || radius > MAX_RADIUS) {
+      throw new IllegalArgumentException("Smell radius must be between 1 and " 
+          + MAX_RADIUS + ".");
+    }
+  }
+  
+  /**
+   * Get the number of positions the smell travels.
+   * 
+   * @return smell radius
+   */
+  public int getRadius() {
+    return this.radius;
+  }
+  
+  /**
+   * Change the number of positions the smell travels. The counts are 
+   * rebuilt from the monsters already in the field.
+   * 
+   * @param radius number of positions the smell travels
+   * @throws IllegalArgumentException if the radius is not between 1 and 
+   *                                  MAX_RADIUS
+   */
+  public void setRadius(int radius) throws IllegalArgumentException {
+    checkRadius(radius);
+    if (radius == this.radius) {
+      return;
+    }
+    for (int i = 0; i < this.counts.length; i++) {
+      this.counts[i] &= HERE;
+    }
+    this.radius = radius;
+    for (int i = 0; i < this.counts.length; i++) {
+      if ((this.counts[i] & HERE) != 0) {
+        this.spread(i, 1, false);
+      }
+    }
+  }
+  
+  /**
+   * Add the smell of a monster in the location.
+   * 
+   * @param location location id of the monster
+   * @throws IllegalStateException if a monster is already in the location
+   */
+  public void addMonster(int location) throws IllegalStateException {
+    if ((this.counts[location] & HERE) != 0) {
+      throw new IllegalStateException("Location " + location 
+          + " already has a monster.");
+    }
+    this.spread(location, 1, true);
+  }
+  
+  /**
+   * Remove the smell of the monster in the location.
+   * 
+   * @param location location id of the monster
+   * @throws IllegalStateException if no monster is in the location
+   */
+  public void removeMonster(int location) throws IllegalStateException {
+    if ((this.counts[location] & HERE) == 0) {
+      throw new IllegalStateException("Location " + location 
+          + " does not have a monster.");
+    }
+    this.spread(location, -1, true);
+  }
+  
+  /**
+   * Get the smell at the location.
+   * 
+   * @param location location id
+   * @return smell level
+   */
+  public SmellLevel getLevel(int location) {
+    int count = this.counts[location];
+    if ((count & HERE) != 0) {
+      return SmellLevel.MONSTER;
+    } else if (count >= FAR + FAR || (count & (FAR - NEAR)) != 0) {
+      return SmellLevel.TERRIBLE;
+    } else if (count != 0) {
+      return SmellLevel.SLIGHT;
+    }
+    return SmellLevel.NONE;
+  }
+  
+  /**
+   * Get the number of monsters one position away from the location.
+   * 
+   * @param location location id
+   * @return number of monsters
+   */
+  public int getNearbyMonsters(int location) {
+    return (this.counts[location] & (FAR - NEAR)) >>> 1;
+  }
+  
+  /**
+   * Get the number of monsters from two positions up to the smell radius 
+   * away from the location.
+   * 
+   * @param location location id
+   * @return number of monsters
+   */
+  public int getDistantMonsters(int location) {
+    return this.counts[location] >>> 4;
+  }
+  
+  /**
+   * Add the smell of a monster to every location within the radius, by 
+   * breadth first search. The queue holds the locations in order of 
+   * distance, and a neighbor of a location at distance d is at distance 
+   * d - 1, d or d + 1, so only the last two layers are checked for repeats.
+   * 
+   * @param location location id of the monster
+   * @param sign 1 to add the smell, -1 to remove it
+   * @param withSource whether to count the monster in its own location
+   */
+  private void spread(int location, int sign, boolean withSource) {
+    if (withSource) {
+      this.counts[location] += sign * HERE;
+    }
+    this.queue[0] = location;
+    int previousStart = 0;
+    int layerStart = 0;
+    int layerEnd = 1;
+    for (int distance = 1; distance <= this.radius && layerStart < layerEnd; distance++) {
+      int delta = sign * (distance == 1 ? NEAR : FAR);
+      int size = layerEnd;
+      for (int q = layerStart; q < layerEnd; q++) {
+        int curr = this.queue[q];
+        int last = this.adjacency.getOffset(curr + 1);
+        for (int k = this.adjacency.getOffset(curr); k < last; k++) {
+          int neighbor = this.adjacency.getNeighborAt(k);
+          if (!this.contains(neighbor, previousStart, size)) {
+            if (size == this.queue.length) {
+              this.queue = Arrays.copyOf(this.queue, 2 * size);
+            }
+            this.queue[size++] = neighbor;
+            this.counts[neighbor] += delta;
+          }
+        }
+      }
+      previousStart = layerStart;
+      layerStart = layerEnd;
+      layerEnd = size;
+    }
+  }
+  
+  private boolean contains(int location, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (this.queue[i] == location) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,14 @@
+package dungeons;
+
+/**
+ * The smell of Otyughs a player notices at a location:
+ * None, Slight (a single monster two or more positions away), 
+ * Terrible (a monster next door or several further away), and 
+ * Monster (a monster in the same cave).
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public enum SmellLevel {
+  NONE, SLIGHT, TERRIBLE, MONSTER;
+}
@@ -0,0 +1,89 @@
+package dungeons;
+
+/**
+ * A benchmark of the rollouts a search based player makes: a game is
+ * created from a snapshot and the random walk bot plays up to 20 turns in
+ * it. The time of a copy alone and of a copy with its rollout are reported,
+ * for a game in a MazeDungeon and one in a CompactDungeon.
+ *
+ * <p>Usage: java dungeons.SnapshotBenchmark [size] [rollouts] [depth]
+ */
+public class SnapshotBenchmark {
+
+  /**
+   * Main function running the benchmark.
+   *
+   * @param args optional dungeon size, number of rollouts and turns per
+   *             rollout
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    int rollouts = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+    int depth = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+    AdventureGame maze = new AdventureGame(1, size, size, 5, true, 30, 3,
+        new SplittableRandomNumberGenerator(3));
+    AdventureGame compact = new AdventureGame(1,
+        new CompactDungeon(size, size, 5, true, 30, 3, new SplittableRandomNumberGenerator(3)),
+        new SplittableRandomNumberGenerator(3));
+    System.out.println(rollouts + " rollouts of " + depth + " turns on a " + size + " x "
+        + size + " dungeon.");
+    measure("MazeDungeon", maze, rollouts, depth);
+    measure("CompactDungeon", compact, rollouts, depth);
+  }
+
+  /**
+   * Measure copies and rollouts of a game.
+   *
+   * @param name name of the dungeon type
+   * @param game game to start and copy
+   * @param rollouts number of rollouts
+   * @param depth turns per rollout
+   */
+  private static void measure(String name, AdventureGame game, int rollouts, int depth) {
+    game.setupPlayerOne(1);
+    game.startGame();
+    GameSnapshot snapshot = game.snapshot();
+    SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(11);
+    GameBot bot = new RandomWalkBot();
+
+    // Warm up so the compiled code is measured
+    rollout(snapshot, bot, random, rollouts / 10, depth);
+    long begin = System.nanoTime();
+    int copied = 0;
+    for (int i = 0; i < rollouts; i++) {
+      copied += snapshot.toGame(random).getNumberOfPlayers();
+    }
+    long copies = System.nanoTime() - begin;
+    begin = System.nanoTime();
+    long turns = rollout(snapshot, bot, random, rollouts, depth);
+    long played = System.nanoTime() - begin;
+
+    System.out.printf("%-15s copy %6.2f us, copy and rollout %6.2f us "
+        + "(%.1f turns), %,.0f rollouts/s%n", name, copies / 1e3 / copied,
+        played / 1e3 / rollouts, (double) turns / rollouts, rollouts / (played / 1e9));
+  }
+
+  /**
+   * Play rollouts from a snapshot.
+   *
+   * @param snapshot state to start from
+   * @param bot bot playing the turns
+   * @param random random number generator of the rollouts
+   * @param rollouts number of rollouts
+   * @param depth turns per rollout
+   * @return number of turns played
+   */
+  private static long rollout(GameSnapshot snapshot, GameBot bot,
+      RandomNumberGenerator random, int rollouts, int depth) {
+    long turns = 0;
+    for (int i = 0; i < rollouts; i++) {
+      Game game = snapshot.toGame(random);
+      for (int turn = 0; turn < depth && !game.isGameOver(); turn++) {
+        bot.playTurn(game, random);
+        turns += 1;
+      }
+    }
+    return turns;
+  }
+}
@@ -0,0 +1,210 @@
+package dungeons;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class represents a random number generator built on the SplitMix64
+ * algorithm. Unlike RandomNumberGeneratorDev it is not synchronized and
+ * keeps its state in plain fields, so draws cost a few arithmetic
+ * operations and no atomic update. It must not be shared between threads;
+ * instead split() hands out child generators with independent streams,
+ * e.g. one per dungeon, per phase or per thread. Splitting is
+ * deterministic, so a whole parallel run reproduces from a single root
+ * seed as long as the children are split off in the same order.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class SplittableRandomNumberGenerator implements RandomNumberGenerator {
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long seed;
+  private long gamma;
+
+  /**
+   * Construct a generator from a seed.
+   *
+   * @param seed seed value
+   */
+  public SplittableRandomNumberGenerator(long seed) {
+    this(seed, GOLDEN_GAMMA);
+  }
+
+  /**
+   * Construct a generator with the given state.
+   *
+   * @param seed seed value
+   * @param gamma odd increment of the seed
+   */
+  private SplittableRandomNumberGenerator(long seed, long gamma) {
+    this.seed = seed;
+    this.gamma = gamma;
+  }
+
+  /**
+   * Split off a new generator whose stream is independent of this one. The
+   * child only depends on the state of this generator, and this generator
+   * moves on as if two numbers were drawn.
+   *
+   * @return child generator
+   */
+  public SplittableRandomNumberGenerator split() {
+    return new SplittableRandomNumberGenerator(mix64(this.nextSeed()),
+        mixGamma(this.nextSeed()));
+  }
+
+  @Override
+  public int getRandomNumber(int lowerBound, int upperBound) throws IllegalArgumentException {
+    if (upperBound <= lowerBound) {
+      throw new IllegalArgumentException("Upper bound must be greater than the "
+          + "lower bound.");
+    }
+    int r = mix32(this.nextSeed());
+    int n = upperBound - lowerBound;
+    int m = n - 1;
+    if ((n & m) == 0) {
+      return (r & m) + lowerBound;
+    }
+    if (n > 0) {
+      // Reject the top values that would make the remainders uneven
+      int u = r >>> 1;
+      while (u + m - (r = u % n) < 0) {
+        u = mix32(this.nextSeed()) >>> 1;
+      }
+      return r + lowerBound;
+    }
+    // The range does not fit an int
+    while (r < lowerBound || r >= upperBound) {
+      r = mix32(this.nextSeed());
+    }
+    return r;
+  }
+
+  @Override
+  public List<Integer> getUniqueRandomNumbersList(int length, int lowerBound, int upperBound) {
+    int[] numbers = this.getUniqueRandomNumbers(length, lowerBound, upperBound);
+    // Floyd's algorithm does not pick the numbers in a random order
+    this.shuffle(numbers, numbers.length);
+    List<Integer> list = new ArrayList<>(numbers.length);
+    for (int number : numbers) {
+      list.add(number);
+    }
+    return list;
+  }
+
+  @Override
+  public List<Integer> getRepeatedRandomNumbersList(int length, int lowerBound, int upperBound) {
+    List<Integer> numbers = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      numbers.add(this.getRandomNumber(lowerBound, upperBound));
+    }
+    return numbers;
+  }
+
+  @Override
+  public int[] getUniqueRandomNumbers(int length, int lowerBound, int upperBound)
+      throws IllegalArgumentException {
+    int range = upperBound - lowerBound;
+    if (length < 0 || length > range) {
+      throw new IllegalArgumentException("Cannot pick " + length
+          + " unique numbers from a range of " + range + ".");
+    }
+    int[] numbers = new int[length];
+    // A bit per number is cheaper unless the range is much larger
+    BitSet pickedBits = range <= 8L * length ? new BitSet(range) : null;
+    Set<Integer> pickedSet = pickedBits == null ? new HashSet<>(2 * length) : null;
+    int count = 0;
+    for (int j = range - length; j < range; j++) {
+      int t = this.getRandomNumber(0, j + 1);
+      boolean seen = pickedBits != null ? pickedBits.get(t) : pickedSet.contains(t);
+      int pick = seen ? j : t;
+      if (pickedBits != null) {
+        pickedBits.set(pick);
+      } else {
+        pickedSet.add(pick);
+      }
+      numbers[count++] = pick + lowerBound;
+    }
+    return numbers;
+  }
+
+  @Override
+  public void shuffle(int[] numbers, int length) throws IllegalArgumentException {
+    if (length < 0 || length > numbers.length) {
+      throw new IllegalArgumentException("Cannot shuffle " + length
+          + " numbers out of " + numbers.length + ".");
+    }
+    for (int i = 0; i < length; i++) {
+      int j = this.getRandomNumber(i, numbers.length);
+      int swap = numbers[i];
+      numbers[i] = numbers[j];
+      numbers[j] = swap;
+    }
+  }
+
+  @Override
+  public void nextInts(int[] numbers, int lowerBound, int upperBound) {
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = this.getRandomNumber(lowerBound, upperBound);
+    }
+  }
+
+  @Override
+  public void setSeed(int seed) {
+    this.seed = seed;
+    this.gamma = GOLDEN_GAMMA;
+  }
+
+  /**
+   * Move the seed on by one step.
+   *
+   * @return new seed
+   */
+  private long nextSeed() {
+    this.seed += this.gamma;
+    return this.seed;
+  }
+
+  /**
+   * Mix the bits of a seed into a 64 bit random number.
+   *
+   * @param z seed
+   * @return random number
+   */
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Mix the bits of a seed into a 32 bit random number.
+   *
+   * @param z seed
+   * @return random number
+   */
+  private static int mix32(long z) {
+    z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+    return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+  }
+
+  /**
+   * Mix the bits of a seed into an odd increment with enough bit changes
+   * to give a good stream.
+   *
+   * @param z seed
+   * @return odd increment
+   */
+  private static long mixGamma(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    z = (z ^ (z >>> 33)) | 1L;
+    int n = Long.bitCount(z ^ (z >>> 1));
+    return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+  }
+}
@@ -0,0 +1,320 @@
+package dungeons;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * A load-once cache of the game sprites. Every image is decoded once and 
+ * scaled once to the cell size, and every combination of tile and overlays 
+ * drawn in a cell is composed once, so repainting the dungeon neither 
+ * decodes, scales nor allocates images. The atlas of each cell size is 
+ * shared by all panels, and also hands out the scaled icons of the status 
+ * panel.
+ * 
+ * <p>A cell is described by a key: the neighbor bit mask of the location 
+ * in the lowest 4 bits, as returned by ReadonlyGameModel.getNeighborMask, 
+ * combined with the flags below for what is drawn over the tile.
+ * 
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class SpriteAtlas {
+  
+  /**
+   * Cell size the sprite positions are designed for.
+   */
+  public static final int DEFAULT_CELL_SIZE = 70;
+  
+  /**
+   * Cell flag for diamonds in the location.
+   */
+  public static final int DIAMONDS = 1 << 4;
+  
+  /**
+   * Cell flag for rubies in the location.
+   */
+  public static final int RUBIES = 1 << 5;
+  
+  /**
+   * Cell flag for sapphires in the location.
+   */
+  public static final int SAPPHIRE = 1 << 6;
+  
+  /**
+   * Cell flag for arrows in the location.
+   */
+  public static final int ARROWS = 1 << 7;
+  
+  /**
+   * Cell flag for a monster in the location.
+   */
+  public static final int MONSTER = 1 << 8;
+  
+  /**
+   * Cell flag for player one in the location.
+   */
+  public static final int PLAYER_ONE = 1 << 9;
+  
+  /**
+   * Cell flag for player two in the location.
+   */
+  public static final int PLAYER_TWO = 1 << 10;
+  
+  /**
+   * Cell flag for a slight smell in the location.
+   */
+  public static final int SLIGHT_SMELL = 1 << 11;
+  
+  /**
+   * Cell flag for a terrible smell in the location.
+   */
+  public static final int TERRIBLE_SMELL = 1 << 12;
+  
+  /**
+   * Tile image of each neighbor bit mask, bits in the order of the 
+   * Direction ordinals: north, south, east and west.
+   */
+  private static final String[] TILES = {"roombase-0", "N", "S", "NS", "E", "NE", "SE", 
+      "SEN", "W", "NW", "SW", "NWS", "EW", "ENW", "WSE", "NEWS"};
+  
+  private static final Map<Integer, SpriteAtlas> ATLASES = new HashMap<>();
+  private static final Map<String, BufferedImage> SOURCES = new HashMap<>();
+  
+  private final int cellSize;
+  private final BufferedImage[] tiles;
+  private final BufferedImage dark;
+  private final BufferedImage[] treasures;
+  private final BufferedImage arrow;
+  private final BufferedImage monster;
+  private final BufferedImage playerOne;
+  private final BufferedImage playerTwo;
+  private final BufferedImage slightSmell;
+  private final BufferedImage terribleSmell;
+  private final Map<Integer, BufferedImage> cells;
+  private final Map<String, ImageIcon> icons;
+  
+  /**
+   * Construct an atlas, scaling every sprite to the cell size.
+   * 
+   * @param cellSize width and height of a cell in pixels
+   * @throws IllegalStateException if a sprite cannot be loaded
+   */
+  private SpriteAtlas(int cellSize) throws IllegalStateException {
+    this.cellSize = cellSize;
+    this.tiles = new BufferedImage[TILES.length];
+    for (int mask = 0; mask < TILES.length; mask++) {
+      this.tiles[mask] = this.scaled(TILES[mask], DEFAULT_CELL_SIZE, DEFAULT_CELL_SIZE);
+    }
+    this.dark = this.scaled("dark", DEFAULT_CELL_SIZE, DEFAULT_CELL_SIZE);
+    this.treasures = new BufferedImage[] {this.scaled("diamonds", 15, 15), 
+        this.scaled("ruby", 15, 15), this.scaled("sapphire", 15, 15)};
+    this.arrow = this.scaled("arrow", 30, 10);
+    this.monster = this.scaled("wumpus", 30, 30);
+    this.playerOne = this.scaled("player1", 12, 24);
+    this.playerTwo = this.scaled("player2", 24, 24);
+    this.slightSmell = this.scaled("slime-pit-nearby", 64, 64);
+    this.terribleSmell = this.scaled("wumpus-nearby", 64, 64);
+    this.cells = new HashMap<>();
+    this.icons = new HashMap<>();
+  }
+  
+  /**
+   * Get the shared atlas for a cell size, creating it on first use.
+   * 
+   * @param cellSize width and height of a cell in pixels
+   * @return sprite atlas
+   * @throws IllegalArgumentException if the cell size is not positive
+   * @throws IllegalStateException if a sprite cannot be loaded
+   */
+  public static synchronized SpriteAtlas getAtlas(int cellSize) 
+      throws IllegalArgumentException, IllegalStateException {
+    if (cellSize < 1) {
+      throw new IllegalArgumentException("Cell size must be greater than 0.");
+    }
+    SpriteAtlas atlas = ATLASES.get(cellSize);
+    if (atlas == null) {
+      atlas = new SpriteAtlas(cellSize);
+      ATLASES.put(cellSize, atlas);
+    }
+    return atlas;
+  }
+  
+  /**
+   * Get the width and height of a cell in pixels.
+   * 
+   * @return cell size
+   */
+  public int getCellSize() {
+    return this.cellSize;
+  }
+  
+  /**
+   * Get the image of a cell that has not been visited yet.
+   * 
+   * @return dark cell
+   */
+  public BufferedImage getDarkCell() {
+    return this.dark;
+  }
+  
+  /**
+   * Get the image of a visited cell, composing it on first use.
+   * 
+   * @param key neighbor bit mask combined with the cell flags
+   * @return cell image, shared and not to be drawn on
+   */
+  public synchronized BufferedImage getCell(int key) {
+    BufferedImage cell = this.cells.get(key);
+    if (cell == null) {
+      cell = this.compose(key);
+      this.cells.put(key, cell);
+    }
+    return cell;
+  }
+  
+  /**
+   * Get an icon scaled to the given size, loading it on first use.
+   * 
+   * @param name image name, without the folder and extension
+   * @param width icon width in pixels
+   * @param height icon height in pixels
+   * @return scaled icon
+   * @throws IllegalStateException if the image cannot be loaded
+   */
+  public synchronized ImageIcon getIcon(String name, int width, int height) 
+      throws IllegalStateException {
+    String key = name + "@" + width + "x" + height;
+    ImageIcon icon = this.icons.get(key);
+    if (icon == null) {
+      icon = new ImageIcon(scale(source(name), width, height));
+      this.icons.put(key, icon);
+    }
+    return icon;
+  }
+  
+  /**
+   * Draw the tile and overlays of a cell in the order the game always drew 
+   * them: treasures, arrows, monster, players and smell.
+   * 
+   * @param key neighbor bit mask combined with the cell flags
+   * @return cell image
+   */
+  private BufferedImage compose(int key) {
+    BufferedImage cell = new BufferedImage(this.cellSize, this.cellSize, 
+        BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = cell.createGraphics();
+    g.drawImage(this.tiles[key & 0xF], 0, 0, null);
+    int spacing = 8;
+    int[] treasureFlags = {DIAMONDS, RUBIES, SAPPHIRE};
+    for (int i = 0; i < treasureFlags.length; i++) {
+      if ((key & treasureFlags[i]) != 0) {
+        this.draw(g, this.treasures[i], spacing, 20);
+        spacing += 15;
+      }
+    }
+    if ((key & ARROWS) != 0) {
+      this.draw(g, this.arrow, 15, 40);
+    }
+    if ((key & MONSTER) != 0) {
+      this.draw(g, this.monster, 40, 35);
+    }
+    if ((key & PLAYER_ONE) != 0) {
+      this.draw(g, this.playerOne, 20, 20);
+    }
+    if ((key & PLAYER_TWO) != 0) {
+      this.draw(g, this.playerTwo, 35, 20);
+    }
+    if ((key & TERRIBLE_SMELL) != 0) {
+      this.draw(g, this.terribleSmell, 0, 0);
+    } else if ((key & SLIGHT_SMELL) != 0) {
+      this.draw(g, this.slightSmell, 0, 0);
+    }
+    g.dispose();
+    return cell;
+  }
+  
+  /**
+   * Draw a sprite at a position designed for the default cell size.
+   * 
+   * @param g graphics of the cell
+   * @param sprite sprite to draw
+   * @param x left edge at the default cell size
+   * @param y top edge at the default cell size
+   */
+  private void draw(Graphics2D g, BufferedImage sprite, int x, int y) {
+    g.drawImage(sprite, this.fit(x), this.fit(y), null);
+  }
+  
+  /**
+   * Scale a length designed for the default cell size to this cell size.
+   * 
+   * @param length length at the default cell size
+   * @return length at this cell size, at least 1
+   */
+  private int fit(int length) {
+    return Math.max(1, length * this.cellSize / DEFAULT_CELL_SIZE);
+  }
+  
+  /**
+   * Get a sprite scaled from a size designed for the default cell size to 
+   * this cell size.
+   * 
+   * @param name image name, without the folder and extension
+   * @param width width at the default cell size
+   * @param height height at the default cell size
+   * @return scaled sprite
+   */
+  private BufferedImage scaled(String name, int width, int height) {
+    return scale(source(name), this.fit(width), this.fit(height));
+  }
+  
+  /**
+   * Get the decoded image, reading it on first use.
+   * 
+   * @param name image name, without the folder and extension
+   * @return decoded image
+   * @throws IllegalStateException if the image cannot be loaded
+   */
+  private static BufferedImage source(String name) throws IllegalStateException {
+    synchronized (SOURCES) {
+      BufferedImage image = SOURCES.get(name);
+      if (image == null) {
+        URL resource = SpriteAtlas.class.getResource("/images/" + name + ".png");
+        if (resource == null) {
+          throw new IllegalStateException("Image " + name + " is missing.");
+        }
+        try {
+          image = ImageIO.read(resource);
+        } catch (IOException ioe) {
+          throw new IllegalStateException("Image " + name + " cannot be read.", ioe);
+        }
+        SOURCES.put(name, image);
+      }
+      return image;
+    }
+  }
+  
+  /**
+   * Scale an image smoothly.
+   * 
+   * @param img image to scale
+   * @param width new width
+   * @param height new height
+   * @return scaled image
+   */
+  private static BufferedImage scale(BufferedImage img, int width, int height) {
+    Image tmp = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+    BufferedImage dimg = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2d = dimg.createGraphics();
+    g2d.drawImage(tmp, 0, 0, null);
+    g2d.dispose();
+    return dimg;
+  }
+}
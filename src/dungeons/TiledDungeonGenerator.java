@@ -0,0 +1,407 @@
+package dungeons;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A maze generator that splits the grid into square tiles and builds a
+ * random spanning tree of every tile in parallel on a fork/join pool. The
+ * tiles are then stitched together by running union-find over the shuffled
+ * seam connections between tiles, which joins all tile trees into a single
+ * spanning tree of the grid. Finally interconnectivity extra connections
+ * are picked uniformly among all the connections left out.
+ *
+ * <p>Every tile draws from its own random number generator, seeded in tile
+ * order from the given generator before any tile is built, so the dungeon
+ * for a given seed is the same whatever the number of threads.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class TiledDungeonGenerator implements DungeonGenerator {
+
+  /**
+   * Default number of rows and columns of a tile.
+   */
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  private static final int CAVE = 1 << 4;
+  private static final int TILES_PER_TASK = 4;
+
+  private final int numOfRows;
+  private final int numOfCols;
+  private final int interconnectivity;
+  private final boolean isWrapped;
+  private final int tileSize;
+  private final int parallelism;
+  private final RandomNumberGenerator random;
+
+  /**
+   * Construct a tiled generator using the default tile size and all
+   * available processors.
+   *
+   * @param r number of rows
+   * @param c number of columns
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of rows or columns is less
+   *                                  than 1 or too large or if the
+   *                                  interconnectivity is less than 0 or if
+   *                                  the random number generator is a null
+   *                                  object
+   */
+  public TiledDungeonGenerator(int r, int c, int interconn, boolean wrapping,
+      RandomNumberGenerator rand) throws IllegalArgumentException {
+    this(r, c, interconn, wrapping, DEFAULT_TILE_SIZE,
+        Runtime.getRuntime().availableProcessors(), rand);
+  }
+
+  /**
+   * Construct a tiled generator.
+   *
+   * @param r number of rows
+   * @param c number of columns
+   * @param interconn interconnectivity in the dungeon
+   * @param wrapping should the dungeon be wrapped
+   * @param tile number of rows and columns of a tile
+   * @param threads number of threads building tiles
+   * @param rand Random Number Generator object
+   * @throws IllegalArgumentException if the number of rows or columns is less
+   *                                  than 1 or too large or if the
+   *                                  interconnectivity is less than 0 or if
+   *                                  the tile size or number of threads is
+   *                                  less than 1 or if the random number
+   *                                  generator is a null object
+   */
+  public TiledDungeonGenerator(int r, int c, int interconn, boolean wrapping,
+      int tile, int threads, RandomNumberGenerator rand) throws IllegalArgumentException {
+    if (r < 1 || c < 1) {
+      throw new IllegalArgumentException("The number of rows and "
+          + "columns must be greater than 0. Illegal Arguments.");
+    }
+    if ((long) r * c > Integer.MAX_VALUE / 2) {
+      throw new IllegalArgumentException("The dungeon is too large, at most "
+          + (Integer.MAX_VALUE / 2) + " locations are allowed.");
+    }
+    if (interconn < 0) {
+      throw new IllegalArgumentException("Interconnectivity "
+          + "must be atleast 1.");
+    }
+    if (tile < 1 || threads < 1) {
+      throw new IllegalArgumentException("Tile size and number of threads "
+          + "must be greater than 0.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random Number Generator "
+          + "must be of type RandomNumberGenerator.");
+    }
+    this.numOfRows = r;
+    this.numOfCols = c;
+    this.interconnectivity = interconn;
+    this.isWrapped = wrapping;
+    this.tileSize = tile;
+    this.parallelism = threads;
+    this.random = rand;
+  }
+
+  @Override
+  public long getNumberOfRows() {
+    return this.numOfRows;
+  }
+
+  @Override
+  public int getNumberOfColumns() {
+    return this.numOfCols;
+  }
+
+  @Override
+  public int getInterconnectivity() {
+    return this.interconnectivity;
+  }
+
+  @Override
+  public boolean isWrapped() {
+    return this.isWrapped;
+  }
+
+  @Override
+  public void generate(RowSink sink) throws IllegalArgumentException {
+    if (sink == null) {
+      throw new IllegalArgumentException("Row sink cannot be null.");
+    }
+    byte[] cells = this.generateCells();
+    byte[] row = new byte[this.numOfCols];
+    for (int r = 0; r < this.numOfRows; r++) {
+      System.arraycopy(cells, r * this.numOfCols, row, 0, this.numOfCols);
+      sink.acceptRow(r, row);
+    }
+  }
+
+  /**
+   * Generate a new dungeon and return all of its locations, row after row,
+   * in the layout described by DungeonGenerator.
+   *
+   * @return one byte per location
+   */
+  public byte[] generateCells() {
+    int tileRows = (this.numOfRows + this.tileSize - 1) / this.tileSize;
+    int tileCols = (this.numOfCols + this.tileSize - 1) / this.tileSize;
+    int numOfTiles = tileRows * tileCols;
+    byte[] cells = new byte[this.numOfRows * this.numOfCols];
+
+    // Seeds are drawn up front so tiles do not depend on the thread count
+    int[] seeds = new int[numOfTiles];
+    for (int t = 0; t < numOfTiles; t++) {
+      seeds[t] = this.random.getRandomNumber(0, Integer.MAX_VALUE);
+    }
+    int[][] leftovers = new int[numOfTiles][];
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      pool.invoke(new TileTask(cells, seeds, leftovers, tileCols, 0, numOfTiles));
+    } finally {
+      pool.shutdown();
+    }
+
+    int[] seams = this.shuffledSeams(tileCols);
+    DisjointSet tiles = new DisjointSet(numOfTiles);
+    int seamLeftover = 0;
+    for (int edge : seams) {
+      int from = edge >>> 1;
+      int to = this.getGridNeighbor(from, (edge & 1) == 0);
+      if (tiles.union(this.tileOf(from, tileCols), this.tileOf(to, tileCols))) {
+        this.connect(cells, edge);
+      } else {
+        seams[seamLeftover++] = edge;
+      }
+    }
+
+    // Pick the extra connections uniformly among all the ones left out
+    int[] leftoverStart = new int[numOfTiles + 2];
+    for (int t = 0; t < numOfTiles; t++) {
+      leftoverStart[t + 1] = leftoverStart[t] + leftovers[t].length;
+    }
+    leftoverStart[numOfTiles + 1] = leftoverStart[numOfTiles] + seamLeftover;
+    int total = leftoverStart[numOfTiles + 1];
+    int extra = Math.min(this.interconnectivity, total);
+    for (int rank : this.random.getUniqueRandomNumbers(extra, 0, total)) {
+      int group = Arrays.binarySearch(leftoverStart, rank);
+      if (group < 0) {
+        group = -group - 2;
+      } else {
+        // Skip over groups without leftovers
+        while (leftoverStart[group + 1] == rank) {
+          group += 1;
+        }
+      }
+      int index = rank - leftoverStart[group];
+      this.connect(cells, group < numOfTiles ? leftovers[group][index] : seams[index]);
+    }
+
+    for (int id = 0; id < cells.length; id++) {
+      if (Integer.bitCount(cells[id]) != 2) {
+        cells[id] |= CAVE;
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Build the random spanning tree of one tile with Kruskal's algorithm over
+   * its shuffled inner connections.
+   *
+   * @param cells locations of the dungeon
+   * @param tile tile number
+   * @param tileCols number of tiles in a row of tiles
+   * @param seed seed of the tile's random number generator
+   * @return inner connections of the tile left out, in shuffled order
+   */
+  private int[] buildTile(byte[] cells, int tile, int tileCols, int seed) {
+    RandomNumberGenerator tileRandom = new SplittableRandomNumberGenerator(seed);
+    int firstRow = (tile / tileCols) * this.tileSize;
+    int firstCol = (tile % tileCols) * this.tileSize;
+    int height = Math.min(this.tileSize, this.numOfRows - firstRow);
+    int width = Math.min(this.tileSize, this.numOfCols - firstCol);
+
+    int[] edges = new int[height * (width - 1) + (height - 1) * width];
+    int count = 0;
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        int id = (firstRow + i) * this.numOfCols + firstCol + j;
+        if (j < width - 1) {
+          edges[count++] = id << 1;
+        }
+        if (i < height - 1) {
+          edges[count++] = (id << 1) | 1;
+        }
+      }
+    }
+    tileRandom.shuffle(edges, edges.length);
+
+    DisjointSet components = new DisjointSet(height * width);
+    int leftOver = 0;
+    for (int edge : edges) {
+      int from = edge >>> 1;
+      int to = this.getGridNeighbor(from, (edge & 1) == 0);
+      if (components.union(this.localIndex(from, firstRow, firstCol, width),
+          this.localIndex(to, firstRow, firstCol, width))) {
+        this.connect(cells, edge);
+      } else {
+        edges[leftOver++] = edge;
+      }
+    }
+    return Arrays.copyOf(edges, leftOver);
+  }
+
+  /**
+   * Get the connections crossing from one tile to another, including the
+   * wrapped ones, in a random order.
+   *
+   * @param tileCols number of tiles in a row of tiles
+   * @return shuffled seam connections
+   */
+  private int[] shuffledSeams(int tileCols) {
+    int count = 0;
+    for (int pass = 0; pass < 2; pass++) {
+      int[] seams = pass == 0 ? null : new int[count];
+      count = 0;
+      for (int r = 0; r < this.numOfRows; r++) {
+        boolean tileBottom = (r + 1) % this.tileSize == 0 || r == this.numOfRows - 1;
+        int id = r * this.numOfCols;
+        for (int c = 0; c < this.numOfCols; c++, id++) {
+          boolean tileRight = (c + 1) % this.tileSize == 0 || c == this.numOfCols - 1;
+          if (tileRight && this.getGridNeighbor(id, true) >= 0) {
+            if (seams != null) {
+              seams[count] = id << 1;
+            }
+            count += 1;
+          }
+          if (tileBottom && this.getGridNeighbor(id, false) >= 0) {
+            if (seams != null) {
+              seams[count] = (id << 1) | 1;
+            }
+            count += 1;
+          }
+        }
+      }
+      if (seams != null) {
+        this.random.shuffle(seams, seams.length);
+        return seams;
+      }
+    }
+    return new int[0];
+  }
+
+  /**
+   * Connect both ends of a connection.
+   *
+   * @param cells locations of the dungeon
+   * @param edge location id times 2, plus 1 for a south connection
+   */
+  private void connect(byte[] cells, int edge) {
+    int from = edge >>> 1;
+    boolean east = (edge & 1) == 0;
+    int to = this.getGridNeighbor(from, east);
+    cells[from] |= 1 << (east ? Direction.EAST : Direction.SOUTH).ordinal();
+    cells[to] |= 1 << (east ? Direction.WEST : Direction.NORTH).ordinal();
+  }
+
+  /**
+   * Get the grid location east or south of the location. Borders only wrap
+   * in a wrapped dungeon wider than 2.
+   *
+   * @param id location id
+   * @param east true for east, false for south
+   * @return grid neighbor location id or -1 if there is none
+   */
+  private int getGridNeighbor(int id, boolean east) {
+    int row = id / this.numOfCols;
+    int col = id - row * this.numOfCols;
+    if (east) {
+      if (col < this.numOfCols - 1) {
+        return id + 1;
+      }
+      return this.isWrapped && this.numOfCols > 2 ? id - col : -1;
+    }
+    if (row < this.numOfRows - 1) {
+      return id + this.numOfCols;
+    }
+    return this.isWrapped && this.numOfRows > 2 ? col : -1;
+  }
+
+  /**
+   * Get the tile holding the location.
+   *
+   * @param id location id
+   * @param tileCols number of tiles in a row of tiles
+   * @return tile number
+   */
+  private int tileOf(int id, int tileCols) {
+    return (id / this.numOfCols / this.tileSize) * tileCols
+        + (id % this.numOfCols) / this.tileSize;
+  }
+
+  /**
+   * Get the index of a location inside its tile.
+   *
+   * @param id location id
+   * @param firstRow first row of the tile
+   * @param firstCol first column of the tile
+   * @param width number of columns of the tile
+   * @return index inside the tile
+   */
+  private int localIndex(int id, int firstRow, int firstCol, int width) {
+    return (id / this.numOfCols - firstRow) * width + id % this.numOfCols - firstCol;
+  }
+
+  /**
+   * A fork/join task building a range of tiles.
+   */
+  private class TileTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] cells;
+    private final int[] seeds;
+    private final int[][] leftovers;
+    private final int tileCols;
+    private final int first;
+    private final int last;
+
+    /**
+     * Construct a task building the tiles from first up to last.
+     *
+     * @param cells locations of the dungeon
+     * @param seeds seed of each tile
+     * @param leftovers left out connections of each tile, filled in
+     * @param tileCols number of tiles in a row of tiles
+     * @param first first tile number
+     * @param last tile number after the last one
+     */
+    TileTask(byte[] cells, int[] seeds, int[][] leftovers, int tileCols,
+        int first, int last) {
+      this.cells = cells;
+      this.seeds = seeds;
+      this.leftovers = leftovers;
+      this.tileCols = tileCols;
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.last - this.first <= TILES_PER_TASK) {
+        for (int t = this.first; t < this.last; t++) {
+          this.leftovers[t] = buildTile(this.cells, t, this.tileCols, this.seeds[t]);
+        }
+        return;
+      }
+      int middle = (this.first + this.last) >>> 1;
+      invokeAll(new TileTask(this.cells, this.seeds, this.leftovers, this.tileCols,
+          this.first, middle),
+          new TileTask(this.cells, this.seeds, this.leftovers, this.tileCols,
+          middle, this.last));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package dungeons;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size table from the Zobrist hashes of game states to 64 bit
+ * values, for search bots and simulations that reach the same state along
+ * different paths and want to look up what they learned about it.
+ *
+ * <p>The table never grows. A hash goes to one slot picked by its low bits
+ * and a new entry replaces whatever the slot held, so the table keeps the
+ * most recent states. Threads read and write it without locks: each slot is
+ * two longs, the value and the value xored with the hash. A reader checks
+ * that the two still xor back to the hash it looks for, so a slot written by
+ * two threads at once reads as missing instead of as a wrong value.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public final class TranspositionTable {
+
+  /**
+   * Largest number of entries of a table.
+   */
+  public static final int MAX_CAPACITY = 1 << 28;
+
+  private final AtomicLongArray slots;
+  private final int mask;
+
+  /**
+   * Construct an empty table.
+   *
+   * @param capacity number of entries, rounded up to a power of 2
+   * @throws IllegalArgumentException if the capacity is less than 1 or
+   *                                  greater than the maximum capacity
+   */
+  public TranspositionTable(int capacity) throws IllegalArgumentException {
+    if (capacity < 1 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Capacity must be between 1 and "
+          + MAX_CAPACITY + ".");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicLongArray(2 * size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Get the value of a state.
+   *
+   * @param hash hash of the state
+   * @param missing value to return if the state is not in the table
+   * @return value of the state, or the missing value
+   */
+  public long get(long hash, long missing) {
+    int slot = 2 * ((int) hash & this.mask);
+    long value = this.slots.get(slot + 1);
+    long check = this.slots.get(slot);
+    if ((check ^ value) != hash || (check == 0 && value == 0)) {
+      // Another state, a torn write or an empty slot
+      return missing;
+    }
+    return value;
+  }
+
+  /**
+   * Set the value of a state, replacing the state in its slot.
+   *
+   * @param hash hash of the state
+   * @param value value of the state
+   */
+  public void put(long hash, long value) {
+    int slot = 2 * ((int) hash & this.mask);
+    this.slots.set(slot, hash ^ value);
+    this.slots.set(slot + 1, value);
+  }
+
+  /**
+   * Remove every state from the table.
+   */
+  public void clear() {
+    for (int i = 0; i < this.slots.length(); i++) {
+      this.slots.set(i, 0);
+    }
+  }
+
+  /**
+   * Get the number of entries of the table.
+   *
+   * @return capacity
+   */
+  public int getCapacity() {
+    return this.mask + 1;
+  }
+}
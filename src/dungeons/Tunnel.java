@@ -49,6 +49,11 @@ public class Tunnel extends AbstractLocation {
     return "The tunnel does not have any treasure to collect!";
   }
 
+  @Override
+  public int getTreasureCount(Treasure treasure) {
+    return 0;
+  }
+
   @Override
   public int getLocationNum() {
     return Integer.parseInt(this.getLocationId().substring(7));
@@ -0,0 +1,183 @@
+package dungeons;
+
+/**
+ * The Zobrist keys of the state of a game. Every feature of the state, such
+ * as the number of arrows in a location or the location of a player, has a
+ * random 64 bit key for each of its values, and the hash of a state is the
+ * exclusive or of the keys of all its features. A turn changes only a few
+ * features, so the hash is kept up to date by xoring out the keys of their
+ * old values and xoring in the keys of the new ones.
+ *
+ * <p>The counts of arrows and treasures have no upper bound, so the keys are
+ * not kept in tables but mixed from the kind of feature, its index and its
+ * value on every call. The keys are the same in every run and on every
+ * thread. A count of 0 has the key 0, so empty locations add nothing to the
+ * hash and a full hash only needs to visit the locations holding something.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+final class ZobristKeys {
+
+  private static final long SEED = 0x2545f4914f6cdd1dL;
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+  private static final int TREASURES = Treasure.values().length;
+
+  private static final int LAYOUT = 0;
+  private static final int START = 1;
+  private static final int END = 2;
+  private static final int ARROWS = 3;
+  private static final int TREASURE = 4;
+  private static final int MONSTER = 5;
+  private static final int PLAYER_LOCATION = 6;
+  private static final int PLAYER_ARROWS = 7;
+  private static final int PLAYER_TREASURE = 8;
+  private static final int PLAYER_DEAD = 9;
+  private static final int TURN = 10;
+  private static final int VISITED = 11;
+
+  private ZobristKeys() {
+    // only static keys
+  }
+
+  /**
+   * Get the key of the neighbors of a location.
+   *
+   * @param id location id
+   * @param cell neighbor and cave bits of the location
+   * @return key
+   */
+  static long layout(int id, int cell) {
+    return key(LAYOUT, id, cell);
+  }
+
+  /**
+   * Get the key of the start and end caves.
+   *
+   * @param start location id of the start cave
+   * @param end location id of the end cave
+   * @return key
+   */
+  static long startAndEnd(int start, int end) {
+    return key(START, start, 1) ^ key(END, end, 1);
+  }
+
+  /**
+   * Get the key of the arrows in a location.
+   *
+   * @param id location id
+   * @param count number of arrows
+   * @return key, 0 for no arrows
+   */
+  static long arrows(int id, int count) {
+    return key(ARROWS, id, count);
+  }
+
+  /**
+   * Get the key of a treasure in a location.
+   *
+   * @param id location id
+   * @param treasure treasure type
+   * @param count number of treasures
+   * @return key, 0 for no treasures
+   */
+  static long treasure(int id, Treasure treasure, int count) {
+    return key(TREASURE, (long) id * TREASURES + treasure.ordinal(), count);
+  }
+
+  /**
+   * Get the key of a living monster in a location.
+   *
+   * @param id location id
+   * @param health health left to the monster
+   * @return key
+   */
+  static long monster(int id, int health) {
+    return key(MONSTER, id, health);
+  }
+
+  /**
+   * Get the key of the location of a player.
+   *
+   * @param player player index, 0 or 1
+   * @param id location id
+   * @return key
+   */
+  static long playerLocation(int player, int id) {
+    return key(PLAYER_LOCATION, player, id + 1);
+  }
+
+  /**
+   * Get the key of the arrows in hand of a player.
+   *
+   * @param player player index, 0 or 1
+   * @param count number of arrows
+   * @return key, 0 for no arrows
+   */
+  static long playerArrows(int player, int count) {
+    return key(PLAYER_ARROWS, player, count);
+  }
+
+  /**
+   * Get the key of a treasure in the bag of a player.
+   *
+   * @param player player index, 0 or 1
+   * @param treasure treasure type
+   * @param count number of treasures
+   * @return key, 0 for no treasures
+   */
+  static long playerTreasure(int player, Treasure treasure, int count) {
+    return key(PLAYER_TREASURE, player * TREASURES + treasure.ordinal(), count);
+  }
+
+  /**
+   * Get the key of a player being alive or dead.
+   *
+   * @param player player index, 0 or 1
+   * @param isAlive true if the player is alive
+   * @return key, 0 for a living player
+   */
+  static long playerDead(int player, boolean isAlive) {
+    return key(PLAYER_DEAD, player, isAlive ? 0 : 1);
+  }
+
+  /**
+   * Get the key of the player whose turn it is.
+   *
+   * @param player player index, 0 or 1
+   * @return key
+   */
+  static long turn(int player) {
+    return key(TURN, 0, player + 1);
+  }
+
+  /**
+   * Get the key of a cell visited by a player. The hash of a game leaves
+   * the visited cells out, so walking away and back gives back the same
+   * hash, but a search whose rewards depend on them adds these keys.
+   *
+   * @param player player index, 0 or 1
+   * @param cell cell number of the visited location
+   * @return key
+   */
+  static long visited(int player, int cell) {
+    return key(VISITED, player, cell + 1);
+  }
+
+  /**
+   * Mix the key of a value of a feature. The kind and index are mixed first,
+   * so features never share keys, then the value.
+   *
+   * @param kind kind of feature
+   * @param index index of the feature within its kind
+   * @param value value of the feature
+   * @return key, 0 for the value 0
+   */
+  private static long key(int kind, long index, int value) {
+    if (value == 0) {
+      return 0;
+    }
+    long feature = SplittableRandomNumberGenerator.mix64(SEED ^ ((long) kind << 56) ^ index);
+    return SplittableRandomNumberGenerator.mix64(feature + value * GOLDEN_GAMMA);
+  }
+}
@@ -10,6 +10,7 @@ import dungeons.AdventureGameViewController;
 import dungeons.Direction;
 import dungeons.Game;
 import dungeons.GameView;
+import dungeons.MonteCarloBot;
 import dungeons.RandomNumberGenerator;
 import dungeons.RandomNumberGeneratorTest;
 import java.awt.event.ActionEvent;
@@ -122,6 +123,25 @@ public class AdventureGameControllerTest {
     assertEquals(expected, lines[lines.length - 1]);
   }
   
+  /**
+   * Test letting the computer play a turn with the auto command.
+   */
+  @Test
+  public void testAutoCommand() {
+    rand = new RandomNumberGeneratorTest(0, 10, 2, 3, 5, 6, 8);
+    Game model = new AdventureGame(1, 5, 5, 5, false, 45, 3, rand);
+    
+    StringReader input = new StringReader("U Q");
+    StringBuilder gameLog = new StringBuilder();
+    testGame = new AdventureGameConsoleController(input, gameLog, model, 
+        new MonteCarloBot(1000, 50, 1, 5), rand);
+    
+    testGame.playGame();
+    
+    assertTrue(gameLog.toString().contains("The computer plays: "));
+    assertTrue(gameLog.toString().contains("after 50 playouts"));
+  }
+  
   /**
    * Test quitting game while shooting arrow.
    */
@@ -0,0 +1,103 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import dungeons.ArrowFlightTable;
+import dungeons.CompactDungeon;
+import dungeons.Direction;
+import dungeons.Dungeons;
+import dungeons.Location;
+import dungeons.MazeDungeon;
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the ArrowFlightTable class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class ArrowFlightTableTest {
+
+  RandomNumberGenerator rand;
+
+  /**
+   * Setting up the random number generator.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+    rand.setSeed(31);
+  }
+
+  /**
+   * Test that every entry of the table matches an arrow walked through the
+   * tunnels one location at a time.
+   */
+  @Test
+  public void testMatchesWalk() {
+    Dungeons[] dungeons = {
+        new MazeDungeon(9, 11, 0, true, 20, 1, rand),
+        new MazeDungeon(7, 5, 5, false, 20, 1, rand),
+        new CompactDungeon(10, 12, 0, true, 20, 1, rand),
+        new CompactDungeon(3, 3, 0, true, 20, 1, rand)};
+    for (Dungeons dungeon : dungeons) {
+      ArrowFlightTable flights = dungeon.getArrowFlights();
+      List<List<Location>> locations = dungeon.getAllLocations();
+      int columns = locations.get(0).size();
+      int count = locations.size() * columns;
+      for (int id = 0; id < count; id++) {
+        for (Direction towards : Direction.values()) {
+          Direction travel = towards;
+          Location next = locations.get(id / columns).get(id % columns)
+              .getNeighbors().get(travel);
+          int steps = 0;
+          while (next != null && next.getNeighbors().size() == 2 && steps <= count) {
+            for (Map.Entry<Direction, Location> exit : next.getNeighbors().entrySet()) {
+              if (exit.getKey() != opposite(travel)) {
+                travel = exit.getKey();
+                next = exit.getValue();
+                break;
+              }
+            }
+            steps += 1;
+          }
+          if (next == null || steps > count) {
+            assertEquals(-1, flights.getTarget(id, towards));
+            assertNull(flights.getArrival(id, towards));
+          } else {
+            assertEquals(next.getLocationNum(), flights.getTarget(id, towards));
+            assertEquals(travel, flights.getArrival(id, towards));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that the table is built once.
+   */
+  @Test
+  public void testBuiltOnce() {
+    Dungeons dungeon = new MazeDungeon(5, 5, 2, false, 20, 1, rand);
+    assertEquals(dungeon.getArrowFlights(), dungeon.getArrowFlights());
+  }
+
+  private static Direction opposite(Direction towards) {
+    switch (towards) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.BatchEnvironment;
+import dungeons.SmellLevel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the BatchEnvironment class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class BatchEnvironmentTest {
+
+  BatchEnvironment env;
+
+  /**
+   * Setting up a batch of 8 games from 4 layouts.
+   */
+  @Before
+  public void setup() {
+    env = new BatchEnvironment(8, 4, 6, 6, 3, true, 40, 2, 200, 9);
+  }
+
+  /**
+   * Test the first observations of every game.
+   */
+  @Test
+  public void testReset() {
+    for (int k = 0; k < 8; k++) {
+      assertTrue(env.getNeighborMasks()[k] > 0 && env.getNeighborMasks()[k] < 16);
+      assertTrue(env.getSmells()[k] < SmellLevel.MONSTER.ordinal());
+      assertEquals(3, env.getArrows()[k]);
+      assertEquals(0, env.getTreasure()[k]);
+      assertTrue(env.getAlive()[k]);
+      assertFalse(env.getDone()[k]);
+    }
+  }
+
+  /**
+   * Test that moving into a wall changes nothing but costs a reward.
+   */
+  @Test
+  public void testInvalidMove() {
+    int[] actions = new int[8];
+    byte[] masks = env.getNeighborMasks().clone();
+    for (int k = 0; k < 8; k++) {
+      actions[k] = masks[k] == 0xF ? 0 : Integer.numberOfTrailingZeros(~masks[k] & 0xF);
+    }
+    env.step(actions);
+    for (int k = 0; k < 8; k++) {
+      if (masks[k] != 0xF) {
+        assertEquals(BatchEnvironment.STEP_REWARD + BatchEnvironment.INVALID_REWARD,
+            env.getRewards()[k], 1e-6);
+        assertEquals(masks[k], env.getNeighborMasks()[k]);
+      }
+    }
+  }
+
+  /**
+   * Test that shooting uses an arrow.
+   */
+  @Test
+  public void testShoot() {
+    int[] actions = new int[8];
+    for (int k = 0; k < 8; k++) {
+      actions[k] = BatchEnvironment.SHOOT_NEAR
+          + Integer.numberOfTrailingZeros(env.getNeighborMasks()[k]);
+    }
+    env.step(actions);
+    for (int k = 0; k < 8; k++) {
+      assertEquals(2, env.getArrows()[k]);
+    }
+  }
+
+  /**
+   * Test that the same seed and actions give the same games.
+   */
+  @Test
+  public void testReproducible() {
+    BatchEnvironment other = new BatchEnvironment(8, 4, 6, 6, 3, true, 40, 2, 200, 9);
+    int[] actions = new int[8];
+    for (int s = 0; s < 300; s++) {
+      for (int k = 0; k < 8; k++) {
+        actions[k] = (s * 7 + k * 3) % BatchEnvironment.NUM_ACTIONS;
+      }
+      env.step(actions);
+      other.step(actions);
+      assertArrayEquals(env.getRewards(), other.getRewards(), 0f);
+      assertArrayEquals(env.getNeighborMasks(), other.getNeighborMasks());
+      assertArrayEquals(env.getSmells(), other.getSmells());
+    }
+  }
+
+  /**
+   * Test that games are ended and reset at the step limit.
+   */
+  @Test
+  public void testStepLimit() {
+    BatchEnvironment shortGames = new BatchEnvironment(4, 2, 6, 6, 3, true, 40, 2, 1, 3);
+    shortGames.step(new int[] {BatchEnvironment.PICK_UP, BatchEnvironment.PICK_UP,
+        BatchEnvironment.PICK_UP, BatchEnvironment.PICK_UP});
+    for (int k = 0; k < 4; k++) {
+      assertTrue(shortGames.getDone()[k]);
+      assertTrue(shortGames.getAlive()[k]);
+      assertEquals(3, shortGames.getArrows()[k]);
+    }
+  }
+
+  /**
+   * Testing a step without an action for every game.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testMissingActions() {
+    env.step(new int[7]);
+  }
+
+  /**
+   * Testing an action that does not exist.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testUnknownAction() {
+    int[] actions = new int[8];
+    actions[3] = BatchEnvironment.NUM_ACTIONS;
+    env.step(actions);
+  }
+}
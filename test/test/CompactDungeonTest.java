@@ -0,0 +1,225 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.AdventureGame;
+import dungeons.CavePairIndex;
+import dungeons.CompactDungeon;
+import dungeons.CompressedAdjacency;
+import dungeons.Direction;
+import dungeons.Dungeons;
+import dungeons.Game;
+import dungeons.Location;
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import dungeons.SplittableRandomNumberGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the CompactDungeon class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class CompactDungeonTest {
+
+  RandomNumberGenerator rand;
+  Dungeons wrappedDungeon;
+  Dungeons unwrappedDungeon;
+
+  /**
+   * Setting up dungeons.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+    rand.setSeed(42);
+    wrappedDungeon = new CompactDungeon(6, 7, 4, true, 30, 2, rand);
+    unwrappedDungeon = new CompactDungeon(6, 7, 4, false, 30, 2, rand);
+  }
+
+  /**
+   * Test for invalid arguments while creating a dungeon.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRows() {
+    new CompactDungeon(0, 7, 4, true, 30, 2, rand);
+  }
+
+  /**
+   * Test for a dungeon too large to index.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLargeDungeon() {
+    new CompactDungeon(100000, 100000, 4, true, 30, 2, rand);
+  }
+
+  /**
+   * Test that the dungeon is a spanning tree plus the interconnectivity.
+   */
+  @Test
+  public void testConnections() {
+    for (Dungeons d : new Dungeons[] {wrappedDungeon, unwrappedDungeon}) {
+      CompressedAdjacency adjacency = d.getCompressedAdjacency();
+      assertEquals(42, adjacency.getNumberOfLocations());
+      assertEquals(2 * (41 + 4), adjacency.getOffset(42));
+
+      // Every location is reachable from location 0
+      boolean[] seen = new boolean[42];
+      List<Integer> queue = new ArrayList<>();
+      queue.add(0);
+      seen[0] = true;
+      for (int i = 0; i < queue.size(); i++) {
+        int curr = queue.get(i);
+        for (int k = 0; k < adjacency.getDegree(curr); k++) {
+          int next = adjacency.getNeighbor(curr, k);
+          if (!seen[next]) {
+            seen[next] = true;
+            queue.add(next);
+          }
+        }
+      }
+      assertEquals(42, queue.size());
+    }
+  }
+
+  /**
+   * Test that caves and tunnels are classified by their entrances.
+   */
+  @Test
+  public void testCavesAndTunnels() {
+    assertEquals(42, wrappedDungeon.getCaves().size() + wrappedDungeon.getTunnels().size());
+    for (Location cave : wrappedDungeon.getCaves()) {
+      assertTrue(cave.getLocationId().startsWith("Cave "));
+      assertTrue(cave.getNeighbors().size() != 2);
+    }
+    for (Location tunnel : wrappedDungeon.getTunnels()) {
+      assertTrue(tunnel.getLocationId().startsWith("Tunnel "));
+      assertEquals(2, tunnel.getNeighbors().size());
+    }
+  }
+
+  /**
+   * Test that location views of the same location are equal and share state.
+   */
+  @Test
+  public void testLocationViews() {
+    Location first = unwrappedDungeon.getAllLocations().get(2).get(3);
+    Location second = unwrappedDungeon.getAllLocations().get(2).get(3);
+    assertEquals(first, second);
+    assertEquals(17, first.getLocationNum());
+    assertEquals(2, first.getPosition()[0]);
+    assertEquals(3, first.getPosition()[1]);
+
+    first.addArrows(3);
+    assertEquals(first.getArrowsInLocation(), second.getArrowsInLocation());
+    second.collectArrows();
+    assertEquals(0, first.getArrowsInLocation());
+
+    for (Map.Entry<Direction, Location> neighbor : first.getNeighbors().entrySet()) {
+      assertTrue(neighbor.getValue().getNeighbors().containsValue(first));
+    }
+  }
+
+  /**
+   * Test that treasures are spread over the required caves only.
+   */
+  @Test
+  public void testTreasures() {
+    int withTreasure = 0;
+    for (Location cave : wrappedDungeon.getCaves()) {
+      if (!"The cave does not have any treasures!".equals(cave.getPresentTreasures())) {
+        withTreasure += 1;
+      }
+    }
+    assertEquals(Math.round(0.3 * wrappedDungeon.getCaves().size()), withTreasure);
+
+    Location tunnel = wrappedDungeon.getTunnels().get(0);
+    assertEquals("The tunnel does not have any treasure to collect!",
+        tunnel.getPresentTreasures());
+  }
+
+  /**
+   * Test that every path between the start and end is long enough and that
+   * the end cave has a monster.
+   */
+  @Test
+  public void testStartAndEnd() {
+    assertNull(wrappedDungeon.getStart());
+    wrappedDungeon.assignStartAndEnd();
+    Location start = wrappedDungeon.getStart();
+    Location end = wrappedDungeon.getEnd();
+    assertTrue(start.getLocationId().startsWith("Cave "));
+    assertTrue(end.getLocationId().startsWith("Cave "));
+    assertTrue(end.getMonster() != null);
+    assertNull(start.getMonster());
+
+    int[] caves = new int[wrappedDungeon.getCaves().size()];
+    int startCave = -1;
+    int endCave = -1;
+    for (int i = 0; i < caves.length; i++) {
+      caves[i] = wrappedDungeon.getCaves().get(i).getLocationNum();
+      if (caves[i] == start.getLocationNum()) {
+        startCave = i;
+      }
+      if (caves[i] == end.getLocationNum()) {
+        endCave = i;
+      }
+    }
+    CavePairIndex pairs = new CavePairIndex(wrappedDungeon.getCompressedAdjacency(), caves, 5);
+    assertTrue(pairs.isValidPair(startCave, endCave));
+  }
+
+  /**
+   * Test that every cave can be picked as the start and as the end cave.
+   * In a fully connected grid every location is a cave and every pair is 
+   * far enough apart, so each of the 16 caves should come up.
+   */
+  @Test
+  public void testEveryCaveCanBeStartAndEnd() {
+    int[] starts = new int[16];
+    int[] ends = new int[16];
+    for (int seed = 0; seed < 400; seed++) {
+      Dungeons dungeon = new CompactDungeon(4, 4, 17, true, 30, 1, 2, 
+          new SplittableRandomNumberGenerator(seed));
+      dungeon.assignStartAndEnd();
+      starts[dungeon.getStart().getLocationNum()] += 1;
+      ends[dungeon.getEnd().getLocationNum()] += 1;
+    }
+    for (int cave = 0; cave < 16; cave++) {
+      assertTrue("Cave " + cave + " never picked as start", starts[cave] > 0);
+      assertTrue("Cave " + cave + " never picked as end", ends[cave] > 0);
+    }
+  }
+
+  /**
+   * Test that a dungeon without caves far enough apart cannot be started.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testNoValidStartAndEnd() {
+    new CompactDungeon(2, 2, 0, false, 30, 1, rand).assignStartAndEnd();
+  }
+
+  /**
+   * Test that an adventure game can be played on a compact dungeon.
+   */
+  @Test
+  public void testGameOnCompactDungeon() {
+    Game game = new AdventureGame(1, unwrappedDungeon, rand);
+    game.setupPlayerOne(1);
+    game.startGame();
+    Location start = unwrappedDungeon.getStart();
+    assertEquals(1, start.getPlayersPresent().size());
+
+    Direction dir = start.getNeighbors().keySet().iterator().next();
+    game.move(dir);
+    assertEquals(0, start.getPlayersPresent().size());
+    assertEquals(1, start.getNeighbors().get(dir).getPlayersPresent().size());
+  }
+}
@@ -0,0 +1,69 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.DisjointSet;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test class for the DisjointSet class used while building the
+ * maze.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class DisjointSetTest {
+
+  DisjointSet sets;
+
+  /**
+   * Setting up the disjoint-set.
+   */
+  @Before
+  public void setup() {
+    sets = new DisjointSet(10);
+  }
+
+  /**
+   * Testing that every element starts in its own set.
+   */
+  @Test
+  public void testConstructor() {
+    assertEquals(10, sets.getNumberOfSets());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, sets.find(i));
+    }
+  }
+
+  /**
+   * Testing that a negative size is not accepted.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    sets = new DisjointSet(-1);
+  }
+
+  /**
+   * Testing merging of sets and rejecting a merge of the same set.
+   */
+  @Test
+  public void testUnion() {
+    assertTrue(sets.union(1, 2));
+    assertTrue(sets.union(3, 4));
+    assertTrue(sets.union(2, 4));
+    assertEquals(false, sets.union(1, 3));
+    assertTrue(sets.isConnected(1, 4));
+    assertEquals(false, sets.isConnected(1, 5));
+    assertEquals(7, sets.getNumberOfSets());
+  }
+
+  /**
+   * Testing that finding an element outside the set is not accepted.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testFindMissingElement() {
+    sets.find(10);
+  }
+}
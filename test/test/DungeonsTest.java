@@ -4,7 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import dungeons.CompressedAdjacency;
 import dungeons.Direction;
+import dungeons.DungeonEdges;
 import dungeons.Dungeons;
 import dungeons.Location;
 import dungeons.MazeDungeon;
@@ -12,6 +14,7 @@ import dungeons.Player;
 import dungeons.Players;
 import dungeons.RandomNumberGenerator;
 import dungeons.RandomNumberGeneratorTest;
+import dungeons.SplittableRandomNumberGenerator;
 import dungeons.Treasure;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -86,6 +89,37 @@ public class DungeonsTest {
     assertEquals(expected, testDug.printDungeonLayout());
   }
   
+  /**
+   * Testing the number and directions of possible connections in the 
+   * wrapped and unwrapped grids.
+   */
+  @Test
+  public void testDungeonEdges() {
+    DungeonEdges unwrapped = DungeonEdges.ofGrid(3, 4, false);
+    assertEquals(3 * 3 + 2 * 4, unwrapped.size());
+    
+    DungeonEdges wrapped = DungeonEdges.ofGrid(3, 4, true);
+    assertEquals(3 * 3 + 2 * 4 + 3 + 4, wrapped.size());
+    
+    Set<String> edges = new HashSet<>();
+    for (int i = 0; i < wrapped.size(); i++) {
+      int from = wrapped.getFrom(i);
+      int to = wrapped.getTo(i);
+      edges.add(Math.min(from, to) + "-" + Math.max(from, to));
+      if (to == from + 1 || to == from - 3) {
+        assertEquals(Direction.EAST, wrapped.getDirectionFrom(i, from));
+        assertEquals(Direction.WEST, wrapped.getDirectionFrom(i, to));
+      } else {
+        assertEquals(Direction.SOUTH, wrapped.getDirectionFrom(i, from));
+        assertEquals(Direction.NORTH, wrapped.getDirectionFrom(i, to));
+      }
+    }
+    // No duplicate connections
+    assertEquals(wrapped.size(), edges.size());
+    assertTrue(edges.contains("0-3"));
+    assertTrue(edges.contains("0-8"));
+  }
+  
   /**
    * Testing invalid row count.
    */
@@ -341,6 +375,66 @@ public class DungeonsTest {
     }
   }
   
+  /**
+   * Test if the compressed adjacency matches the neighbors of each location 
+   * and if the adjacency matrix is built once and cannot be modified.
+   */
+  @Test
+  public void testCompressedAdjacency() {
+    CompressedAdjacency compressed = wrappedDungeon.getCompressedAdjacency();
+    assertEquals(25, compressed.getNumberOfLocations());
+    for (List<Location> row : wrappedDungeon.getAllLocations()) {
+      for (Location loc : row) {
+        int id = loc.getLocationNum();
+        Set<Integer> expected = new HashSet<>();
+        for (Location neighbor : loc.getNeighbors().values()) {
+          expected.add(neighbor.getLocationNum());
+        }
+        Set<Integer> actual = new HashSet<>();
+        for (int k = 0; k < compressed.getDegree(id); k++) {
+          actual.add(compressed.getNeighbor(id, k));
+        }
+        assertEquals(expected, actual);
+      }
+    }
+    
+    List<List<List<Location>>> adjacency = wrappedDungeon.getAllAdjacency();
+    assertTrue(adjacency == wrappedDungeon.getAllAdjacency());
+    assertEquals(5, adjacency.size());
+  }
+  
+  /**
+   * Test that the adjacency matrix cannot be modified.
+   */
+  @Test (expected = UnsupportedOperationException.class)
+  public void testAdjacencyUnmodifiable() {
+    wrappedDungeon.getAllAdjacency().get(0).get(0).clear();
+  }
+  
+  /**
+   * Test that the lookups by location number agree with the locations.
+   */
+  @Test
+  public void testLookupsByLocationNumber() {
+    wrappedDungeon.assignStartAndEnd();
+    List<List<Location>> locations = wrappedDungeon.getAllLocations();
+    for (int i = 0; i < locations.size(); i++) {
+      for (int j = 0; j < locations.get(i).size(); j++) {
+        Location location = locations.get(i).get(j);
+        int id = i * locations.get(i).size() + j;
+        assertEquals(location.getNeighborMask(), wrappedDungeon.getNeighborMask(id));
+        assertEquals(location.getArrowsInLocation(), wrappedDungeon.getArrows(id));
+        assertEquals(location.getMonster(), wrappedDungeon.getMonster(id));
+        for (Treasure treasure : Treasure.values()) {
+          assertEquals(location.getTreasureCount(treasure), 
+              wrappedDungeon.getTreasure(id, treasure));
+        }
+      }
+    }
+    int end = wrappedDungeon.getEnd().getLocationNum();
+    assertEquals(wrappedDungeon.getEnd().getMonster(), wrappedDungeon.getMonster(end));
+  }
+  
   /**
    * Testing reachability for the first corner of 2-D grid. 
    * If at least one location is reachable to all other locations, we can 
@@ -395,6 +489,59 @@ public class DungeonsTest {
     assertEquals(23, unwrappedDungeon.getEnd().getLocationNum());
   }
   
+  /**
+   * Test that every cave can be picked as the start and as the end cave.
+   * In a fully connected grid every location is a cave and every pair is 
+   * far enough apart, so each of the 16 caves should come up.
+   */
+  @Test
+  public void testEveryCaveCanBeStartAndEnd() {
+    int[] starts = new int[16];
+    int[] ends = new int[16];
+    for (int seed = 0; seed < 400; seed++) {
+      Dungeons dungeon = new MazeDungeon(4, 4, 17, true, 30, 1, 2, 
+          new SplittableRandomNumberGenerator(seed));
+      dungeon.assignStartAndEnd();
+      starts[dungeon.getStart().getLocationNum()] += 1;
+      ends[dungeon.getEnd().getLocationNum()] += 1;
+    }
+    for (int cave = 0; cave < 16; cave++) {
+      assertTrue("Cave " + cave + " never picked as start", starts[cave] > 0);
+      assertTrue("Cave " + cave + " never picked as end", ends[cave] > 0);
+    }
+  }
+  
+  /**
+   * Testing that assigning start and end fails fast when no two caves are 
+   * far enough apart.
+   */
+  @Test (expected = IllegalStateException.class)
+  public void testNoValidStartAndEnd() {
+    rand = new RandomNumberGeneratorTest(0, 1, 2, 3);
+    unwrappedDungeon = new MazeDungeon(2, 2, 0, false, 30, 1, rand);
+    unwrappedDungeon.assignStartAndEnd();
+  }
+  
+  /**
+   * Testing a custom minimum path length between start and end caves.
+   */
+  @Test
+  public void testCustomMinimumPathLength() {
+    rand = new RandomNumberGeneratorTest(0, 1, 2, 3);
+    unwrappedDungeon = new MazeDungeon(2, 2, 0, false, 30, 1, 2, rand);
+    unwrappedDungeon.assignStartAndEnd();
+    assertTrue(unwrappedDungeon.getStart() != unwrappedDungeon.getEnd());
+    assertEquals("Otyugh 1", unwrappedDungeon.getEnd().getMonster().getMonsterId());
+  }
+  
+  /**
+   * Testing that a minimum path length under 2 is not accepted.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testInvalidMinimumPathLength() {
+    unwrappedDungeon = new MazeDungeon(5, 5, 0, false, 30, 1, 1, rand);
+  }
+  
   /**
    * Testing it the start and end locations are of type cave.
    */
@@ -0,0 +1,133 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.CompactDungeon;
+import dungeons.CompressedAdjacency;
+import dungeons.Direction;
+import dungeons.Dungeons;
+import dungeons.EllerDungeonGenerator;
+import dungeons.Location;
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the EllerDungeonGenerator class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class EllerDungeonGeneratorTest {
+
+  RandomNumberGenerator rand;
+
+  /**
+   * Setting up the random number generator.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+    rand.setSeed(7);
+  }
+
+  /**
+   * Test for invalid arguments while creating a generator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidColumns() {
+    new EllerDungeonGenerator(5, 0, 2, false, rand);
+  }
+
+  /**
+   * Test that the generated dungeon is a spanning tree plus exactly the
+   * interconnectivity, both wrapped and unwrapped.
+   */
+  @Test
+  public void testConnections() {
+    for (boolean wrapped : new boolean[] {false, true}) {
+      for (int interconn : new int[] {0, 3, 1000}) {
+        EllerDungeonGenerator generator = new EllerDungeonGenerator(9, 6, interconn,
+            wrapped, rand);
+        Dungeons dungeon = new CompactDungeon(generator, 30, 1, 5, rand);
+        CompressedAdjacency adjacency = dungeon.getCompressedAdjacency();
+        int possible = wrapped ? 2 * 54 : 9 * 5 + 8 * 6;
+        int extra = Math.min(interconn, possible - 53);
+        assertEquals(2 * (53 + extra), adjacency.getOffset(54));
+
+        boolean[] seen = new boolean[54];
+        List<Integer> queue = new ArrayList<>();
+        queue.add(0);
+        seen[0] = true;
+        for (int i = 0; i < queue.size(); i++) {
+          int curr = queue.get(i);
+          for (int k = 0; k < adjacency.getDegree(curr); k++) {
+            int next = adjacency.getNeighbor(curr, k);
+            if (!seen[next]) {
+              seen[next] = true;
+              queue.add(next);
+            }
+          }
+        }
+        assertEquals(54, queue.size());
+      }
+    }
+  }
+
+  /**
+   * Test that the streamed rows agree with each other and mark the caves.
+   */
+  @Test
+  public void testRowsAgree() {
+    EllerDungeonGenerator generator = new EllerDungeonGenerator(12, 5, 4, true, rand);
+    byte[][] rows = new byte[12][];
+    generator.generate((row, cells) -> rows[(int) row] = cells.clone());
+    int south = 1 << Direction.SOUTH.ordinal();
+    int north = 1 << Direction.NORTH.ordinal();
+    int east = 1 << Direction.EAST.ordinal();
+    int west = 1 << Direction.WEST.ordinal();
+    for (int r = 0; r < 12; r++) {
+      for (int c = 0; c < 5; c++) {
+        byte cell = rows[r][c];
+        assertEquals((cell & south) != 0, (rows[(r + 1) % 12][c] & north) != 0);
+        assertEquals((cell & east) != 0, (rows[r][(c + 1) % 5] & west) != 0);
+        assertEquals(Integer.bitCount(cell & 0xF) != 2, (cell & (1 << 4)) != 0);
+      }
+    }
+  }
+
+  /**
+   * Test that caves and tunnels of a streamed dungeon follow the entrances.
+   */
+  @Test
+  public void testCavesAndTunnels() {
+    Dungeons dungeon = new CompactDungeon(new EllerDungeonGenerator(8, 8, 2, false, rand),
+        30, 1, 5, rand);
+    for (Location cave : dungeon.getCaves()) {
+      assertTrue(cave.getNeighbors().size() != 2);
+    }
+    for (Location tunnel : dungeon.getTunnels()) {
+      assertEquals(2, tunnel.getNeighbors().size());
+    }
+    dungeon.assignStartAndEnd();
+    assertTrue(dungeon.getEnd().getMonster() != null);
+  }
+
+  /**
+   * Test that the rows can be written to a stream, one byte per location.
+   *
+   * @throws IOException if writing fails
+   */
+  @Test
+  public void testWriteTo() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new EllerDungeonGenerator(20000, 7, 10, true, rand).writeTo(out);
+    assertEquals(20000 * 7, out.size());
+  }
+}
@@ -0,0 +1,107 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.AdventureGame;
+import dungeons.Direction;
+import dungeons.GameEvent;
+import dungeons.GameEventType;
+import dungeons.GameListener;
+import dungeons.Location;
+import dungeons.RandomNumberGeneratorTest;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the change events published by the AdventureGame.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class GameEventTest {
+
+  AdventureGame game;
+  List<GameEvent> events;
+  GameListener listener;
+
+  /**
+   * Setting up a started game and a listener recording its events.
+   */
+  @Before
+  public void setup() {
+    game = new AdventureGame(1, 5, 5, 3, true, 40.5, 3,
+        new RandomNumberGeneratorTest(0, 10, 2, 3, 5, 6, 8));
+    game.setupPlayerOne(3);
+    game.startGame();
+    events = new ArrayList<>();
+    listener = events::add;
+    game.addGameListener(listener);
+  }
+
+  /**
+   * Test that a move reports where the player came from and went to.
+   */
+  @Test
+  public void testPlayerMoved() {
+    Location start = game.getPlayerOne().getCurrentLocation();
+    Direction away = start.getNeighbors().keySet().iterator().next();
+    int[] from = start.getPosition();
+    int[] to = start.getNeighbors().get(away).getPosition();
+    game.move(away);
+
+    GameEvent moved = events.get(0);
+    assertEquals(GameEventType.PLAYER_MOVED, moved.getType());
+    assertEquals(1, moved.getPlayer());
+    assertEquals(to[0], moved.getRow());
+    assertEquals(to[1], moved.getColumn());
+    assertEquals(from[0], moved.getFromRow());
+    assertEquals(from[1], moved.getFromColumn());
+    for (GameEvent event : events) {
+      assertTrue(event.getType() != GameEventType.TURN_CHANGED);
+    }
+  }
+
+  /**
+   * Test that shooting reports the shot from the player's location.
+   */
+  @Test
+  public void testArrowShot() {
+    int[] here = game.getPlayerOne().getCurrentLocation().getPosition();
+    game.shootArrow(Direction.NORTH, 1);
+
+    GameEvent shot = events.get(0);
+    assertEquals(GameEventType.ARROW_SHOT, shot.getType());
+    assertEquals(here[0], shot.getRow());
+    assertEquals(here[1], shot.getColumn());
+  }
+
+  /**
+   * Test that a removed listener is not notified.
+   */
+  @Test
+  public void testRemoveListener() {
+    game.removeGameListener(listener);
+    game.removeGameListener(listener);
+    game.shootArrow(Direction.NORTH, 1);
+    assertEquals(0, events.size());
+  }
+
+  /**
+   * Testing a null listener.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testNullListener() {
+    game.addGameListener(null);
+  }
+
+  /**
+   * Testing an event without a type.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testEventWithoutType() {
+    new GameEvent(null, 1, 0, 0, 0, 0);
+  }
+}
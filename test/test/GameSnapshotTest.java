@@ -0,0 +1,210 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import dungeons.AdventureGame;
+import dungeons.CompactDungeon;
+import dungeons.Direction;
+import dungeons.Game;
+import dungeons.GameSnapshot;
+import dungeons.RandomNumberGeneratorTest;
+import dungeons.SplittableRandomNumberGenerator;
+import dungeons.Treasure;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the snapshots and copies of the AdventureGame.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class GameSnapshotTest {
+
+  AdventureGame game;
+  AdventureGame compactGame;
+
+  /**
+   * Setting up a started game in a MazeDungeon and one in a CompactDungeon.
+   */
+  @Before
+  public void setup() {
+    game = new AdventureGame(2, 5, 5, 3, true, 40.5, 3,
+        new RandomNumberGeneratorTest(0, 10, 2, 3, 5, 6, 8));
+    game.setupPlayerOne(1);
+    game.setupPlayerTwo(2);
+    game.startGame();
+
+    compactGame = new AdventureGame(1,
+        new CompactDungeon(12, 12, 8, true, 50, 6, new SplittableRandomNumberGenerator(3)),
+        new SplittableRandomNumberGenerator(7));
+    compactGame.setupPlayerOne(1);
+    compactGame.startGame();
+  }
+
+  /**
+   * Test that a copy of a game in a MazeDungeon starts in the same state.
+   */
+  @Test
+  public void testCopyMatchesGame() {
+    game.pickUpArrows();
+    game.move(firstExit(game));
+    assertSameState(game, game.copy());
+  }
+
+  /**
+   * Test that a copy of a game in a CompactDungeon starts in the same state.
+   */
+  @Test
+  public void testCopyMatchesCompactGame() {
+    compactGame.shootArrow(Direction.NORTH, 1);
+    compactGame.move(firstExit(compactGame));
+    assertSameState(compactGame, compactGame.copy());
+  }
+
+  /**
+   * Test that playing a copy does not change the game, and playing the game
+   * does not change the copy.
+   */
+  @Test
+  public void testCopyIsIndependent() {
+    Game copy = game.copy();
+    int row = game.getPlayerRow(1);
+    int col = game.getPlayerColumn(1);
+    int arrows = game.getPlayerOne().getArrowsInHand();
+
+    copy.move(firstExit(copy));
+    copy.shootArrow(Direction.EAST, 1);
+    assertEquals(row, game.getPlayerRow(1));
+    assertEquals(col, game.getPlayerColumn(1));
+    assertEquals(arrows, game.getPlayerOne().getArrowsInHand());
+    assertEquals(1, game.getTurn() == game.getPlayerOne() ? 1 : 2);
+    assertFalse(copy.getVisitedCells(1).equals(game.getVisitedCells(1)));
+
+    game.shootArrow(Direction.WEST, 1);
+    assertEquals(arrows, copy.getPlayerOne().getArrowsInHand());
+    assertEquals(arrows - 1, copy.getPlayerTwo().getArrowsInHand());
+  }
+
+  /**
+   * Test that a snapshot keeps the state it was taken in while the game goes
+   * on, and that every game created from it is a fresh copy.
+   */
+  @Test
+  public void testSnapshotKeepsState() {
+    Game before = compactGame.copy();
+    GameSnapshot snapshot = compactGame.snapshot();
+    compactGame.pickUpArrows();
+    compactGame.move(firstExit(compactGame));
+
+    Game first = snapshot.toGame(new SplittableRandomNumberGenerator(1));
+    first.move(firstExit(first));
+    Game second = snapshot.toGame(new SplittableRandomNumberGenerator(1));
+    assertSameState(before, second);
+    assertFalse(first.getVisitedCells(1).equals(second.getVisitedCells(1)));
+  }
+
+  /**
+   * Test that a copy with an equal random number generator plays the same
+   * game as the original.
+   */
+  @Test
+  public void testCopyPlaysLikeGame() {
+    Game copy = compactGame.snapshot().toGame(new SplittableRandomNumberGenerator(7));
+    Random moves = new Random(11);
+    for (int i = 0; i < 200 && !compactGame.isGameOver(); i++) {
+      if (moves.nextInt(5) == 0) {
+        Direction towards = Direction.values()[moves.nextInt(4)];
+        int distance = 1 + moves.nextInt(2);
+        assertEquals(compactGame.shootArrow(towards, distance),
+            copy.shootArrow(towards, distance));
+      } else {
+        Direction towards = randomExit(compactGame, moves);
+        assertEquals(compactGame.move(towards), copy.move(towards));
+        compactGame.pickUpArrows();
+        copy.pickUpArrows();
+        assertEquals(compactGame.pickUpTreasures(Arrays.asList(Treasure.values())),
+            copy.pickUpTreasures(Arrays.asList(Treasure.values())));
+      }
+      assertSameState(compactGame, copy);
+    }
+  }
+
+  /**
+   * Test that a game cannot be copied before it starts.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testSnapshotBeforeStart() {
+    AdventureGame notStarted = new AdventureGame(1, 5, 5, 3, true, 40.5, 3,
+        new RandomNumberGeneratorTest(0, 10, 2, 3, 5, 6, 8));
+    notStarted.setupPlayerOne(1);
+    notStarted.snapshot();
+  }
+
+  /**
+   * Test that a game cannot be created from a snapshot without a random
+   * number generator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSnapshotWithoutRandom() {
+    game.snapshot().toGame(null);
+  }
+
+  private Direction firstExit(Game g) {
+    int mask = g.getNeighborMask(g.getPlayerRow(1), g.getPlayerColumn(1));
+    return Direction.values()[Integer.numberOfTrailingZeros(mask)];
+  }
+
+  private Direction randomExit(Game g, Random moves) {
+    int player = g.getTurn() == g.getPlayerOne() ? 1 : 2;
+    int mask = g.getNeighborMask(g.getPlayerRow(player), g.getPlayerColumn(player));
+    while (true) {
+      int towards = moves.nextInt(4);
+      if ((mask & (1 << towards)) != 0) {
+        return Direction.values()[towards];
+      }
+    }
+  }
+
+  private void assertSameState(Game expected, Game actual) {
+    assertEquals(expected.getNumberOfPlayers(), actual.getNumberOfPlayers());
+    assertEquals(expected.getGameStatus(), actual.getGameStatus());
+    assertEquals(expected.isGameOver(), actual.isGameOver());
+    assertEquals(expected.getGameResult(), actual.getGameResult());
+    assertEquals(expected.getTurn().getPlayerId(), actual.getTurn().getPlayerId());
+    int rows = expected.getDungeon().size();
+    int cols = expected.getDungeon().get(0).size();
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        String cell = "(" + row + ", " + col + ")";
+        assertEquals(cell, expected.getNeighborMask(row, col), actual.getNeighborMask(row, col));
+        assertEquals(cell, expected.getArrowCount(row, col), actual.getArrowCount(row, col));
+        assertEquals(cell, expected.hasMonster(row, col), actual.hasMonster(row, col));
+        assertEquals(cell, expected.getSmellLevel(row, col), actual.getSmellLevel(row, col));
+        assertEquals(cell, expected.isVisited(row, col), actual.isVisited(row, col));
+        assertEquals(cell, expected.getDungeon().get(row).get(col).getLocationId(),
+            actual.getDungeon().get(row).get(col).getLocationId());
+        for (Treasure treasure : Treasure.values()) {
+          assertEquals(cell, expected.getTreasureCount(row, col, treasure),
+              actual.getTreasureCount(row, col, treasure));
+        }
+      }
+    }
+    for (int player = 1; player <= expected.getNumberOfPlayers(); player++) {
+      assertEquals(expected.getPlayerRow(player), actual.getPlayerRow(player));
+      assertEquals(expected.getPlayerColumn(player), actual.getPlayerColumn(player));
+      assertEquals(expected.getVisitedCells(player), actual.getVisitedCells(player));
+    }
+    assertEquals(expected.getPlayerOne().getPlayerDescription(),
+        actual.getPlayerOne().getPlayerDescription());
+    assertEquals(expected.getPlayerOne().getCurrentLocationDetails(),
+        actual.getPlayerOne().getCurrentLocationDetails());
+    if (expected.getNumberOfPlayers() == 2) {
+      assertEquals(expected.getPlayerTwo().getPlayerDescription(),
+          actual.getPlayerTwo().getPlayerDescription());
+    }
+  }
+}
@@ -2,11 +2,13 @@ package test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import dungeons.AdventureGame;
 import dungeons.Direction;
 import dungeons.Dungeons;
 import dungeons.Game;
+import dungeons.Location;
 import dungeons.MazeDungeon;
 import dungeons.Player;
 import dungeons.RandomNumberGenerator;
@@ -14,6 +16,7 @@ import dungeons.RandomNumberGeneratorDev;
 import dungeons.RandomNumberGeneratorTest;
 import dungeons.Treasure;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -888,4 +891,133 @@ public class GameTest {
     String expected = "Monster hurt: Player 8 escaped this time by luck, move quick!";
     assertEquals(expected, unwrappedMazeGame.move(Direction.EAST));
   }
+  
+  /**
+   * Test that the typed queries agree with the locations of the dungeon.
+   */
+  @Test
+  public void testTypedQueries() {
+    wrappedMazeGame.setupPlayerOne(3);
+    wrappedMazeGame.startGame();
+    List<List<Location>> dungeon = wrappedMazeGame.getDungeon();
+    for (int i = 0; i < dungeon.size(); i++) {
+      for (int j = 0; j < dungeon.get(i).size(); j++) {
+        Location location = dungeon.get(i).get(j);
+        int mask = 0;
+        for (Direction dir : location.getNeighbors().keySet()) {
+          mask |= 1 << dir.ordinal();
+        }
+        assertEquals(mask, wrappedMazeGame.getNeighborMask(i, j));
+        assertEquals(location.getArrowsInLocation(), wrappedMazeGame.getArrowCount(i, j));
+        assertEquals(location.getMonster() != null, wrappedMazeGame.hasMonster(i, j));
+        assertEquals(location.getSmellLevel(), wrappedMazeGame.getSmellLevel(i, j));
+        int treasures = 0;
+        for (Treasure treasure : Treasure.values()) {
+          assertEquals(location.getTreasureCount(treasure), 
+              wrappedMazeGame.getTreasureCount(i, j, treasure));
+          treasures += wrappedMazeGame.getTreasureCount(i, j, treasure);
+        }
+        assertEquals(treasures == 0, location.getPresentTreasures().contains("does not have"));
+      }
+    }
+    int[] position = wrappedMazeGame.getPlayerOne().getCurrentLocation().getPosition();
+    assertEquals(position[0], wrappedMazeGame.getPlayerRow(1));
+    assertEquals(position[1], wrappedMazeGame.getPlayerColumn(1));
+  }
+  
+  /**
+   * Test that the typed player position follows the moves of the player.
+   */
+  @Test
+  public void testPlayerPositionFollowsMoves() {
+    wrappedMazeGame.setupPlayerOne(3);
+    wrappedMazeGame.startGame();
+    for (int turn = 0; turn < 4 && !wrappedMazeGame.isGameOver(); turn++) {
+      Location here = wrappedMazeGame.getPlayerOne().getCurrentLocation();
+      wrappedMazeGame.move(here.getNeighbors().keySet().iterator().next());
+      int[] position = wrappedMazeGame.getPlayerOne().getCurrentLocation().getPosition();
+      assertEquals(position[0], wrappedMazeGame.getPlayerRow(1));
+      assertEquals(position[1], wrappedMazeGame.getPlayerColumn(1));
+    }
+  }
+  
+  /**
+   * Testing a typed query outside the dungeon.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testTypedQueryOutsideDungeon() {
+    wrappedMazeGame.getArrowCount(5, 0);
+  }
+  
+  /**
+   * Testing a player position query for a player that is not playing.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testTypedQueryMissingPlayer() {
+    wrappedMazeGame.setupPlayerOne(3);
+    wrappedMazeGame.startGame();
+    wrappedMazeGame.getPlayerRow(2);
+  }
+  
+  /**
+   * Test that visited locations are tracked once each, per player.
+   */
+  @Test
+  public void testVisitedCells() {
+    wrappedMazeGame.setupPlayerOne(3);
+    wrappedMazeGame.startGame();
+    Location start = wrappedMazeGame.getPlayerOne().getCurrentLocation();
+    int[] position = start.getPosition();
+    assertTrue(wrappedMazeGame.isVisited(position[0], position[1]));
+    assertEquals(1, wrappedMazeGame.getVisitedCells(1).cardinality());
+    assertEquals(1, wrappedMazeGame.getVisitedLocations().size());
+    assertEquals(start.getLocationId(), wrappedMazeGame.getVisitedLocations().get(0));
+    
+    Direction away = start.getNeighbors().keySet().iterator().next();
+    Location next = start.getNeighbors().get(away);
+    for (int i = 0; i < 3 && !wrappedMazeGame.isGameOver(); i++) {
+      wrappedMazeGame.move(away);
+      if (!wrappedMazeGame.isGameOver()) {
+        wrappedMazeGame.move(oppositeOf(away));
+      }
+    }
+    int[] nextPosition = next.getPosition();
+    assertTrue(wrappedMazeGame.isVisited(nextPosition[0], nextPosition[1]));
+    BitSet cells = wrappedMazeGame.getVisitedCells(1);
+    assertEquals(2, cells.cardinality());
+    assertTrue(cells.get(nextPosition[0] * 5 + nextPosition[1]));
+    assertEquals(2, wrappedMazeGame.getVisitedLocations().size());
+    
+    cells.clear();
+    assertEquals(2, wrappedMazeGame.getVisitedCells(1).cardinality());
+  }
+  
+  /**
+   * Testing a visited check outside the dungeon.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testVisitedOutsideDungeon() {
+    wrappedMazeGame.setupPlayerOne(3);
+    wrappedMazeGame.startGame();
+    wrappedMazeGame.isVisited(0, 5);
+  }
+  
+  /**
+   * Get the opposite of a direction.
+   * 
+   * @param dir direction
+   * @return opposite direction
+   */
+  private Direction oppositeOf(Direction dir) {
+    switch (dir) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
 }
@@ -2,9 +2,13 @@ package test;
 
 import dungeons.Direction;
 import dungeons.Game;
+import dungeons.GameListener;
+import dungeons.GameSnapshot;
 import dungeons.Location;
 import dungeons.Players;
+import dungeons.SmellLevel;
 import dungeons.Treasure;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -145,6 +149,60 @@ public class MockModel implements Game {
     return null;
   }
 
+  @Override
+  public boolean isVisited(int row, int col) {
+    this.log.add("isVisited() called.");
+    return false;
+  }
+
+  @Override
+  public BitSet getVisitedCells(int player) {
+    this.log.add("getVisitedCells() called.");
+    return null;
+  }
+
+  @Override
+  public int getNeighborMask(int row, int col) {
+    this.log.add("getNeighborMask() called.");
+    return 0;
+  }
+
+  @Override
+  public int getTreasureCount(int row, int col, Treasure treasure) {
+    this.log.add("getTreasureCount() called.");
+    return 0;
+  }
+
+  @Override
+  public int getArrowCount(int row, int col) {
+    this.log.add("getArrowCount() called.");
+    return 0;
+  }
+
+  @Override
+  public boolean hasMonster(int row, int col) {
+    this.log.add("hasMonster() called.");
+    return false;
+  }
+
+  @Override
+  public SmellLevel getSmellLevel(int row, int col) {
+    this.log.add("getSmellLevel() called.");
+    return null;
+  }
+
+  @Override
+  public int getPlayerRow(int player) {
+    this.log.add("getPlayerRow() called.");
+    return 0;
+  }
+
+  @Override
+  public int getPlayerColumn(int player) {
+    this.log.add("getPlayerColumn() called.");
+    return 0;
+  }
+
   @Override
   public void setupPlayerOne(int id) {
     this.log.add("setupPlayerOne() called.");
@@ -189,4 +247,32 @@ public class MockModel implements Game {
     return null;
   }
 
+
+  @Override
+  public void addGameListener(GameListener listener) {
+    this.log.add("addGameListener() called.");
+  }
+
+  @Override
+  public void removeGameListener(GameListener listener) {
+    this.log.add("removeGameListener() called.");
+  }
+
+  @Override
+  public GameSnapshot snapshot() {
+    this.log.add("snapshot() called.");
+    return null;
+  }
+
+  @Override
+  public long getStateHash() {
+    this.log.add("getStateHash() called.");
+    return 0;
+  }
+
+  @Override
+  public Game copy() {
+    this.log.add("copy() called.");
+    return null;
+  }
 }
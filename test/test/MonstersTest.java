@@ -56,4 +56,16 @@ public class MonstersTest {
     expected = "Otyugh 25 is dead!!";
     assertEquals(expected, terror.getStatus());
   }
+  
+  /**
+   * Testing that the Otyugh health starts at 100 and each hit takes 50.
+   */
+  @Test
+  public void testGetHealth() {
+    assertEquals(100, terror.getHealth());
+    terror.hit();
+    assertEquals(50, terror.getHealth());
+    terror.hit();
+    assertEquals(0, terror.getHealth());
+  }
 }
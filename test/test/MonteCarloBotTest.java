@@ -0,0 +1,174 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.AdventureGame;
+import dungeons.CompactDungeon;
+import dungeons.Direction;
+import dungeons.Game;
+import dungeons.GameBot;
+import dungeons.Location;
+import dungeons.MonteCarloBot;
+import dungeons.RandomWalkBot;
+import dungeons.SearchReport;
+import dungeons.SplittableRandomNumberGenerator;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the Monte Carlo tree search bot.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class MonteCarloBotTest {
+
+  AdventureGame game;
+
+  /**
+   * Setting up a started game in a CompactDungeon.
+   */
+  @Before
+  public void setup() {
+    game = new AdventureGame(1,
+        new CompactDungeon(8, 8, 6, true, 50, 4, new SplittableRandomNumberGenerator(5)),
+        new SplittableRandomNumberGenerator(9));
+    game.setupPlayerOne(1);
+    game.startGame();
+  }
+
+  /**
+   * Test that a search stops at the playout limit and does not change the
+   * game.
+   */
+  @Test
+  public void testSearchKeepsGame() {
+    int row = game.getPlayerRow(1);
+    int col = game.getPlayerColumn(1);
+    SearchReport report = new MonteCarloBot(10000, 200, 1, 10)
+        .search(game, new SplittableRandomNumberGenerator(1));
+
+    assertEquals(200, report.getPlayouts());
+    assertEquals(row, game.getPlayerRow(1));
+    assertEquals(col, game.getPlayerColumn(1));
+    assertEquals(3, game.getPlayerOne().getArrowsInHand());
+    assertEquals(1, game.getVisitedLocations().size());
+    assertTrue(report.getTreeSize() > report.getChoices());
+    assertTrue(report.getVisitShare() > 0 && report.getVisitShare() <= 1);
+    assertTrue(report.getValue() >= 0 && report.getValue() <= 1);
+    assertTrue(report.getPlayoutsPerSecond() > 0);
+  }
+
+  /**
+   * Test that a search on one thread with a playout limit is repeatable.
+   */
+  @Test
+  public void testSingleThreadIsRepeatable() {
+    MonteCarloBot bot = new MonteCarloBot(10000, 300, 1, 10);
+    SearchReport first = bot.search(game, new SplittableRandomNumberGenerator(4));
+    SearchReport second = bot.search(game, new SplittableRandomNumberGenerator(4));
+
+    assertEquals(first.getDirection(), second.getDirection());
+    assertEquals(first.getDistance(), second.getDistance());
+    assertEquals(first.getTreeSize(), second.getTreeSize());
+    assertEquals(first.getValue(), second.getValue(), 1e-9);
+  }
+
+  /**
+   * Test that several threads share the playout limit of one tree.
+   */
+  @Test
+  public void testThreadsShareTree() {
+    SearchReport report = new MonteCarloBot(10000, 500, 3, 10)
+        .search(game, new SplittableRandomNumberGenerator(2));
+
+    assertEquals(500, report.getPlayouts());
+    assertEquals(3, report.getThreads());
+    assertTrue(report.getTreeSize() <= 501);
+    assertTrue(report.getVisitShare() <= 1);
+  }
+
+  /**
+   * Test that a search respects its time budget.
+   */
+  @Test
+  public void testTimeBudget() {
+    SearchReport report = new MonteCarloBot(50, 2)
+        .search(game, new SplittableRandomNumberGenerator(3));
+
+    assertTrue(report.getPlayouts() > 0);
+    assertTrue(report.getElapsedNanos() < 1_000_000_000L);
+  }
+
+  /**
+   * Test that the bot never walks into an Otyugh standing strong, which is
+   * a certain death.
+   */
+  @Test
+  public void testAvoidsHealthyMonsters() {
+    MonteCarloBot bot = new MonteCarloBot(10000, 300, 1, 10);
+    SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(6);
+    for (int turn = 0; turn < 40 && !game.isGameOver(); turn++) {
+      Location here = game.getPlayerOne().getCurrentLocation();
+      SearchReport report = bot.playMove(game, random);
+      if (!report.isShot()) {
+        Location next = here.getNeighbors().get(report.getDirection());
+        assertFalse(next.getMonster() != null && next.getMonster().getStatus()
+            .endsWith("is standing strong."));
+      }
+    }
+  }
+
+  /**
+   * Test that playing a move plays the picked turn.
+   */
+  @Test
+  public void testPlayMove() {
+    Location here = game.getPlayerOne().getCurrentLocation();
+    Map<Direction, Location> neighbors = here.getNeighbors();
+    int arrows = 3 + here.getArrowsInLocation();
+    SearchReport report = new MonteCarloBot(10000, 100, 1, 10)
+        .playMove(game, new SplittableRandomNumberGenerator(8));
+
+    if (report.isShot()) {
+      assertEquals(arrows - 1, game.getPlayerOne().getArrowsInHand());
+    } else {
+      int[] position = neighbors.get(report.getDirection()).getPosition();
+      assertEquals(position[0], game.getPlayerRow(1));
+      assertEquals(position[1], game.getPlayerColumn(1));
+    }
+  }
+
+  /**
+   * Test that a game that is over cannot be searched.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testSearchAfterGameOver() {
+    Game over = game.copy();
+    SplittableRandomNumberGenerator random = new SplittableRandomNumberGenerator(1);
+    GameBot walker = new RandomWalkBot();
+    while (!over.isGameOver()) {
+      walker.playTurn(over, random);
+    }
+    new MonteCarloBot(10000, 20, 1, 0).search(over, random);
+  }
+
+  /**
+   * Test that the time budget must be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new MonteCarloBot(0, 1);
+  }
+
+  /**
+   * Test that the number of threads must be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidThreads() {
+    new MonteCarloBot(10, 0);
+  }
+}
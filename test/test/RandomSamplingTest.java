@@ -0,0 +1,125 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import dungeons.RandomNumberGeneratorTest;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the sampling methods of the RandomNumberGenerator.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class RandomSamplingTest {
+
+  RandomNumberGenerator rand;
+
+  /**
+   * Setting up the random number generator.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+    rand.setSeed(21);
+  }
+
+  /**
+   * Test that unique numbers are distinct and within the range, for small
+   * and full selections.
+   */
+  @Test
+  public void testUniqueRandomNumbers() {
+    for (int length : new int[] {0, 3, 50, 100}) {
+      int[] numbers = rand.getUniqueRandomNumbers(length, 10, 110);
+      assertEquals(length, numbers.length);
+      int[] sorted = numbers.clone();
+      Arrays.sort(sorted);
+      for (int i = 0; i < length; i++) {
+        assertTrue(sorted[i] >= 10 && sorted[i] < 110);
+        assertTrue(i == 0 || sorted[i] != sorted[i - 1]);
+      }
+    }
+    int[] sparse = rand.getUniqueRandomNumbers(5, 0, 1000000);
+    assertEquals(5, Arrays.stream(sparse).distinct().count());
+  }
+
+  /**
+   * Test for more unique numbers than the range holds.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyUniqueRandomNumbers() {
+    rand.getUniqueRandomNumbers(11, 0, 10);
+  }
+
+  /**
+   * Test that a partial shuffle keeps the numbers and only draws the front.
+   */
+  @Test
+  public void testShuffle() {
+    int[] numbers = new int[20];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = i;
+    }
+    rand.shuffle(numbers, 5);
+    int[] sorted = numbers.clone();
+    Arrays.sort(sorted);
+    for (int i = 0; i < sorted.length; i++) {
+      assertEquals(i, sorted[i]);
+    }
+  }
+
+  /**
+   * Test that the same seed gives the same numbers.
+   */
+  @Test
+  public void testReproducible() {
+    int[] first = new int[50];
+    rand.setSeed(3);
+    rand.nextInts(first, -5, 5);
+    int[] firstUnique = rand.getUniqueRandomNumbers(10, 0, 40);
+
+    int[] second = new int[50];
+    rand.setSeed(3);
+    rand.nextInts(second, -5, 5);
+    assertArrayEquals(first, second);
+    assertArrayEquals(firstUnique, rand.getUniqueRandomNumbers(10, 0, 40));
+    for (int number : first) {
+      assertTrue(number >= -5 && number < 5);
+    }
+  }
+
+  /**
+   * Test that the test double follows its pre-defined numbers.
+   */
+  @Test
+  public void testPredefinedNumbers() {
+    RandomNumberGenerator predefined = new RandomNumberGeneratorTest(0, 4, 2, 7);
+    assertArrayEquals(new int[] {0, 4, 2}, predefined.getUniqueRandomNumbers(3, 0, 10));
+    int[] numbers = {5, 6, 7};
+    predefined.shuffle(numbers, 3);
+    assertArrayEquals(new int[] {5, 6, 7}, numbers);
+    predefined.nextInts(numbers, 0, 10);
+    assertArrayEquals(new int[] {0, 0, 0}, numbers);
+  }
+
+  /**
+   * Test that a non-zero pre-defined number keeps the draws of the test
+   * double within their bounds.
+   */
+  @Test
+  public void testPredefinedNumberWithinBounds() {
+    RandomNumberGenerator predefined = new RandomNumberGeneratorTest(2);
+    int[] numbers = {5, 6, 7, 8};
+    predefined.shuffle(numbers, 4);
+    assertArrayEquals(new int[] {7, 8, 6, 5}, numbers);
+    predefined.nextInts(numbers, 0, 2);
+    assertArrayEquals(new int[] {1, 1, 1, 1}, numbers);
+  }
+}
@@ -0,0 +1,176 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.AdventureGame;
+import dungeons.Direction;
+import dungeons.Game;
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import dungeons.RandomTape;
+import dungeons.RecordingRandomNumberGenerator;
+import dungeons.ReplayRandomNumberGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for recording and replaying random numbers.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class RandomTapeTest {
+
+  RandomNumberGenerator rand;
+  RecordingRandomNumberGenerator recording;
+
+  /**
+   * Setting up the recording generator.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+    rand.setSeed(17);
+    recording = new RecordingRandomNumberGenerator(rand);
+  }
+
+  /**
+   * Test that every kind of draw plays back the same, including numbers
+   * far from the lower bound.
+   */
+  @Test
+  public void testReplayDraws() {
+    int single = recording.getRandomNumber(-1000, 1000);
+    int wide = recording.getRandomNumber(Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2);
+    List<Integer> unique = recording.getUniqueRandomNumbersList(10, 5, 50);
+    List<Integer> repeated = recording.getRepeatedRandomNumbersList(10, 0, 3);
+    int[] picked = recording.getUniqueRandomNumbers(20, 0, 100000);
+    int[] filled = new int[30];
+    recording.nextInts(filled, -7, 300);
+    int[] shuffled = new int[40];
+    for (int i = 0; i < shuffled.length; i++) {
+      shuffled[i] = i * 3;
+    }
+    recording.shuffle(shuffled, 25);
+
+    RandomNumberGenerator replay = new ReplayRandomNumberGenerator(
+        new RandomTape(recording.getTape().toByteArray()));
+    assertEquals(single, replay.getRandomNumber(-1000, 1000));
+    assertEquals(wide, replay.getRandomNumber(Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2));
+    assertEquals(unique, replay.getUniqueRandomNumbersList(10, 5, 50));
+    assertEquals(repeated, replay.getRepeatedRandomNumbersList(10, 0, 3));
+    assertArrayEquals(picked, replay.getUniqueRandomNumbers(20, 0, 100000));
+    int[] replayed = new int[30];
+    replay.nextInts(replayed, -7, 300);
+    assertArrayEquals(filled, replayed);
+    int[] reshuffled = new int[40];
+    for (int i = 0; i < reshuffled.length; i++) {
+      reshuffled[i] = i * 3;
+    }
+    replay.shuffle(reshuffled, 25);
+    assertArrayEquals(shuffled, reshuffled);
+  }
+
+  /**
+   * Test that recording does not change the numbers handed out.
+   */
+  @Test
+  public void testRecordingIsTransparent() {
+    int[] expected = new int[50];
+    rand.setSeed(5);
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = i;
+    }
+    rand.shuffle(expected, 50);
+
+    int[] numbers = new int[50];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = i;
+    }
+    recording.setSeed(5);
+    recording.shuffle(numbers, 50);
+    assertArrayEquals(expected, numbers);
+  }
+
+  /**
+   * Test that a whole game session, including the fights, plays back the
+   * same from a saved tape.
+   */
+  @Test
+  public void testReplayGame() throws IOException {
+    List<String> recorded = this.playSession(recording);
+    ByteArrayOutputStream saved = new ByteArrayOutputStream();
+    recording.getTape().writeTo(saved);
+    assertEquals(recording.getTape().size(), saved.size());
+
+    RandomTape tape = RandomTape.readFrom(new ByteArrayInputStream(saved.toByteArray()));
+    List<String> replayed = this.playSession(new ReplayRandomNumberGenerator(tape));
+    assertEquals(recorded, replayed);
+    assertFalse(tape.hasRemaining());
+  }
+
+  /**
+   * Test for a session that draws more numbers than were recorded.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testTapeEnded() {
+    recording.getRandomNumber(0, 10);
+    RandomNumberGenerator replay = new ReplayRandomNumberGenerator(
+        new RandomTape(recording.getTape().toByteArray()));
+    replay.getRandomNumber(0, 10);
+    replay.getRandomNumber(0, 10);
+  }
+
+  /**
+   * Test that small draws take a byte each.
+   */
+  @Test
+  public void testCompactTape() {
+    int[] numbers = new int[1000];
+    recording.nextInts(numbers, 0, 100);
+    assertEquals(1000, recording.getTape().size());
+    assertTrue(new RandomTape().size() == 0);
+  }
+
+  /**
+   * Play a game with the given random numbers, moving and shooting with a
+   * fixed script.
+   *
+   * @param random random number generator of the game
+   * @return everything the game reported
+   */
+  private List<String> playSession(RandomNumberGenerator random) {
+    Random script = new Random(3);
+    List<String> transcript = new ArrayList<>();
+    Game game = new AdventureGame(1, 6, 6, 3, true, 50, 4, random);
+    game.setupPlayerOne(1);
+    game.startGame();
+    transcript.add(game.introducePlayer());
+    for (int turn = 0; turn < 60 && !game.isGameOver(); turn++) {
+      List<Direction> directions = new ArrayList<>();
+      for (Direction direction : Direction.values()) {
+        if (game.getTurn().getCurrentLocation().getNeighbors().containsKey(direction)) {
+          directions.add(direction);
+        }
+      }
+      Direction towards = directions.get(script.nextInt(directions.size()));
+      if (script.nextInt(4) == 0) {
+        transcript.add(game.shootArrow(towards, 1 + script.nextInt(2)));
+      } else {
+        transcript.add(game.move(towards));
+      }
+      transcript.add(game.getPlayerStatus());
+    }
+    transcript.add(game.getGameResult());
+    return transcript;
+  }
+}
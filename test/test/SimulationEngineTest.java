@@ -0,0 +1,84 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.HunterBot;
+import dungeons.RandomWalkBot;
+import dungeons.SimulationEngine;
+import dungeons.SimulationReport;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the SimulationEngine class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class SimulationEngineTest {
+
+  SimulationEngine engine;
+
+  /**
+   * Setting up an engine for small dungeons on a single thread.
+   */
+  @Before
+  public void setup() {
+    engine = new SimulationEngine(1, 6, 6, 3, true, 30, 2, 500, 1);
+  }
+
+  /**
+   * Test that the outcomes of a batch add up.
+   */
+  @Test
+  public void testReport() {
+    SimulationReport report = engine.run(40, new RandomWalkBot(), 5);
+    assertEquals(40, report.getGames());
+    assertEquals(40, report.getWins() + report.getDeaths() + report.getUnfinished());
+    assertTrue(report.getMinTurns() >= 1);
+    assertTrue(report.getMaxTurns() <= 500);
+    assertTrue(report.getTotalTurns() >= 40L * report.getMinTurns());
+    assertEquals(report.getWins() / 40.0, report.getWinRate(), 1e-9);
+    assertTrue(report.getGamesPerSecond() > 0);
+  }
+
+  /**
+   * Test that a batch has the same outcome on any number of threads.
+   */
+  @Test
+  public void testReproducibleAcrossThreads() {
+    SimulationReport single = engine.run(30, new HunterBot(), 11);
+    SimulationReport parallel = new SimulationEngine(1, 6, 6, 3, true, 30, 2, 500, 3)
+        .run(30, new HunterBot(), 11);
+    assertEquals(single.getWins(), parallel.getWins());
+    assertEquals(single.getDeaths(), parallel.getDeaths());
+    assertEquals(single.getTotalTurns(), parallel.getTotalTurns());
+  }
+
+  /**
+   * Test two player games.
+   */
+  @Test
+  public void testTwoPlayers() {
+    SimulationReport report = new SimulationEngine(2, 6, 6, 3, false, 30, 2, 500, 2)
+        .run(20, new HunterBot(), 3);
+    assertEquals(20, report.getWins() + report.getDeaths() + report.getUnfinished());
+  }
+
+  /**
+   * Testing a batch without a bot.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testNullBot() {
+    engine.run(1, null, 1);
+  }
+
+  /**
+   * Testing an engine without threads.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new SimulationEngine(1, 6, 6, 3, true, 30, 2, 500, 0);
+  }
+}
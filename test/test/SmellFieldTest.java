@@ -0,0 +1,144 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import dungeons.CompactDungeon;
+import dungeons.CompressedAdjacency;
+import dungeons.Dungeons;
+import dungeons.Location;
+import dungeons.MazeDungeon;
+import dungeons.Otyugh;
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import dungeons.SmellField;
+import dungeons.SmellLevel;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the SmellField class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class SmellFieldTest {
+
+  RandomNumberGenerator rand;
+  Dungeons mazeDungeon;
+  Dungeons compactDungeon;
+
+  /**
+   * Setting up dungeons with monsters.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+    rand.setSeed(8);
+    mazeDungeon = new MazeDungeon(8, 9, 6, true, 30, 12, rand);
+    mazeDungeon.assignStartAndEnd();
+    compactDungeon = new CompactDungeon(8, 9, 6, false, 30, 12, rand);
+    compactDungeon.assignStartAndEnd();
+  }
+
+  /**
+   * Test that the field agrees with a search from every location.
+   */
+  @Test
+  public void testMatchesSearch() {
+    for (Dungeons dungeon : new Dungeons[] {mazeDungeon, compactDungeon}) {
+      for (int radius : new int[] {2, 1, 4, 2}) {
+        dungeon.getSmellField().setRadius(radius);
+        this.checkAgainstSearch(dungeon, radius);
+      }
+    }
+  }
+
+  /**
+   * Test that adding and removing monsters keeps the field up to date.
+   */
+  @Test
+  public void testIncrementalUpdates() {
+    for (Dungeons dungeon : new Dungeons[] {mazeDungeon, compactDungeon}) {
+      for (Location cave : dungeon.getCaves()) {
+        if (cave.getMonster() != null) {
+          cave.removeMonster(cave.getMonster());
+        }
+      }
+      for (List<Location> row : dungeon.getAllLocations()) {
+        for (Location location : row) {
+          assertEquals(SmellLevel.NONE, location.getSmellLevel());
+        }
+      }
+      Location cave = dungeon.getCaves().get(0);
+      cave.addMonster(new Otyugh(99));
+      assertEquals(SmellLevel.MONSTER, cave.getSmellLevel());
+      this.checkAgainstSearch(dungeon, SmellField.DEFAULT_RADIUS);
+    }
+  }
+
+  /**
+   * Test for an invalid smell radius.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRadius() {
+    mazeDungeon.getSmellField().setRadius(0);
+  }
+
+  /**
+   * Check the smell of every location against a breadth first search up to
+   * the radius.
+   *
+   * @param dungeon dungeon to check
+   * @param radius smell radius
+   */
+  private void checkAgainstSearch(Dungeons dungeon, int radius) {
+    CompressedAdjacency adjacency = dungeon.getCompressedAdjacency();
+    List<List<Location>> locations = dungeon.getAllLocations();
+    int columns = locations.get(0).size();
+    int count = adjacency.getNumberOfLocations();
+    int[] distance = new int[count];
+    int[] queue = new int[count];
+    for (int from = 0; from < count; from++) {
+      Arrays.fill(distance, -1);
+      distance[from] = 0;
+      queue[0] = from;
+      int near = 0;
+      int far = 0;
+      for (int head = 0, tail = 1; head < tail; head++) {
+        int curr = queue[head];
+        if (curr != from && locations.get(curr / columns).get(curr % columns)
+            .getMonster() != null) {
+          if (distance[curr] == 1) {
+            near += 1;
+          } else {
+            far += 1;
+          }
+        }
+        if (distance[curr] == radius) {
+          continue;
+        }
+        for (int k = 0; k < adjacency.getDegree(curr); k++) {
+          int neighbor = adjacency.getNeighbor(curr, k);
+          if (distance[neighbor] < 0) {
+            distance[neighbor] = distance[curr] + 1;
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+      Location location = locations.get(from / columns).get(from % columns);
+      SmellLevel expected = SmellLevel.NONE;
+      if (location.getMonster() != null) {
+        expected = SmellLevel.MONSTER;
+      } else if (near > 0 || far > 1) {
+        expected = SmellLevel.TERRIBLE;
+      } else if (far == 1) {
+        expected = SmellLevel.SLIGHT;
+      }
+      assertEquals(expected, location.getSmellLevel());
+      assertEquals(near, dungeon.getSmellField().getNearbyMonsters(from));
+      assertEquals(far, dungeon.getSmellField().getDistantMonsters(from));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.CompactDungeon;
+import dungeons.Dungeons;
+import dungeons.SplittableRandomNumberGenerator;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the SplittableRandomNumberGenerator class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class SplittableRandomNumberGeneratorTest {
+
+  SplittableRandomNumberGenerator rand;
+
+  /**
+   * Setting up the random number generator.
+   */
+  @Before
+  public void setup() {
+    rand = new SplittableRandomNumberGenerator(99);
+  }
+
+  /**
+   * Test that random numbers stay within the bounds and cover them.
+   */
+  @Test
+  public void testBounds() {
+    int[] seen = new int[7];
+    for (int i = 0; i < 7000; i++) {
+      int number = rand.getRandomNumber(3, 10);
+      assertTrue(number >= 3 && number < 10);
+      seen[number - 3] += 1;
+    }
+    for (int count : seen) {
+      assertTrue(count > 800 && count < 1200);
+    }
+    int wide = rand.getRandomNumber(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    assertTrue(wide < Integer.MAX_VALUE);
+  }
+
+  /**
+   * Test for an empty range.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyRange() {
+    rand.getRandomNumber(5, 5);
+  }
+
+  /**
+   * Test that the same seed gives the same numbers.
+   */
+  @Test
+  public void testReproducible() {
+    int[] first = new int[100];
+    rand.setSeed(4);
+    rand.nextInts(first, 0, 1000);
+    int[] second = new int[100];
+    rand.setSeed(4);
+    rand.nextInts(second, 0, 1000);
+    assertArrayEquals(first, second);
+  }
+
+  /**
+   * Test that children split in the same order from the same root give the
+   * same streams, and that the streams differ from each other.
+   */
+  @Test
+  public void testSplit() {
+    SplittableRandomNumberGenerator root = new SplittableRandomNumberGenerator(1);
+    SplittableRandomNumberGenerator first = root.split();
+    SplittableRandomNumberGenerator second = root.split();
+    SplittableRandomNumberGenerator grandChild = first.split();
+
+    SplittableRandomNumberGenerator replay = new SplittableRandomNumberGenerator(1);
+    SplittableRandomNumberGenerator replayFirst = replay.split();
+    SplittableRandomNumberGenerator replaySecond = replay.split();
+    SplittableRandomNumberGenerator replayGrandChild = replayFirst.split();
+
+    int[][] streams = new int[4][50];
+    int[][] replays = new int[4][50];
+    SplittableRandomNumberGenerator[] generators = {root, first, second, grandChild};
+    SplittableRandomNumberGenerator[] replayed = {replay, replayFirst, replaySecond,
+        replayGrandChild};
+    for (int i = 0; i < 4; i++) {
+      generators[i].nextInts(streams[i], 0, Integer.MAX_VALUE);
+      replayed[i].nextInts(replays[i], 0, Integer.MAX_VALUE);
+      assertArrayEquals(streams[i], replays[i]);
+    }
+    Set<String> distinct = new HashSet<>();
+    for (int[] stream : streams) {
+      distinct.add(Arrays.toString(stream));
+    }
+    assertEquals(4, distinct.size());
+  }
+
+  /**
+   * Test that the unique numbers list has no repeats.
+   */
+  @Test
+  public void testUniqueList() {
+    List<Integer> numbers = rand.getUniqueRandomNumbersList(30, 0, 30);
+    assertEquals(30, new HashSet<>(numbers).size());
+  }
+
+  /**
+   * Test that a dungeon reproduces from a split generator.
+   */
+  @Test
+  public void testDungeonFromSplit() {
+    Dungeons first = new CompactDungeon(12, 12, 3, true, 40, 2,
+        new SplittableRandomNumberGenerator(8).split());
+    Dungeons second = new CompactDungeon(12, 12, 3, true, 40, 2,
+        new SplittableRandomNumberGenerator(8).split());
+    for (int i = 0; i < 12; i++) {
+      for (int j = 0; j < 12; j++) {
+        assertEquals(first.getAllLocations().get(i).get(j).getLocationDetails(),
+            second.getAllLocations().get(i).get(j).getLocationDetails());
+      }
+    }
+  }
+}
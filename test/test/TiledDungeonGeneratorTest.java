@@ -0,0 +1,123 @@
+package test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.CompactDungeon;
+import dungeons.Dungeons;
+import dungeons.RandomNumberGenerator;
+import dungeons.RandomNumberGeneratorDev;
+import dungeons.TiledDungeonGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the TiledDungeonGenerator class.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class TiledDungeonGeneratorTest {
+
+  RandomNumberGenerator rand;
+
+  /**
+   * Setting up the random number generator.
+   */
+  @Before
+  public void setup() {
+    rand = new RandomNumberGeneratorDev();
+  }
+
+  /**
+   * Test for invalid tile size.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTileSize() {
+    new TiledDungeonGenerator(10, 10, 2, false, 0, 2, rand);
+  }
+
+  /**
+   * Test that the same seed gives the same dungeon on any number of threads.
+   */
+  @Test
+  public void testDeterministicAcrossThreads() {
+    rand.setSeed(11);
+    byte[] single = new TiledDungeonGenerator(50, 37, 6, true, 8, 1, rand).generateCells();
+    for (int threads : new int[] {2, 4, 16}) {
+      rand.setSeed(11);
+      assertArrayEquals(single,
+          new TiledDungeonGenerator(50, 37, 6, true, 8, threads, rand).generateCells());
+    }
+  }
+
+  /**
+   * Test that the stitched tiles form a spanning tree plus exactly the
+   * interconnectivity.
+   */
+  @Test
+  public void testConnections() {
+    rand.setSeed(3);
+    for (boolean wrapped : new boolean[] {false, true}) {
+      for (int tile : new int[] {1, 3, 7, 100}) {
+        byte[] cells = new TiledDungeonGenerator(20, 13, 5, wrapped, tile, 3, rand)
+            .generateCells();
+        int entrances = 0;
+        for (byte cell : cells) {
+          entrances += Integer.bitCount(cell & 0xF);
+          assertEquals(Integer.bitCount(cell & 0xF) != 2, (cell & (1 << 4)) != 0);
+        }
+        assertEquals(2 * (259 + 5), entrances);
+        assertEquals(260, this.reachable(cells, 20, 13));
+      }
+    }
+  }
+
+  /**
+   * Test that a compact dungeon can be built from the tiled generator.
+   */
+  @Test
+  public void testCompactDungeon() {
+    rand.setSeed(5);
+    Dungeons dungeon = new CompactDungeon(
+        new TiledDungeonGenerator(30, 30, 4, false, 10, 2, rand), 30, 2, 5, rand);
+    dungeon.assignStartAndEnd();
+    assertTrue(dungeon.getStart().getLocationId().startsWith("Cave "));
+    assertEquals(2 * (899 + 4), dungeon.getCompressedAdjacency().getOffset(900));
+  }
+
+  /**
+   * Count the locations reachable from location 0 following the entrances.
+   *
+   * @param cells locations of the dungeon
+   * @param rows number of rows
+   * @param cols number of columns
+   * @return number of reachable locations
+   */
+  private int reachable(byte[] cells, int rows, int cols) {
+    boolean[] seen = new boolean[cells.length];
+    List<Integer> queue = new ArrayList<>();
+    queue.add(0);
+    seen[0] = true;
+    int[] rowStep = {-1, 1, 0, 0};
+    int[] colStep = {0, 0, 1, -1};
+    for (int i = 0; i < queue.size(); i++) {
+      int curr = queue.get(i);
+      for (int d = 0; d < 4; d++) {
+        if ((cells[curr] & (1 << d)) != 0) {
+          int r = (curr / cols + rowStep[d] + rows) % rows;
+          int c = (curr % cols + colStep[d] + cols) % cols;
+          int next = r * cols + c;
+          if (!seen[next]) {
+            seen[next] = true;
+            queue.add(next);
+          }
+        }
+      }
+    }
+    return queue.size();
+  }
+}
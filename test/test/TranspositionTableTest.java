@@ -0,0 +1,124 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dungeons.TranspositionTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the lock-free TranspositionTable.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class TranspositionTableTest {
+
+  TranspositionTable table;
+
+  /**
+   * Setting up a table of 16 entries.
+   */
+  @Before
+  public void setup() {
+    table = new TranspositionTable(16);
+  }
+
+  /**
+   * Test that stored values are found and other states are missing.
+   */
+  @Test
+  public void testPutAndGet() {
+    table.put(0x1234_5678_9abcL, 42);
+    table.put(-7L, 0);
+
+    assertEquals(42, table.get(0x1234_5678_9abcL, -1));
+    assertEquals(0, table.get(-7L, -1));
+    assertEquals(-1, table.get(0x1234_5678_9abdL, -1));
+    assertEquals(-1, table.get(0, -1));
+  }
+
+  /**
+   * Test that a state replaces the state in its slot.
+   */
+  @Test
+  public void testReplace() {
+    table.put(3, 30);
+    table.put(3 + 16, 190);
+
+    assertEquals(-1, table.get(3, -1));
+    assertEquals(190, table.get(3 + 16, -1));
+
+    table.put(3 + 16, 191);
+    assertEquals(191, table.get(3 + 16, -1));
+  }
+
+  /**
+   * Test that clearing removes every state.
+   */
+  @Test
+  public void testClear() {
+    for (long hash = 1; hash <= 16; hash++) {
+      table.put(hash, hash * 10);
+    }
+    table.clear();
+    for (long hash = 1; hash <= 16; hash++) {
+      assertEquals(-1, table.get(hash, -1));
+    }
+  }
+
+  /**
+   * Test that the capacity is rounded up to a power of 2.
+   */
+  @Test
+  public void testCapacity() {
+    assertEquals(16, table.getCapacity());
+    assertEquals(1, new TranspositionTable(1).getCapacity());
+    assertEquals(1024, new TranspositionTable(1000).getCapacity());
+  }
+
+  /**
+   * Test that threads writing the same slots at once never read a value
+   * stored for another state.
+   *
+   * @throws InterruptedException if the test thread is interrupted
+   */
+  @Test
+  public void testConcurrentWriters() throws InterruptedException {
+    TranspositionTable shared = new TranspositionTable(4);
+    AtomicBoolean wrong = new AtomicBoolean();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      long offset = t;
+      threads.add(new Thread(() -> {
+        for (long i = 0; i < 200_000; i++) {
+          long hash = (i * 4 + offset) * 0x9e3779b97f4a7c15L;
+          shared.put(hash, hash * 31 + 7);
+          long found = shared.get(hash ^ 0x55, Long.MIN_VALUE);
+          if (found != Long.MIN_VALUE && found != (hash ^ 0x55) * 31 + 7) {
+            wrong.set(true);
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(!wrong.get());
+  }
+
+  /**
+   * Test that the capacity must be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCapacity() {
+    new TranspositionTable(0);
+  }
+}
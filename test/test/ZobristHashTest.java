@@ -0,0 +1,183 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import dungeons.AdventureGame;
+import dungeons.CompactDungeon;
+import dungeons.Direction;
+import dungeons.Game;
+import dungeons.GameBot;
+import dungeons.HunterBot;
+import dungeons.Location;
+import dungeons.RandomNumberGeneratorTest;
+import dungeons.SplittableRandomNumberGenerator;
+import dungeons.Treasure;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A JUnit test case for the Zobrist hash of the state of the AdventureGame.
+ *
+ * @author Ashwini Shaktivel Kumar
+ *
+ */
+public class ZobristHashTest {
+
+  AdventureGame game;
+  AdventureGame compactGame;
+
+  /**
+   * Setting up a started two player game in a MazeDungeon and a started
+   * single player game in a CompactDungeon.
+   */
+  @Before
+  public void setup() {
+    game = new AdventureGame(2, 5, 5, 3, true, 40.5, 3,
+        new RandomNumberGeneratorTest(0, 10, 2, 3, 5, 6, 8));
+    game.setupPlayerOne(1);
+    game.setupPlayerTwo(2);
+    game.startGame();
+
+    compactGame = newCompactGame(5);
+  }
+
+  /**
+   * Test that the hash kept up to date turn by turn equals the hash built
+   * from scratch, in a MazeDungeon with two players.
+   */
+  @Test
+  public void testIncrementalHashInMaze() {
+    game.getStateHash();
+    playAndCheck(game, new SplittableRandomNumberGenerator(2), 60);
+  }
+
+  /**
+   * Test that the hash kept up to date turn by turn equals the hash built
+   * from scratch, in a CompactDungeon and in a copy of the game.
+   */
+  @Test
+  public void testIncrementalHashInCompactDungeon() {
+    compactGame.getStateHash();
+    playAndCheck(compactGame, new SplittableRandomNumberGenerator(4), 80);
+
+    Game copy = newCompactGame(5).copy();
+    playAndCheck(copy, new SplittableRandomNumberGenerator(6), 80);
+  }
+
+  /**
+   * Test that equal games have equal hashes and a copy has the hash of its
+   * game.
+   */
+  @Test
+  public void testEqualStatesHashEqual() {
+    assertEquals(newCompactGame(5).getStateHash(), compactGame.getStateHash());
+    assertEquals(compactGame.getStateHash(), compactGame.copy().getStateHash());
+    assertEquals(compactGame.getStateHash(), compactGame.snapshot().getStateHash());
+    assertFalse(newCompactGame(6).getStateHash() == compactGame.getStateHash());
+  }
+
+  /**
+   * Test that moving away and back to a location without picking anything
+   * up gives back the hash of the state before the moves.
+   */
+  @Test
+  public void testMovingBackRestoresHash() {
+    long before = compactGame.getStateHash();
+    Location here = compactGame.getPlayerOne().getCurrentLocation();
+    for (Map.Entry<Direction, Location> exit : here.getNeighbors().entrySet()) {
+      if (exit.getValue().getMonster() == null) {
+        compactGame.move(exit.getKey());
+        assertFalse(before == compactGame.getStateHash());
+        compactGame.move(opposite(exit.getKey()));
+        break;
+      }
+    }
+    assertEquals(before, compactGame.getStateHash());
+  }
+
+  /**
+   * Test that every kind of change of the state changes the hash.
+   */
+  @Test
+  public void testChangesChangeHash() {
+    long start = game.getStateHash();
+    game.move(firstExit(game));
+    long moved = game.getStateHash();
+    assertFalse(start == moved);
+
+    game.shootArrow(Direction.NORTH, 1);
+    long shot = game.getStateHash();
+    assertFalse(moved == shot);
+    assertEquals(game.snapshot().getStateHash(), shot);
+
+    game.pickUpTreasures(Arrays.asList(Treasure.values()));
+    game.pickUpArrows();
+    assertEquals(game.snapshot().getStateHash(), game.getStateHash());
+  }
+
+  /**
+   * Test that a game cannot be hashed before it starts.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testHashBeforeStart() {
+    AdventureGame notStarted = new AdventureGame(1, 4, 4, 0, false, 20, 1,
+        new SplittableRandomNumberGenerator(1));
+    notStarted.setupPlayerOne(1);
+    notStarted.getStateHash();
+  }
+
+  /**
+   * Play turns with the hunter bot, which picks up, moves and shoots, and
+   * check the hash after every turn.
+   *
+   * @param played game to play
+   * @param random random number generator of the bot
+   * @param turns number of turns
+   */
+  private static void playAndCheck(Game played, SplittableRandomNumberGenerator random,
+      int turns) {
+    GameBot bot = new HunterBot();
+    for (int turn = 0; turn < turns && !played.isGameOver(); turn++) {
+      bot.playTurn(played, random);
+      assertEquals(played.snapshot().getStateHash(), played.getStateHash());
+    }
+  }
+
+  /**
+   * Create a started single player game in a CompactDungeon.
+   *
+   * @param seed seed of the dungeon and of the game
+   * @return started game
+   */
+  private static AdventureGame newCompactGame(long seed) {
+    AdventureGame created = new AdventureGame(1,
+        new CompactDungeon(10, 10, 8, true, 60, 4, new SplittableRandomNumberGenerator(seed)),
+        new SplittableRandomNumberGenerator(seed + 1));
+    created.setupPlayerOne(1);
+    created.startGame();
+    return created;
+  }
+
+  /**
+   * Get a direction the current player can move in.
+   *
+   * @param played game being played
+   * @return direction of an exit
+   */
+  private static Direction firstExit(Game played) {
+    return played.getTurn().getCurrentLocation().getNeighbors().keySet().iterator().next();
+  }
+
+  /**
+   * Get the opposite of a direction.
+   *
+   * @param towards direction
+   * @return opposite direction
+   */
+  private static Direction opposite(Direction towards) {
+    return Direction.values()[towards.ordinal() ^ 1];
+  }
+}